@@ -0,0 +1,89 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ts.client.TypeScriptServiceClient;
+import ts.client.completions.CompletionEntry;
+import ts.client.quickinfo.QuickInfo;
+
+/**
+ * Round trip of requests through {@link TypeScriptServiceClient} with a
+ * {@link StubNodejsProcess}: serialization of the request, decoding of the
+ * response with its header (dispatchMessage) and completion of the future.
+ * The response cache is disabled so every request is decoded.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientBenchmark {
+
+	private static final String QUICKINFO_BODY = "{\"kind\":\"method\",\"kindModifiers\":\"declare\","
+			+ "\"start\":{\"line\":10,\"offset\":5},\"end\":{\"line\":10,\"offset\":20},"
+			+ "\"displayString\":\"(method) TextDocument.getText(range?: Range): string\","
+			+ "\"documentation\":\"Get the text of this document.\"}";
+
+	private TypeScriptServiceClient client;
+
+	@Setup
+	public void setup() throws Exception {
+		StubNodejsProcess process = new StubNodejsProcess(Samples.getSamplesDir());
+		process.setResponseBody("quickinfo", QUICKINFO_BODY);
+		process.setResponseBody("completions", createCompletionsBody(Samples.readIdentifiers(Samples.ANGULAR2_D_TS)));
+		client = new TypeScriptServiceClient(process, null);
+		client.getRequestScheduler().getResponseCache().setMaxSize(0);
+	}
+
+	private static String createCompletionsBody(List<String> names) {
+		StringBuilder body = new StringBuilder("[");
+		for (String name : names) {
+			if (body.length() > 1) {
+				body.append(',');
+			}
+			body.append("{\"name\":\"").append(name)
+					.append("\",\"kind\":\"property\",\"kindModifiers\":\"declare\",\"sortText\":\"0\"}");
+		}
+		return body.append(']').toString();
+	}
+
+	@TearDown
+	public void tearDown() {
+		client.dispose();
+	}
+
+	@Benchmark
+	public QuickInfo quickInfo() throws Exception {
+		return client.quickInfo(Samples.VSCODE_D_TS, 10, 5).get();
+	}
+
+	@Benchmark
+	public List<CompletionEntry> completions() throws Exception {
+		return client.completions(Samples.VSCODE_D_TS, 10, 5).get();
+	}
+}
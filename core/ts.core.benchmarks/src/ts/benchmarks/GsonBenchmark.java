@@ -0,0 +1,92 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ts.client.completions.CompletionEntry;
+import ts.client.completions.ICompletionEntryFactory;
+import ts.client.completions.ICompletionEntryMatcherProvider;
+import ts.internal.client.protocol.ChangeRequest;
+import ts.internal.client.protocol.CompletionsRequest;
+import ts.internal.client.protocol.GsonHelper;
+import ts.internal.client.protocol.MessageHeader;
+import ts.internal.client.protocol.QuickInfoRequest;
+import ts.internal.client.protocol.Response;
+
+/**
+ * Serialization of requests and decoding of responses with
+ * {@link GsonHelper#DEFAULT_GSON}.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsonBenchmark {
+
+	private String text;
+	private String completionsResponse;
+
+	@Setup
+	public void setup() throws Exception {
+		// a paste of 4KB
+		text = Samples.read(Samples.VSCODE_D_TS).substring(0, 4096);
+		StringBuilder response = new StringBuilder(
+				"{\"seq\":0,\"type\":\"response\",\"command\":\"completions\",\"request_seq\":1,\"success\":true,\"body\":[");
+		boolean first = true;
+		for (String name : Samples.readIdentifiers(Samples.VSCODE_D_TS)) {
+			if (!first) {
+				response.append(',');
+			}
+			first = false;
+			response.append("{\"name\":\"").append(name)
+					.append("\",\"kind\":\"property\",\"kindModifiers\":\"declare\",\"sortText\":\"0\"}");
+		}
+		completionsResponse = response.append("]}").toString();
+	}
+
+	@Benchmark
+	public String serializeQuickInfoRequest() {
+		return GsonHelper.DEFAULT_GSON.toJson(new QuickInfoRequest(Samples.VSCODE_D_TS, 10, 5));
+	}
+
+	@Benchmark
+	public String serializeChangeRequest() {
+		return GsonHelper.DEFAULT_GSON.toJson(new ChangeRequest(Samples.VSCODE_D_TS, 10, 5, 10, 5, text));
+	}
+
+	@Benchmark
+	public MessageHeader readHeader() {
+		return MessageHeader.read(completionsResponse);
+	}
+
+	@Benchmark
+	public Response<List<CompletionEntry>> parseCompletionsResponse() {
+		CompletionsRequest request = new CompletionsRequest(Samples.VSCODE_D_TS, 10, 5,
+				ICompletionEntryMatcherProvider.LCS_PROVIDER, null, ICompletionEntryFactory.DEFAULT);
+		return request.parseResponse(GsonHelper.createReader(completionsResponse));
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ts.client.Location;
+import ts.internal.LineIndex;
+
+/**
+ * Conversions between positions and line/offset of vscode.d.ts with
+ * {@link LineIndex}, done for each hover, completion, definition, etc, and
+ * update of the index with a typed character.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineIndexBenchmark {
+
+	/**
+	 * Position in percent of the file length.
+	 */
+	@Param({ "1", "50", "99" })
+	public int position;
+
+	private String contents;
+	private int offset;
+	private LineIndex index;
+	private Location location;
+
+	@Setup
+	public void setup() throws Exception {
+		contents = Samples.read(Samples.VSCODE_D_TS);
+		offset = (int) ((long) contents.length() * position / 100);
+		index = new LineIndex(contents);
+		location = index.getLocation(offset);
+	}
+
+	@Benchmark
+	public LineIndex create() {
+		return new LineIndex(contents);
+	}
+
+	@Benchmark
+	public Location getLocation() {
+		return index.getLocation(offset);
+	}
+
+	@Benchmark
+	public int getPosition() {
+		return index.getPosition(location.getLine(), location.getOffset());
+	}
+
+	@Benchmark
+	public LineIndex typeAndDelete() {
+		index.update(offset, 0, "a");
+		index.update(offset, 1, "");
+		return index;
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ts.internal.matcher.Candidate;
+import ts.internal.matcher.LCSS;
+import ts.internal.matcher.SequenceFinder;
+
+/**
+ * Matching of a completion token with the identifiers of vscode.d.ts with
+ * {@link LCSS} and {@link SequenceFinder}, like the ranking of a completion
+ * list.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatcherBenchmark {
+
+	@Param({ "g", "get", "onDidCh", "cmpltn" })
+	public String token;
+
+	private List<String> identifiers;
+	private List<Candidate> candidates;
+
+	@Setup
+	public void setup() throws Exception {
+		identifiers = Samples.readIdentifiers(Samples.VSCODE_D_TS);
+		candidates = identifiers.stream().map(Candidate::new).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public void bestSubsequence(Blackhole blackhole) {
+		for (String identifier : identifiers) {
+			int[] subsequence = LCSS.bestSubsequence(identifier, token);
+			blackhole.consume(LCSS.scoreSubsequence(subsequence));
+		}
+	}
+
+	/**
+	 * Like the completion entries which keep their prepared name.
+	 */
+	@Benchmark
+	public void bestSubsequenceCandidate(Blackhole blackhole) {
+		for (Candidate candidate : candidates) {
+			int[] subsequence = LCSS.bestSubsequence(candidate, token);
+			blackhole.consume(LCSS.scoreSubsequence(subsequence));
+		}
+	}
+
+	@Benchmark
+	public void containsSubsequence(Blackhole blackhole) {
+		for (String identifier : identifiers) {
+			blackhole.consume(LCSS.containsSubsequence(identifier, token));
+		}
+	}
+
+	@Benchmark
+	public void findSequences(Blackhole blackhole) {
+		for (String identifier : identifiers) {
+			blackhole.consume(new SequenceFinder(identifier, token).findSeqeuences());
+		}
+	}
+}
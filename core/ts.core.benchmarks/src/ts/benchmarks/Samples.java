@@ -0,0 +1,74 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inputs of the benchmarks, read from the samples of ts.core.tests. The
+ * directory of the samples can be customized with the system property
+ * "ts.benchmarks.samples" (../ts.core.tests/samples by default).
+ *
+ */
+public class Samples {
+
+	public static final String VSCODE_D_TS = "vscode.d.ts";
+	public static final String ANGULAR2_D_TS = "angular2.d.ts";
+
+	private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[a-zA-Z_$][a-zA-Z0-9_$]*");
+
+	public static File getSamplesDir() {
+		return new File(System.getProperty("ts.benchmarks.samples", "../ts.core.tests/samples"));
+	}
+
+	public static File getRepositoriesDir() {
+		return new File(System.getProperty("ts.benchmarks.repositories", "../ts.repository/repositories"));
+	}
+
+	/**
+	 * Returns the content of the given sample.
+	 * 
+	 * @param name
+	 *            the sample file name.
+	 * @return the content of the given sample.
+	 * @throws IOException
+	 */
+	public static String read(String name) throws IOException {
+		return new String(Files.readAllBytes(new File(getSamplesDir(), name).toPath()), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the distinct identifiers of the given sample, used as completion
+	 * entry names.
+	 * 
+	 * @param name
+	 *            the sample file name.
+	 * @return the distinct identifiers of the given sample.
+	 * @throws IOException
+	 */
+	public static List<String> readIdentifiers(String name) throws IOException {
+		Set<String> identifiers = new LinkedHashSet<String>();
+		Matcher matcher = IDENTIFIER_PATTERN.matcher(read(name));
+		while (matcher.find()) {
+			identifiers.add(matcher.group());
+		}
+		return new ArrayList<String>(identifiers);
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.benchmarks;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import ts.TypeScriptException;
+import ts.nodejs.AbstractNodejsProcess;
+
+/**
+ * Stub of tsserver which answers the requests synchronously, in the thread
+ * which sends the request, with canned response bodies. It gives reproducible
+ * results without node.js and without the noise of the process I/O, so the
+ * benchmarks measure only the client side (serialization of the request,
+ * decoding and dispatch of the response).
+ *
+ */
+public class StubNodejsProcess extends AbstractNodejsProcess {
+
+	private static final String SEQ = "\"seq\":";
+
+	/**
+	 * Map of command name to the JSON body of its responses.
+	 */
+	private final Map<String, String> bodies;
+	private boolean started;
+
+	public StubNodejsProcess(File projectDir) throws TypeScriptException {
+		super(null, projectDir);
+		this.bodies = new HashMap<String, String>();
+	}
+
+	/**
+	 * Set the JSON body of the responses of the given command.
+	 * 
+	 * @param command
+	 * @param body
+	 */
+	public void setResponseBody(String command, String body) {
+		bodies.put(command, body);
+	}
+
+	@Override
+	public void start() {
+		started = true;
+		notifyStartProcess(0);
+	}
+
+	@Override
+	public boolean isStarted() {
+		return started;
+	}
+
+	@Override
+	public void kill() {
+		if (started) {
+			started = false;
+			notifyStopProcess();
+		}
+	}
+
+	@Override
+	public void join() throws InterruptedException {
+	}
+
+	@Override
+	public void sendRequest(String request) throws TypeScriptException {
+		String command = getString(request, "\"command\":\"");
+		String body = bodies.get(command);
+		if (body == null) {
+			// request without response (open, change, etc)
+			return;
+		}
+		StringBuilder response = new StringBuilder(body.length() + 100);
+		response.append("{\"seq\":0,\"type\":\"response\",\"command\":\"").append(command)
+				.append("\",\"request_seq\":").append(getSeq(request)).append(",\"success\":true,\"body\":")
+				.append(body).append('}');
+		notifyMessage(response.toString());
+	}
+
+	private static String getString(String json, String prefix) {
+		int start = json.indexOf(prefix) + prefix.length();
+		return json.substring(start, json.indexOf('"', start));
+	}
+
+	private static int getSeq(String request) {
+		// the sequence is serialized after the arguments
+		int index = request.lastIndexOf(SEQ) + SEQ.length();
+		int seq = 0;
+		char c;
+		while (index < request.length() && (c = request.charAt(index++)) >= '0' && c <= '9') {
+			seq = seq * 10 + (c - '0');
+		}
+		return seq;
+	}
+}
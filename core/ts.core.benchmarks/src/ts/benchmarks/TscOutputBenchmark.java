@@ -0,0 +1,102 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ts.client.Location;
+import ts.cmd.Severity;
+import ts.cmd.tsc.ITypeScriptCompilerMessageHandler;
+import ts.cmd.tsc.TypeScriptCompilerHelper;
+import ts.cmd.tsc.TypeScriptCompilerOutputParser;
+
+/**
+ * Parsing of a tsc output (--listFiles, --listEmittedFiles and errors) with
+ * {@link TypeScriptCompilerHelper#processMessage(String, ITypeScriptCompilerMessageHandler)}
+ * and with {@link TypeScriptCompilerOutputParser} by chunks of a console
+ * stream.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TscOutputBenchmark {
+
+	private static final int CHUNK_SIZE = 4096;
+
+	private String output;
+
+	@Setup
+	public void setup() throws Exception {
+		// one file, one emitted file and one error per identifier of
+		// angular2.d.ts
+		List<String> identifiers = Samples.readIdentifiers(Samples.ANGULAR2_D_TS);
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i < identifiers.size(); i++) {
+			output.append("/project/src/file").append(i).append(".ts\n");
+			output.append("TSFILE: /project/out/file").append(i).append(".js\n");
+			output.append("src/file").append(i).append(".ts(").append(i + 1).append(",5): error TS2304: Cannot find name '")
+					.append(identifiers.get(i)).append("'.\n");
+		}
+		output.append("Compilation complete. Watching for file changes.\n");
+		this.output = output.toString();
+	}
+
+	@Benchmark
+	public void processMessage(Blackhole blackhole) {
+		TypeScriptCompilerHelper.processMessage(output, createHandler(blackhole));
+	}
+
+	@Benchmark
+	public void parseChunks(Blackhole blackhole) {
+		TypeScriptCompilerOutputParser parser = new TypeScriptCompilerOutputParser(createHandler(blackhole));
+		for (int start = 0; start < output.length(); start += CHUNK_SIZE) {
+			parser.append(output.substring(start, Math.min(start + CHUNK_SIZE, output.length())));
+		}
+		parser.end();
+	}
+
+	private static ITypeScriptCompilerMessageHandler createHandler(Blackhole blackhole) {
+		return new ITypeScriptCompilerMessageHandler() {
+
+			@Override
+			public void addError(String file, Location startLoc, Location endLoc, Severity severity, String code,
+					String message) {
+				blackhole.consume(startLoc);
+			}
+
+			@Override
+			public void addFile(String file, boolean emitted) {
+				blackhole.consume(file);
+			}
+
+			@Override
+			public void onCompilationCompleteWatchingForFileChanges() {
+			}
+		};
+	}
+}
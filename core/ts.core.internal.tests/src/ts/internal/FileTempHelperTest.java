@@ -0,0 +1,54 @@
+package ts.internal;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FileTempHelper}.
+ *
+ */
+public class FileTempHelperTest {
+
+	@Test
+	public void tempFileIsReused() throws Exception {
+		String path = FileTempHelper.updateTempFile("var a = 'été';\nvar b = 1;", 1000);
+		Assert.assertEquals("var a = 'été';\nvar b = 1;", read(path));
+		FileTempHelper.freeTempFile(1000);
+
+		// a shorter content truncates the reused file
+		String reused = FileTempHelper.updateTempFile("var c;", 1001);
+		Assert.assertEquals(path, reused);
+		Assert.assertEquals("var c;", read(reused));
+
+		// the file is reserved until it is freed
+		String other = FileTempHelper.updateTempFile("var d;", 1002);
+		Assert.assertFalse(other.equals(reused));
+		FileTempHelper.freeTempFile(1001);
+		FileTempHelper.freeTempFile(1002);
+	}
+
+	@Test
+	public void loneSurrogateIsReplaced() throws Exception {
+		String path = FileTempHelper.updateTempFile("var a = '\ud83d';\nvar b = 1;", 3000);
+		Assert.assertEquals("var a = '?';\nvar b = 1;", read(path));
+		FileTempHelper.freeTempFile(3000);
+	}
+
+	@Test
+	public void dispose() throws Exception {
+		String path = FileTempHelper.updateTempFile("var a;", 2000);
+		FileTempHelper.dispose();
+		Assert.assertFalse(new File(path).exists());
+		// freeing a disposed file is ignored
+		FileTempHelper.freeTempFile(2000);
+	}
+
+	private static String read(String path) throws Exception {
+		return new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+	}
+}
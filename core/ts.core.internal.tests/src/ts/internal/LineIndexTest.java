@@ -0,0 +1,97 @@
+package ts.internal;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ts.client.Location;
+
+/**
+ * Tests for {@link LineIndex}.
+ *
+ */
+public class LineIndexTest {
+
+	@Test
+	public void lineTerminators() {
+		LineIndex index = new LineIndex("a\nbc\r\nd\re");
+		Assert.assertEquals(4, index.getLineCount());
+		assertLocation(1, 1, index.getLocation(0));
+		assertLocation(1, 2, index.getLocation(1));
+		assertLocation(2, 1, index.getLocation(2));
+		assertLocation(2, 3, index.getLocation(4));
+		assertLocation(3, 1, index.getLocation(6));
+		assertLocation(4, 1, index.getLocation(8));
+		Assert.assertEquals(6, index.getPosition(3, 1));
+		Assert.assertEquals(9, index.getPosition(4, 2));
+	}
+
+	@Test
+	public void emptyContent() {
+		LineIndex index = new LineIndex("");
+		Assert.assertEquals(1, index.getLineCount());
+		assertLocation(1, 1, index.getLocation(0));
+		Assert.assertEquals(0, index.getPosition(1, 1));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void invalidLine() {
+		new LineIndex("a\nb").getPosition(3, 1);
+	}
+
+	@Test
+	public void joinAndSplitCRLF() {
+		StringBuilder contents = new StringBuilder("a\rb");
+		LineIndex index = new LineIndex(contents.toString());
+		// "a\r" + "\n" + "b" joins the "\r" and the new "\n"
+		update(contents, index, 2, 0, "\n");
+		Assert.assertEquals(2, index.getLineCount());
+		assertLocation(2, 1, index.getLocation(3));
+		// split "\r\n" with "x"
+		update(contents, index, 2, 0, "x");
+		Assert.assertEquals(3, index.getLineCount());
+		assertSame(contents, index);
+		// delete "x" joins "\r" and "\n" again
+		update(contents, index, 2, 1, "");
+		Assert.assertEquals(2, index.getLineCount());
+		assertSame(contents, index);
+	}
+
+	@Test
+	public void randomEdits() {
+		Random random = new Random(42);
+		String alphabet = "ab\r\n";
+		StringBuilder contents = new StringBuilder("abc\r\ndef\nghi\rjkl");
+		LineIndex index = new LineIndex(contents.toString());
+		for (int i = 0; i < 2000; i++) {
+			int position = random.nextInt(contents.length() + 1);
+			int length = random.nextInt(Math.min(4, contents.length() - position) + 1);
+			StringBuilder text = new StringBuilder();
+			for (int j = random.nextInt(4); j > 0; j--) {
+				text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			update(contents, index, position, length, text.toString());
+			assertSame(contents, index);
+		}
+	}
+
+	private static void update(StringBuilder contents, LineIndex index, int position, int length, String text) {
+		contents.replace(position, position + length, text);
+		index.update(position, length, text);
+	}
+
+	private static void assertSame(StringBuilder contents, LineIndex index) {
+		LineIndex expected = new LineIndex(contents.toString());
+		Assert.assertEquals(contents.toString(), expected.getLineCount(), index.getLineCount());
+		Assert.assertEquals(contents.length(), index.getLength());
+		for (int line = 1; line <= expected.getLineCount(); line++) {
+			Assert.assertEquals(contents.toString(), expected.getPosition(line, 1), index.getPosition(line, 1));
+		}
+	}
+
+	private static void assertLocation(int line, int offset, Location location) {
+		Assert.assertEquals(line, location.getLine());
+		Assert.assertEquals(offset, location.getOffset());
+	}
+}
@@ -0,0 +1,48 @@
+package ts.internal.client.protocol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ts.client.diagnostics.DiagnosticEvent;
+
+/**
+ * Tests for {@link GeterrRequest}.
+ *
+ */
+public class GeterrRequestTest {
+
+	@Test
+	public void completedWhenAllFilesAreValidated() {
+		GeterrRequest request = new GeterrRequest(new String[] { "a.ts", "b.ts" }, 0);
+		Assert.assertEquals(Arrays.asList("syntaxDiag_a.ts", "semanticDiag_a.ts", "syntaxDiag_b.ts",
+				"semanticDiag_b.ts"), request.getKeys());
+		Assert.assertFalse(request.accept(event("syntaxDiag", "a.ts")));
+		Assert.assertFalse(request.accept(event("semanticDiag", "a.ts")));
+		Assert.assertFalse(request.accept(event("syntaxDiag", "b.ts")));
+		Assert.assertTrue(request.accept(event("semanticDiag", "b.ts")));
+		Assert.assertEquals(4, request.getEvents().size());
+	}
+
+	@Test
+	public void listenerReceivesEventsOfItsFiles() {
+		List<String> received = new ArrayList<String>();
+		GeterrRequest request = new GeterrRequest(new String[] { "a.ts" }, 0, event -> received.add(event.getKey()));
+		// completed by the "requestCompleted" event of the request.
+		Assert.assertEquals(Arrays.asList(GeterrRequest.getRequestCompletedKey(request.getSeq())),
+				request.getKeys());
+		Assert.assertFalse(request.accept(event("syntaxDiag", "a.ts")));
+		Assert.assertFalse(request.accept(event("syntaxDiag", "b.ts")));
+		Assert.assertFalse(request.accept(event("semanticDiag", "a.ts")));
+		Assert.assertEquals(Arrays.asList("syntaxDiag_a.ts", "semanticDiag_a.ts"), received);
+		Assert.assertEquals(2, request.getEvents().size());
+	}
+
+	private static DiagnosticEvent event(String event, String file) {
+		return GsonHelper.DEFAULT_GSON.fromJson("{\"seq\":0,\"type\":\"event\",\"event\":\"" + event
+				+ "\",\"body\":{\"file\":\"" + file + "\",\"diagnostics\":[]}}", DiagnosticEvent.class);
+	}
+}
@@ -0,0 +1,40 @@
+package ts.internal.client.protocol;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MessageHeaderTest {
+
+	@Test
+	public void response() {
+		MessageHeader header = MessageHeader.read(
+				"{\"seq\":0,\"type\":\"response\",\"command\":\"quickinfo\",\"request_seq\":12,\"success\":true,\"body\":{\"kind\":\"var\"}}");
+		Assert.assertEquals(MessageType.response, header.getType());
+		Assert.assertEquals(Integer.valueOf(12), header.getRequestSeq());
+		Assert.assertNull(header.getEvent());
+	}
+
+	@Test
+	public void responseWithBodyBeforeRequestSeq() {
+		MessageHeader header = MessageHeader.read(
+				"{\"body\":[{\"name\":\"a\"}],\"type\":\"response\",\"request_seq\":3,\"success\":true}");
+		Assert.assertEquals(MessageType.response, header.getType());
+		Assert.assertEquals(Integer.valueOf(3), header.getRequestSeq());
+	}
+
+	@Test
+	public void event() {
+		MessageHeader header = MessageHeader.read(
+				"{\"seq\":0,\"type\":\"event\",\"event\":\"semanticDiag\",\"body\":{\"file\":\"a.ts\",\"diagnostics\":[]}}");
+		Assert.assertEquals(MessageType.event, header.getType());
+		Assert.assertEquals("semanticDiag", header.getEvent());
+		Assert.assertNull(header.getRequestSeq());
+	}
+
+	@Test
+	public void unknownType() {
+		MessageHeader header = MessageHeader.read("{\"type\":\"foo\",\"seq\":0}");
+		Assert.assertEquals("foo", header.getTypeName());
+		Assert.assertNull(header.getType());
+	}
+}
@@ -0,0 +1,203 @@
+package ts.internal.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link LCSS}.
+ *
+ */
+public class LCSSTest {
+
+	@Test
+	public void camelCase() {
+		// in the first word, any letter can be matched
+		assertBest("[0, 1, 10, 12]", "getElementById", "gEBI");
+		assertBest("[0, 1, 2]", "getElementById", "get");
+		assertBest("[0, 1, 10, 12]", "getElementById", "gebi");
+		assertBest("[]", "getElementById", "gx");
+		// "ele" at the start of the second word
+		assertBest("[3, 4, 5]", "getElementById", "ele");
+	}
+
+	@Test
+	public void constantName() {
+		// MAX_VALUE is matched as max_Value
+		assertBest("[0, 4]", "MAX_VALUE", "mv");
+		assertBest("[0, 1, 2]", "MAX_VALUE", "MAX");
+	}
+
+	@Test
+	public void nonLetters() {
+		assertBest("[0, 1, 2]", "__proto__", "__p");
+		assertBest("[0, 1]", "$scope", "$s");
+		assertBest("[]", "$scope", "_s");
+		Assert.assertTrue(LCSS.containsSubsequence("a1b2", "a1"));
+		Assert.assertTrue(LCSS.containsSubsequence("abc", ""));
+		Assert.assertFalse(LCSS.containsSubsequence("abc", "abcd"));
+	}
+
+	@Test
+	public void candidateIsReused() {
+		Candidate candidate = new Candidate("onDidChangeTextDocument");
+		Assert.assertEquals("[0, 1]", Arrays.toString(LCSS.bestSubsequence(candidate, "on")));
+		Assert.assertEquals("[0, 2, 5, 11, 15]", Arrays.toString(LCSS.bestSubsequence(candidate, "odctd")));
+		Assert.assertEquals("[]", Arrays.toString(LCSS.bestSubsequence(candidate, "odz")));
+	}
+
+	@Test
+	public void bestOfAllSequences() {
+		// the best subsequence is the first subsequence with the best score
+		// when all the subsequences are enumerated by the original algorithm.
+		Random random = new Random(3);
+		String alphabet = "abAB_1$.";
+		for (int i = 0; i < 20000; i++) {
+			String completion = random(random, alphabet, random.nextInt(12));
+			String token = random(random, alphabet, 1 + random.nextInt(4));
+			int[] expected = new int[0];
+			int bestScore = -1;
+			for (int[] sequence : new ReferenceSequenceFinder(completion, token).findSequences()) {
+				int score = score(sequence);
+				if (score > bestScore) {
+					bestScore = score;
+					expected = sequence;
+				}
+			}
+			Assert.assertEquals(completion + " / " + token, Arrays.toString(expected),
+					Arrays.toString(LCSS.bestSubsequence(completion, token)));
+		}
+	}
+
+	private static int score(int[] sequence) {
+		int score = 0;
+		for (int i = 0; i < sequence.length - 1; i++) {
+			if (sequence[i] + 1 == sequence[i + 1]) {
+				score++;
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * The original SequenceFinder of Eclipse Code Recommenders, which
+	 * enumerates all the subsequences character by character.
+	 */
+	private static class ReferenceSequenceFinder {
+
+		private String completion;
+		private final String token;
+		private List<int[]> nextSequences;
+		private int pCompletion;
+		private int pToken;
+
+		ReferenceSequenceFinder(String completion, String token) {
+			this.completion = completion;
+			this.token = token;
+		}
+
+		List<int[]> findSequences() {
+			if (isConstantName(completion)) {
+				rewriteCompletion();
+			}
+			List<int[]> curSequences = new ArrayList<int[]>();
+			curSequences.add(new int[0]);
+			for (pToken = 0; pToken < token.length(); pToken++) {
+				char t = token.charAt(pToken);
+				nextSequences = new ArrayList<int[]>();
+				for (int[] activeSequence : curSequences) {
+					boolean mustmatch = false;
+					int startIndex = activeSequence.length == 0 ? 0 : activeSequence[activeSequence.length - 1] + 1;
+					for (pCompletion = startIndex; pCompletion < completion.length(); pCompletion++) {
+						char c = completion.charAt(pCompletion);
+						if (!Character.isLetter(c)) {
+							if (c == t) {
+								addNewSubsequenceForNext(activeSequence);
+								continue;
+							}
+							mustmatch = true;
+							continue;
+						} else if (Character.isUpperCase(c)) {
+							mustmatch = true;
+						}
+						if (mustmatch && !isSameIgnoreCase(c, t)) {
+							jumpToEndOfWord();
+						} else if (isSameIgnoreCase(c, t)) {
+							addNewSubsequenceForNext(activeSequence);
+						}
+					}
+				}
+				curSequences = nextSequences;
+			}
+			return curSequences;
+		}
+
+		private void addNewSubsequenceForNext(int[] activeSequence) {
+			int[] copy = Arrays.copyOf(activeSequence, activeSequence.length + 1);
+			copy[pToken] = pCompletion;
+			nextSequences.add(copy);
+		}
+
+		private void rewriteCompletion() {
+			StringBuilder sb = new StringBuilder();
+			boolean toUpperCase = false;
+			for (char c : completion.toCharArray()) {
+				if (Character.isLetterOrDigit(c)) {
+					sb.append(toUpperCase ? Character.toUpperCase(c) : Character.toLowerCase(c));
+					toUpperCase = false;
+				} else {
+					sb.append(c);
+					toUpperCase = true;
+				}
+			}
+			completion = sb.toString();
+		}
+
+		private void jumpToEndOfWord() {
+			for (pCompletion++; pCompletion < completion.length(); pCompletion++) {
+				char next = completion.charAt(pCompletion);
+				if (!Character.isLetter(next)) {
+					break;
+				}
+				if (Character.isUpperCase(next)) {
+					pCompletion--;
+					break;
+				}
+			}
+		}
+
+		private static boolean isConstantName(String completion) {
+			for (char c : completion.toCharArray()) {
+				if (Character.isLetter(c) && Character.isLowerCase(c)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean isSameIgnoreCase(char c1, char c2) {
+			if (c1 == c2) {
+				return true;
+			}
+			c2 = Character.isLowerCase(c2) ? Character.toUpperCase(c2) : Character.toLowerCase(c2);
+			return c1 == c2;
+		}
+	}
+
+	private static String random(Random random, String alphabet, int length) {
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			s.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return s.toString();
+	}
+
+	private static void assertBest(String expected, String completion, String token) {
+		Assert.assertEquals(completion + " / " + token, expected,
+				Arrays.toString(LCSS.bestSubsequence(completion, token)));
+	}
+}
@@ -0,0 +1,41 @@
+// Fake tsserver used by tests which don't need a real TypeScript install:
+// - "open"/"close" update the list of opened files (no response, like tsserver).
+// - "projectinfo" returns the opened files in "fileNames".
+// - any request on the file "crash.ts" kills the process.
+// - requests on the file "slow.ts" are answered after 300ms.
+// - other requests are answered with an empty successful response (body {}).
+var readline = require('readline');
+
+var openedFiles = [];
+
+function send(message) {
+	process.stdout.write(JSON.stringify(message) + '\n');
+}
+
+readline.createInterface({ input: process.stdin }).on('line', function(line) {
+	var request = JSON.parse(line);
+	var args = request.arguments || {};
+	if (args.file === 'crash.ts') {
+		process.exit(1);
+	}
+	switch (request.command) {
+	case 'open':
+		openedFiles.push(args.file);
+		break;
+	case 'close':
+		openedFiles.splice(openedFiles.indexOf(args.file), 1);
+		break;
+	case 'projectInfo':
+		send({ seq: 0, type: 'response', command: request.command, request_seq: request.seq, success: true,
+			body: { configFileName: '', fileNames: openedFiles } });
+		break;
+	default:
+		var response = { seq: 0, type: 'response', command: request.command, request_seq: request.seq, success: true,
+			body: {} };
+		if (args.file === 'slow.ts') {
+			setTimeout(function() { send(response); }, 300);
+		} else {
+			send(response);
+		}
+	}
+});
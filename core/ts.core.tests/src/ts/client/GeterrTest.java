@@ -0,0 +1,123 @@
+package ts.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+import ts.TypeScriptException;
+import ts.client.diagnostics.DiagnosticEvent;
+import ts.core.tests.StubNodejsProcess;
+
+/**
+ * Tests for the "geterr" requests of {@link TypeScriptServiceClient}.
+ *
+ */
+public class GeterrTest {
+
+	@Test
+	public void completedWhenAllFilesAreValidated() throws Exception {
+		GeterrProcess process = new GeterrProcess();
+		TypeScriptServiceClient client = new TypeScriptServiceClient(process, null);
+		try {
+			List<String> received = new ArrayList<String>();
+			List<DiagnosticEvent> events = client
+					.geterr(new String[] { "a.ts", "b.ts", "c.ts" }, 0, event -> received.add(event.getKey()))
+					.get(2000, TimeUnit.MILLISECONDS);
+			Assert.assertEquals(1, process.geterrCount);
+			Assert.assertEquals(6, events.size());
+			Assert.assertEquals(6, received.size());
+			Assert.assertEquals("syntaxDiag_a.ts", received.get(0));
+			Assert.assertEquals("semanticDiag_c.ts", received.get(5));
+		} finally {
+			client.dispose();
+		}
+	}
+
+	@Test
+	public void singleFile() throws Exception {
+		GeterrProcess process = new GeterrProcess();
+		TypeScriptServiceClient client = new TypeScriptServiceClient(process, null);
+		try {
+			List<DiagnosticEvent> events = client.geterr(new String[] { "a.ts" }, 0).get(2000, TimeUnit.MILLISECONDS);
+			Assert.assertEquals(2, events.size());
+		} finally {
+			client.dispose();
+		}
+	}
+
+	@Test
+	public void listenerAndFileGeterrReceiveSameEvents() throws Exception {
+		GeterrProcess process = new GeterrProcess();
+		process.deferred = true;
+		TypeScriptServiceClient client = new TypeScriptServiceClient(process, null);
+		try {
+			List<String> received = new ArrayList<String>();
+			CompletableFuture<List<DiagnosticEvent>> project = client.geterr(new String[] { "a.ts", "b.ts" }, 0,
+					event -> received.add(event.getKey()));
+			CompletableFuture<List<DiagnosticEvent>> file = client.geterr(new String[] { "a.ts" }, 0);
+			// tsserver validates a.ts only once for both requests.
+			process.diagnostics("a.ts");
+			Assert.assertEquals(2, file.get(2000, TimeUnit.MILLISECONDS).size());
+			process.diagnostics("b.ts");
+			Assert.assertFalse(project.isDone());
+			process.requestCompleted(process.geterrSeqs.get(0));
+			Assert.assertEquals(4, project.get(2000, TimeUnit.MILLISECONDS).size());
+			Assert.assertEquals(4, received.size());
+		} finally {
+			client.dispose();
+		}
+	}
+
+	/**
+	 * Process which answers to "geterr" with a "syntaxDiag" and a
+	 * "semanticDiag" event for each file and a "requestCompleted" event.
+	 */
+	private static class GeterrProcess extends StubNodejsProcess {
+
+		private int geterrCount;
+		private final List<Integer> geterrSeqs = new ArrayList<Integer>();
+		// true if the events are sent by the test.
+		private boolean deferred;
+
+		public GeterrProcess() throws TypeScriptException {
+			super();
+		}
+
+		@Override
+		protected void onRequest(String request) {
+			JsonObject json = Json.parse(request).asObject();
+			if (!"geterr".equals(json.get("command").asString())) {
+				return;
+			}
+			geterrCount++;
+			int seq = json.get("seq").asInt();
+			geterrSeqs.add(seq);
+			if (deferred) {
+				return;
+			}
+			for (JsonValue file : json.get("arguments").asObject().get("files").asArray()) {
+				diagnostics(file.asString());
+			}
+			requestCompleted(seq);
+		}
+
+		void diagnostics(String file) {
+			for (String event : new String[] { "syntaxDiag", "semanticDiag" }) {
+				event(event, new JsonObject().add("file", file).add("diagnostics", new JsonArray()));
+			}
+		}
+
+		void requestCompleted(int seq) {
+			event("requestCompleted", new JsonObject().add("request_seq", seq));
+		}
+	}
+}
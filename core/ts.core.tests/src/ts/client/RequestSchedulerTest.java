@@ -0,0 +1,132 @@
+package ts.client;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import ts.TypeScriptException;
+import ts.client.navbar.NavigationBarItem;
+import ts.client.metrics.MetricsInterceptor;
+import ts.client.quickinfo.QuickInfo;
+import ts.client.references.ReferencesResponseBody;
+import ts.nodejs.NodejsProcessManager;
+
+/**
+ * Tests for {@link RequestScheduler} with the fake tsserver
+ * samples/fake-tsserver/tsserver.js (needs node.js).
+ *
+ */
+public class RequestSchedulerTest {
+
+	private static final File PROJECT_DIR = new File("./samples");
+	private static final File FAKE_TSSERVER = new File(PROJECT_DIR, "fake-tsserver/tsserver.js");
+
+	private TypeScriptServiceClient client;
+	private RequestScheduler scheduler;
+
+	@Before
+	public void createClient() throws TypeScriptException {
+		client = new TypeScriptServiceClient(
+				NodejsProcessManager.getInstance().create(PROJECT_DIR, FAKE_TSSERVER, null, null, "tsserver"), null);
+		scheduler = client.getRequestScheduler();
+	}
+
+	@After
+	public void disposeClient() {
+		client.dispose();
+	}
+
+	@Test
+	public void backgroundRequestIsHeldWhileInteractiveRequestIsOutstanding() throws Exception {
+		CompletableFuture<QuickInfo> quickInfo = client.quickInfo("slow.ts", 1, 1);
+		CompletableFuture<ReferencesResponseBody> references = client.references("a.ts", 1, 1);
+		Assert.assertEquals(1, scheduler.getInteractiveRequestCount());
+		Assert.assertEquals(1, scheduler.getHeldRequestCount());
+		Assert.assertFalse(references.isDone());
+
+		quickInfo.get(2000, TimeUnit.MILLISECONDS);
+		references.get(2000, TimeUnit.MILLISECONDS);
+		Assert.assertEquals(0, scheduler.getHeldRequestCount());
+		Assert.assertEquals(1, scheduler.getReleasedRequestCount());
+		Assert.assertTrue(scheduler.getMaxWaitTime() > 0);
+	}
+
+	@Test
+	public void changeSendsHeldRequests() throws Exception {
+		CompletableFuture<QuickInfo> quickInfo = client.quickInfo("slow.ts", 1, 1);
+		CompletableFuture<ReferencesResponseBody> references = client.references("a.ts", 1, 1);
+		Assert.assertEquals(1, scheduler.getHeldRequestCount());
+		client.changeFile("a.ts", 1, 1, 1, 1, "a");
+		Assert.assertEquals(0, scheduler.getHeldRequestCount());
+		references.get(2000, TimeUnit.MILLISECONDS);
+		Assert.assertFalse(quickInfo.isDone());
+	}
+
+	@Test
+	public void compileOnSaveIsNotHeldBack() throws Exception {
+		client.quickInfo("slow.ts", 1, 1);
+		client.compileOnSaveEmitFile("a.ts", true);
+		client.semanticDiagnosticsSync("a.ts", true);
+		// the emit and the diagnostics which follow it are sent in order.
+		Assert.assertEquals(1, scheduler.getInteractiveRequestCount());
+		Assert.assertEquals(0, scheduler.getHeldRequestCount());
+	}
+
+	@Test
+	public void duplicateRequestsAreCoalesced() throws Exception {
+		CompletableFuture<QuickInfo> quickInfo1 = client.quickInfo("slow.ts", 1, 1);
+		CompletableFuture<QuickInfo> quickInfo2 = client.quickInfo("slow.ts", 1, 1);
+		CompletableFuture<QuickInfo> otherPosition = client.quickInfo("slow.ts", 1, 2);
+		Assert.assertEquals(1, scheduler.getCoalescedRequestCount());
+
+		// cancel of a coalesced request doesn't cancel the shared request
+		quickInfo1.cancel(true);
+		quickInfo2.get(2000, TimeUnit.MILLISECONDS);
+		otherPosition.get(2000, TimeUnit.MILLISECONDS);
+
+		// a change of the file creates a new version
+		client.quickInfo("slow.ts", 1, 1);
+		client.changeFile("slow.ts", 1, 1, 1, 1, "a");
+		client.quickInfo("slow.ts", 1, 1);
+		Assert.assertEquals(1, scheduler.getCoalescedRequestCount());
+	}
+
+	@Test
+	public void responsesAreCachedUntilUpdate() throws Exception {
+		ResponseCache cache = scheduler.getResponseCache();
+		MetricsInterceptor metrics = new MetricsInterceptor("project");
+		client.addInterceptor(metrics);
+		QuickInfo quickInfo = client.quickInfo("a.ts", 1, 1).get(2000, TimeUnit.MILLISECONDS);
+		CompletableFuture<QuickInfo> cached = client.quickInfo("a.ts", 1, 1);
+		Assert.assertTrue(cached.isDone());
+		// each caller gets its own response
+		Assert.assertNotSame(quickInfo, cached.get());
+		Assert.assertEquals(1, cache.getHitCount());
+		// the cache hit is seen by the interceptors
+		Assert.assertEquals(1, metrics.getMetrics("quickinfo").getRequestCount());
+		Assert.assertEquals(1, metrics.getMetrics("quickinfo").getCacheHitCount());
+
+		// a change of any file invalidates the cache
+		client.changeFile("b.ts", 1, 1, 1, 1, "b");
+		Assert.assertEquals(0, cache.size());
+		Assert.assertNotSame(quickInfo, client.quickInfo("a.ts", 1, 1).get(2000, TimeUnit.MILLISECONDS));
+		Assert.assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void cachedNavtreeIsBoundForEachCaller() throws Exception {
+		ResponseCache cache = scheduler.getResponseCache();
+		NavigationBarItem navtree = client.navtree("a.ts", null).get(2000, TimeUnit.MILLISECONDS);
+		CompletableFuture<NavigationBarItem> cached = client.navtree("a.ts", null);
+		Assert.assertTrue(cached.isDone());
+		Assert.assertEquals(1, cache.getHitCount());
+		// the outline updates the parent of the items, the cached response
+		// must not be shared.
+		Assert.assertNotSame(navtree, cached.get());
+	}
+}
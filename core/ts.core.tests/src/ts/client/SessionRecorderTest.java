@@ -0,0 +1,95 @@
+package ts.client;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ts.TypeScriptException;
+import ts.client.quickinfo.QuickInfo;
+import ts.nodejs.ReplayNodejsProcess;
+
+/**
+ * Tests for {@link SessionRecorder} and {@link ReplayNodejsProcess} with the
+ * recording samples/recordings/quickinfo.log (doesn't need node.js).
+ *
+ */
+public class SessionRecorderTest {
+
+	private static final File PROJECT_DIR = new File("./samples");
+	private static final File RECORDING = new File(PROJECT_DIR, "recordings/quickinfo.log");
+
+	@Test
+	public void replay() throws Exception {
+		ReplayNodejsProcess process = new ReplayNodejsProcess(PROJECT_DIR, RECORDING, false);
+		TypeScriptServiceClient client = new TypeScriptServiceClient(process, null);
+		try {
+			client.openFile("sample.ts", null);
+			// requests are sent in another order than the recording
+			CompletableFuture<QuickInfo> b = client.quickInfo("sample.ts", 2, 3);
+			CompletableFuture<QuickInfo> a = client.quickInfo("sample.ts", 1, 5);
+			Assert.assertEquals("var a: number", a.get(2000, TimeUnit.MILLISECONDS).getDisplayString());
+			Assert.assertEquals("var b: string", b.get(2000, TimeUnit.MILLISECONDS).getDisplayString());
+			Assert.assertEquals(0, process.getRemainingRequestCount());
+		} finally {
+			client.dispose();
+		}
+	}
+
+	@Test
+	public void requestWithoutRecording() throws Exception {
+		TypeScriptServiceClient client = new TypeScriptServiceClient(new ReplayNodejsProcess(RECORDING), null);
+		try {
+			client.references("sample.ts", 1, 5).get(2000, TimeUnit.MILLISECONDS);
+			Assert.fail("references is not recorded");
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof TypeScriptException);
+		} finally {
+			client.dispose();
+		}
+	}
+
+	@Test
+	public void recordReplay() throws Exception {
+		File recording = File.createTempFile("tsserver", ".log");
+		recording.deleteOnExit();
+		SessionRecorder recorder = new SessionRecorder(recording);
+		TypeScriptServiceClient client = new TypeScriptServiceClient(
+				new ReplayNodejsProcess(PROJECT_DIR, RECORDING, false), null);
+		try {
+			recorder.install(client);
+			client.openFile("sample.ts", null);
+			CompletableFuture<QuickInfo> a = client.quickInfo("sample.ts", 1, 5);
+			client.quickInfo("sample.ts", 2, 3).get(2000, TimeUnit.MILLISECONDS);
+			a.get(2000, TimeUnit.MILLISECONDS);
+		} finally {
+			client.dispose();
+			recorder.close();
+		}
+
+		List<String> lines = Files.readAllLines(recording.toPath(), StandardCharsets.UTF_8);
+		Assert.assertEquals(6, lines.size());
+		Assert.assertEquals(3, lines.stream().filter(line -> line.contains(" > {")).count());
+		Assert.assertEquals(3, lines.stream().filter(line -> line.contains(" < {")).count());
+
+		// the new recording can be replayed too
+		ReplayNodejsProcess process = new ReplayNodejsProcess(PROJECT_DIR, recording, false);
+		client = new TypeScriptServiceClient(process, null);
+		try {
+			client.openFile("sample.ts", null);
+			CompletableFuture<QuickInfo> a = client.quickInfo("sample.ts", 1, 5);
+			CompletableFuture<QuickInfo> b = client.quickInfo("sample.ts", 2, 3);
+			Assert.assertEquals("var a: number", a.get(2000, TimeUnit.MILLISECONDS).getDisplayString());
+			Assert.assertEquals("var b: string", b.get(2000, TimeUnit.MILLISECONDS).getDisplayString());
+			Assert.assertEquals(0, process.getRemainingRequestCount());
+		} finally {
+			client.dispose();
+		}
+	}
+}
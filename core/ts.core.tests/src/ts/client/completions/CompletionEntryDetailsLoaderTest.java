@@ -0,0 +1,126 @@
+package ts.client.completions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+import ts.TypeScriptException;
+import ts.client.TypeScriptServiceClient;
+import ts.core.tests.StubNodejsProcess;
+
+/**
+ * Tests for {@link CompletionEntryDetailsLoader}.
+ *
+ */
+public class CompletionEntryDetailsLoaderTest {
+
+	@Test
+	public void detailsAreBatched() throws Exception {
+		DetailsProcess process = new DetailsProcess();
+		TypeScriptServiceClient client = new TypeScriptServiceClient(process, null);
+		try {
+			List<CompletionEntry> entries = client.completions("a.ts", 1, 1).get(2000, TimeUnit.MILLISECONDS);
+			Assert.assertEquals(50, entries.size());
+			CompletionEntryDetailsLoader loader = entries.get(0).getEntryDetailsLoader();
+			Assert.assertNotNull(loader);
+
+			// the details of the first entries are loaded with a single request
+			loader.prefetch(entries, 10);
+			Assert.assertEquals(1, process.requestedNames.size());
+			Assert.assertEquals(10, process.requestedNames.get(0).size());
+			for (int i = 0; i < 10; i++) {
+				Assert.assertEquals("e" + i, entries.get(i).getEntryDetails().get(0).getName());
+			}
+			Assert.assertEquals(1, process.requestedNames.size());
+
+			// the details of the next entries are loaded with the next
+			// batch
+			Assert.assertEquals("e10", entries.get(10).getEntryDetails().get(0).getName());
+			Assert.assertEquals(2, process.requestedNames.size());
+			Assert.assertEquals(CompletionEntryDetailsLoader.BATCH_SIZE, process.requestedNames.get(1).size());
+			Assert.assertEquals("e10", process.requestedNames.get(1).get(0));
+			Assert.assertEquals("e29", entries.get(29).getEntryDetails().get(0).getName());
+			Assert.assertEquals(2, loader.getRequestCount());
+
+			// unknown entry
+			Assert.assertTrue(loader.getEntryDetails("unknown").get(2000, TimeUnit.MILLISECONDS).isEmpty());
+		} finally {
+			client.dispose();
+		}
+	}
+
+	@Test
+	public void batchWhichCannotBeSentFailsEachEntry() throws Exception {
+		DetailsProcess process = new DetailsProcess();
+		TypeScriptServiceClient client = new TypeScriptServiceClient(process, null);
+		try {
+			List<CompletionEntry> entries = client.completions("a.ts", 1, 1).get(2000, TimeUnit.MILLISECONDS);
+			CompletionEntryDetailsLoader loader = entries.get(0).getEntryDetailsLoader();
+
+			process.failDetails = true;
+			loader.prefetch(entries, 10);
+			CompletableFuture<List<CompletionEntryDetails>> first = loader.getEntryDetails("e0");
+			// the failed prefetch is not kept, "e0" is requested again
+			Assert.assertTrue(first.isCompletedExceptionally());
+			Assert.assertEquals(2, loader.getRequestCount());
+
+			// the details are loaded again the next time
+			process.failDetails = false;
+			Assert.assertEquals("e1",
+					loader.getEntryDetails("e1").get(2000, TimeUnit.MILLISECONDS).get(0).getName());
+		} finally {
+			client.dispose();
+		}
+	}
+
+	/**
+	 * Process which answers to "completions" with 50 entries and to
+	 * "completionEntryDetails" with the details of the requested entries (or
+	 * fails to send it if failDetails is true).
+	 */
+	private static class DetailsProcess extends StubNodejsProcess {
+
+		private final List<List<String>> requestedNames = new ArrayList<List<String>>();
+		private boolean failDetails;
+
+		public DetailsProcess() throws TypeScriptException {
+			super();
+		}
+
+		@Override
+		protected void onRequest(String request) throws TypeScriptException {
+			JsonObject json = Json.parse(request).asObject();
+			String command = json.get("command").asString();
+			JsonArray body = new JsonArray();
+			if ("completions".equals(command)) {
+				for (int i = 0; i < 50; i++) {
+					body.add(new JsonObject().add("name", "e" + i).add("kind", "var").add("kindModifiers", "")
+							.add("sortText", "0"));
+				}
+			} else if ("completionEntryDetails".equals(command)) {
+				if (failDetails) {
+					throw new TypeScriptException("cannot send completionEntryDetails");
+				}
+				List<String> names = new ArrayList<String>();
+				for (JsonValue name : json.get("arguments").asObject().get("entryNames").asArray()) {
+					names.add(name.asString());
+					if (name.asString().startsWith("e")) {
+						body.add(new JsonObject().add("name", name.asString()).add("kind", "var")
+								.add("kindModifiers", "").add("displayParts", new JsonArray()));
+					}
+				}
+				requestedNames.add(names);
+			}
+			respond(json, body);
+		}
+	}
+}
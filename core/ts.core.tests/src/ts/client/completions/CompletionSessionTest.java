@@ -0,0 +1,101 @@
+package ts.client.completions;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+
+import ts.TypeScriptException;
+import ts.client.TypeScriptServiceClient;
+import ts.core.tests.StubNodejsProcess;
+
+/**
+ * Tests for {@link CompletionSession}.
+ *
+ */
+public class CompletionSessionTest {
+
+	private static final String ENTRIES = "[{\"name\":\"foo\",\"kind\":\"var\",\"kindModifiers\":\"\",\"sortText\":\"0\"},"
+			+ "{\"name\":\"fooBar\",\"kind\":\"function\",\"kindModifiers\":\"\",\"sortText\":\"0\"},"
+			+ "{\"name\":\"bar\",\"kind\":\"var\",\"kindModifiers\":\"\",\"sortText\":\"0\"}]";
+
+	@Test
+	public void prefixIsFilteredLocally() throws Exception {
+		CompletionsProcess process = new CompletionsProcess();
+		TypeScriptServiceClient client = new TypeScriptServiceClient(process, null);
+		CompletionSession session = new CompletionSession();
+		try {
+			// completion at the position 10, then "f", "o", "o", "B" typed and "B"
+			// deleted
+			Assert.assertEquals("[foo, fooBar, bar]", names(complete(session, client, 0, 10, "")));
+			Assert.assertEquals("[foo, fooBar]", names(complete(session, client, 1, 11, "f")));
+			Assert.assertEquals("[foo, fooBar]", names(complete(session, client, 2, 12, "fo")));
+			Assert.assertEquals("[foo, fooBar]", names(complete(session, client, 3, 13, "foo")));
+			Assert.assertEquals("[fooBar]", names(complete(session, client, 4, 14, "fooB")));
+			Assert.assertEquals("[foo, fooBar]", names(complete(session, client, 5, 13, "foo")));
+			Assert.assertEquals(1, process.completionsCount);
+			Assert.assertEquals(1, session.getMissCount());
+			Assert.assertEquals(5, session.getHitCount());
+		} finally {
+			client.dispose();
+		}
+	}
+
+	@Test
+	public void otherEditIsNotReused() throws Exception {
+		CompletionsProcess process = new CompletionsProcess();
+		TypeScriptServiceClient client = new TypeScriptServiceClient(process, null);
+		CompletionSession session = new CompletionSession();
+		try {
+			complete(session, client, 0, 10, "f");
+			// the file has changed by two edits for one character (paste, edit
+			// elsewhere, etc)
+			complete(session, client, 2, 11, "fo");
+			// another token
+			complete(session, client, 3, 20, "fo");
+			// another file
+			session.completions("b.ts", 3, 20, "fo", ICompletionEntryFactory.DEFAULT,
+					factory -> client.completions("b.ts", 1, 20, factory)).get(2000, TimeUnit.MILLISECONDS);
+			Assert.assertEquals(4, process.completionsCount);
+			Assert.assertEquals(0, session.getHitCount());
+		} finally {
+			client.dispose();
+		}
+	}
+
+	private static List<CompletionEntry> complete(CompletionSession session, TypeScriptServiceClient client,
+			long version, int position, String prefix) throws Exception {
+		return session.completions("a.ts", version, position, prefix, ICompletionEntryFactory.DEFAULT,
+				factory -> client.completions("a.ts", 1, position, factory)).get(2000, TimeUnit.MILLISECONDS);
+	}
+
+	private static String names(List<CompletionEntry> entries) {
+		return entries.stream().map(CompletionEntry::getName).collect(Collectors.toList()).toString();
+	}
+
+	/**
+	 * Process which answers to "completions" requests with the same entries.
+	 */
+	private static class CompletionsProcess extends StubNodejsProcess {
+
+		private int completionsCount;
+
+		public CompletionsProcess() throws TypeScriptException {
+			super();
+		}
+
+		@Override
+		protected void onRequest(String request) {
+			JsonObject json = Json.parse(request).asObject();
+			if ("completions".equals(json.get("command").asString())) {
+				completionsCount++;
+				respond(json, Json.parse(ENTRIES));
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package ts.client.metrics;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ts.client.TypeScriptServiceClient;
+import ts.nodejs.NodejsProcessManager;
+
+/**
+ * Tests for {@link MetricsInterceptor} and {@link LatencyHistogram}.
+ *
+ */
+public class MetricsInterceptorTest {
+
+	@Test
+	public void percentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i);
+		}
+		Assert.assertEquals(1000, histogram.getCount());
+		Assert.assertEquals(500.5, histogram.getMean(), 0.01);
+		Assert.assertEquals(1000, histogram.getMax());
+		assertAbout(500, histogram.getValueAtPercentile(50));
+		assertAbout(990, histogram.getValueAtPercentile(99));
+		Assert.assertEquals(1000, histogram.getValueAtPercentile(100));
+		Assert.assertEquals(1, histogram.getValueAtPercentile(0));
+
+		histogram.reset();
+		Assert.assertEquals(0, histogram.getCount());
+		Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void errorsAndTimeouts() {
+		MetricsInterceptor interceptor = new MetricsInterceptor("project");
+		interceptor.handleError(new RuntimeException(), null, "quickinfo", 10);
+		interceptor.handleError(new TimeoutException(), null, "quickinfo", 10);
+		interceptor.handleError(new CancellationException(), null, "quickinfo", 10);
+		CommandMetrics metrics = interceptor.getMetrics("quickinfo");
+		Assert.assertEquals(1, metrics.getErrorCount());
+		Assert.assertEquals(1, metrics.getTimeoutCount());
+		Assert.assertEquals(1, metrics.getCancelCount());
+		Assert.assertTrue(interceptor.dumpSnapshot().contains("quickinfo"));
+	}
+
+	@Test
+	public void cancellationsAndTimeoutsOfClient() throws Exception {
+		File projectDir = new File("./samples");
+		TypeScriptServiceClient client = new TypeScriptServiceClient(NodejsProcessManager.getInstance()
+				.create(projectDir, new File(projectDir, "fake-tsserver/tsserver.js"), null, null, "tsserver"), null);
+		try {
+			MetricsInterceptor interceptor = new MetricsInterceptor("project");
+			client.addInterceptor(interceptor);
+			client.setRequestTimeout(100);
+			// requests on slow.ts are answered after 300ms
+			client.quickInfo("slow.ts", 1, 1).get(2000, TimeUnit.MILLISECONDS);
+			client.quickInfo("slow.ts", 1, 2).cancel(true);
+			CommandMetrics metrics = interceptor.getMetrics("quickinfo");
+			Assert.assertEquals(1, metrics.getTimeoutCount());
+			Assert.assertEquals(1, metrics.getCancelCount());
+			Assert.assertEquals(0, metrics.getErrorCount());
+		} finally {
+			client.dispose();
+		}
+	}
+
+	@Test
+	public void registerMBeans() throws Exception {
+		MetricsInterceptor interceptor = new MetricsInterceptor("/my project");
+		interceptor.getMetrics("completions").recordResponse(12, true);
+		interceptor.register();
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName completions = new ObjectName(
+					"ts.core:type=TypeScriptMetrics,project=\"/my project\",command=\"completions\"");
+			Assert.assertEquals(1L, server.getAttribute(completions, "ResponseCount"));
+			Assert.assertEquals(12L, server.getAttribute(completions, "MaxLatency"));
+
+			// command metrics created after the registration are registered too
+			interceptor.getMetrics("quickinfo");
+			Assert.assertTrue(server.isRegistered(new ObjectName(
+					"ts.core:type=TypeScriptMetrics,project=\"/my project\",command=\"quickinfo\"")));
+		} finally {
+			interceptor.unregister();
+		}
+		Assert.assertTrue(ManagementFactory.getPlatformMBeanServer()
+				.queryNames(new ObjectName("ts.core:type=TypeScriptMetrics,*"), null).isEmpty());
+	}
+
+	private static void assertAbout(long expected, long actual) {
+		Assert.assertTrue("expected about " + expected + " but was " + actual,
+				Math.abs(actual - expected) <= expected * 0.07);
+	}
+}
@@ -0,0 +1,74 @@
+package ts.cmd;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ts.TypeScriptException;
+import ts.core.tests.StubNodejsProcess;
+import ts.nodejs.INodejsProcess;
+
+/**
+ * Tests for {@link AbstractCmd}.
+ *
+ */
+public class AbstractCmdTest {
+
+	@Test(timeout = 5000)
+	public void canceledCommandIsKilled() throws Exception {
+		StubNodejsProcess process = new StubNodejsProcess();
+		Cmd cmd = new Cmd(process);
+		AtomicBoolean canceled = new AtomicBoolean();
+		Thread cancel = new Thread(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				return;
+			}
+			canceled.set(true);
+		});
+		cancel.start();
+		long start = System.currentTimeMillis();
+		// the process never stops itself, execute returns because it is
+		// killed.
+		cmd.execute(new File("."), null, null, null, canceled::get);
+		Assert.assertFalse(process.isStarted());
+		Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+	}
+
+	@Test(timeout = 5000)
+	public void commandWithoutCancel() throws Exception {
+		StubNodejsProcess process = new StubNodejsProcess();
+		Cmd cmd = new Cmd(process);
+		Thread stop = new Thread(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				return;
+			}
+			process.kill();
+		});
+		stop.start();
+		cmd.execute(new File("."), null, null, null);
+		Assert.assertFalse(process.isStarted());
+	}
+
+	private static class Cmd extends AbstractCmd<IOptions> {
+
+		private final INodejsProcess process;
+
+		public Cmd(INodejsProcess process) {
+			super(null, null, "test");
+			this.process = process;
+		}
+
+		@Override
+		protected INodejsProcess createProcess(File baseDir, IOptions options, List<String> filenames)
+				throws TypeScriptException {
+			return process;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package ts.cmd.tsc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ts.client.Location;
+import ts.cmd.Severity;
+
+/**
+ * Tests for {@link TypeScriptCompilerHelper} and
+ * {@link TypeScriptCompilerOutputParser}.
+ *
+ */
+public class TypeScriptCompilerHelperTest {
+
+	@Test
+	public void errors() {
+		Messages messages = new Messages();
+		TypeScriptCompilerHelper.processMessage("src/a.ts(12,5): error TS2304: Cannot find name 'foo'.\n"
+				+ "  src/b.ts(3): warning TS1234 : no offset\r\n"
+				+ "src/c (copy).ts(1,2,3,4): info TS42:message (with parens)\n"
+				+ "src/d.ts(1,2,3): error TS1: three numbers\n" + "src/e.ts(1,2): error: no code\n"
+				+ "src/f.ts(1,2):error TS1: no space\n", messages);
+		Assert.assertEquals(Arrays.asList("error src/a.ts 12:5 TS2304 Cannot find name 'foo'.",
+				"warning src/b.ts 3:0 TS1234 no offset", "info src/c (copy).ts 1:2 TS42 message (with parens)"),
+				messages.messages);
+	}
+
+	@Test
+	public void files() {
+		Messages messages = new Messages();
+		TypeScriptCompilerHelper.processMessage("/project/node_modules/typescript/lib/lib.d.ts\n"
+				+ "/project/src/a.tsx\n" + "TSFILE: /project/out/a.js\n"
+				+ "10:00:00 - Compilation complete. Watching for file changes.\n"
+				+ "10:00:01 - Found 0 errors. Watching for file changes.", messages);
+		Assert.assertEquals(Arrays.asList("file /project/node_modules/typescript/lib/lib.d.ts",
+				"file /project/src/a.tsx", "emitted /project/out/a.js", "complete", "complete"), messages.messages);
+	}
+
+	@Test
+	public void chunks() {
+		Messages messages = new Messages();
+		TypeScriptCompilerOutputParser parser = new TypeScriptCompilerOutputParser(messages);
+		parser.append("src/a.ts(1,1): error TS1: fir");
+		Assert.assertTrue(messages.messages.isEmpty());
+		parser.append("st\nTSFILE: out/a.");
+		parser.append("js\n");
+		parser.append("src/b.ts");
+		parser.end();
+		Assert.assertEquals(Arrays.asList("error src/a.ts 1:1 TS1 first", "emitted out/a.js", "file src/b.ts"),
+				messages.messages);
+	}
+
+	@Test
+	public void stream() throws Exception {
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			output.append("src/file").append(i).append(".ts(").append(i + 1).append(",5): error TS2304: é\n");
+		}
+		Messages messages = new Messages();
+		new TypeScriptCompilerOutputParser(messages)
+				.parse(new ByteArrayInputStream(output.toString().getBytes(StandardCharsets.UTF_8)));
+		Assert.assertEquals(2000, messages.messages.size());
+		Assert.assertEquals("error src/file1999.ts 2000:5 TS2304 é", messages.messages.get(1999));
+	}
+
+	private static class Messages implements ITypeScriptCompilerMessageHandler {
+
+		private final List<String> messages = new ArrayList<String>();
+
+		@Override
+		public void addError(String file, Location startLoc, Location endLoc, Severity severity, String code,
+				String message) {
+			messages.add(severity + " " + file + " " + startLoc.getLine() + ":" + startLoc.getOffset() + " " + code
+					+ " " + message);
+		}
+
+		@Override
+		public void addFile(String file, boolean emitted) {
+			messages.add((emitted ? "emitted " : "file ") + file);
+		}
+
+		@Override
+		public void onCompilationCompleteWatchingForFileChanges() {
+			messages.add("complete");
+		}
+	}
+}
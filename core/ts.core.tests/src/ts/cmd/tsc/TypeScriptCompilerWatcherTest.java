@@ -0,0 +1,87 @@
+package ts.cmd.tsc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ts.TypeScriptException;
+import ts.client.Location;
+import ts.cmd.Severity;
+import ts.core.tests.StubNodejsProcess;
+
+/**
+ * Tests for {@link TypeScriptCompilerWatcher}.
+ *
+ */
+public class TypeScriptCompilerWatcherTest {
+
+	@Test
+	public void messagesAreProcessedPerCompilation() throws Exception {
+		StubNodejsProcess process = new StubNodejsProcess();
+		Messages messages = new Messages();
+		TypeScriptCompilerWatcher watcher = new TypeScriptCompilerWatcher(process,
+				Collections.<String>emptyList(), messages);
+		watcher.start();
+		Assert.assertTrue(watcher.isAlive());
+
+		CompletableFuture<Void> first = watcher.getCompilation();
+		process.output("10:00:00 - Starting compilation in watch mode...");
+		process.output("a.ts(1,5): error TS2322: Type '1' is not assignable to type 'string'.");
+		Assert.assertFalse(first.isDone());
+		process.output("10:00:01 - Compilation complete. Watching for file changes.");
+		first.get(1000, TimeUnit.MILLISECONDS);
+		Assert.assertEquals(Collections.singletonList("a.ts:1 TS2322"), messages.errors);
+		Assert.assertEquals(1, messages.completed);
+
+		CompletableFuture<Void> second = watcher.getCompilation();
+		Assert.assertNotSame(first, second);
+		process.output("10:00:02 - File change detected. Starting incremental compilation...");
+		process.output("10:00:03 - Found 0 errors. Watching for file changes.");
+		second.get(1000, TimeUnit.MILLISECONDS);
+		Assert.assertEquals(2, messages.completed);
+	}
+
+	@Test
+	public void stopFailsPendingCompilation() throws Exception {
+		StubNodejsProcess process = new StubNodejsProcess();
+		TypeScriptCompilerWatcher watcher = new TypeScriptCompilerWatcher(process,
+				Collections.<String>emptyList(), new Messages());
+		watcher.start();
+		CompletableFuture<Void> compilation = watcher.getCompilation();
+		watcher.dispose();
+		Assert.assertFalse(watcher.isAlive());
+		try {
+			compilation.get(1000, TimeUnit.MILLISECONDS);
+			Assert.fail("compilation must fail when tsc is stopped");
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof TypeScriptException);
+		}
+	}
+
+	private static class Messages implements ITypeScriptCompilerMessageHandler {
+
+		private final List<String> errors = new ArrayList<String>();
+		private int completed;
+
+		@Override
+		public void addError(String file, Location startLoc, Location endLoc, Severity severity, String code,
+				String message) {
+			errors.add(file + ":" + startLoc.getLine() + " " + code);
+		}
+
+		@Override
+		public void addFile(String file, boolean emitted) {
+		}
+
+		@Override
+		public void onCompilationCompleteWatchingForFileChanges() {
+			completed++;
+		}
+	}
+}
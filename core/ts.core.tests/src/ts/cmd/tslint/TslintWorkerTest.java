@@ -0,0 +1,108 @@
+package ts.cmd.tslint;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+
+import ts.TypeScriptException;
+import ts.client.Location;
+import ts.cmd.ITypeScriptLinterHandler;
+import ts.cmd.Severity;
+import ts.core.tests.StubNodejsProcess;
+
+/**
+ * Tests for {@link TslintWorker}.
+ *
+ */
+public class TslintWorkerTest {
+
+	@Test
+	public void responsesAreDispatchedBySeq() throws Exception {
+		StubNodejsProcess process = new StubNodejsProcess();
+		TslintWorker worker = new TslintWorker(process);
+		worker.start();
+		Assert.assertTrue(worker.isAlive());
+
+		Failures first = new Failures();
+		Failures second = new Failures();
+		CompletableFuture<Void> firstLint = worker.lint(Arrays.asList("/project/a.ts", "/project/b.ts"),
+				new File("/project/tslint.json"), first);
+		CompletableFuture<Void> secondLint = worker.lint(Collections.singletonList("/project/c.ts"), null, second);
+
+		JsonObject firstRequest = Json.parse(process.getRequests().get(0)).asObject();
+		Assert.assertEquals(2, firstRequest.get("files").asArray().size());
+		Assert.assertNotNull(firstRequest.getString("config", null));
+		JsonObject secondRequest = Json.parse(process.getRequests().get(1)).asObject();
+		Assert.assertNull(secondRequest.get("config"));
+
+		// responses can be received in any order
+		process.output("{\"seq\":" + secondRequest.getInt("seq", -1) + ",\"failures\":[]}");
+		secondLint.get(1000, TimeUnit.MILLISECONDS);
+		Assert.assertFalse(firstLint.isDone());
+		process.output("node: a warning which is not a response");
+		process.output("{\"seq\":" + firstRequest.getInt("seq", -1)
+				+ ",\"failures\":[{\"endPosition\":{\"character\":3,\"line\":0,\"position\":3},"
+				+ "\"failure\":\"forbidden 'var' keyword\",\"name\":\"/project/a.ts\",\"ruleName\":\"no-var-keyword\","
+				+ "\"startPosition\":{\"character\":0,\"line\":0,\"position\":0}}]}");
+		firstLint.get(1000, TimeUnit.MILLISECONDS);
+		Assert.assertEquals(Collections.singletonList("/project/a.ts 0:0 no-var-keyword"), first.failures);
+		Assert.assertTrue(second.failures.isEmpty());
+	}
+
+	@Test
+	public void errorFailsLint() throws Exception {
+		StubNodejsProcess process = new StubNodejsProcess();
+		TslintWorker worker = new TslintWorker(process);
+		worker.start();
+		CompletableFuture<Void> lint = worker.lint(Collections.singletonList("/project/a.ts"), null, new Failures());
+		int seq = Json.parse(process.getRequests().get(0)).asObject().getInt("seq", -1);
+		process.output("{\"seq\":" + seq + ",\"error\":\"Cannot find /project/a.ts\"}");
+		try {
+			lint.get(1000, TimeUnit.MILLISECONDS);
+			Assert.fail("lint must fail when the worker returns an error");
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof TypeScriptException);
+			Assert.assertEquals("Cannot find /project/a.ts", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void stopFailsPendingLints() throws Exception {
+		StubNodejsProcess process = new StubNodejsProcess();
+		TslintWorker worker = new TslintWorker(process);
+		worker.start();
+		CompletableFuture<Void> lint = worker.lint(Collections.singletonList("/project/a.ts"), null, new Failures());
+		worker.dispose();
+		Assert.assertFalse(worker.isAlive());
+		try {
+			lint.get(1000, TimeUnit.MILLISECONDS);
+			Assert.fail("lint must fail when the worker is stopped");
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof TypeScriptException);
+		}
+		Assert.assertTrue(worker.lint(Collections.singletonList("/project/a.ts"), null, new Failures())
+				.isCompletedExceptionally());
+	}
+
+	private static class Failures implements ITypeScriptLinterHandler {
+
+		private final List<String> failures = new ArrayList<String>();
+
+		@Override
+		public void addError(String file, Location startLoc, Location endLoc, Severity severity, String code,
+				String message) {
+			failures.add(file + " " + startLoc.getLine() + ":" + startLoc.getOffset() + " " + code);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package ts.core.tests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+import ts.TypeScriptException;
+import ts.nodejs.AbstractNodejsProcess;
+
+/**
+ * node.js process stub for the tests which don't need node.js: the requests
+ * are recorded and the messages of the process are sent by the test, or by
+ * {@link #onRequest(String)} to answer a request.
+ *
+ */
+public class StubNodejsProcess extends AbstractNodejsProcess {
+
+	private final List<String> requests;
+	private final CountDownLatch stopped;
+	private volatile boolean started;
+
+	public StubNodejsProcess() throws TypeScriptException {
+		super(null, new File("./samples"));
+		this.requests = Collections.synchronizedList(new ArrayList<String>());
+		this.stopped = new CountDownLatch(1);
+	}
+
+	@Override
+	public final void sendRequest(String request) throws TypeScriptException {
+		requests.add(request);
+		onRequest(request);
+	}
+
+	/**
+	 * Called when the given request is sent to the process.
+	 *
+	 * @param request
+	 *            the request.
+	 * @throws TypeScriptException
+	 */
+	protected void onRequest(String request) throws TypeScriptException {
+	}
+
+	/**
+	 * Returns the requests sent to the process.
+	 *
+	 * @return the requests sent to the process.
+	 */
+	public List<String> getRequests() {
+		return requests;
+	}
+
+	/**
+	 * Send the given line as an output of the process.
+	 *
+	 * @param message
+	 */
+	public void output(String message) {
+		notifyMessage(message);
+	}
+
+	/**
+	 * Send a tsserver success response to the given request.
+	 *
+	 * @param request
+	 *            the JSON request.
+	 * @param body
+	 *            the body of the response.
+	 */
+	public void respond(JsonObject request, JsonValue body) {
+		notifyMessage(new JsonObject().add("seq", 0).add("type", "response")
+				.add("command", request.get("command").asString()).add("request_seq", request.get("seq").asInt())
+				.add("success", true).add("body", body).toString());
+	}
+
+	/**
+	 * Send a tsserver event.
+	 *
+	 * @param event
+	 *            the event name.
+	 * @param body
+	 *            the body of the event.
+	 */
+	public void event(String event, JsonObject body) {
+		notifyMessage(new JsonObject().add("seq", 0).add("type", "event").add("event", event).add("body", body)
+				.toString());
+	}
+
+	@Override
+	public void start() {
+		started = true;
+	}
+
+	@Override
+	public boolean isStarted() {
+		return started;
+	}
+
+	@Override
+	public void kill() {
+		if (started) {
+			started = false;
+			notifyStopProcess();
+		}
+		stopped.countDown();
+	}
+
+	@Override
+	public void join() throws InterruptedException {
+		// like a process, runs until it is killed.
+		stopped.await();
+	}
+}
@@ -0,0 +1,269 @@
+package ts.resources;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+import ts.TypeScriptException;
+import ts.client.ITypeScriptServiceClient;
+import ts.client.ScriptKindName;
+import ts.client.TypeScriptServiceClient;
+import ts.core.tests.StubNodejsProcess;
+
+/**
+ * Tests for {@link DiagnosticsStore}.
+ *
+ */
+public class DiagnosticsStoreTest {
+
+	private DiagnosticsProcess process;
+	private TypeScriptProject project;
+	private DiagnosticsStore store;
+	private boolean compileOnSave;
+
+	@Before
+	public void createProject() throws TypeScriptException {
+		process = new DiagnosticsProcess();
+		compileOnSave = true;
+		project = new TypeScriptProject(new File("./samples"), new TestProjectSettings()) {
+			@Override
+			protected ITypeScriptServiceClient createServiceClient(File projectDir) throws TypeScriptException {
+				return new TypeScriptServiceClient(process, null);
+			}
+
+			@Override
+			protected boolean isCompileOnSaveEnabled() {
+				return compileOnSave;
+			}
+		};
+		store = project.getDiagnosticsStore();
+	}
+
+	@After
+	public void disposeProject() throws TypeScriptException {
+		project.dispose();
+	}
+
+	@Test
+	public void unchangedFileIsNotComputedAgain() throws Exception {
+		semantic("a.ts");
+		semantic("a.ts");
+		syntactic("a.ts");
+		syntactic("a.ts");
+		Assert.assertEquals(1, process.getCount("semanticDiagnosticsSync", "a.ts"));
+		Assert.assertEquals(1, process.getCount("syntacticDiagnosticsSync", "a.ts"));
+		Assert.assertEquals(2, store.getHitCount());
+		Assert.assertEquals(2, store.getMissCount());
+		Assert.assertNotNull(store.getComputedDiagnostics("a.ts", false));
+		Assert.assertNull(store.getComputedDiagnostics("a.ts", true));
+	}
+
+	@Test
+	public void changedFileInvalidatesAffectedFiles() throws Exception {
+		semantic("a.ts");
+		semantic("b.ts");
+		semantic("c.ts");
+		syntactic("b.ts");
+		process.affectedFiles.put("a.ts", Arrays.asList("a.ts", "b.ts"));
+
+		store.fileChanged("a.ts");
+		semantic("c.ts");
+		semantic("b.ts");
+		semantic("a.ts");
+		syntactic("b.ts");
+		Assert.assertEquals(1, process.getCount("compileOnSaveAffectedFileList", "a.ts"));
+		Assert.assertEquals(2, process.getCount("semanticDiagnosticsSync", "a.ts"));
+		Assert.assertEquals(2, process.getCount("semanticDiagnosticsSync", "b.ts"));
+		Assert.assertEquals(1, process.getCount("semanticDiagnosticsSync", "c.ts"));
+		Assert.assertEquals(1, process.getCount("syntacticDiagnosticsSync", "b.ts"));
+	}
+
+	@Test
+	public void unknownAffectedFilesInvalidatesAll() throws Exception {
+		semantic("a.ts");
+		semantic("b.ts");
+
+		store.fileChanged("a.ts");
+		semantic("b.ts");
+		Assert.assertEquals(1, process.getCount("compileOnSaveAffectedFileList", "a.ts"));
+		Assert.assertEquals(2, process.getCount("semanticDiagnosticsSync", "b.ts"));
+	}
+
+	@Test
+	public void knownAffectedFiles() throws Exception {
+		semantic("a.ts");
+		semantic("b.ts");
+		semantic("c.ts");
+
+		store.fileChanged("a.ts", Arrays.asList("a.ts", "b.ts"));
+		semantic("a.ts");
+		semantic("b.ts");
+		semantic("c.ts");
+		Assert.assertEquals(0, process.getCount("compileOnSaveAffectedFileList", "a.ts"));
+		Assert.assertEquals(2, process.getCount("semanticDiagnosticsSync", "a.ts"));
+		Assert.assertEquals(2, process.getCount("semanticDiagnosticsSync", "b.ts"));
+		Assert.assertEquals(1, process.getCount("semanticDiagnosticsSync", "c.ts"));
+	}
+
+	@Test
+	public void compileOnSaveDisabledInvalidatesAllWithoutRequest() throws Exception {
+		compileOnSave = false;
+		semantic("a.ts");
+		semantic("b.ts");
+
+		store.fileChanged("a.ts");
+		store.fileChanged("b.ts");
+		semantic("b.ts");
+		Assert.assertEquals(0, process.getCount("compileOnSaveAffectedFileList", "a.ts"));
+		Assert.assertEquals(0, process.getCount("compileOnSaveAffectedFileList", "b.ts"));
+		Assert.assertEquals(2, process.getCount("semanticDiagnosticsSync", "b.ts"));
+	}
+
+	@Test
+	public void openAndCloseKeepDiagnostics() throws Exception {
+		semantic("a.ts");
+		syntactic("a.ts");
+		TestFile tsFile = new TestFile(project, "a.ts", "var a = 1;");
+		tsFile.open();
+		semantic("a.ts");
+		syntactic("a.ts");
+		tsFile.close();
+		semantic("a.ts");
+		Assert.assertEquals(1, process.getCount("semanticDiagnosticsSync", "a.ts"));
+		Assert.assertEquals(1, process.getCount("syntacticDiagnosticsSync", "a.ts"));
+		Assert.assertEquals(0, process.getCount("compileOnSaveAffectedFileList", "a.ts"));
+	}
+
+	@Test
+	public void closedFileChangedOnDiskIsComputedAgain() throws Exception {
+		File file = File.createTempFile("diagnostics", ".ts");
+		try {
+			String fileName = file.getAbsolutePath();
+			semantic(fileName);
+			semantic("b.ts");
+			process.affectedFiles.put(fileName, Arrays.asList(fileName, "b.ts"));
+
+			// ex: VCS update of a file which is not opened.
+			Assert.assertTrue(file.setLastModified(file.lastModified() - 10000));
+			semantic(fileName);
+			semantic("b.ts");
+			Assert.assertEquals(2, process.getCount("semanticDiagnosticsSync", fileName));
+			Assert.assertEquals(1, process.getCount("compileOnSaveAffectedFileList", fileName));
+			Assert.assertEquals(2, process.getCount("semanticDiagnosticsSync", "b.ts"));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void restartClearsStore() throws Exception {
+		semantic("a.ts");
+		project.disposeServer();
+		semantic("a.ts");
+		Assert.assertEquals(2, process.getCount("semanticDiagnosticsSync", "a.ts"));
+	}
+
+	private void semantic(String fileName) throws Exception {
+		store.semanticDiagnostics(fileName, false).get(2000, TimeUnit.MILLISECONDS);
+	}
+
+	private void syntactic(String fileName) throws Exception {
+		store.syntacticDiagnostics(fileName, false).get(2000, TimeUnit.MILLISECONDS);
+	}
+
+	private static class TestFile extends AbstractTypeScriptFile {
+
+		private final String name;
+		private final String contents;
+
+		public TestFile(ITypeScriptProject tsProject, String name, String contents) {
+			super(tsProject, ScriptKindName.TS);
+			this.name = name;
+			this.contents = contents;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String getContents() {
+			return contents;
+		}
+
+		@Override
+		public String getPrefix(int position) {
+			return null;
+		}
+	}
+
+	/**
+	 * Process which counts the diagnostics requests and answers to
+	 * "compileOnSaveAffectedFileList" with the given affected files.
+	 */
+	private static class DiagnosticsProcess extends StubNodejsProcess {
+
+		private final Map<String, List<String>> affectedFiles;
+
+		public DiagnosticsProcess() throws TypeScriptException {
+			this.affectedFiles = new HashMap<String, List<String>>();
+		}
+
+		int getCount(String command, String file) {
+			int count = 0;
+			for (String request : getRequests()) {
+				JsonObject json = Json.parse(request).asObject();
+				if (command.equals(json.get("command").asString()) && file.equals(getFile(json))) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		@Override
+		protected void onRequest(String request) throws TypeScriptException {
+			JsonObject json = Json.parse(request).asObject();
+			String command = json.get("command").asString();
+			JsonValue body;
+			if ("semanticDiagnosticsSync".equals(command) || "syntacticDiagnosticsSync".equals(command)) {
+				body = new JsonArray();
+			} else if ("compileOnSaveAffectedFileList".equals(command)) {
+				JsonArray fileNames = new JsonArray();
+				List<String> files = affectedFiles.get(getFile(json));
+				if (files == null) {
+					// compileOnSave is disabled.
+					body = new JsonArray();
+				} else {
+					for (String file : files) {
+						fileNames.add(file);
+					}
+					body = new JsonArray()
+							.add(new JsonObject().add("projectFileName", "tsconfig.json").add("fileNames", fileNames));
+				}
+			} else {
+				return;
+			}
+			respond(json, body);
+		}
+
+		private static String getFile(JsonObject json) {
+			JsonValue arguments = json.get("arguments");
+			JsonValue file = arguments != null && arguments.isObject() ? arguments.asObject().get("file") : null;
+			return file != null ? file.asString() : null;
+		}
+	}
+}
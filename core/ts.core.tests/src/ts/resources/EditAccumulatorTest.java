@@ -0,0 +1,152 @@
+package ts.resources;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+
+import ts.TypeScriptException;
+import ts.client.TypeScriptServiceClient;
+import ts.core.tests.StubNodejsProcess;
+
+/**
+ * Tests for {@link EditAccumulator}.
+ *
+ */
+public class EditAccumulatorTest {
+
+	@Test
+	public void typingIsMerged() throws Exception {
+		StringBuilder contents = new StringBuilder("class A {\n}\n");
+		EditAccumulator accumulator = new EditAccumulator(contents.toString());
+		// type "foo", backspace, type "o()" on the 2nd line
+		add(contents, accumulator, 9, 0, "f");
+		add(contents, accumulator, 10, 0, "o");
+		add(contents, accumulator, 11, 0, "o");
+		add(contents, accumulator, 11, 1, "");
+		add(contents, accumulator, 11, 0, "o()");
+		Assert.assertEquals(1, accumulator.size());
+		Assert.assertEquals(4, accumulator.getMergedEditCount());
+
+		List<JsonObject> changes = flush(accumulator);
+		Assert.assertEquals(1, changes.size());
+		Assert.assertEquals(1, changes.get(0).get("line").asInt());
+		Assert.assertEquals(10, changes.get(0).get("offset").asInt());
+		Assert.assertEquals("foo()", changes.get(0).get("insertString").asString());
+		Assert.assertTrue(accumulator.isEmpty());
+	}
+
+	@Test
+	public void typeAndDeleteIsEmpty() throws Exception {
+		EditAccumulator accumulator = new EditAccumulator("abc");
+		accumulator.add(1, 0, "x");
+		accumulator.add(1, 1, "");
+		Assert.assertTrue(accumulator.isEmpty());
+	}
+
+	@Test
+	public void replaceContentsIsFullRangeChange() throws Exception {
+		EditAccumulator accumulator = new EditAccumulator("abc\r\ndef\n");
+		accumulator.add(0, 0, "x");
+		accumulator.replaceContents("new\ncontent");
+		List<JsonObject> changes = flush(accumulator);
+		Assert.assertEquals(1, changes.size());
+		JsonObject change = changes.get(0);
+		Assert.assertEquals(1, change.get("line").asInt());
+		Assert.assertEquals(1, change.get("offset").asInt());
+		Assert.assertEquals(3, change.get("endLine").asInt());
+		Assert.assertEquals(1, change.get("endOffset").asInt());
+		Assert.assertEquals("new\ncontent", change.get("insertString").asString());
+
+		// the next full-range change replaces the new content
+		accumulator.replaceContents("");
+		change = flush(accumulator).get(0);
+		Assert.assertEquals(2, change.get("endLine").asInt());
+		Assert.assertEquals(8, change.get("endOffset").asInt());
+	}
+
+	@Test
+	public void randomEdits() throws Exception {
+		Random random = new Random(7);
+		String alphabet = "ab\n\r";
+		StringBuilder contents = new StringBuilder("abc\ndef\r\nghi\n");
+		StringBuilder serverContents = new StringBuilder(contents);
+		EditAccumulator accumulator = new EditAccumulator(contents.toString());
+		int position = 0;
+		for (int i = 0; i < 50; i++) {
+			for (int j = random.nextInt(20); j >= 0; j--) {
+				// edits often near the previous one, like typing
+				if (random.nextBoolean()) {
+					position = random.nextInt(contents.length() + 1);
+				} else {
+					position = Math.max(0, Math.min(contents.length(), position + random.nextInt(5) - 2));
+				}
+				int length = random.nextInt(Math.min(3, contents.length() - position) + 1);
+				StringBuilder text = new StringBuilder();
+				for (int k = random.nextInt(3); k > 0; k--) {
+					text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+				}
+				add(contents, accumulator, position, length, text.toString());
+				position += text.length();
+			}
+			// apply the "change" commands to the content known by tsserver
+			for (JsonObject change : flush(accumulator)) {
+				String server = serverContents.toString();
+				int start = getPosition(server, change.get("line").asInt(), change.get("offset").asInt());
+				int end = getPosition(server, change.get("endLine").asInt(), change.get("endOffset").asInt());
+				serverContents.replace(start, end, change.get("insertString").asString());
+			}
+			Assert.assertEquals(contents.toString(), serverContents.toString());
+		}
+	}
+
+	private static void add(StringBuilder contents, EditAccumulator accumulator, int position, int length,
+			String text) {
+		accumulator.add(position, length, text);
+		contents.replace(position, position + length, text);
+	}
+
+	/**
+	 * Returns the position of the given line/offset like tsserver, where a
+	 * line ends with \n, \r\n or \r.
+	 */
+	private static int getPosition(String contents, int line, int offset) {
+		int position = 0;
+		for (int i = 1; i < line; i++) {
+			while (contents.charAt(position) != '\n' && contents.charAt(position) != '\r') {
+				position++;
+			}
+			if (contents.startsWith("\r\n", position)) {
+				position++;
+			}
+			position++;
+		}
+		return position + offset - 1;
+	}
+
+	/**
+	 * Flush the given accumulator and returns the arguments of the "change"
+	 * requests.
+	 */
+	private static List<JsonObject> flush(EditAccumulator accumulator) throws TypeScriptException {
+		StubNodejsProcess process = new StubNodejsProcess();
+		TypeScriptServiceClient client = new TypeScriptServiceClient(process, null);
+		try {
+			accumulator.flush(client, "a.ts");
+		} finally {
+			client.dispose();
+		}
+		List<JsonObject> changes = new ArrayList<JsonObject>();
+		for (String request : process.getRequests()) {
+			JsonObject json = Json.parse(request).asObject();
+			Assert.assertEquals("change", json.get("command").asString());
+			changes.add(json.get("arguments").asObject());
+		}
+		return changes;
+	}
+}
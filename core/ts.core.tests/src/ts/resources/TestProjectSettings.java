@@ -0,0 +1,124 @@
+package ts.resources;
+
+import java.io.File;
+
+import ts.client.completions.ICompletionEntryMatcher;
+import ts.client.format.FormatCodeSettings;
+import ts.cmd.tslint.TslintSettingsStrategy;
+
+/**
+ * Project settings for the tests which don't need node.js and TypeScript
+ * installations.
+ *
+ */
+class TestProjectSettings implements ITypeScriptProjectSettings {
+
+	@Override
+	public SynchStrategy getSynchStrategy() {
+		return SynchStrategy.CHANGE;
+	}
+
+	@Override
+	public File getNodejsInstallPath() {
+		return null;
+	}
+
+	@Override
+	public String getNodeVersion() {
+		return null;
+	}
+
+	@Override
+	public File getTscFile() {
+		return null;
+	}
+
+	@Override
+	public String getTypeScriptVersion() {
+		return "2.5.0";
+	}
+
+	@Override
+	public File getTypesScriptDir() {
+		return null;
+	}
+
+	@Override
+	public File getTsserverPluginsFile() {
+		return null;
+	}
+
+	@Override
+	public File getTslintFile() {
+		return null;
+	}
+
+	@Override
+	public File getTslintWorkerFile() {
+		return null;
+	}
+
+	@Override
+	public ICompletionEntryMatcher getCompletionEntryMatcher() {
+		return ICompletionEntryMatcher.LCS;
+	}
+
+	@Override
+	public boolean isUseCodeSnippetsOnMethodSuggest() {
+		return false;
+	}
+
+	@Override
+	public TslintSettingsStrategy getTslintStrategy() {
+		return null;
+	}
+
+	@Override
+	public File getCustomTslintJsonFile() {
+		return null;
+	}
+
+	@Override
+	public void dispose() {
+	}
+
+	@Override
+	public FormatCodeSettings getFormatOptions() {
+		return null;
+	}
+
+	@Override
+	public boolean isEnableTelemetry() {
+		return false;
+	}
+
+	@Override
+	public boolean isDisableAutomaticTypingAcquisition() {
+		return false;
+	}
+
+	@Override
+	public boolean isAutoRestartServer() {
+		return true;
+	}
+
+	@Override
+	public boolean isWarmSpareServer() {
+		return false;
+	}
+
+	@Override
+	public long getServerHealthProbeInterval() {
+		return 0;
+	}
+
+	@Override
+	public long getServerHealthProbeTimeout() {
+		return 0;
+	}
+
+	@Override
+	public boolean isEnableMetrics() {
+		return false;
+	}
+}
@@ -0,0 +1,255 @@
+package ts.resources;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import ts.TypeScriptException;
+import ts.client.ITypeScriptServiceClient;
+import ts.client.ScriptKindName;
+import ts.client.TypeScriptServiceClient;
+import ts.client.completions.ICompletionEntryMatcher;
+import ts.client.format.FormatCodeSettings;
+import ts.client.quickinfo.QuickInfo;
+import ts.cmd.tslint.TslintSettingsStrategy;
+import ts.nodejs.NodejsProcessManager;
+
+/**
+ * Tests for the restart of a crashed tsserver with the fake tsserver
+ * samples/fake-tsserver/tsserver.js (needs node.js).
+ *
+ */
+public class TypeScriptProjectRestartTest {
+
+	private static final File PROJECT_DIR = new File("./samples");
+	private static final File FAKE_TSSERVER = new File(PROJECT_DIR, "fake-tsserver/tsserver.js");
+
+	private TypeScriptProject project;
+
+	@Before
+	public void createProject() {
+		project = new TypeScriptProject(PROJECT_DIR, new TestProjectSettings()) {
+			@Override
+			protected ITypeScriptServiceClient createServiceClient(File projectDir) throws TypeScriptException {
+				return new TypeScriptServiceClient(
+						NodejsProcessManager.getInstance().create(projectDir, FAKE_TSSERVER, null, null, "tsserver"),
+						null);
+			}
+		};
+	}
+
+	@After
+	public void disposeProject() throws TypeScriptException {
+		project.dispose();
+	}
+
+	@Test
+	public void crashFailsPendingRequests() throws Exception {
+		ITypeScriptServiceClient client = project.getClient();
+		CompletableFuture<QuickInfo> crash = client.quickInfo("crash.ts", 1, 1);
+		try {
+			crash.get(2000, TimeUnit.MILLISECONDS);
+			Assert.fail("crash.ts request must fail");
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof TypeScriptException);
+		}
+		Assert.assertTrue(client.isCrashed());
+	}
+
+	@Test
+	public void restartReplaysOpenedFiles() throws Exception {
+		new TestFile(project, "a.ts", "var a;").open();
+		ITypeScriptServiceClient client = project.getClient();
+		Assert.assertEquals(Arrays.asList("a.ts"),
+				client.projectInfo("a.ts", null, true).get(2000, TimeUnit.MILLISECONDS).getFileNames());
+
+		// first crash: tsserver is restarted immediately and a.ts is opened again
+		client.quickInfo("crash.ts", 1, 1);
+		ITypeScriptServiceClient newClient = waitForRestart(client);
+		Assert.assertEquals(Arrays.asList("a.ts"),
+				newClient.projectInfo("a.ts", null, true).get(2000, TimeUnit.MILLISECONDS).getFileNames());
+
+		// second crash: tsserver is restarted after a delay
+		newClient.quickInfo("crash.ts", 1, 1);
+		while (!newClient.isDisposed()) {
+			Thread.sleep(10);
+		}
+		try {
+			project.getClient();
+			Assert.fail("tsserver must not be restarted before the backoff delay");
+		} catch (TypeScriptException e) {
+			// expected
+		}
+		waitForRestart(newClient);
+	}
+
+	@Test
+	public void disposedServerIsNotRestarted() throws Exception {
+		ITypeScriptServiceClient client = project.getClient();
+		project.disposeServer();
+		Assert.assertTrue(client.isDisposed());
+		Assert.assertFalse(client.isCrashed());
+		Assert.assertTrue(project.isServerDisposed());
+	}
+
+	private ITypeScriptServiceClient waitForRestart(ITypeScriptServiceClient oldClient) throws Exception {
+		long start = System.currentTimeMillis();
+		while (System.currentTimeMillis() - start < 5000) {
+			if (!project.isServerDisposed()) {
+				ITypeScriptServiceClient client = project.getClient();
+				if (client != oldClient) {
+					return client;
+				}
+			}
+			Thread.sleep(10);
+		}
+		Assert.fail("tsserver was not restarted");
+		return null;
+	}
+
+	private static class TestFile extends AbstractTypeScriptFile {
+
+		private final String name;
+		private final String contents;
+
+		public TestFile(ITypeScriptProject tsProject, String name, String contents) {
+			super(tsProject, ScriptKindName.TS);
+			this.name = name;
+			this.contents = contents;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String getContents() {
+			return contents;
+		}
+
+		@Override
+		public String getPrefix(int position) {
+			return null;
+		}
+	}
+
+	private static class TestProjectSettings implements ITypeScriptProjectSettings {
+
+		@Override
+		public SynchStrategy getSynchStrategy() {
+			return SynchStrategy.CHANGE;
+		}
+
+		@Override
+		public File getNodejsInstallPath() {
+			return null;
+		}
+
+		@Override
+		public String getNodeVersion() {
+			return null;
+		}
+
+		@Override
+		public File getTscFile() {
+			return null;
+		}
+
+		@Override
+		public String getTypeScriptVersion() {
+			return "2.5.0";
+		}
+
+		@Override
+		public File getTypesScriptDir() {
+			return null;
+		}
+
+		@Override
+		public File getTsserverPluginsFile() {
+			return null;
+		}
+
+		@Override
+		public File getTslintFile() {
+			return null;
+		}
+
+		@Override
+		public File getTslintWorkerFile() {
+			return null;
+		}
+
+		@Override
+		public ICompletionEntryMatcher getCompletionEntryMatcher() {
+			return ICompletionEntryMatcher.LCS;
+		}
+
+		@Override
+		public boolean isUseCodeSnippetsOnMethodSuggest() {
+			return false;
+		}
+
+		@Override
+		public TslintSettingsStrategy getTslintStrategy() {
+			return null;
+		}
+
+		@Override
+		public File getCustomTslintJsonFile() {
+			return null;
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public FormatCodeSettings getFormatOptions() {
+			return null;
+		}
+
+		@Override
+		public boolean isEnableTelemetry() {
+			return false;
+		}
+
+		@Override
+		public boolean isDisableAutomaticTypingAcquisition() {
+			return false;
+		}
+
+		@Override
+		public boolean isAutoRestartServer() {
+			return true;
+		}
+
+		@Override
+		public boolean isWarmSpareServer() {
+			return false;
+		}
+
+		@Override
+		public long getServerHealthProbeInterval() {
+			return 0;
+		}
+
+		@Override
+		public long getServerHealthProbeTimeout() {
+			return 0;
+		}
+
+		@Override
+		public boolean isEnableMetrics() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package ts.resources.jsonconfig;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TsconfigFileMatcher}.
+ *
+ */
+public class TsconfigFileMatcherTest {
+
+	@Test
+	public void files() {
+		TsconfigFileMatcher matcher = TsconfigFileMatcher.create(Arrays.asList("src/a.ts", "./lib/b.ts"), null,
+				Arrays.asList("src"));
+		Assert.assertTrue(matcher.isInFiles("src/a.ts", false));
+		Assert.assertTrue(matcher.isInFiles("lib/b.ts", false));
+		Assert.assertFalse(matcher.isInFiles("src/c.ts", false));
+		Assert.assertTrue(matcher.isInFiles("src", true));
+		Assert.assertFalse(matcher.isInFiles("sr", true));
+		Assert.assertFalse(matcher.isInFiles("srcfoo", true));
+		// files are never excluded
+		Assert.assertTrue(matcher.isInScope("src/a.ts", false));
+		Assert.assertFalse(matcher.isInScope("src/c.ts", false));
+		Assert.assertFalse(matcher.isInScope("other", true));
+	}
+
+	@Test
+	public void includeFolder() {
+		TsconfigFileMatcher matcher = TsconfigFileMatcher.create(null, Arrays.asList("src", "typings/*.d.ts"), null);
+		Assert.assertTrue(matcher.isInScope("src/a.ts", false));
+		Assert.assertTrue(matcher.isInScope("src/deep/er/a.ts", false));
+		Assert.assertTrue(matcher.isInScope("src/deep", true));
+		Assert.assertTrue(matcher.isInScope("", true));
+		Assert.assertFalse(matcher.isInScope("srcfoo/a.ts", false));
+		Assert.assertFalse(matcher.isInScope("lib", true));
+		Assert.assertTrue(matcher.isInScope("typings/node.d.ts", false));
+		Assert.assertFalse(matcher.isInScope("typings/node.ts", false));
+		Assert.assertFalse(matcher.isInScope("typings/deep/node.d.ts", false));
+		// hidden and package folders are not matched by the wildcards
+		Assert.assertFalse(matcher.isInScope("src/.hidden/a.ts", false));
+		Assert.assertFalse(matcher.isInScope("src/node_modules/a.ts", false));
+	}
+
+	@Test
+	public void includeWildcards() {
+		TsconfigFileMatcher matcher = TsconfigFileMatcher.create(null,
+				Arrays.asList("packages/*/src/**/*.ts", "test?.ts"), null);
+		Assert.assertTrue(matcher.isInScope("packages/core/src/a.ts", false));
+		Assert.assertTrue(matcher.isInScope("packages/core/src/x/y/a.ts", false));
+		Assert.assertFalse(matcher.isInScope("packages/core/lib/a.ts", false));
+		Assert.assertFalse(matcher.isInScope("packages/core/src/a.tsx", false));
+		Assert.assertTrue(matcher.isInScope("packages/core", true));
+		Assert.assertFalse(matcher.isInScope("packages/core/lib", true));
+		Assert.assertTrue(matcher.isInScope("test1.ts", false));
+		Assert.assertFalse(matcher.isInScope("test12.ts", false));
+	}
+
+	@Test
+	public void exclude() {
+		List<String> all = Collections.singletonList("**/*");
+		TsconfigFileMatcher matcher = TsconfigFileMatcher.create(null, all,
+				Arrays.asList("node_modules", "dist/", "**/*.spec.ts", "src/gen*"));
+		Assert.assertTrue(matcher.isExcluded("node_modules"));
+		Assert.assertTrue(matcher.isExcluded("node_modules/a/index.ts"));
+		Assert.assertFalse(matcher.isExcluded("node_modules_foo/a.ts"));
+		Assert.assertTrue(matcher.isExcluded("dist/a.ts"));
+		Assert.assertTrue(matcher.isExcluded("src/deep/a.spec.ts"));
+		Assert.assertTrue(matcher.isExcluded("src/generated/a.ts"));
+		Assert.assertFalse(matcher.isExcluded("src/a.ts"));
+		Assert.assertTrue(matcher.isInScope("src/a.ts", false));
+		Assert.assertFalse(matcher.isInScope("src/a.spec.ts", false));
+		Assert.assertFalse(matcher.isInScope("dist", true));
+		Assert.assertTrue(matcher.isInScope("src", true));
+	}
+
+	@Test
+	public void relativePaths() {
+		TsconfigFileMatcher matcher = TsconfigFileMatcher.create(null, Arrays.asList("../shared/src", "./src/../lib"),
+				Arrays.asList("..\\shared\\src\\test"));
+		Assert.assertTrue(matcher.isInScope("../shared/src/a.ts", false));
+		Assert.assertFalse(matcher.isInScope("../shared/src/test/a.ts", false));
+		Assert.assertTrue(matcher.isInScope("lib/a.ts", false));
+		Assert.assertFalse(matcher.isInScope("src/a.ts", false));
+	}
+}
@@ -0,0 +1,92 @@
+package ts.resources.jsonconfig;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.gson.JsonSyntaxException;
+
+/**
+ * Tests for {@link TsconfigJson}.
+ *
+ */
+public class TsconfigJsonTest {
+
+	@Test
+	public void defaultInclude() throws IOException {
+		File dir = Files.createTempDirectory("tsconfig").toFile();
+		TsconfigJson tsconfig = TsconfigJson.load(write(dir, "tsconfig.json",
+				"{ \"compilerOptions\": { \"outDir\": \"./dist\" } }"));
+		Assert.assertTrue(tsconfig.isInScope("src/a.ts", false));
+		Assert.assertFalse(tsconfig.isInScope("dist/a.ts", false));
+		Assert.assertFalse(tsconfig.isInScope("node_modules/a/index.ts", false));
+	}
+
+	@Test
+	public void extendsChain() throws IOException {
+		File dir = Files.createTempDirectory("tsconfig").toFile();
+		write(dir, "configs/base.json", "{\n" + "  // comments are allowed\n"
+				+ "  \"compilerOptions\": { \"target\": \"es5\", \"outDir\": \"../build\", \"noImplicitAny\": true },\n"
+				+ "  \"include\": [\"../shared/**/*\"],\n" + "  \"exclude\": [\"../shared/test\"]\n" + "}");
+		write(dir, "configs/strict.json",
+				"{ \"extends\": \"./base\", \"compilerOptions\": { \"noImplicitAny\": false } }");
+		File tsconfigFile = write(dir, "app/tsconfig.json",
+				"{ \"extends\": \"../configs/strict.json\", \"compilerOptions\": { \"target\": \"es6\" } }");
+
+		TsconfigJson tsconfig = TsconfigJson.load(tsconfigFile);
+		Assert.assertEquals("../configs/strict.json", tsconfig.getExtends());
+		Assert.assertEquals("es6", tsconfig.getCompilerOptions().getTarget());
+		Assert.assertFalse(tsconfig.getCompilerOptions().isNoImplicitAny());
+		Assert.assertEquals("../build", tsconfig.getCompilerOptions().getOutDir());
+		Assert.assertEquals(Arrays.asList("../shared/**/*"), tsconfig.getInclude());
+		Assert.assertTrue(tsconfig.isInScope("../shared/a.ts", false));
+		Assert.assertFalse(tsconfig.isInScope("../shared/test/a.ts", false));
+		Assert.assertFalse(tsconfig.isInScope("src/a.ts", false));
+	}
+
+	@Test
+	public void extendsOverridesSections() throws IOException {
+		File dir = Files.createTempDirectory("tsconfig").toFile();
+		write(dir, "base.json", "{ \"files\": [\"a.ts\"], \"include\": [\"src\"] }");
+		TsconfigJson tsconfig = TsconfigJson.load(write(dir, "tsconfig.json",
+				"{ \"extends\": \"./base.json\", \"include\": [\"lib\"] }"));
+		Assert.assertTrue(tsconfig.isInScope("a.ts", false));
+		Assert.assertTrue(tsconfig.isInScope("lib/b.ts", false));
+		Assert.assertFalse(tsconfig.isInScope("src/b.ts", false));
+	}
+
+	@Test
+	public void missingExtendsIsIgnored() throws IOException {
+		File dir = Files.createTempDirectory("tsconfig").toFile();
+		TsconfigJson tsconfig = TsconfigJson.load(write(dir, "tsconfig.json",
+				"{ \"extends\": \"./missing\", \"include\": [\"src\"] }"));
+		Assert.assertTrue(tsconfig.isInScope("src/a.ts", false));
+	}
+
+	@Test(expected = JsonSyntaxException.class)
+	public void circularExtends() throws IOException {
+		File dir = Files.createTempDirectory("tsconfig").toFile();
+		write(dir, "base.json", "{ \"extends\": \"./tsconfig.json\" }");
+		TsconfigJson.load(write(dir, "tsconfig.json", "{ \"extends\": \"./base.json\" }"));
+	}
+
+	private static File write(File dir, String name, String content) throws IOException {
+		File file = new File(dir, name);
+		file.getParentFile().mkdirs();
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+		file.deleteOnExit();
+		return file;
+	}
+}
@@ -22,4 +22,19 @@ public interface IInterceptor {
 
 	void handleError(Throwable error, ITypeScriptServiceClient client, String methodName,
 			long ellapsedTime);
+
+	/**
+	 * Handle a request answered by the response cache of the client without
+	 * being sent to tsserver.
+	 * 
+	 * @param request
+	 *            the request.
+	 * @param response
+	 *            the cached response.
+	 * @param json
+	 *            the cached JSON response message.
+	 * @param client
+	 */
+	void handleCachedResponse(Request<?> request, Response<?> response, String json,
+			ITypeScriptServiceClient client);
 }
@@ -12,6 +12,7 @@ package ts.client;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import ts.TypeScriptException;
 import ts.client.codefixes.CodeAction;
@@ -164,6 +165,26 @@ public interface ITypeScriptServiceClient {
 
 	CompletableFuture<List<DiagnosticEvent>> geterr(String[] files, int delay) throws TypeScriptException;
 
+	/**
+	 * Get the syntactic and semantic diagnostics of the given files with a
+	 * single "geterr" request. The given listener is notified with each
+	 * diagnostics event as soon as it is received, and the returned future is
+	 * completed when tsserver notifies that the request is completed (with the
+	 * "requestCompleted" event).
+	 * 
+	 * @param files
+	 *            the files to validate.
+	 * @param delay
+	 *            the delay in milliseconds before tsserver starts the
+	 *            validation.
+	 * @param listener
+	 *            the listener notified with each diagnostics event.
+	 * @return the diagnostics events of all files.
+	 * @throws TypeScriptException
+	 */
+	CompletableFuture<List<DiagnosticEvent>> geterr(String[] files, int delay, Consumer<DiagnosticEvent> listener)
+			throws TypeScriptException;
+
 	CompletableFuture<List<DiagnosticEvent>> geterrForProject(String file, int delay, ProjectInfo projectInfo)
 			throws TypeScriptException;
 
@@ -302,8 +323,25 @@ public interface ITypeScriptServiceClient {
 
 	void join() throws InterruptedException;
 
+	/**
+	 * Start the tsserver process if it is not already started.
+	 * 
+	 * @throws TypeScriptException
+	 */
+	void start() throws TypeScriptException;
+
 	boolean isDisposed();
 
+	/**
+	 * Returns true if the tsserver process has stopped without being disposed
+	 * by the client (crash, killed process, no response to the health probe) and
+	 * false otherwise.
+	 * 
+	 * @return true if the tsserver process has stopped without being disposed
+	 *         by the client and false otherwise.
+	 */
+	boolean isCrashed();
+
 	void dispose();
 
 }
@@ -45,6 +45,15 @@ public class LoggingInterceptor implements IInterceptor {
 		errPrintln("-----------------------------------");
 	}
 
+	@Override
+	public void handleCachedResponse(Request<?> request, Response<?> response, String json,
+			ITypeScriptServiceClient client) {
+		outPrintln("-----------------------------------");
+		outPrintln("TypeScript cached response#" + request.getCommand() + ": ");
+		outPrintln(json);
+		outPrintln("-----------------------------------");
+	}
+
 	protected void outPrintln(String line) {
 		System.out.println(line);
 	}
@@ -0,0 +1,72 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Priority lane of a tsserver command used by the {@link RequestScheduler}.
+ *
+ */
+public enum RequestPriority {
+
+	/**
+	 * Latency-critical commands triggered by the user while typing
+	 * (completions, quickinfo, signatureHelp...).
+	 */
+	INTERACTIVE(CommandNames.Completions, CommandNames.CompletionEntryDetails, CommandNames.QuickInfo,
+			CommandNames.SignatureHelp),
+
+	/**
+	 * Commands which are sent in the order of the call (open, change,
+	 * configure, format, rename, compileOnSave...).
+	 */
+	NORMAL,
+
+	/**
+	 * Read-only commands which can be held back while interactive commands are
+	 * outstanding (geterr, navtree, references...). Commands with side effects
+	 * like compileOnSaveEmitFile must not be held back, otherwise they could be
+	 * sent after a request which depends on them.
+	 */
+	BACKGROUND(CommandNames.Geterr, CommandNames.GeterrForProject, CommandNames.NavTree, CommandNames.NavBar,
+			CommandNames.References, CommandNames.Occurrences);
+
+	private static final Map<String, RequestPriority> PRIORITIES;
+
+	static {
+		PRIORITIES = new HashMap<>();
+		for (RequestPriority priority : values()) {
+			for (CommandNames command : priority.commands) {
+				PRIORITIES.put(command.getName(), priority);
+			}
+		}
+	}
+
+	private final CommandNames[] commands;
+
+	private RequestPriority(CommandNames... commands) {
+		this.commands = commands;
+	}
+
+	/**
+	 * Returns the priority of the given tsserver command.
+	 * 
+	 * @param command
+	 *            the tsserver command name.
+	 * @return the priority of the given tsserver command.
+	 */
+	public static RequestPriority getPriority(String command) {
+		RequestPriority priority = PRIORITIES.get(command);
+		return priority != null ? priority : NORMAL;
+	}
+}
@@ -0,0 +1,599 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import ts.TypeScriptException;
+import ts.internal.SchedulerHelper;
+import ts.internal.client.protocol.FileRequestArgs;
+import ts.internal.client.protocol.GeterrForProjectRequestArgs;
+import ts.internal.client.protocol.GeterrRequestArgs;
+import ts.internal.client.protocol.GsonHelper;
+import ts.internal.client.protocol.Request;
+import ts.internal.client.protocol.Response;
+
+/**
+ * Client-side scheduler of the tsserver requests:
+ * 
+ * <ul>
+ * <li>{@link RequestPriority#BACKGROUND} requests are held back while
+ * {@link RequestPriority#INTERACTIVE} requests are outstanding, so that a slow
+ * geterr or references doesn't sit in front of a completions in the tsserver
+ * queue.</li>
+ * <li>duplicate idempotent requests (same command, arguments and file
+ * version) share the same in-flight request.</li>
+ * <li>the responses of read-only queries are kept in a {@link ResponseCache}
+ * until the next update of the project.</li>
+ * </ul>
+ * 
+ * Requests which update a file (open, change, close, reload) send the held
+ * requests before them, because the positions of the held requests were
+ * computed against the previous content of the file.
+ *
+ */
+public class RequestScheduler {
+
+	private static final long DEFAULT_MAX_HOLD_TIME = 2000;
+
+	private static final Set<String> UPDATE_COMMANDS = names(CommandNames.Open, CommandNames.Close,
+			CommandNames.Change, CommandNames.Reload);
+
+	// geterr and geterrForProject are not coalesced because their
+	// diagnostics events are dispatched to the listener of each request.
+	private static final Set<String> IDEMPOTENT_COMMANDS = names(CommandNames.QuickInfo, CommandNames.SignatureHelp,
+			CommandNames.Definition, CommandNames.Implementation, CommandNames.References, CommandNames.Occurrences,
+			CommandNames.ProjectInfo, CommandNames.DocCommentTemplate);
+
+	private static final Set<String> CACHEABLE_COMMANDS = names(CommandNames.QuickInfo, CommandNames.Definition,
+			CommandNames.Implementation, CommandNames.NavTree, CommandNames.NavBar, CommandNames.Occurrences,
+			CommandNames.References);
+
+	/**
+	 * Executor which sends a request to tsserver.
+	 */
+	interface RequestExecutor {
+
+		CompletableFuture<Object> execute(Request<?> request, boolean expectsResult) throws TypeScriptException;
+
+		/**
+		 * Called when the given request is answered by the cache without being
+		 * sent to tsserver.
+		 * 
+		 * @param request
+		 *            the request.
+		 * @param response
+		 *            the cached response bound with the request.
+		 * @param message
+		 *            the cached JSON response message.
+		 */
+		void cached(Request<?> request, Response<?> response, String message);
+	}
+
+	private final RequestExecutor executor;
+	private final ResponseCache cache;
+	private final Object lock = new Object();
+
+	private final Deque<HeldRequest> heldRequests;
+	private final Map<String, SharedRequest> sharedRequests;
+	// version of the opened files, the value of an update counter shared by
+	// all files so that a closed and reopened file never gets a version used
+	// by an in-flight request.
+	private final Map<String, Long> fileVersions;
+	private long updateCount;
+	// cache version of the time when the cacheable requests were sent, by
+	// request seq
+	private final Map<Integer, Long> cacheableRequests;
+	private int interactiveRequestCount;
+	private ScheduledFuture<?> holdTimeout;
+
+	private boolean enabled;
+	private long maxHoldTime;
+
+	// statistics
+	private int maxHeldRequestCount;
+	private long releasedRequestCount;
+	private long coalescedRequestCount;
+	private long totalWaitTime;
+	private long maxWaitTime;
+
+	RequestScheduler(RequestExecutor executor) {
+		this.executor = executor;
+		this.cache = new ResponseCache();
+		this.heldRequests = new ArrayDeque<>();
+		this.sharedRequests = new HashMap<>();
+		this.fileVersions = new HashMap<>();
+		this.cacheableRequests = new HashMap<>();
+		this.enabled = true;
+		this.maxHoldTime = DEFAULT_MAX_HOLD_TIME;
+	}
+
+	/**
+	 * Schedule the given request.
+	 * 
+	 * @param request
+	 *            the request to send.
+	 * @param expectsResult
+	 *            true if the request expects a response and false otherwise.
+	 * @return the future of the response and null if the request doesn't expect
+	 *         a response.
+	 * @throws TypeScriptException
+	 */
+	@SuppressWarnings("unchecked")
+	<T> CompletableFuture<T> schedule(Request<?> request, boolean expectsResult) throws TypeScriptException {
+		return (CompletableFuture<T>) doSchedule(request, expectsResult);
+	}
+
+	private CompletableFuture<Object> doSchedule(Request<?> request, boolean expectsResult)
+			throws TypeScriptException {
+		String command = request.getCommand();
+		if (UPDATE_COMMANDS.contains(command)) {
+			releaseHeldRequests();
+			cache.invalidate();
+			synchronized (lock) {
+				boolean close = CommandNames.Close.getName().equals(command);
+				for (String file : getFiles(request.getArguments())) {
+					if (close) {
+						fileVersions.remove(file);
+					} else {
+						fileVersions.put(file, ++updateCount);
+					}
+				}
+			}
+			return executor.execute(request, expectsResult);
+		}
+		if (!expectsResult) {
+			return executor.execute(request, false);
+		}
+		if (CACHEABLE_COMMANDS.contains(command)) {
+			long version = cache.getVersion();
+			String message = cache.get(getKey(request));
+			if (message != null) {
+				// bind a new response with the request of the caller.
+				Response<Object> response = request.parseResponse(GsonHelper.createReader(message));
+				executor.cached(request, response, message);
+				return CompletableFuture.completedFuture(response.getBody());
+			}
+			int seq = request.getSeq();
+			synchronized (lock) {
+				cacheableRequests.put(seq, version);
+			}
+			CompletableFuture<Object> result = scheduleQuery(request);
+			result.whenComplete((r, e) -> {
+				synchronized (lock) {
+					cacheableRequests.remove(seq);
+				}
+			});
+			return result;
+		}
+		return scheduleQuery(request);
+	}
+
+	/**
+	 * Cache the JSON message of the given successful response if the request
+	 * is cacheable.
+	 * 
+	 * @param request
+	 *            the request.
+	 * @param message
+	 *            the JSON response message of tsserver.
+	 */
+	void responseReceived(Request<?> request, String message) {
+		Long version;
+		synchronized (lock) {
+			version = cacheableRequests.remove(request.getSeq());
+		}
+		if (version != null) {
+			cache.put(getKey(request), version, message);
+		}
+	}
+
+	private CompletableFuture<Object> scheduleQuery(Request<?> request) throws TypeScriptException {
+		if (!isEnabled()) {
+			return executor.execute(request, true);
+		}
+		String command = request.getCommand();
+		RequestPriority priority = RequestPriority.getPriority(command);
+		String key = null;
+		synchronized (lock) {
+			key = getCoalescingKey(request);
+			if (key != null) {
+				SharedRequest shared = sharedRequests.get(key);
+				if (shared != null && !shared.source.isDone()) {
+					coalescedRequestCount++;
+					return shared.subscribe();
+				}
+			}
+			if (priority == RequestPriority.BACKGROUND && interactiveRequestCount > 0) {
+				// interactive requests are outstanding, hold back the request.
+				HeldRequest held = new HeldRequest(request);
+				heldRequests.add(held);
+				maxHeldRequestCount = Math.max(maxHeldRequestCount, heldRequests.size());
+				if (holdTimeout == null) {
+					holdTimeout = SchedulerHelper.getScheduler().schedule(this::releaseHeldRequests, maxHoldTime,
+							TimeUnit.MILLISECONDS);
+				}
+				return key != null ? share(key, held.result) : held.result;
+			}
+			if (priority == RequestPriority.INTERACTIVE) {
+				interactiveRequestCount++;
+			}
+		}
+		CompletableFuture<Object> result;
+		try {
+			result = executor.execute(request, true);
+		} catch (TypeScriptException e) {
+			if (priority == RequestPriority.INTERACTIVE) {
+				interactiveRequestDone();
+			}
+			throw e;
+		}
+		if (priority == RequestPriority.INTERACTIVE) {
+			result.whenComplete((r, e) -> interactiveRequestDone());
+		}
+		if (key != null) {
+			synchronized (lock) {
+				if (!sharedRequests.containsKey(key)) {
+					return share(key, result);
+				}
+			}
+		}
+		return result;
+	}
+
+	private CompletableFuture<Object> share(String key, CompletableFuture<Object> source) {
+		SharedRequest shared = new SharedRequest(key, source);
+		sharedRequests.put(key, shared);
+		source.whenComplete((r, e) -> {
+			synchronized (lock) {
+				sharedRequests.remove(key, shared);
+			}
+		});
+		return shared.subscribe();
+	}
+
+	private void interactiveRequestDone() {
+		boolean release = false;
+		synchronized (lock) {
+			interactiveRequestCount--;
+			release = interactiveRequestCount == 0 && !heldRequests.isEmpty();
+		}
+		if (release) {
+			releaseHeldRequests();
+		}
+	}
+
+	/**
+	 * Send the held background requests.
+	 */
+	private void releaseHeldRequests() {
+		List<HeldRequest> requests = null;
+		synchronized (lock) {
+			if (holdTimeout != null) {
+				holdTimeout.cancel(false);
+				holdTimeout = null;
+			}
+			if (heldRequests.isEmpty()) {
+				return;
+			}
+			requests = new ArrayList<>(heldRequests);
+			heldRequests.clear();
+		}
+		for (HeldRequest held : requests) {
+			held.send();
+		}
+	}
+
+	private String getCoalescingKey(Request<?> request) {
+		if (!IDEMPOTENT_COMMANDS.contains(request.getCommand())) {
+			return null;
+		}
+		StringBuilder key = new StringBuilder();
+		for (String file : getFiles(request.getArguments())) {
+			key.append(fileVersions.getOrDefault(file, 0L)).append('#');
+		}
+		return key.append(getKey(request)).toString();
+	}
+
+	private static String getKey(Request<?> request) {
+		return request.getCommand() + GsonHelper.DEFAULT_GSON.toJson(request.getArguments());
+	}
+
+	private static List<String> getFiles(Object arguments) {
+		if (arguments instanceof FileRequestArgs) {
+			return Arrays.asList(((FileRequestArgs) arguments).getFile());
+		}
+		if (arguments instanceof GeterrRequestArgs) {
+			return Arrays.asList(((GeterrRequestArgs) arguments).getFiles());
+		}
+		if (arguments instanceof GeterrForProjectRequestArgs) {
+			return Arrays.asList(((GeterrForProjectRequestArgs) arguments).getFile());
+		}
+		return new ArrayList<>();
+	}
+
+	private static Set<String> names(CommandNames... commands) {
+		Set<String> names = new HashSet<>();
+		for (CommandNames command : commands) {
+			names.add(command.getName());
+		}
+		return names;
+	}
+
+	/**
+	 * Returns the cache of the responses of read-only queries.
+	 * 
+	 * @return the cache of the responses of read-only queries.
+	 */
+	public ResponseCache getResponseCache() {
+		return cache;
+	}
+
+	/**
+	 * Returns true if the scheduler holds back and coalesces requests and false
+	 * if requests are sent in the order of the call.
+	 * 
+	 * @return true if the scheduler holds back and coalesces requests and false
+	 *         if requests are sent in the order of the call.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enable or disable the scheduler.
+	 * 
+	 * @param enabled
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		if (!enabled) {
+			releaseHeldRequests();
+		}
+	}
+
+	/**
+	 * Returns the max time in milliseconds that a background request can be
+	 * held back.
+	 * 
+	 * @return the max time in milliseconds that a background request can be
+	 *         held back.
+	 */
+	public long getMaxHoldTime() {
+		return maxHoldTime;
+	}
+
+	/**
+	 * Set the max time in milliseconds that a background request can be held
+	 * back.
+	 * 
+	 * @param maxHoldTime
+	 */
+	public void setMaxHoldTime(long maxHoldTime) {
+		this.maxHoldTime = maxHoldTime;
+	}
+
+	/**
+	 * Returns the number of outstanding interactive requests.
+	 * 
+	 * @return the number of outstanding interactive requests.
+	 */
+	public int getInteractiveRequestCount() {
+		synchronized (lock) {
+			return interactiveRequestCount;
+		}
+	}
+
+	/**
+	 * Returns the number of background requests which are currently held back
+	 * (queue depth).
+	 * 
+	 * @return the number of background requests which are currently held back.
+	 */
+	public int getHeldRequestCount() {
+		synchronized (lock) {
+			return heldRequests.size();
+		}
+	}
+
+	/**
+	 * Returns the max number of background requests which were held back at
+	 * the same time.
+	 * 
+	 * @return the max number of background requests which were held back at
+	 *         the same time.
+	 */
+	public int getMaxHeldRequestCount() {
+		synchronized (lock) {
+			return maxHeldRequestCount;
+		}
+	}
+
+	/**
+	 * Returns the number of background requests which were held back and then
+	 * sent.
+	 * 
+	 * @return the number of background requests which were held back and then
+	 *         sent.
+	 */
+	public long getReleasedRequestCount() {
+		synchronized (lock) {
+			return releasedRequestCount;
+		}
+	}
+
+	/**
+	 * Returns the number of requests which were coalesced with an in-flight
+	 * request.
+	 * 
+	 * @return the number of requests which were coalesced with an in-flight
+	 *         request.
+	 */
+	public long getCoalescedRequestCount() {
+		synchronized (lock) {
+			return coalescedRequestCount;
+		}
+	}
+
+	/**
+	 * Returns the average time in milliseconds that the released background
+	 * requests were held back.
+	 * 
+	 * @return the average time in milliseconds that the released background
+	 *         requests were held back.
+	 */
+	public long getAverageWaitTime() {
+		synchronized (lock) {
+			return releasedRequestCount > 0 ? toMs(totalWaitTime / releasedRequestCount) : 0;
+		}
+	}
+
+	/**
+	 * Returns the max time in milliseconds that a background request was held
+	 * back.
+	 * 
+	 * @return the max time in milliseconds that a background request was held
+	 *         back.
+	 */
+	public long getMaxWaitTime() {
+		synchronized (lock) {
+			return toMs(maxWaitTime);
+		}
+	}
+
+	/**
+	 * Reset the statistics of the scheduler.
+	 */
+	public void resetStatistics() {
+		synchronized (lock) {
+			maxHeldRequestCount = heldRequests.size();
+			releasedRequestCount = 0;
+			coalescedRequestCount = 0;
+			totalWaitTime = 0;
+			maxWaitTime = 0;
+		}
+	}
+
+	private static long toMs(long nanos) {
+		return nanos / 1000000L;
+	}
+
+	/**
+	 * Background request held back while interactive requests are outstanding.
+	 */
+	private class HeldRequest {
+
+		private final Request<?> request;
+		private final long startTime;
+		private final CompletableFuture<Object> result;
+
+		HeldRequest(Request<?> request) {
+			this.request = request;
+			this.startTime = System.nanoTime();
+			this.result = new CompletableFuture<Object>() {
+
+				@Override
+				public boolean cancel(boolean mayInterruptIfRunning) {
+					synchronized (lock) {
+						heldRequests.remove(HeldRequest.this);
+					}
+					return super.cancel(mayInterruptIfRunning);
+				}
+			};
+		}
+
+		void send() {
+			if (result.isDone()) {
+				// cancelled
+				return;
+			}
+			long waitTime = System.nanoTime() - startTime;
+			synchronized (lock) {
+				releasedRequestCount++;
+				totalWaitTime += waitTime;
+				maxWaitTime = Math.max(maxWaitTime, waitTime);
+			}
+			try {
+				CompletableFuture<Object> response = executor.execute(request, true);
+				response.whenComplete((r, e) -> complete(result, r, e));
+				result.whenComplete((r, e) -> {
+					if (result.isCancelled()) {
+						response.cancel(true);
+					}
+				});
+			} catch (TypeScriptException e) {
+				result.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * In-flight request shared by the callers of the same idempotent request.
+	 * The request is cancelled when all callers have cancelled their future.
+	 */
+	private class SharedRequest {
+
+		private final String key;
+		private final CompletableFuture<Object> source;
+		private int subscribers;
+
+		SharedRequest(String key, CompletableFuture<Object> source) {
+			this.key = key;
+			this.source = source;
+		}
+
+		CompletableFuture<Object> subscribe() {
+			subscribers++;
+			CompletableFuture<Object> result = new CompletableFuture<Object>() {
+
+				@Override
+				public boolean cancel(boolean mayInterruptIfRunning) {
+					boolean cancelled = super.cancel(mayInterruptIfRunning);
+					if (cancelled) {
+						unsubscribe();
+					}
+					return cancelled;
+				}
+			};
+			source.whenComplete((r, e) -> complete(result, r, e));
+			return result;
+		}
+
+		private void unsubscribe() {
+			synchronized (lock) {
+				if (--subscribers > 0) {
+					return;
+				}
+				sharedRequests.remove(key, this);
+			}
+			source.cancel(true);
+		}
+	}
+
+	private static void complete(CompletableFuture<Object> result, Object value, Throwable e) {
+		if (e != null) {
+			result.completeExceptionally(e);
+		} else {
+			result.complete(value);
+		}
+	}
+}
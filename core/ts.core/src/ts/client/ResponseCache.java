@@ -0,0 +1,155 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of the responses of read-only tsserver queries (quickinfo,
+ * definition, navtree, occurrences, references...).
+ * 
+ * A response is cached with the project-wide edit version of the time when the
+ * request was sent. The version is incremented (and the cache cleared) on
+ * each update of a file and on project-structure events, so a response which
+ * was computed against an old content is never cached. The JSON message of
+ * the response is cached, and bound again with the request of each caller, so
+ * that callers don't share (and can modify) the same response instance and
+ * the locations are bound with the position provider of the caller.
+ *
+ */
+public class ResponseCache {
+
+	private static final int DEFAULT_MAX_SIZE = 200;
+
+	private final Map<String, String> responses;
+	private int maxSize;
+	private long version;
+
+	// statistics
+	private long hitCount;
+	private long missCount;
+
+	ResponseCache() {
+		this.maxSize = DEFAULT_MAX_SIZE;
+		this.responses = new LinkedHashMap<String, String>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > ResponseCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached JSON response message of the given key and null
+	 * otherwise.
+	 * 
+	 * @param key
+	 *            the key of the request.
+	 * @return the cached JSON response message of the given key and null
+	 *         otherwise.
+	 */
+	synchronized String get(String key) {
+		String response = responses.get(key);
+		if (response != null) {
+			hitCount++;
+		} else {
+			missCount++;
+		}
+		return response;
+	}
+
+	/**
+	 * Cache the given response if the project was not updated since the given
+	 * version.
+	 * 
+	 * @param key
+	 *            the key of the request.
+	 * @param version
+	 *            the edit version of the time when the request was sent.
+	 * @param response
+	 *            the JSON response message.
+	 */
+	synchronized void put(String key, long version, String response) {
+		if (response != null && version == this.version && maxSize > 0) {
+			responses.put(key, response);
+		}
+	}
+
+	/**
+	 * Returns the project-wide edit version.
+	 * 
+	 * @return the project-wide edit version.
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Invalidate the cached responses.
+	 */
+	public synchronized void invalidate() {
+		version++;
+		responses.clear();
+	}
+
+	/**
+	 * Returns the max number of cached responses.
+	 * 
+	 * @return the max number of cached responses.
+	 */
+	public synchronized int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Set the max number of cached responses. A value of 0 disables the
+	 * cache.
+	 * 
+	 * @param maxSize
+	 */
+	public synchronized void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		if (responses.size() > maxSize) {
+			responses.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of cached responses.
+	 * 
+	 * @return the number of cached responses.
+	 */
+	public synchronized int size() {
+		return responses.size();
+	}
+
+	/**
+	 * Returns the number of requests which were answered by the cache.
+	 * 
+	 * @return the number of requests which were answered by the cache.
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of cacheable requests which were sent to tsserver.
+	 * 
+	 * @return the number of cacheable requests which were sent to tsserver.
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import ts.TypeScriptException;
+import ts.internal.client.protocol.Request;
+import ts.internal.client.protocol.Response;
+import ts.nodejs.INodejsProcess;
+import ts.nodejs.NodejsProcessAdapter;
+import ts.nodejs.ReplayNodejsProcess;
+
+/**
+ * Recorder of the line-delimited JSON conversation between a
+ * {@link TypeScriptServiceClient} and tsserver. Each line of the recording
+ * file has the format:
+ * 
+ * <pre>
+ * &lt;time in ms since the start of the recording&gt; &lt;direction&gt; &lt;JSON message&gt;
+ * </pre>
+ * 
+ * where direction is <code>&gt;</code> for a request sent to tsserver and
+ * <code>&lt;</code> for a response or an event sent by tsserver. The
+ * recording can be served back without node.js with
+ * {@link ReplayNodejsProcess}.
+ *
+ */
+public class SessionRecorder extends NodejsProcessAdapter implements IInterceptor {
+
+	public static final char REQUEST = '>';
+	public static final char MESSAGE = '<';
+
+	private final Writer writer;
+	private final long startTime;
+
+	public SessionRecorder(File file) throws TypeScriptException {
+		try {
+			this.writer = new BufferedWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new TypeScriptException(e);
+		}
+		this.startTime = System.nanoTime();
+	}
+
+	/**
+	 * Record the conversation of the given client.
+	 * 
+	 * @param client
+	 */
+	public void install(TypeScriptServiceClient client) {
+		client.addInterceptor(this);
+		client.addProcessListener(this);
+	}
+
+	/**
+	 * Stop to record the conversation of the given client.
+	 * 
+	 * @param client
+	 */
+	public void uninstall(TypeScriptServiceClient client) {
+		client.removeInterceptor(this);
+		client.removeProcessListener(this);
+	}
+
+	@Override
+	public void handleRequest(Request<?> request, String json, ITypeScriptServiceClient client) {
+		record(REQUEST, json);
+	}
+
+	@Override
+	public void handleResponse(Response<?> response, String json, long ellapsedTime,
+			TypeScriptServiceClient typeScriptServiceClient) {
+		// responses are recorded with onMessage, like events.
+	}
+
+	@Override
+	public void handleError(Throwable error, ITypeScriptServiceClient client, String methodName,
+			long ellapsedTime) {
+		// errors are not part of the conversation.
+	}
+
+	@Override
+	public void handleCachedResponse(Request<?> request, Response<?> response, String json,
+			ITypeScriptServiceClient client) {
+		// cached responses are not part of the conversation, the replayed
+		// client answers them with its cache too.
+	}
+
+	@Override
+	public void onMessage(INodejsProcess process, String message) {
+		if (message.startsWith("{")) {
+			record(MESSAGE, message);
+		}
+	}
+
+	private synchronized void record(char direction, String json) {
+		try {
+			writer.write(Long.toString((System.nanoTime() - startTime) / 1000000L));
+			writer.write(' ');
+			writer.write(direction);
+			writer.write(' ');
+			writer.write(json);
+			writer.write('\n');
+			writer.flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Close the recording file.
+	 */
+	public synchronized void close() {
+		try {
+			writer.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -13,15 +13,18 @@ package ts.client;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 import ts.TypeScriptException;
@@ -51,6 +54,7 @@ import ts.client.references.ReferencesResponseBody;
 import ts.client.rename.RenameResponseBody;
 import ts.client.signaturehelp.SignatureHelpItems;
 import ts.internal.FileTempHelper;
+import ts.internal.SchedulerHelper;
 import ts.internal.SequenceHelper;
 import ts.internal.client.protocol.ChangeRequest;
 import ts.internal.client.protocol.CloseRequest;
@@ -71,6 +75,7 @@ import ts.internal.client.protocol.GeterrRequest;
 import ts.internal.client.protocol.GsonHelper;
 import ts.internal.client.protocol.IRequestEventable;
 import ts.internal.client.protocol.ImplementationRequest;
+import ts.internal.client.protocol.MessageHeader;
 import ts.internal.client.protocol.MessageType;
 import ts.internal.client.protocol.NavBarRequest;
 import ts.internal.client.protocol.NavToRequest;
@@ -103,17 +108,22 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 
 	private static final String NO_CONTENT_AVAILABLE = "No content available.";
 	private static final String TSSERVER_FILE_TYPE = "tsserver";
+	private static final long DEFAULT_REQUEST_TIMEOUT = 5000;
 
-	private INodejsProcess process;
+	private volatile INodejsProcess process;
 	private List<INodejsProcessListener> nodeListeners;
 	private final List<ITypeScriptClientListener> listeners;
 	private final List<IInstallTypesListener> installTypesListener;
 	private final ReentrantReadWriteLock stateLock;
-	private boolean dispose;
+	private volatile boolean dispose;
+	private volatile boolean crashed;
+	private ScheduledFuture<?> healthProbe;
+	private volatile long requestTimeout;
 
 	private final Map<Integer, PendingRequestInfo> sentRequestMap;
 	private final Map<String, PendingRequestEventInfo> receivedRequestMap;
 	private List<IInterceptor> interceptors;
+	private final RequestScheduler scheduler;
 
 	private ICompletionEntryMatcherProvider completionEntryMatcherProvider;
 
@@ -126,7 +136,10 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 
 		@Override
 		public void onStop(INodejsProcess process) {
+			// the process was not stopped by the client: tsserver has crashed.
+			crashed = !isDisposed();
 			dispose();
+			failPendingRequests();
 			fireEndServer();
 		}
 
@@ -142,24 +155,30 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 	private static class PendingRequestInfo {
 		Request<?> requestMessage;
 		Consumer<Response<?>> responseHandler;
+		RequestFuture<?> result;
 		long startTime;
 
-		PendingRequestInfo(Request<?> requestMessage, Consumer<Response<?>> responseHandler) {
+		PendingRequestInfo(Request<?> requestMessage, Consumer<Response<?>> responseHandler,
+				RequestFuture<?> result) {
 			this.requestMessage = requestMessage;
 			this.responseHandler = responseHandler;
-			this.startTime = System.nanoTime();
+			this.result = result;
+			this.startTime = result.startTime;
 		}
 	}
 
 	private static class PendingRequestEventInfo {
 		Request<?> requestMessage;
 		Consumer<Event<?>> eventHandler;
-		long startTime;
+		Runnable completeHandler;
+		RequestFuture<?> result;
 
-		PendingRequestEventInfo(Request<?> requestMessage, Consumer<Event<?>> eventHandler) {
+		PendingRequestEventInfo(Request<?> requestMessage, Consumer<Event<?>> eventHandler,
+				Runnable completeHandler, RequestFuture<?> result) {
 			this.requestMessage = requestMessage;
 			this.eventHandler = eventHandler;
-			this.startTime = System.nanoTime();
+			this.completeHandler = completeHandler;
+			this.result = result;
 		}
 	}
 
@@ -205,35 +224,53 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 		this.installTypesListener = new ArrayList<>();
 		this.stateLock = new ReentrantReadWriteLock();
 		this.dispose = false;
-		this.sentRequestMap = new LinkedHashMap<>();
-		this.receivedRequestMap = new LinkedHashMap<>();
+		this.sentRequestMap = new ConcurrentHashMap<>();
+		this.receivedRequestMap = new ConcurrentHashMap<>();
+		this.scheduler = new RequestScheduler(new RequestScheduler.RequestExecutor() {
+
+			@Override
+			public CompletableFuture<Object> execute(Request<?> request, boolean expectsResult)
+					throws TypeScriptException {
+				return doExecute(request, expectsResult);
+			}
+
+			@Override
+			public void cached(Request<?> request, Response<?> response, String message) {
+				handleCachedResponse(request, response, message);
+			}
+		});
 		this.process = process;
 		process.addProcessListener(listener);
 		setCompletionEntryMatcherProvider(ICompletionEntryMatcherProvider.LCS_PROVIDER);
 		this.cancellationPipeName = cancellationPipeName;
+		this.requestTimeout = DEFAULT_REQUEST_TIMEOUT;
 	}
 
 	private void dispatchMessage(String message) {
-		JsonObject json = GsonHelper.parse(message).getAsJsonObject();
-		JsonElement typeElement = json.get("type");
-		if (typeElement != null) {
-			MessageType messageType = MessageType.getType(typeElement.getAsString());
+		// read only the header of the message (type, request_seq, event) to
+		// bind the body directly to the POJO of the pending request.
+		MessageHeader header = MessageHeader.read(message);
+		if (header.getTypeName() != null) {
+			MessageType messageType = header.getType();
 			if (messageType == null) {
-				throw new IllegalStateException("Unknown response type message " + json);
+				throw new IllegalStateException("Unknown response type message " + message);
 			}
 			switch (messageType) {
 			case response:
-				int seq = json.get("request_seq").getAsInt();
-				PendingRequestInfo pendingRequestInfo;
-				synchronized (sentRequestMap) {
-					pendingRequestInfo = sentRequestMap.remove(seq);
+				if (header.getRequestSeq() == null) {
+					return;
 				}
+				PendingRequestInfo pendingRequestInfo = sentRequestMap.remove(header.getRequestSeq());
 				if (pendingRequestInfo == null) {
 					// throw new IllegalStateException("Unmatched response
 					// message " + json);
 					return;
 				}
-				Response responseMessage = pendingRequestInfo.requestMessage.parseResponse(json);
+				Response responseMessage = pendingRequestInfo.requestMessage
+						.parseResponse(GsonHelper.createReader(message));
+				if (responseMessage.isSuccess()) {
+					scheduler.responseReceived(pendingRequestInfo.requestMessage, message);
+				}
 				try {
 					handleResponse(responseMessage, message, pendingRequestInfo.startTime);
 					pendingRequestInfo.responseHandler.accept(responseMessage);
@@ -244,22 +281,36 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 
 				break;
 			case event:
-				String event = json.get("event").getAsString();
+				String event = header.getEvent();
 				if ("syntaxDiag".equals(event) || "semanticDiag".equals(event)) {
-					DiagnosticEvent response = GsonHelper.DEFAULT_GSON.fromJson(json, DiagnosticEvent.class);
-					PendingRequestEventInfo pendingRequestEventInfo;
-					synchronized (receivedRequestMap) {
-						pendingRequestEventInfo = receivedRequestMap.remove(response.getKey());
-					}
+					DiagnosticEvent response = GsonHelper.DEFAULT_GSON.fromJson(GsonHelper.createReader(message),
+							DiagnosticEvent.class);
+					PendingRequestEventInfo pendingRequestEventInfo = receivedRequestMap.remove(response.getKey());
 					if (pendingRequestEventInfo != null) {
 						pendingRequestEventInfo.eventHandler.accept(response);
 					}
+					// the geterr requests completed by "requestCompleted"
+					// receive the diagnostics of their files.
+					for (Map.Entry<String, PendingRequestEventInfo> entry : receivedRequestMap.entrySet()) {
+						if (entry.getKey().startsWith(GeterrRequest.REQUEST_COMPLETED_KEY_PREFIX)) {
+							entry.getValue().eventHandler.accept(response);
+						}
+					}
+				} else if ("requestCompleted".equals(event)) {
+					JsonObject json = GsonHelper.parse(message).getAsJsonObject();
+					int requestSeq = json.get("body").getAsJsonObject().get("request_seq").getAsInt();
+					PendingRequestEventInfo pendingRequestEventInfo = receivedRequestMap
+							.remove(GeterrRequest.getRequestCompletedKey(requestSeq));
+					if (pendingRequestEventInfo != null) {
+						pendingRequestEventInfo.completeHandler.run();
+					}
 				} else if ("telemetry".equals(event)) {
 					// TelemetryEventBody telemetryData =
 					// GsonHelper.DEFAULT_GSON.fromJson(json,
 					// TelemetryEvent.class)
 					// .getBody();
 					//
+					JsonObject json = GsonHelper.parse(message).getAsJsonObject();
 					JsonObject telemetryData = json.get("body").getAsJsonObject();
 					JsonObject payload = telemetryData.has("payload") ? telemetryData.get("payload").getAsJsonObject()
 							: null;
@@ -268,13 +319,18 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 						fireLogTelemetry(telemetryEventName, payload);
 					}
 				} else if ("beginInstallTypes".equals(event)) {
-					BeginInstallTypesEventBody data = GsonHelper.DEFAULT_GSON.fromJson(json,
-							BeginInstallTypesEventBody.class);
+					BeginInstallTypesEventBody data = GsonHelper.DEFAULT_GSON
+							.fromJson(GsonHelper.createReader(message), BeginInstallTypesEventBody.class);
 					fireBeginInstallTypes(data);
 				} else if ("endInstallTypes".equals(event)) {
-					EndInstallTypesEventBody data = GsonHelper.DEFAULT_GSON.fromJson(json,
-							EndInstallTypesEventBody.class);
+					EndInstallTypesEventBody data = GsonHelper.DEFAULT_GSON
+							.fromJson(GsonHelper.createReader(message), EndInstallTypesEventBody.class);
+					// installed typings change the responses of the queries.
+					scheduler.getResponseCache().invalidate();
 					fireEndInstallTypes(data);
+				} else if ("configFileDiag".equals(event) || "projectsUpdatedInBackground".equals(event)) {
+					// the structure of the project has changed.
+					scheduler.getResponseCache().invalidate();
 				}
 				break;
 			default:
@@ -306,7 +362,9 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 
 	/**
 	 * Write the buffer of editor content to a temporary file and have the server
-	 * reload it
+	 * reload it. The reload is not waited: tsserver processes the requests in
+	 * order, so the next requests see the new content. The temporary file is
+	 * given back to the pool when the reload response is received.
 	 * 
 	 * @param fileName
 	 * @param newText
@@ -315,14 +373,14 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 	public void updateFile(String fileName, String newText) throws TypeScriptException {
 		int seq = SequenceHelper.getRequestSeq();
 		String tempFileName = FileTempHelper.updateTempFile(newText, seq);
+		CompletableFuture<Object> result;
 		try {
-			execute(new ReloadRequest(fileName, tempFileName, seq), true).get(5000, TimeUnit.MILLISECONDS);
-		} catch (Exception e) {
-			if (e instanceof TypeScriptException) {
-				throw (TypeScriptException) e;
-			}
-			throw new TypeScriptException(e);
+			result = execute(new ReloadRequest(fileName, tempFileName, seq), true);
+		} catch (TypeScriptException e) {
+			FileTempHelper.freeTempFile(seq);
+			throw e;
 		}
+		result.whenComplete((response, e) -> FileTempHelper.freeTempFile(seq));
 	}
 
 	@Override
@@ -367,6 +425,12 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 		return execute(new GeterrRequest(files, delay), true);
 	}
 
+	@Override
+	public CompletableFuture<List<DiagnosticEvent>> geterr(String[] files, int delay,
+			Consumer<DiagnosticEvent> listener) throws TypeScriptException {
+		return execute(new GeterrRequest(files, delay, listener), true);
+	}
+
 	@Override
 	public CompletableFuture<List<DiagnosticEvent>> geterrForProject(String file, int delay, ProjectInfo projectInfo)
 			throws TypeScriptException {
@@ -515,82 +579,27 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 	}
 
 	private <T> CompletableFuture<T> execute(Request<?> request, boolean expectsResult) throws TypeScriptException {
+		return scheduler.schedule(request, expectsResult);
+	}
+
+	private <T> RequestFuture<T> doExecute(Request<?> request, boolean expectsResult) throws TypeScriptException {
 		if (!expectsResult) {
 			sendRequest(request);
 			return null;
 		}
-		final CompletableFuture<T> result = new CompletableFuture<T>() {
-
-			@Override
-			public boolean cancel(boolean mayInterruptIfRunning) {
-				tryCancelRequest(request);
-				return super.cancel(mayInterruptIfRunning);
-			}
-
-			/**
-			 * Try to cancel the given request:
-			 * 
-			 * <ul>
-			 * <li>on client side : remove request from the received request queue.</li>
-			 * <li>on server side (tsserver) : cancel the request.</li>
-			 * </ul>
-			 * 
-			 * @param request
-			 */
-			private void tryCancelRequest(Request<?> request) {
-				try {
-					cancelServerRequest(request);
-				} finally {
-					cancelClientRequest(request);
-				}
-			}
-
-			private void cancelClientRequest(Request<?> request) {
-				if (request instanceof IRequestEventable) {
-					List<String> keys = ((IRequestEventable) request).getKeys();
-					synchronized (receivedRequestMap) {
-						for (String key : keys) {
-							receivedRequestMap.remove(key);
-						}
-					}
-				} else {
-					synchronized (sentRequestMap) {
-						sentRequestMap.remove(request.getSeq());
-					}
-				}
-			}
-
-			private void cancelServerRequest(Request<?> request) {
-				// Generate en empty file in the temp directory (ex:
-				// $TMP_DIR/eclipse-tscancellation-4df2438b-ca7a-4ef3-9a46-83e8afef61b3.sock844
-				// where 844 is request sequence)
-				// for the given request sequence waited by tsserver
-				// typescript/lib/cancellationToken.js.
-				// to cancel request from tsserver.
-				if (cancellationPipeName != null) {
-					File tempFile = new File(TypeScriptServiceClient.this.cancellationPipeName + request.getSeq());
-					try {
-						tempFile.createNewFile();
-						tempFile.deleteOnExit();
-					} catch (IOException e) {
-						e.printStackTrace();
-					}
-				}
-			}
-
-		};
+		final RequestFuture<T> result = new RequestFuture<T>(request);
 		if (request instanceof IRequestEventable) {
 			Consumer<Event<?>> responseHandler = (event) -> {
 				if (((IRequestEventable) request).accept(event)) {
 					result.complete((T) ((IRequestEventable) request).getEvents());
 				}
 			};
+			Runnable completeHandler = () -> result.complete((T) ((IRequestEventable) request).getEvents());
 			List<String> keys = ((IRequestEventable) request).getKeys();
-			PendingRequestEventInfo info = new PendingRequestEventInfo(request, responseHandler);
-			synchronized (receivedRequestMap) {
-				for (String key : keys) {
-					receivedRequestMap.put(key, info);
-				}
+			PendingRequestEventInfo info = new PendingRequestEventInfo(request, responseHandler, completeHandler,
+					result);
+			for (String key : keys) {
+				receivedRequestMap.put(key, info);
 			}
 		} else {
 			Consumer<Response<?>> responseHandler = (response) -> {
@@ -602,15 +611,140 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 					result.completeExceptionally(createException(response.getMessage()));
 				}
 			};
-			int seq = request.getSeq();
-			synchronized (sentRequestMap) {
-				sentRequestMap.put(seq, new PendingRequestInfo(request, responseHandler));
-			}
+			sentRequestMap.put(request.getSeq(), new PendingRequestInfo(request, responseHandler, result));
 		}
 		sendRequest(request);
+		result.scheduleTimeout();
 		return result;
 	}
 
+	/**
+	 * Future of a request sent to tsserver. At most one error (cancellation,
+	 * timeout, stop of tsserver) is reported to the interceptors for a
+	 * request.
+	 */
+	private class RequestFuture<T> extends CompletableFuture<T> {
+
+		private final Request<?> request;
+		private final long startTime;
+		private final AtomicBoolean errorReported;
+
+		RequestFuture(Request<?> request) {
+			this.request = request;
+			this.startTime = System.nanoTime();
+			this.errorReported = new AtomicBoolean();
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			tryCancelRequest(request);
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				reportError(new CancellationException());
+			}
+			return cancelled;
+		}
+
+		/**
+		 * Try to cancel the given request:
+		 * 
+		 * <ul>
+		 * <li>on client side : remove request from the received request queue.</li>
+		 * <li>on server side (tsserver) : cancel the request.</li>
+		 * </ul>
+		 * 
+		 * @param request
+		 */
+		private void tryCancelRequest(Request<?> request) {
+			try {
+				cancelServerRequest(request);
+			} finally {
+				cancelClientRequest(request);
+			}
+		}
+
+		private void cancelClientRequest(Request<?> request) {
+			if (request instanceof IRequestEventable) {
+				List<String> keys = ((IRequestEventable) request).getKeys();
+				for (String key : keys) {
+					receivedRequestMap.remove(key);
+				}
+			} else {
+				sentRequestMap.remove(request.getSeq());
+			}
+		}
+
+		private void cancelServerRequest(Request<?> request) {
+			// Generate en empty file in the temp directory (ex:
+			// $TMP_DIR/eclipse-tscancellation-4df2438b-ca7a-4ef3-9a46-83e8afef61b3.sock844
+			// where 844 is request sequence)
+			// for the given request sequence waited by tsserver
+			// typescript/lib/cancellationToken.js.
+			// to cancel request from tsserver.
+			if (cancellationPipeName != null) {
+				File tempFile = new File(TypeScriptServiceClient.this.cancellationPipeName + request.getSeq());
+				try {
+					tempFile.createNewFile();
+					tempFile.deleteOnExit();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+
+		/**
+		 * Report to the interceptors that the request has not been answered in
+		 * the request timeout. The future is not completed, the callers decide
+		 * if they wait for the response longer.
+		 */
+		void scheduleTimeout() {
+			long timeout = requestTimeout;
+			if (timeout <= 0 || interceptors == null) {
+				return;
+			}
+			ScheduledFuture<?> check = SchedulerHelper.getScheduler().schedule(() -> {
+				if (!isDone()) {
+					reportError(new TimeoutException("tsserver didn't answer in " + timeout + "ms."));
+				}
+			}, timeout, TimeUnit.MILLISECONDS);
+			whenComplete((r, e) -> check.cancel(false));
+		}
+
+		/**
+		 * Report the given error to the interceptors if no error was reported
+		 * for the request.
+		 * 
+		 * @param e
+		 *            the error.
+		 */
+		void reportError(Throwable e) {
+			if (errorReported.compareAndSet(false, true)) {
+				handleError(request.getCommand(), e, startTime);
+			}
+		}
+	}
+
+	/**
+	 * Complete exceptionally the pending requests which will never receive a
+	 * response because the tsserver process has stopped.
+	 */
+	private void failPendingRequests() {
+		TypeScriptException e = new TypeScriptException("TypeScript server has stopped.");
+		for (Integer seq : sentRequestMap.keySet()) {
+			PendingRequestInfo info = sentRequestMap.remove(seq);
+			if (info != null) {
+				info.result.reportError(e);
+				info.result.completeExceptionally(e);
+			}
+		}
+		for (String key : receivedRequestMap.keySet()) {
+			PendingRequestEventInfo info = receivedRequestMap.remove(key);
+			if (info != null && info.result.completeExceptionally(e)) {
+				info.result.reportError(e);
+			}
+		}
+	}
+
 	private TypeScriptException createException(String message) {
 		if (NO_CONTENT_AVAILABLE.equals(message)) {
 			return new TypeScriptNoContentAvailableException(message);
@@ -625,8 +759,16 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 	}
 
 	private INodejsProcess getProcess() throws TypeScriptException {
+		INodejsProcess process = this.process;
+		if (process == null) {
+			throw new TypeScriptException("TypeScript service client is disposed.");
+		}
 		if (!process.isStarted()) {
-			process.start();
+			synchronized (process) {
+				if (!process.isStarted()) {
+					process.start();
+				}
+			}
 		}
 		return process;
 	}
@@ -760,17 +902,79 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 		}
 	}
 
+	@Override
+	public void start() throws TypeScriptException {
+		getProcess();
+	}
+
 	@Override
 	public boolean isDisposed() {
 		return dispose;
 	}
 
+	@Override
+	public boolean isCrashed() {
+		return crashed;
+	}
+
+	/**
+	 * Probe the health of the tsserver process: a "configure" request without
+	 * arguments is sent every given interval and the process is killed (and
+	 * flagged as crashed) if tsserver doesn't answer in the given timeout.
+	 * 
+	 * @param interval
+	 *            interval in milliseconds between two probes. A value lower or
+	 *            equal to 0 stops the probe.
+	 * @param timeout
+	 *            timeout in milliseconds.
+	 */
+	public void setHealthProbe(long interval, long timeout) {
+		beginWriteState();
+		try {
+			if (healthProbe != null) {
+				healthProbe.cancel(false);
+				healthProbe = null;
+			}
+			if (interval > 0 && !isDisposed()) {
+				healthProbe = SchedulerHelper.getScheduler().scheduleWithFixedDelay(() -> probeHealth(timeout),
+						interval, interval, TimeUnit.MILLISECONDS);
+			}
+		} finally {
+			endWriteState();
+		}
+	}
+
+	private void probeHealth(long timeout) {
+		INodejsProcess process = this.process;
+		if (process == null || !process.isStarted()) {
+			return;
+		}
+		try {
+			// the ping is sent directly, it must not be coalesced or held back.
+			RequestFuture<Object> ping = doExecute(new ConfigureRequest(new ConfigureRequestArguments()), true);
+			SchedulerHelper.getScheduler().schedule(() -> {
+				if (!ping.isDone()) {
+					// tsserver doesn't answer, kill it.
+					ping.reportError(new TimeoutException("tsserver didn't answer in " + timeout + "ms."));
+					ping.cancel(true);
+					process.kill();
+				}
+			}, timeout, TimeUnit.MILLISECONDS);
+		} catch (TypeScriptException e) {
+			// the process is stopping, nothing to probe.
+		}
+	}
+
 	@Override
 	public final void dispose() {
 		beginWriteState();
 		try {
 			if (!isDisposed()) {
 				this.dispose = true;
+				if (healthProbe != null) {
+					healthProbe.cancel(false);
+					healthProbe = null;
+				}
 				if (process != null) {
 					process.kill();
 				}
@@ -797,6 +1001,38 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 		stateLock.writeLock().unlock();
 	}
 
+	/**
+	 * Returns the time in milliseconds after which a request not answered by
+	 * tsserver is reported as a timeout to the interceptors.
+	 * 
+	 * @return the request timeout in milliseconds.
+	 */
+	public long getRequestTimeout() {
+		return requestTimeout;
+	}
+
+	/**
+	 * Set the time in milliseconds after which a request not answered by
+	 * tsserver is reported as a timeout to the interceptors. The request is
+	 * not cancelled. A value less or equal to 0 disables the report.
+	 * 
+	 * @param requestTimeout
+	 *            the request timeout in milliseconds.
+	 */
+	public void setRequestTimeout(long requestTimeout) {
+		this.requestTimeout = requestTimeout;
+	}
+
+	/**
+	 * Returns the scheduler which holds back background requests and coalesces
+	 * duplicate requests.
+	 * 
+	 * @return the scheduler of the tsserver requests.
+	 */
+	public RequestScheduler getRequestScheduler() {
+		return scheduler;
+	}
+
 	public void setCompletionEntryMatcherProvider(ICompletionEntryMatcherProvider completionEntryMatcherProvider) {
 		this.completionEntryMatcherProvider = completionEntryMatcherProvider;
 	}
@@ -839,6 +1075,22 @@ public class TypeScriptServiceClient implements ITypeScriptServiceClient {
 		}
 	}
 
+	/**
+	 * Handle the given request answered by the response cache.
+	 * 
+	 * @param request
+	 * @param response
+	 * @param json
+	 */
+	private void handleCachedResponse(Request<?> request, Response<?> response, String json) {
+		if (interceptors == null) {
+			return;
+		}
+		for (IInterceptor interceptor : interceptors) {
+			interceptor.handleCachedResponse(request, response, json, this);
+		}
+	}
+
 	/**
 	 * Handle the given error.
 	 * 
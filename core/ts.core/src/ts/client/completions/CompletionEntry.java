@@ -11,6 +11,7 @@
 package ts.client.completions;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import ts.TypeScriptException;
@@ -18,6 +19,7 @@ import ts.ScriptElementKind;
 import ts.client.IKindProvider;
 import ts.client.ITypeScriptServiceClient;
 import ts.client.TextSpan;
+import ts.internal.matcher.Candidate;
 import ts.internal.matcher.LCSS;
 import ts.utils.StringUtils;
 
@@ -79,6 +81,10 @@ public class CompletionEntry implements IKindProvider {
 
 	private List<CompletionEntryDetails> entryDetails;
 
+	private transient CompletionEntryDetailsLoader entryDetailsLoader;
+
+	private transient Candidate matcherCandidate;
+
 	public CompletionEntry(ICompletionEntryMatcher matcher, String fileName, int line, int offset,
 			ITypeScriptServiceClient client) {
 		this.matcher = matcher;
@@ -154,7 +160,7 @@ public class CompletionEntry implements IKindProvider {
 		if (StringUtils.isEmpty(prefix)) {
 			relevanceBoost = 0;
 		} else {
-			bestSequence = matcher.bestSubsequence(name, prefix);
+			bestSequence = matcher.bestSubsequence(this, prefix);
 			if ((bestSequence != null && bestSequence.length > 0)) {
 				relevanceBoost = 0;
 				if (name.equals(prefix)) {
@@ -188,13 +194,43 @@ public class CompletionEntry implements IKindProvider {
 		return matcher;
 	}
 
+	/**
+	 * Returns the name of this entry prepared for the matching of
+	 * {@link ICompletionEntryMatcher#LCS}.
+	 * 
+	 * @return the name of this entry prepared for the matching.
+	 */
+	Candidate getMatcherCandidate() {
+		if (matcherCandidate == null) {
+			matcherCandidate = new Candidate(name);
+		}
+		return matcherCandidate;
+	}
+
+	/**
+	 * Returns the loader which loads the details of this entry with the details
+	 * of the other entries of the completion result, or null if the details of
+	 * this entry are loaded alone.
+	 * 
+	 * @return the loader of the details of this entry.
+	 */
+	public CompletionEntryDetailsLoader getEntryDetailsLoader() {
+		return entryDetailsLoader;
+	}
+
+	public void setEntryDetailsLoader(CompletionEntryDetailsLoader entryDetailsLoader) {
+		this.entryDetailsLoader = entryDetailsLoader;
+	}
+
 	public List<CompletionEntryDetails> getEntryDetails() throws TypeScriptException {
 		if (entryDetails != null) {
 			return entryDetails;
 		}
 		try {
-			this.entryDetails = client.completionEntryDetails(fileName, line, offset, new String[] { name }, this)
-					.get(5000, TimeUnit.MILLISECONDS);
+			CompletableFuture<List<CompletionEntryDetails>> details = entryDetailsLoader != null
+					? entryDetailsLoader.getEntryDetails(name)
+					: client.completionEntryDetails(fileName, line, offset, new String[] { name }, this);
+			this.entryDetails = details.get(5000, TimeUnit.MILLISECONDS);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -205,4 +241,28 @@ public class CompletionEntry implements IKindProvider {
 		return hasAction != null && hasAction;
 	}
 
+	/**
+	 * Returns a new entry created with the given factory with the same
+	 * tsserver information (name, kind, etc) and relevance as this entry.
+	 * 
+	 * @param factory
+	 *            the factory used to create the new entry.
+	 * @return a new entry created with the given factory.
+	 */
+	CompletionEntry copy(ICompletionEntryFactory factory) {
+		CompletionEntry entry = factory.create(matcher, fileName, line, offset, client);
+		entry.name = name;
+		entry.kind = kind;
+		entry.kindModifiers = kindModifiers;
+		entry.sortText = sortText;
+		entry.replacementSpan = replacementSpan;
+		entry.hasAction = hasAction;
+		entry.isFunction = isFunction;
+		entry.relevance = relevance;
+		entry.entryDetails = entryDetails;
+		entry.entryDetailsLoader = entryDetailsLoader;
+		entry.matcherCandidate = matcherCandidate;
+		return entry;
+	}
+
 }
@@ -0,0 +1,190 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client.completions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import ts.TypeScriptException;
+import ts.client.ITypeScriptServiceClient;
+
+/**
+ * Loader of the {@link CompletionEntryDetails} of the entries of a completion
+ * result. The details of several entries are loaded with a single
+ * "completionEntryDetails" request (which accepts an array of entry names) and
+ * are memoized by entry name.
+ *
+ * <p>
+ * {@link #prefetch(List, int)} gives the order of the entries (the order of
+ * the completion popup) and loads the details of the first ones in background.
+ * When the details of an entry which is not loaded are required (ex: when the
+ * user scrolls the completion popup), they are loaded with the details of the
+ * next entries.
+ * </p>
+ *
+ */
+public class CompletionEntryDetailsLoader {
+
+	/**
+	 * Max number of entry names sent in a single request.
+	 */
+	public static final int BATCH_SIZE = 20;
+
+	private final ITypeScriptServiceClient client;
+	private final String fileName;
+	private final int line;
+	private final int offset;
+
+	private final Map<String, CompletableFuture<List<CompletionEntryDetails>>> details;
+	private final Map<String, Integer> indexes;
+	private final List<String> names;
+
+	// statistics
+	private int requestCount;
+
+	public CompletionEntryDetailsLoader(ITypeScriptServiceClient client, String fileName, int line, int offset) {
+		this.client = client;
+		this.fileName = fileName;
+		this.line = line;
+		this.offset = offset;
+		this.details = new HashMap<String, CompletableFuture<List<CompletionEntryDetails>>>();
+		this.indexes = new HashMap<String, Integer>();
+		this.names = new ArrayList<String>();
+	}
+
+	/**
+	 * Set the order of the given entries and load in background the details of
+	 * the first entries.
+	 *
+	 * @param entries
+	 *            the entries in the order of the completion popup.
+	 * @param count
+	 *            the number of entries whose details must be loaded.
+	 * @throws TypeScriptException
+	 */
+	public synchronized void prefetch(List<? extends CompletionEntry> entries, int count) throws TypeScriptException {
+		names.clear();
+		indexes.clear();
+		for (CompletionEntry entry : entries) {
+			if (!indexes.containsKey(entry.getName())) {
+				indexes.put(entry.getName(), names.size());
+				names.add(entry.getName());
+			}
+		}
+		List<String> batch = new ArrayList<String>();
+		for (int i = 0; i < names.size() && i < count; i++) {
+			String name = names.get(i);
+			if (!details.containsKey(name)) {
+				batch.add(name);
+				if (batch.size() == BATCH_SIZE) {
+					load(batch);
+					batch.clear();
+				}
+			}
+		}
+		if (!batch.isEmpty()) {
+			load(batch);
+		}
+	}
+
+	/**
+	 * Returns the details of the entry with the given name, loaded with the
+	 * details of the next entries if they are not loaded.
+	 *
+	 * @param name
+	 *            the entry name.
+	 * @return the details of the entry with the given name.
+	 * @throws TypeScriptException
+	 */
+	public synchronized CompletableFuture<List<CompletionEntryDetails>> getEntryDetails(String name)
+			throws TypeScriptException {
+		CompletableFuture<List<CompletionEntryDetails>> result = details.get(name);
+		if (result != null) {
+			return result;
+		}
+		List<String> batch = new ArrayList<String>();
+		batch.add(name);
+		Integer index = indexes.get(name);
+		if (index != null) {
+			for (int i = index + 1; i < names.size() && batch.size() < BATCH_SIZE; i++) {
+				if (!details.containsKey(names.get(i))) {
+					batch.add(names.get(i));
+				}
+			}
+		}
+		return load(batch).get(name);
+	}
+
+	/**
+	 * Load the details of the given entries with one request.
+	 *
+	 * @param batch
+	 *            the names of the entries.
+	 * @return the futures of the details by entry name, completed
+	 *         exceptionally if the request cannot be sent.
+	 */
+	private Map<String, CompletableFuture<List<CompletionEntryDetails>>> load(List<String> batch) {
+		Map<String, CompletableFuture<List<CompletionEntryDetails>>> futures = new HashMap<String, CompletableFuture<List<CompletionEntryDetails>>>();
+		for (String name : batch) {
+			CompletableFuture<List<CompletionEntryDetails>> future = new CompletableFuture<List<CompletionEntryDetails>>();
+			futures.put(name, future);
+			details.put(name, future);
+		}
+		requestCount++;
+		CompletableFuture<List<CompletionEntryDetails>> response;
+		try {
+			response = client.completionEntryDetails(fileName, line, offset, batch.toArray(new String[batch.size()]),
+					null);
+		} catch (TypeScriptException e) {
+			// load them again the next time.
+			details.keySet().removeAll(batch);
+			futures.values().forEach(future -> future.completeExceptionally(e));
+			return futures;
+		}
+		response.whenComplete((result, e) -> {
+			if (e != null) {
+				synchronized (CompletionEntryDetailsLoader.this) {
+					// load them again the next time.
+					details.keySet().removeAll(futures.keySet());
+				}
+				futures.values().forEach(future -> future.completeExceptionally(e));
+				return;
+			}
+			Map<String, List<CompletionEntryDetails>> byName = new HashMap<String, List<CompletionEntryDetails>>();
+			if (result != null) {
+				for (CompletionEntryDetails entryDetails : result) {
+					byName.put(entryDetails.getName(), Collections.singletonList(entryDetails));
+				}
+			}
+			for (Map.Entry<String, CompletableFuture<List<CompletionEntryDetails>>> future : futures.entrySet()) {
+				List<CompletionEntryDetails> entryDetails = byName.get(future.getKey());
+				future.getValue().complete(
+						entryDetails != null ? entryDetails : Collections.<CompletionEntryDetails>emptyList());
+			}
+		});
+		return futures;
+	}
+
+	/**
+	 * Returns the number of "completionEntryDetails" requests sent by this
+	 * loader.
+	 *
+	 * @return the number of "completionEntryDetails" requests sent by this
+	 *         loader.
+	 */
+	public synchronized int getRequestCount() {
+		return requestCount;
+	}
+}
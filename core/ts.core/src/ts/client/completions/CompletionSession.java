@@ -0,0 +1,202 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client.completions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import ts.TypeScriptException;
+
+/**
+ * Completion session which keeps the completion entries returned by tsserver
+ * for the last completion start, to filter and rank them locally with
+ * {@link CompletionEntry#updatePrefix(String)} when the completion is invoked
+ * again in the same token (ex: the user types one more character of the
+ * identifier).
+ *
+ * <p>
+ * The entries are reused when the completion start and the file are the same
+ * and the file has changed only by the characters typed (or deleted) in the
+ * prefix: the number of edits of the file since the entries were computed
+ * (given by the file version) must be the difference of length between the
+ * prefixes. Otherwise, the entries are computed again by tsserver.
+ * </p>
+ *
+ */
+public class CompletionSession {
+
+	/**
+	 * Provider of the completion entries computed by tsserver.
+	 */
+	public interface ICompletionEntriesProvider {
+
+		/**
+		 * Returns the completion entries computed by tsserver, created with the
+		 * given factory.
+		 *
+		 * @param factory
+		 *            the completion entry factory.
+		 * @return the completion entries computed by tsserver.
+		 * @throws TypeScriptException
+		 */
+		CompletableFuture<List<CompletionEntry>> completions(ICompletionEntryFactory factory)
+				throws TypeScriptException;
+	}
+
+	private String fileName;
+	private long version;
+	private int start;
+	private String prefix;
+	private CompletableFuture<List<CompletionEntry>> entries;
+
+	/**
+	 * Entries which match the last prefix, used to filter a longer prefix.
+	 */
+	private List<CompletionEntry> matchedEntries;
+	private String matchedPrefix;
+
+	// statistics
+	private long hitCount;
+	private long missCount;
+
+	/**
+	 * Returns the completion entries which match the given prefix, filtered
+	 * from the entries of the previous completion if they can be reused, or
+	 * else computed by tsserver with the given provider.
+	 *
+	 * @param fileName
+	 *            the file name.
+	 * @param version
+	 *            the version of the file (number of edits).
+	 * @param position
+	 *            the completion position.
+	 * @param prefix
+	 *            the identifier prefix before the completion position.
+	 * @param factory
+	 *            the completion entry factory.
+	 * @param provider
+	 *            the provider used to compute the entries with tsserver.
+	 * @return the completion entries which match the given prefix.
+	 * @throws TypeScriptException
+	 */
+	public synchronized CompletableFuture<List<CompletionEntry>> completions(String fileName, long version,
+			int position, String prefix, ICompletionEntryFactory factory, ICompletionEntriesProvider provider)
+			throws TypeScriptException {
+		if (prefix == null) {
+			prefix = "";
+		}
+		int start = position - prefix.length();
+		if (canReuse(fileName, version, start, prefix)) {
+			hitCount++;
+			this.version = version;
+			this.prefix = prefix;
+			String filterPrefix = prefix;
+			return entries.thenApply(all -> filter(all, filterPrefix, factory));
+		}
+		missCount++;
+		CompletableFuture<List<CompletionEntry>> entries = provider.completions(factory);
+		this.fileName = fileName;
+		this.version = version;
+		this.start = start;
+		this.prefix = prefix;
+		this.entries = entries;
+		this.matchedEntries = null;
+		this.matchedPrefix = null;
+		String filterPrefix = prefix;
+		return entries.thenApply(all -> filter(all, filterPrefix, null));
+	}
+
+	private boolean canReuse(String fileName, long version, int start, String prefix) {
+		if (entries == null || entries.isCompletedExceptionally() || entries.isCancelled()) {
+			return false;
+		}
+		if (!fileName.equals(this.fileName) || start != this.start) {
+			// the token boundary has changed.
+			return false;
+		}
+		if (!(prefix.startsWith(this.prefix) || this.prefix.startsWith(prefix))) {
+			return false;
+		}
+		// the file must have changed only by the typed (or deleted)
+		// characters of the prefix.
+		return version - this.version == Math.abs(prefix.length() - this.prefix.length());
+	}
+
+	/**
+	 * Returns the entries which match the given prefix.
+	 *
+	 * @param all
+	 *            all entries computed by tsserver.
+	 * @param prefix
+	 *            the prefix.
+	 * @param factory
+	 *            the factory used to copy the matched entries and null if the
+	 *            entries must not be copied.
+	 * @return the entries which match the given prefix.
+	 */
+	private synchronized List<CompletionEntry> filter(List<CompletionEntry> all, String prefix,
+			ICompletionEntryFactory factory) {
+		// false if the session has been reset since the entries were computed.
+		boolean current = entries != null && all == entries.getNow(null);
+		// an entry which doesn't match a prefix doesn't match a longer prefix.
+		List<CompletionEntry> candidates = current && matchedEntries != null && prefix.startsWith(matchedPrefix)
+				? matchedEntries
+				: all;
+		List<CompletionEntry> matched = new ArrayList<CompletionEntry>();
+		for (CompletionEntry entry : candidates) {
+			if (entry.updatePrefix(prefix)) {
+				matched.add(entry);
+			}
+		}
+		if (current) {
+			matchedEntries = matched;
+			matchedPrefix = prefix;
+		}
+		if (factory == null) {
+			return matched;
+		}
+		List<CompletionEntry> copies = new ArrayList<CompletionEntry>(matched.size());
+		for (CompletionEntry entry : matched) {
+			copies.add(entry.copy(factory));
+		}
+		return copies;
+	}
+
+	/**
+	 * Discard the completion entries of this session.
+	 */
+	public synchronized void reset() {
+		this.fileName = null;
+		this.prefix = null;
+		this.entries = null;
+		this.matchedEntries = null;
+		this.matchedPrefix = null;
+	}
+
+	/**
+	 * Returns the number of completions whose entries have been reused.
+	 *
+	 * @return the number of completions whose entries have been reused.
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of completions which have been computed by tsserver.
+	 *
+	 * @return the number of completions which have been computed by tsserver.
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+}
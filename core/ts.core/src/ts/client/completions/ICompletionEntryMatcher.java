@@ -25,6 +25,11 @@ public interface ICompletionEntryMatcher {
 			return LCSS.bestSubsequence(completion, token);
 		}
 
+		@Override
+		public int[] bestSubsequence(CompletionEntry entry, String token) {
+			return LCSS.bestSubsequence(entry.getMatcherCandidate(), token);
+		}
+
 	};
 	
 	public static ICompletionEntryMatcher START_WITH_MATCHER = new ICompletionEntryMatcher() {
@@ -40,4 +45,21 @@ public interface ICompletionEntryMatcher {
 
 	int[] bestSubsequence(String completion, String token);
 
+	/**
+	 * Returns the best subsequence of the name of the given entry which matches
+	 * the given token. This method can be implemented to use data prepared
+	 * once per entry, the entry is matched with each prefix typed by the
+	 * user.
+	 * 
+	 * @param entry
+	 *            the completion entry.
+	 * @param token
+	 *            the token.
+	 * @return the best subsequence of the name of the given entry which matches
+	 *         the given token.
+	 */
+	default int[] bestSubsequence(CompletionEntry entry, String token) {
+		return bestSubsequence(entry.getName(), token);
+	}
+
 }
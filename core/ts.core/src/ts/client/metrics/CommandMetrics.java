@@ -0,0 +1,183 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client.metrics;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram, throughput, timeout, cancellation, cache hit and error
+ * counters of a tsserver command.
+ *
+ */
+public class CommandMetrics implements CommandMetricsMXBean {
+
+	private final String command;
+	private final LatencyHistogram latencies;
+	private final LongAdder requestCount;
+	private final LongAdder errorCount;
+	private final LongAdder timeoutCount;
+	private final LongAdder cancelCount;
+	private final LongAdder cacheHitCount;
+	private volatile long startTime;
+
+	public CommandMetrics(String command) {
+		this.command = command;
+		this.latencies = new LatencyHistogram();
+		this.requestCount = new LongAdder();
+		this.errorCount = new LongAdder();
+		this.timeoutCount = new LongAdder();
+		this.cancelCount = new LongAdder();
+		this.cacheHitCount = new LongAdder();
+		this.startTime = System.nanoTime();
+	}
+
+	/**
+	 * Record a request sent to tsserver.
+	 */
+	public void recordRequest() {
+		requestCount.increment();
+	}
+
+	/**
+	 * Record a response of tsserver.
+	 * 
+	 * @param ellapsedTime
+	 *            elapsed time in ms between the request and the response.
+	 * @param success
+	 *            true if tsserver has answered with success and false
+	 *            otherwise.
+	 */
+	public void recordResponse(long ellapsedTime, boolean success) {
+		latencies.record(ellapsedTime);
+		if (!success) {
+			errorCount.increment();
+		}
+	}
+
+	/**
+	 * Record a request answered by the response cache of the client.
+	 */
+	public void recordCacheHit() {
+		cacheHitCount.increment();
+	}
+
+	/**
+	 * Record an error.
+	 * 
+	 * @param ellapsedTime
+	 *            elapsed time in ms between the request and the error.
+	 * @param error
+	 *            the error.
+	 */
+	public void recordError(long ellapsedTime, Throwable error) {
+		if (error instanceof TimeoutException) {
+			timeoutCount.increment();
+		} else if (error instanceof CancellationException) {
+			cancelCount.increment();
+		} else {
+			errorCount.increment();
+		}
+	}
+
+	@Override
+	public String getCommand() {
+		return command;
+	}
+
+	@Override
+	public long getRequestCount() {
+		return requestCount.sum();
+	}
+
+	@Override
+	public long getResponseCount() {
+		return latencies.getCount();
+	}
+
+	@Override
+	public long getErrorCount() {
+		return errorCount.sum();
+	}
+
+	@Override
+	public long getTimeoutCount() {
+		return timeoutCount.sum();
+	}
+
+	@Override
+	public long getCancelCount() {
+		return cancelCount.sum();
+	}
+
+	@Override
+	public long getCacheHitCount() {
+		return cacheHitCount.sum();
+	}
+
+	/**
+	 * Returns the number of responses per second since the creation or the
+	 * last reset of the metrics.
+	 * 
+	 * @return the number of responses per second.
+	 */
+	@Override
+	public double getThroughput() {
+		double seconds = (System.nanoTime() - startTime) / 1000000000d;
+		return seconds > 0 ? latencies.getCount() / seconds : 0;
+	}
+
+	@Override
+	public double getMeanLatency() {
+		return latencies.getMean();
+	}
+
+	@Override
+	public long getMaxLatency() {
+		return latencies.getMax();
+	}
+
+	@Override
+	public long getP50Latency() {
+		return latencies.getValueAtPercentile(50);
+	}
+
+	@Override
+	public long getP90Latency() {
+		return latencies.getValueAtPercentile(90);
+	}
+
+	@Override
+	public long getP99Latency() {
+		return latencies.getValueAtPercentile(99);
+	}
+
+	/**
+	 * Returns the latency histogram (in ms) of the command.
+	 * 
+	 * @return the latency histogram (in ms) of the command.
+	 */
+	public LatencyHistogram getLatencies() {
+		return latencies;
+	}
+
+	@Override
+	public void reset() {
+		latencies.reset();
+		requestCount.reset();
+		errorCount.reset();
+		timeoutCount.reset();
+		cancelCount.reset();
+		cacheHitCount.reset();
+		startTime = System.nanoTime();
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client.metrics;
+
+/**
+ * JMX view of the metrics of a tsserver command.
+ *
+ */
+public interface CommandMetricsMXBean {
+
+	String getCommand();
+
+	long getRequestCount();
+
+	long getResponseCount();
+
+	long getErrorCount();
+
+	long getTimeoutCount();
+
+	long getCancelCount();
+
+	long getCacheHitCount();
+
+	double getThroughput();
+
+	double getMeanLatency();
+
+	long getMaxLatency();
+
+	long getP50Latency();
+
+	long getP90Latency();
+
+	long getP99Latency();
+
+	void reset();
+}
@@ -0,0 +1,145 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (like HdrHistogram):
+ * values lower than 16 have their own bucket, bigger values are recorded in
+ * one of the 16 linear sub-buckets of their power of 2, so the recorded values
+ * have a precision of about 6%.
+ *
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray counts;
+	private final LongAdder totalCount;
+	private final LongAdder totalValue;
+	private final AtomicLong maxValue;
+
+	public LatencyHistogram() {
+		this.counts = new AtomicLongArray(BUCKET_COUNT);
+		this.totalCount = new LongAdder();
+		this.totalValue = new LongAdder();
+		this.maxValue = new AtomicLong();
+	}
+
+	/**
+	 * Record the given value.
+	 * 
+	 * @param value
+	 *            the value (ex : elapsed time in ms).
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		counts.incrementAndGet(getIndex(value));
+		totalCount.increment();
+		totalValue.add(value);
+		maxValue.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * Returns the number of recorded values.
+	 * 
+	 * @return the number of recorded values.
+	 */
+	public long getCount() {
+		return totalCount.sum();
+	}
+
+	/**
+	 * Returns the mean of the recorded values.
+	 * 
+	 * @return the mean of the recorded values.
+	 */
+	public double getMean() {
+		long count = totalCount.sum();
+		return count > 0 ? (double) totalValue.sum() / count : 0;
+	}
+
+	/**
+	 * Returns the max of the recorded values.
+	 * 
+	 * @return the max of the recorded values.
+	 */
+	public long getMax() {
+		return maxValue.get();
+	}
+
+	/**
+	 * Returns the value at the given percentile (ex : 99 for the 99th
+	 * percentile). The returned value is the highest value of the bucket of
+	 * the percentile.
+	 * 
+	 * @param percentile
+	 *            percentile between 0 and 100.
+	 * @return the value at the given percentile.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			count += counts.get(i);
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+		long cumulated = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulated += counts.get(i);
+			if (cumulated >= target) {
+				return Math.min(getHighestValue(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Reset the histogram.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		totalCount.reset();
+		totalValue.reset();
+		maxValue.set(0);
+	}
+
+	static int getIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+		return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long getHighestValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+		long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+		long lowestValue = (SUB_BUCKET_COUNT + subBucket) << shift;
+		return lowestValue + (1L << shift) - 1;
+	}
+}
@@ -0,0 +1,203 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import ts.client.IInterceptor;
+import ts.client.ITypeScriptServiceClient;
+import ts.client.TypeScriptServiceClient;
+import ts.internal.client.protocol.Request;
+import ts.internal.client.protocol.Response;
+
+/**
+ * Interceptor which collects the metrics (latency histogram, throughput,
+ * timeouts, cancellations, errors) of each tsserver command of a project.
+ * 
+ * Metrics can be exported with JMX with {@link #register()}: the interceptor
+ * is registered with the name
+ * <code>ts.core:type=TypeScriptMetrics,project=...</code> and each command
+ * with the name
+ * <code>ts.core:type=TypeScriptMetrics,project=...,command=...</code>.
+ *
+ */
+public class MetricsInterceptor implements IInterceptor, MetricsInterceptorMXBean {
+
+	private static final String DOMAIN = "ts.core";
+
+	private final String projectName;
+	private final Map<String, CommandMetrics> metrics;
+	private volatile boolean registered;
+
+	public MetricsInterceptor(String projectName) {
+		this.projectName = projectName;
+		this.metrics = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public void handleRequest(Request<?> request, String json, ITypeScriptServiceClient client) {
+		getMetrics(request.getCommand()).recordRequest();
+	}
+
+	@Override
+	public void handleResponse(Response<?> response, String json, long ellapsedTime,
+			TypeScriptServiceClient typeScriptServiceClient) {
+		getMetrics(response.getCommand()).recordResponse(ellapsedTime, response.isSuccess());
+	}
+
+	@Override
+	public void handleError(Throwable error, ITypeScriptServiceClient client, String methodName,
+			long ellapsedTime) {
+		getMetrics(methodName).recordError(ellapsedTime, error);
+	}
+
+	@Override
+	public void handleCachedResponse(Request<?> request, Response<?> response, String json,
+			ITypeScriptServiceClient client) {
+		getMetrics(request.getCommand()).recordCacheHit();
+	}
+
+	/**
+	 * Returns the metrics of the given command.
+	 * 
+	 * @param command
+	 *            the tsserver command name.
+	 * @return the metrics of the given command.
+	 */
+	public CommandMetrics getMetrics(String command) {
+		CommandMetrics commandMetrics = metrics.get(command);
+		if (commandMetrics != null) {
+			return commandMetrics;
+		}
+		commandMetrics = new CommandMetrics(command);
+		CommandMetrics existing = metrics.putIfAbsent(command, commandMetrics);
+		if (existing != null) {
+			return existing;
+		}
+		if (registered) {
+			register(commandMetrics, getObjectName(command));
+		}
+		return commandMetrics;
+	}
+
+	@Override
+	public String getProjectName() {
+		return projectName;
+	}
+
+	@Override
+	public String[] getCommands() {
+		List<String> commands = new ArrayList<>(metrics.keySet());
+		Collections.sort(commands);
+		return commands.toArray(new String[commands.size()]);
+	}
+
+	/**
+	 * Returns a text snapshot of the metrics of each command.
+	 * 
+	 * @return a text snapshot of the metrics of each command.
+	 */
+	@Override
+	public String dumpSnapshot() {
+		StringBuilder snapshot = new StringBuilder();
+		snapshot.append("TypeScript metrics of '").append(projectName).append("' (latencies in ms)\n");
+		snapshot.append(String.format("%-30s %9s %9s %7s %8s %8s %7s %9s %8s %6s %6s %6s %6s%n", "command",
+				"requests", "responses", "errors", "timeouts", "canceled", "cached", "req/s", "mean", "p50", "p90",
+				"p99", "max"));
+		for (String command : getCommands()) {
+			CommandMetrics m = metrics.get(command);
+			snapshot.append(String.format("%-30s %9d %9d %7d %8d %8d %7d %9.2f %8.1f %6d %6d %6d %6d%n", command,
+					m.getRequestCount(), m.getResponseCount(), m.getErrorCount(), m.getTimeoutCount(),
+					m.getCancelCount(), m.getCacheHitCount(), m.getThroughput(), m.getMeanLatency(), m.getP50Latency(), m.getP90Latency(),
+					m.getP99Latency(), m.getMaxLatency()));
+		}
+		return snapshot.toString();
+	}
+
+	@Override
+	public void reset() {
+		for (CommandMetrics commandMetrics : metrics.values()) {
+			commandMetrics.reset();
+		}
+	}
+
+	/**
+	 * Register the metrics as JMX MBeans in the platform MBean server.
+	 */
+	public synchronized void register() {
+		if (registered) {
+			return;
+		}
+		registered = true;
+		register(this, getObjectName(null));
+		for (CommandMetrics commandMetrics : metrics.values()) {
+			register(commandMetrics, getObjectName(commandMetrics.getCommand()));
+		}
+	}
+
+	/**
+	 * Unregister the metrics JMX MBeans from the platform MBean server.
+	 */
+	public synchronized void unregister() {
+		if (!registered) {
+			return;
+		}
+		registered = false;
+		unregister(getObjectName(null));
+		for (String command : metrics.keySet()) {
+			unregister(getObjectName(command));
+		}
+	}
+
+	private ObjectName getObjectName(String command) {
+		StringBuilder name = new StringBuilder(DOMAIN);
+		name.append(":type=TypeScriptMetrics,project=").append(ObjectName.quote(projectName));
+		if (command != null) {
+			name.append(",command=").append(ObjectName.quote(command));
+		}
+		try {
+			return new ObjectName(name.toString());
+		} catch (JMException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	private static void register(Object mbean, ObjectName name) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			if (!server.isRegistered(name)) {
+				server.registerMBean(mbean, name);
+			}
+		} catch (JMException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static void unregister(ObjectName name) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			e.printStackTrace();
+		}
+	}
+}
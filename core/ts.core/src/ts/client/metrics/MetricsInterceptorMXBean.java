@@ -0,0 +1,26 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.client.metrics;
+
+/**
+ * JMX view of the metrics of the tsserver commands of a project.
+ *
+ */
+public interface MetricsInterceptorMXBean {
+
+	String getProjectName();
+
+	String[] getCommands();
+
+	String dumpSnapshot();
+
+	void reset();
+}
@@ -3,6 +3,7 @@ package ts.cmd;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 
 import ts.TypeScriptException;
 import ts.nodejs.INodejsLaunchConfiguration;
@@ -13,6 +14,11 @@ import ts.nodejs.NodejsProcessManager;
 
 public class AbstractCmd<T extends IOptions> {
 
+	/**
+	 * Interval in milliseconds to check if a command is canceled.
+	 */
+	private static final long CANCEL_CHECK_INTERVAL = 100;
+
 	private final File binFile;
 	private final File nodejsFile;
 	private final String binFileType;
@@ -31,29 +37,110 @@ public class AbstractCmd<T extends IOptions> {
 
 	public INodejsProcess execute(File baseDir, final T options, final List<String> filenames,
 			INodejsProcessListener listener) throws TypeScriptException {
-		INodejsProcess process = NodejsProcessManager.getInstance().create(baseDir, binFile, nodejsFile,
-				new INodejsLaunchConfiguration() {
-
-					@Override
-					public List<String> createNodeArgs() {
-						List<String> args = new ArrayList<String>();
-						fillOptions(options, filenames, args);
-						return args;
-					}
-				}, binFileType);
+		return execute(baseDir, options, filenames, listener, null);
+	}
 
+	/**
+	 * Execute the command from the given directory and wait for its end. The
+	 * process is killed as soon as the given cancel condition is true.
+	 * 
+	 * @param baseDir
+	 *            the directory where the command must be executed.
+	 * @param options
+	 *            the options of the command.
+	 * @param filenames
+	 *            the file names given to the command.
+	 * @param listener
+	 *            the process listener.
+	 * @param canceled
+	 *            the cancel condition, checked while the command is executed,
+	 *            or null if the command cannot be canceled.
+	 * @return the node.js process which has executed the command.
+	 * @throws TypeScriptException
+	 */
+	public INodejsProcess execute(File baseDir, final T options, final List<String> filenames,
+			INodejsProcessListener listener, final BooleanSupplier canceled) throws TypeScriptException {
+		final INodejsProcess process = createProcess(baseDir, options, filenames);
 		if (listener != null) {
 			process.addProcessListener(listener);
 		}
 		process.start();
+		Thread cancelThread = null;
+		if (canceled != null) {
+			// join() blocks until the end of the process, check the cancel
+			// condition in an other thread.
+			cancelThread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						while (process.isStarted()) {
+							if (canceled.getAsBoolean()) {
+								process.kill();
+								return;
+							}
+							Thread.sleep(CANCEL_CHECK_INTERVAL);
+						}
+					} catch (InterruptedException e) {
+						// the process has stopped.
+					}
+				}
+			}, binFileType + " cancel");
+			cancelThread.setDaemon(true);
+			cancelThread.start();
+		}
 		try {
 			process.join();
 		} catch (InterruptedException e) {
 			throw new TypeScriptException(e);
+		} finally {
+			if (cancelThread != null) {
+				cancelThread.interrupt();
+			}
 		}
 		return process;
 	}
 
+	/**
+	 * Create the node.js process which executes the command from the given
+	 * directory, without starting it.
+	 * 
+	 * @param baseDir
+	 *            the directory where the command must be executed.
+	 * @param options
+	 *            the options of the command.
+	 * @param filenames
+	 *            the file names given to the command.
+	 * @return the node.js process which executes the command.
+	 * @throws TypeScriptException
+	 */
+	protected INodejsProcess createProcess(File baseDir, final T options, final List<String> filenames)
+			throws TypeScriptException {
+		return NodejsProcessManager.getInstance().create(baseDir, binFile, nodejsFile,
+				new INodejsLaunchConfiguration() {
+
+					@Override
+					public List<String> createNodeArgs() {
+						return createArgs(options, filenames);
+					}
+				}, binFileType);
+	}
+
+	/**
+	 * Returns the arguments of the command for the given options and file
+	 * names.
+	 * 
+	 * @param options
+	 * @param filenames
+	 * @return the arguments of the command for the given options and file
+	 *         names.
+	 */
+	protected List<String> createArgs(T options, List<String> filenames) {
+		List<String> args = new ArrayList<String>();
+		fillOptions(options, filenames, args);
+		return args;
+	}
+
 	private void fillOptions(T options, List<String> filenames, List<String> args) {
 		if (filenames != null) {
 			args.addAll(filenames);
@@ -34,6 +34,46 @@ public interface ITypeScriptCompiler {
 	INodejsProcess execute(File baseDir, CompilerOptions options, List<String> filenames,
 			INodejsProcessListener listener) throws TypeScriptException;
 
+	/**
+	 * Returns the 'tsc --watch' process executed from the given directory with
+	 * the given options. The process is started if it is not running or if
+	 * the options have changed; the given handler is used only when the
+	 * process is started.
+	 * 
+	 * @param baseDir
+	 *            the directory where 'tsc --watch' must be executed.
+	 * @param options
+	 *            the compiler options.
+	 * @param handler
+	 *            the handler of the tsc messages.
+	 * @return the 'tsc --watch' process executed from the given directory.
+	 * @throws TypeScriptException
+	 */
+	TypeScriptCompilerWatcher watch(File baseDir, CompilerOptions options, ITypeScriptCompilerMessageHandler handler)
+			throws TypeScriptException;
+
+	/**
+	 * Returns the running 'tsc --watch' process executed from the given
+	 * directory with the given options, or null if there is none.
+	 * 
+	 * @param baseDir
+	 *            the directory where 'tsc --watch' is executed.
+	 * @param options
+	 *            the compiler options.
+	 * @return the running 'tsc --watch' process executed from the given
+	 *         directory with the given options, or null if there is none.
+	 */
+	TypeScriptCompilerWatcher getWatcher(File baseDir, CompilerOptions options);
+
+	/**
+	 * Stop the 'tsc --watch' process executed from the given directory if
+	 * any.
+	 * 
+	 * @param baseDir
+	 *            the directory where 'tsc --watch' is executed.
+	 */
+	void stopWatch(File baseDir);
+
 	/**
 	 * Dispose the compiler.
 	 */
@@ -11,20 +11,86 @@
 package ts.cmd.tsc;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import ts.TypeScriptException;
 import ts.cmd.AbstractCmd;
 
 public class TypeScriptCompiler extends AbstractCmd<CompilerOptions> implements ITypeScriptCompiler {
 
 	private static final String TSC_FILE_TYPE = "tsc";
 
+	// 'tsc --watch' processes by base directory
+	private final Map<File, TypeScriptCompilerWatcher> watchers;
+
 	public TypeScriptCompiler(File tscFile, File nodejsFile) {
 		super(tscFile, nodejsFile, TSC_FILE_TYPE);
+		this.watchers = new HashMap<File, TypeScriptCompilerWatcher>();
 	}
 
 	@Override
-	public void dispose() {
+	public TypeScriptCompilerWatcher watch(File baseDir, CompilerOptions options,
+			ITypeScriptCompilerMessageHandler handler) throws TypeScriptException {
+		CompilerOptions watchOptions = createWatchOptions(options);
+		List<String> args = createArgs(watchOptions, null);
+		synchronized (watchers) {
+			TypeScriptCompilerWatcher watcher = watchers.get(baseDir);
+			if (watcher != null) {
+				if (watcher.isAlive() && watcher.getArgs().equals(args)) {
+					return watcher;
+				}
+				// the options have changed or tsc has stopped.
+				watcher.dispose();
+			}
+			watcher = new TypeScriptCompilerWatcher(createProcess(baseDir, watchOptions, null), args, handler);
+			watchers.put(baseDir, watcher);
+			watcher.start();
+			return watcher;
+		}
+	}
 
+	@Override
+	public TypeScriptCompilerWatcher getWatcher(File baseDir, CompilerOptions options) {
+		List<String> args = createArgs(createWatchOptions(options), null);
+		synchronized (watchers) {
+			TypeScriptCompilerWatcher watcher = watchers.get(baseDir);
+			if (watcher != null && watcher.isAlive() && watcher.getArgs().equals(args)) {
+				return watcher;
+			}
+			return null;
+		}
+	}
+
+	private static CompilerOptions createWatchOptions(CompilerOptions options) {
+		CompilerOptions watchOptions = options != null ? new CompilerOptions(options) : new CompilerOptions();
+		watchOptions.setWatch(true);
+		return watchOptions;
+	}
+
+	@Override
+	public void stopWatch(File baseDir) {
+		TypeScriptCompilerWatcher watcher;
+		synchronized (watchers) {
+			watcher = watchers.remove(baseDir);
+		}
+		if (watcher != null) {
+			watcher.dispose();
+		}
+	}
+
+	@Override
+	public void dispose() {
+		List<TypeScriptCompilerWatcher> disposed;
+		synchronized (watchers) {
+			disposed = new ArrayList<TypeScriptCompilerWatcher>(watchers.values());
+			watchers.clear();
+		}
+		for (TypeScriptCompilerWatcher watcher : disposed) {
+			watcher.dispose();
+		}
 	}
 
 }
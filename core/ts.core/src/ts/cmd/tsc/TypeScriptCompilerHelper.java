@@ -10,10 +10,6 @@
  */
 package ts.cmd.tsc;
 
-import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import ts.client.Location;
 import ts.cmd.Severity;
 import ts.utils.FileUtils;
@@ -21,17 +17,29 @@ import ts.utils.StringUtils;
 
 /**
  * TypeScript Compiler (tsc) helper.
+ * 
+ * <p>
+ * The lines of the tsc output are recognized with a single pass on the
+ * characters of the line (no regular expression), and only the strings given
+ * to the {@link ITypeScriptCompilerMessageHandler} are created. See
+ * {@link TypeScriptCompilerOutputParser} for an output which is received by
+ * chunks.
+ * </p>
  *
  */
 public class TypeScriptCompilerHelper {
 
-	private static final Pattern TSC_ERROR_PATTERN = Pattern.compile(
-			"^([^\\s].*)\\((\\d+|\\d+,\\d+|\\d+,\\d+,\\d+,\\d+)\\):\\s+(error|warning|info)\\s+(TS\\d+)\\s*:\\s*(.*)$");
-
-	private static final String COMPILATION_COMPLETE_WATCHING_FOR_FILE_CHANGES = "Compilation complete. Watching for file changes.";
+	// "Compilation complete. Watching for file changes." before TypeScript
+	// 2.7, "Found 0 errors. Watching for file changes." since.
+	private static final String WATCHING_FOR_FILE_CHANGES = "Watching for file changes.";
 
 	private static final String TSFILE = "TSFILE:";
 
+	private static final String[] SEVERITIES = { Severity.error.name(), Severity.warning.name(),
+			Severity.info.name() };
+
+	private static final String TS = "TS";
+
 	/**
 	 * Process "tsc" message and call the well
 	 * {@link ITypeScriptCompilerMessageHandler} method.
@@ -43,61 +51,180 @@ public class TypeScriptCompilerHelper {
 		if (StringUtils.isEmpty(text)) {
 			return;
 		}
+		int length = text.length();
+		int start = 0;
+		while (start < length) {
+			int end = text.indexOf('\n', start);
+			if (end == -1) {
+				end = length;
+			}
+			processLine(text, start, end, handler);
+			start = end + 1;
+		}
+	}
 
-		Scanner scanner = null;
-		try {
-			scanner = new Scanner(text);
-			while (scanner.hasNextLine()) {
-				String line = scanner.nextLine();
-				line = line.trim(); // remove leading whitespace
-				if (line.endsWith(FileUtils.TS_EXTENSION) || line.endsWith(FileUtils.TSX_EXTENSION)) {
-					// Occurs when tsc is called with --listFiles
-					handler.addFile(line, false);
-				} else if (line.contains(COMPILATION_COMPLETE_WATCHING_FOR_FILE_CHANGES)) {
-					// Occurs when tsc is called with --watch when compilation
-					// is finished.
-					handler.onCompilationCompleteWatchingForFileChanges();
-				} else if (line.startsWith(TSFILE)) {
-					handler.addFile(line.substring(TSFILE.length(), line.length()).trim(), true);
-				} else {
-					Matcher m = TSC_ERROR_PATTERN.matcher(line);
-					if (m.matches()) {
-						// Error in an ts file.
-						String file = m.group(1);
-						String[] location = m.group(2).split(",");
-						Location startLoc = createLocation(location, true);
-						Location endLoc = createLocation(location, false);
-						String severity = m.group(3);
-						String code = m.group(4);
-						String message = m.group(5);
-						handler.addError(file, startLoc, endLoc,
-								StringUtils.isEmpty(severity) ? Severity.info : Severity.valueOf(severity), code,
-								message);
-					}
+	/**
+	 * Process the "tsc" line text[start, end[ and call the well
+	 * {@link ITypeScriptCompilerMessageHandler} method.
+	 * 
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @param handler
+	 */
+	public static void processLine(CharSequence text, int start, int end, ITypeScriptCompilerMessageHandler handler) {
+		// remove leading and trailing whitespace
+		while (start < end && text.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start == end) {
+			return;
+		}
+		if (endsWith(text, start, end, FileUtils.TS_EXTENSION) || endsWith(text, start, end, FileUtils.TSX_EXTENSION)) {
+			// Occurs when tsc is called with --listFiles
+			handler.addFile(text.subSequence(start, end).toString(), false);
+		} else if (contains(text, start, end, WATCHING_FOR_FILE_CHANGES)) {
+			// Occurs when tsc is called with --watch when compilation
+			// is finished.
+			handler.onCompilationCompleteWatchingForFileChanges();
+		} else if (startsWith(text, start, end, TSFILE)) {
+			int fileStart = skipWhitespaces(text, start + TSFILE.length(), end);
+			handler.addFile(text.subSequence(fileStart, end).toString(), true);
+		} else {
+			// Error in an ts file: file(line[,offset[,endLine,endOffset]]):
+			// (error|warning|info) TS<code>: message
+			// The location is searched from the end of the line, like a greedy
+			// match of the file.
+			for (int i = end - 1; i > start; i--) {
+				if (text.charAt(i) == '(' && processError(text, start, i, end, handler)) {
+					return;
 				}
 			}
-		} finally
+		}
+	}
 
-		{
-			if (scanner != null) {
-				scanner.close();
+	/**
+	 * Call {@link ITypeScriptCompilerMessageHandler#addError} if the line
+	 * text[start, end[ is an error whose location starts at the given open
+	 * parenthesis and returns true, or returns false otherwise.
+	 */
+	private static boolean processError(CharSequence text, int start, int openParen, int end,
+			ITypeScriptCompilerMessageHandler handler) {
+		// location: 1, 2 or 4 numbers, only the start line and offset are
+		// used.
+		int line = 0;
+		int offset = 0;
+		int count = 0;
+		int i = openParen + 1;
+		while (true) {
+			int numberStart = i;
+			int number = 0;
+			while (i < end && isDigit(text.charAt(i))) {
+				number = number * 10 + (text.charAt(i) - '0');
+				i++;
+			}
+			if (i == numberStart || count == 4) {
+				return false;
+			}
+			if (count == 0) {
+				line = number;
+			} else if (count == 1) {
+				offset = number;
 			}
+			count++;
+			if (i < end && text.charAt(i) == ',') {
+				i++;
+			} else {
+				break;
+			}
+		}
+		if (count == 3 || !startsWith(text, i, end, "):")) {
+			return false;
+		}
+		i += 2;
+		// severity
+		int severityStart = skipWhitespaces(text, i, end);
+		if (severityStart == i) {
+			return false;
+		}
+		String severity = null;
+		for (String s : SEVERITIES) {
+			if (startsWith(text, severityStart, end, s)) {
+				severity = s;
+				break;
+			}
+		}
+		if (severity == null) {
+			return false;
+		}
+		i = severityStart + severity.length();
+		// code
+		int codeStart = skipWhitespaces(text, i, end);
+		if (codeStart == i || !startsWith(text, codeStart, end, TS)) {
+			return false;
+		}
+		i = codeStart + TS.length();
+		int digitsStart = i;
+		while (i < end && isDigit(text.charAt(i))) {
+			i++;
+		}
+		if (i == digitsStart) {
+			return false;
+		}
+		int codeEnd = i;
+		i = skipWhitespaces(text, i, end);
+		if (i == end || text.charAt(i) != ':') {
+			return false;
+		}
+		int messageStart = skipWhitespaces(text, i + 1, end);
+		Location startLoc = new Location(line, offset);
+		handler.addError(text.subSequence(start, openParen).toString(), startLoc, null, Severity.valueOf(severity),
+				text.subSequence(codeStart, codeEnd).toString(), text.subSequence(messageStart, end).toString());
+		return true;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isWhitespace(char c) {
+		// same whitespaces than \s of regular expressions.
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	private static int skipWhitespaces(CharSequence text, int i, int end) {
+		while (i < end && isWhitespace(text.charAt(i))) {
+			i++;
 		}
+		return i;
 	}
 
-	private static Location createLocation(String[] location, boolean start) {
-		if (start) {
-			int line = getInt(location, 0);
-			int offset = getInt(location, 1);
-			return new Location(line, offset);
+	private static boolean startsWith(CharSequence text, int start, int end, String prefix) {
+		int length = prefix.length();
+		if (end - start < length) {
+			return false;
 		}
-		return null;
+		for (int i = 0; i < length; i++) {
+			if (text.charAt(start + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
-	private static int getInt(String[] location, int index) {
-		if (index < location.length) {
-			return Integer.parseInt(location[index]);
+	private static boolean endsWith(CharSequence text, int start, int end, String suffix) {
+		return end - start >= suffix.length() && startsWith(text, end - suffix.length(), end, suffix);
+	}
+
+	private static boolean contains(CharSequence text, int start, int end, String s) {
+		for (int i = start; i <= end - s.length(); i++) {
+			if (startsWith(text, i, end, s)) {
+				return true;
+			}
 		}
-		return 0;
+		return false;
 	}
 }
@@ -0,0 +1,95 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.cmd.tsc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Incremental parser of a "tsc" output received by chunks (ex: the stream of a
+ * console) which can end in the middle of a line. Each complete line is given
+ * to {@link TypeScriptCompilerHelper#processLine} as soon as it is received;
+ * only the end of a chunk which is not a complete line is copied until the
+ * next chunk.
+ *
+ */
+public class TypeScriptCompilerOutputParser {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final ITypeScriptCompilerMessageHandler handler;
+	// start of the line which is not complete
+	private final StringBuilder pending;
+
+	public TypeScriptCompilerOutputParser(ITypeScriptCompilerMessageHandler handler) {
+		this.handler = handler;
+		this.pending = new StringBuilder();
+	}
+
+	/**
+	 * Process the complete lines of the given chunk of the "tsc" output.
+	 *
+	 * @param chunk
+	 *            a chunk of the "tsc" output.
+	 */
+	public void append(CharSequence chunk) {
+		int length = chunk.length();
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			if (chunk.charAt(i) == '\n') {
+				if (pending.length() == 0) {
+					TypeScriptCompilerHelper.processLine(chunk, start, i, handler);
+				} else {
+					pending.append(chunk, start, i);
+					TypeScriptCompilerHelper.processLine(pending, 0, pending.length(), handler);
+					pending.setLength(0);
+				}
+				start = i + 1;
+			}
+		}
+		if (start < length) {
+			pending.append(chunk, start, length);
+		}
+	}
+
+	/**
+	 * Process the last line of the "tsc" output if it doesn't end with a new
+	 * line.
+	 */
+	public void end() {
+		if (pending.length() > 0) {
+			TypeScriptCompilerHelper.processLine(pending, 0, pending.length(), handler);
+			pending.setLength(0);
+		}
+	}
+
+	/**
+	 * Process the whole "tsc" output of the given stream, read by blocks
+	 * without storing the output.
+	 *
+	 * @param in
+	 *            the "tsc" output stream.
+	 * @throws IOException
+	 */
+	public void parse(InputStream in) throws IOException {
+		Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+		char[] buffer = new char[BUFFER_SIZE];
+		int read;
+		while ((read = reader.read(buffer)) != -1) {
+			append(CharBuffer.wrap(buffer, 0, read));
+		}
+		end();
+	}
+}
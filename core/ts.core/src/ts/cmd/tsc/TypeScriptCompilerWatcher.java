@@ -0,0 +1,168 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.cmd.tsc;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import ts.TypeScriptException;
+import ts.client.Location;
+import ts.cmd.Severity;
+import ts.nodejs.INodejsProcess;
+import ts.nodejs.INodejsProcessListener;
+
+/**
+ * Long-lived "tsc --watch" process. tsc keeps the program (lib.d.ts, the
+ * dependencies, etc) loaded and compiles again only what has changed when a
+ * file is saved, instead of starting a new "tsc" for each build.
+ *
+ * <p>
+ * The output of tsc is given to the {@link ITypeScriptCompilerMessageHandler}
+ * line by line as soon as it is received, so that the errors and the emitted
+ * files of a compilation are processed while tsc is running.
+ * </p>
+ *
+ */
+public class TypeScriptCompilerWatcher {
+
+	private final INodejsProcess process;
+	private final List<String> args;
+	private final ITypeScriptCompilerMessageHandler handler;
+	private CompletableFuture<Void> compilation;
+	private boolean stopped;
+
+	/**
+	 * Reporter which forwards the tsc output to the handler and tracks the
+	 * end of the compilations.
+	 */
+	private class Reporter implements INodejsProcessListener, ITypeScriptCompilerMessageHandler {
+
+		@Override
+		public void onCreate(INodejsProcess process, List<String> commands, File projectDir) {
+
+		}
+
+		@Override
+		public void onStart(INodejsProcess process) {
+
+		}
+
+		@Override
+		public void onMessage(INodejsProcess process, String response) {
+			TypeScriptCompilerHelper.processMessage(response, this);
+		}
+
+		@Override
+		public void onStop(INodejsProcess process) {
+			CompletableFuture<Void> pending;
+			synchronized (TypeScriptCompilerWatcher.this) {
+				stopped = true;
+				pending = compilation;
+			}
+			pending.completeExceptionally(new TypeScriptException("tsc --watch is stopped."));
+		}
+
+		@Override
+		public void onError(INodejsProcess process, String line) {
+
+		}
+
+		@Override
+		public void addError(String file, Location startLoc, Location endLoc, Severity severity, String code,
+				String message) {
+			handler.addError(file, startLoc, endLoc, severity, code, message);
+		}
+
+		@Override
+		public void addFile(String file, boolean emitted) {
+			handler.addFile(file, emitted);
+		}
+
+		@Override
+		public void onCompilationCompleteWatchingForFileChanges() {
+			try {
+				handler.onCompilationCompleteWatchingForFileChanges();
+			} finally {
+				CompletableFuture<Void> completed;
+				synchronized (TypeScriptCompilerWatcher.this) {
+					completed = compilation;
+					compilation = new CompletableFuture<Void>();
+				}
+				completed.complete(null);
+			}
+		}
+	}
+
+	public TypeScriptCompilerWatcher(INodejsProcess process, List<String> args,
+			ITypeScriptCompilerMessageHandler handler) {
+		this.process = process;
+		this.args = args;
+		this.handler = handler;
+		this.compilation = new CompletableFuture<Void>();
+		process.addProcessListener(new Reporter());
+	}
+
+	/**
+	 * Start the "tsc --watch" process without waiting for the end of the first
+	 * compilation.
+	 */
+	public void start() {
+		process.start();
+	}
+
+	/**
+	 * Returns true if the "tsc --watch" process is running and false
+	 * otherwise.
+	 *
+	 * @return true if the "tsc --watch" process is running and false
+	 *         otherwise.
+	 */
+	public synchronized boolean isAlive() {
+		return !stopped && process.isStarted();
+	}
+
+	/**
+	 * Returns the arguments of the "tsc --watch" process.
+	 *
+	 * @return the arguments of the "tsc --watch" process.
+	 */
+	public List<String> getArgs() {
+		return args;
+	}
+
+	/**
+	 * Returns the handler of the tsc messages.
+	 *
+	 * @return the handler of the tsc messages.
+	 */
+	public ITypeScriptCompilerMessageHandler getHandler() {
+		return handler;
+	}
+
+	/**
+	 * Returns a future completed when the current compilation (or the next
+	 * one if tsc is waiting for file changes) is complete, or completed
+	 * exceptionally if the process stops before.
+	 *
+	 * @return a future completed when the current compilation is complete.
+	 */
+	public synchronized CompletableFuture<Void> getCompilation() {
+		return compilation;
+	}
+
+	/**
+	 * Stop the "tsc --watch" process.
+	 */
+	public void dispose() {
+		process.kill();
+	}
+}
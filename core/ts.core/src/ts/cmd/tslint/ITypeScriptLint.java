@@ -14,6 +14,7 @@ import java.io.File;
 import java.util.List;
 
 import ts.TypeScriptException;
+import ts.cmd.ITypeScriptLinterHandler;
 import ts.nodejs.INodejsProcess;
 import ts.nodejs.INodejsProcessListener;
 
@@ -31,4 +32,28 @@ public interface ITypeScriptLint {
 			throws TypeScriptException;
 
 	List<String> createCommands(TSLintOptions options, List<String> filenames);
+
+	/**
+	 * Lint the given files from the given directory with the "json" format. A
+	 * long-lived tslint worker is used when it is available, otherwise 'tslint'
+	 * is executed for the given files.
+	 * 
+	 * @param baseDir
+	 *            the directory where 'tslint' must be executed.
+	 * @param tslintJsonFile
+	 *            the tslint.json to use, or null to search the tslint.json of
+	 *            each file.
+	 * @param filenames
+	 *            the files to lint.
+	 * @param handler
+	 *            the handler which receives the failures.
+	 * @throws TypeScriptException
+	 */
+	void lint(File baseDir, File tslintJsonFile, List<String> filenames, ITypeScriptLinterHandler handler)
+			throws TypeScriptException;
+
+	/**
+	 * Stop the tslint worker if it is running.
+	 */
+	void dispose();
 }
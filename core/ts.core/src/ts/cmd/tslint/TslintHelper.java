@@ -101,21 +101,7 @@ public class TslintHelper {
 			while (scanner.hasNextLine()) {
 				String line = scanner.nextLine();
 				line = line.trim(); // remove leading whitespace
-				JsonArray array = Json.parse(line).asArray();
-				for (JsonValue value : array) {
-					// [{"endPosition":{"character":3,"line":0,"position":3},"failure":"forbidden
-					// 'var' keyword, use 'let' or 'const'
-					// instead","name":"sample.ts","ruleName":"no-var-keyword","startPosition":{"character":0,"line":0,"position":0}},{"endPosition":{"character":13,"line":0,"position":13},"failure":"missing
-					// semicolon","name":"sample.ts","ruleName":"semicolon","startPosition":{"character":13,"line":0,"position":13}},{"endPosition":{"character":12,"line":0,"position":12},"failure":"missing
-					// whitespace","name":"sample.ts","ruleName":"whitespace","startPosition":{"character":11,"line":0,"position":11}}]
-					JsonObject item = value.asObject();
-					String name = item.getString("name", null);
-					String ruleName = item.getString("ruleName", null);
-					String failure = item.getString("failure", null);
-					Location startLoc = createLocation(item.get("startPosition"));
-					Location endLoc = createLocation(item.get("endPosition"));
-					handler.addError(name, startLoc, endLoc, Severity.error, ruleName, failure);
-				}
+				processJsonFailures(Json.parse(line).asArray(), handler);
 			}
 		} finally {
 			if (scanner != null) {
@@ -124,6 +110,30 @@ public class TslintHelper {
 		}
 	}
 
+	/**
+	 * Process the given "tslint" failures with the "json" format and call the
+	 * well {@link ITypeScriptLinterHandler} method.
+	 * 
+	 * @param failures
+	 * @param handler
+	 */
+	public static void processJsonFailures(JsonArray failures, ITypeScriptLinterHandler handler) {
+		for (JsonValue value : failures) {
+			// [{"endPosition":{"character":3,"line":0,"position":3},"failure":"forbidden
+			// 'var' keyword, use 'let' or 'const'
+			// instead","name":"sample.ts","ruleName":"no-var-keyword","startPosition":{"character":0,"line":0,"position":0}},{"endPosition":{"character":13,"line":0,"position":13},"failure":"missing
+			// semicolon","name":"sample.ts","ruleName":"semicolon","startPosition":{"character":13,"line":0,"position":13}},{"endPosition":{"character":12,"line":0,"position":12},"failure":"missing
+			// whitespace","name":"sample.ts","ruleName":"whitespace","startPosition":{"character":11,"line":0,"position":11}}]
+			JsonObject item = value.asObject();
+			String name = item.getString("name", null);
+			String ruleName = item.getString("ruleName", null);
+			String failure = item.getString("failure", null);
+			Location startLoc = createLocation(item.get("startPosition"));
+			Location endLoc = createLocation(item.get("endPosition"));
+			handler.addError(name, startLoc, endLoc, Severity.error, ruleName, failure);
+		}
+	}
+
 	private static Location createLocation(JsonValue value) {
 		if (value == null || !value.isObject()) {
 			return null;
@@ -0,0 +1,197 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.cmd.tslint;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import com.eclipsesource.json.ParseException;
+
+import ts.TypeScriptException;
+import ts.cmd.ITypeScriptLinterHandler;
+import ts.nodejs.INodejsProcess;
+import ts.nodejs.NodejsProcessAdapter;
+import ts.utils.FileUtils;
+
+/**
+ * Long-lived "tslint-worker" process. The worker keeps the linter, the rules
+ * and the tslint.json configurations loaded between the lints, instead of
+ * starting a new "tslint" for each build.
+ *
+ * <p>
+ * Each lint is a line of JSON written in the stdin of the worker:
+ * <code>{"seq":1,"files":["/project/a.ts"],"config":"/project/tslint.json"}</code>
+ * answered by a line of JSON with the same "seq" and the "failures" with the
+ * tslint "json" format (or an "error" message).
+ * </p>
+ *
+ */
+public class TslintWorker {
+
+	private final INodejsProcess process;
+	private final Map<Integer, PendingLint> pending;
+	private int seq;
+	private boolean stopped;
+
+	/**
+	 * A lint which waits for the response of the worker.
+	 */
+	private static class PendingLint {
+
+		final CompletableFuture<Void> result;
+		final ITypeScriptLinterHandler handler;
+
+		PendingLint(ITypeScriptLinterHandler handler) {
+			this.result = new CompletableFuture<Void>();
+			this.handler = handler;
+		}
+	}
+
+	/**
+	 * Reporter which dispatches the responses of the worker to the pending
+	 * lints.
+	 */
+	private class Reporter extends NodejsProcessAdapter {
+
+		@Override
+		public void onMessage(INodejsProcess process, String response) {
+			JsonObject json;
+			try {
+				JsonValue value = Json.parse(response);
+				if (!value.isObject()) {
+					return;
+				}
+				json = value.asObject();
+			} catch (ParseException e) {
+				// ignore output which is not a response (ex: a deprecation
+				// warning of node.js)
+				return;
+			}
+			PendingLint lint;
+			synchronized (TslintWorker.this) {
+				lint = pending.remove(json.getInt("seq", -1));
+			}
+			if (lint == null) {
+				return;
+			}
+			String error = json.getString("error", null);
+			if (error != null) {
+				lint.result.completeExceptionally(new TypeScriptException(error));
+				return;
+			}
+			try {
+				JsonValue failures = json.get("failures");
+				if (failures != null && failures.isArray()) {
+					TslintHelper.processJsonFailures(failures.asArray(), lint.handler);
+				}
+				lint.result.complete(null);
+			} catch (Throwable e) {
+				lint.result.completeExceptionally(e);
+			}
+		}
+
+		@Override
+		public void onStop(INodejsProcess process) {
+			List<PendingLint> lints;
+			synchronized (TslintWorker.this) {
+				stopped = true;
+				lints = new ArrayList<PendingLint>(pending.values());
+				pending.clear();
+			}
+			for (PendingLint lint : lints) {
+				lint.result.completeExceptionally(new TypeScriptException("tslint worker is stopped."));
+			}
+		}
+	}
+
+	public TslintWorker(INodejsProcess process) {
+		this.process = process;
+		this.pending = new HashMap<Integer, PendingLint>();
+		process.addProcessListener(new Reporter());
+	}
+
+	/**
+	 * Start the "tslint-worker" process.
+	 */
+	public void start() {
+		process.start();
+	}
+
+	/**
+	 * Returns true if the "tslint-worker" process is running and false
+	 * otherwise.
+	 *
+	 * @return true if the "tslint-worker" process is running and false
+	 *         otherwise.
+	 */
+	public synchronized boolean isAlive() {
+		return !stopped && process.isStarted();
+	}
+
+	/**
+	 * Lint the given files with the worker.
+	 *
+	 * @param filenames
+	 *            the files to lint.
+	 * @param tslintJsonFile
+	 *            the tslint.json to use, or null to search the tslint.json of
+	 *            each file.
+	 * @param handler
+	 *            the handler which receives the failures.
+	 * @return a future completed when the failures of the files are given to
+	 *         the handler.
+	 */
+	public CompletableFuture<Void> lint(List<String> filenames, File tslintJsonFile,
+			ITypeScriptLinterHandler handler) {
+		PendingLint lint = new PendingLint(handler);
+		int requestSeq;
+		synchronized (this) {
+			if (stopped) {
+				lint.result.completeExceptionally(new TypeScriptException("tslint worker is stopped."));
+				return lint.result;
+			}
+			requestSeq = ++seq;
+			pending.put(requestSeq, lint);
+		}
+		JsonArray files = new JsonArray();
+		for (String filename : filenames) {
+			files.add(filename);
+		}
+		JsonObject request = Json.object().add("seq", requestSeq).add("files", files);
+		if (tslintJsonFile != null) {
+			request.add("config", FileUtils.getPath(tslintJsonFile));
+		}
+		try {
+			process.sendRequest(request.toString());
+		} catch (TypeScriptException e) {
+			synchronized (this) {
+				pending.remove(requestSeq);
+			}
+			lint.result.completeExceptionally(e);
+		}
+		return lint.result;
+	}
+
+	/**
+	 * Stop the "tslint-worker" process.
+	 */
+	public void dispose() {
+		process.kill();
+	}
+}
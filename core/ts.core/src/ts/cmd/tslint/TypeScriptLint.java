@@ -1,22 +1,107 @@
 package ts.cmd.tslint;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
+import ts.TypeScriptException;
 import ts.cmd.AbstractCmd;
+import ts.cmd.ITypeScriptLinterHandler;
+import ts.nodejs.INodejsLaunchConfiguration;
+import ts.nodejs.INodejsProcess;
+import ts.nodejs.NodejsProcessAdapter;
+import ts.nodejs.NodejsProcessManager;
+import ts.utils.FileUtils;
 
 public class TypeScriptLint extends AbstractCmd<TSLintOptions> implements ITypeScriptLint {
 
 	private static final String TSLINT_FILE_TYPE = "tslint";
 
+	private final File tslintFile;
 	private final File tslintJsonFile;
+	private final File nodejsFile;
+	private final File tslintWorkerFile;
+	private TslintWorker worker;
 
 	public TypeScriptLint(File tslintFile, File tslintJsonFile, File nodejsFile) {
+		this(tslintFile, tslintJsonFile, nodejsFile, null);
+	}
+
+	public TypeScriptLint(File tslintFile, File tslintJsonFile, File nodejsFile, File tslintWorkerFile) {
 		super(tslintFile, nodejsFile, TSLINT_FILE_TYPE);
+		this.tslintFile = tslintFile;
 		this.tslintJsonFile = tslintJsonFile;
+		this.nodejsFile = nodejsFile;
+		this.tslintWorkerFile = tslintWorkerFile;
 	}
 
 	public File getTslintJsonFile() {
 		return tslintJsonFile;
 	}
 
+	@Override
+	public void lint(File baseDir, File tslintJsonFile, List<String> filenames, final ITypeScriptLinterHandler handler)
+			throws TypeScriptException {
+		if (tslintWorkerFile == null || !tslintWorkerFile.exists()) {
+			// no tslint worker, execute 'tslint' for the given files.
+			TSLintOptions options = new TSLintOptions();
+			options.setFormat(TslintFormat.json);
+			options.setConfig(tslintJsonFile);
+			super.execute(baseDir, options, filenames, new NodejsProcessAdapter() {
+
+				@Override
+				public void onMessage(INodejsProcess process, String response) {
+					TslintHelper.processJsonMessage(response, handler);
+				}
+			});
+			return;
+		}
+		try {
+			getWorker(baseDir).lint(filenames, tslintJsonFile, handler).get();
+		} catch (InterruptedException e) {
+			throw new TypeScriptException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof TypeScriptException) {
+				throw (TypeScriptException) cause;
+			}
+			throw new TypeScriptException(cause);
+		}
+	}
+
+	/**
+	 * Returns the running tslint worker and start it if needed.
+	 * 
+	 * @param baseDir
+	 *            the directory where the worker must be started.
+	 * @return the running tslint worker.
+	 * @throws TypeScriptException
+	 */
+	private synchronized TslintWorker getWorker(File baseDir) throws TypeScriptException {
+		if (worker == null || !worker.isAlive()) {
+			// tslint/bin/tslint -> tslint
+			final File tslintDir = tslintFile.getParentFile().getParentFile();
+			INodejsProcess process = NodejsProcessManager.getInstance().create(baseDir, tslintWorkerFile, nodejsFile,
+					new INodejsLaunchConfiguration() {
+
+						@Override
+						public List<String> createNodeArgs() {
+							return Arrays.asList("--tslintDir", FileUtils.getPath(tslintDir));
+						}
+					}, TSLINT_FILE_TYPE);
+			worker = new TslintWorker(process);
+			worker.start();
+		}
+		return worker;
+	}
+
+	@Override
+	public synchronized void dispose() {
+		if (worker != null) {
+			worker.dispose();
+			worker = null;
+		}
+	}
+
 }
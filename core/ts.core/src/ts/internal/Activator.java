@@ -25,6 +25,7 @@ public class Activator implements BundleActivator {
 	 */
 	public void stop(BundleContext bundleContext) throws Exception {
 		Activator.context = null;
+		FileTempHelper.dispose();
 	}
 
 }
@@ -1,73 +1,197 @@
 package ts.internal;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Stack;
 
 import ts.TypeScriptException;
 
+/**
+ * Pool of temporary files used by the "reload" command.
+ *
+ * <p>
+ * A temporary file is kept open with its {@link FileChannel} and its encoding
+ * buffer, and is reused by the next reload once tsserver has read it: the new
+ * content is written over the previous one and the file is truncated only if
+ * it is shorter, so the blocks of the file stay allocated. The files are
+ * closed and deleted with {@link #dispose()} or when the JVM exits.
+ * </p>
+ */
 public class FileTempHelper {
 
-	private final static Stack<File> availableTempFileList = new Stack<File>();
-	private final static Map<Integer, File> seq_to_tempfile_name = new HashMap<Integer, File>();
+	/**
+	 * Number of free temporary files kept in the pool, the others are deleted
+	 * when they are freed.
+	 */
+	private static final int MAX_AVAILABLE_TEMP_FILES = 4;
+
+	private static final int MIN_BUFFER_SIZE = 8192;
+
+	/**
+	 * A temporary file opened for writing.
+	 */
+	private static class TempFile {
+
+		final File file;
+		final String path;
+		final FileChannel channel;
+		final CharsetEncoder encoder;
+		ByteBuffer buffer;
+
+		TempFile(File file) throws IOException {
+			this.file = file;
+			this.path = file.getCanonicalPath();
+			this.channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+			// a lone surrogate (ex: while typing in the editor) is replaced
+			// instead of truncating the content.
+			this.encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			this.buffer = ByteBuffer.allocate(MIN_BUFFER_SIZE);
+		}
+
+		void write(String text) throws IOException {
+			ByteBuffer buffer = encode(text);
+			long position = 0;
+			while (buffer.hasRemaining()) {
+				position += channel.write(buffer, position);
+			}
+			if (channel.size() > position) {
+				channel.truncate(position);
+			}
+		}
+
+		private ByteBuffer encode(String text) {
+			int capacity = (int) Math.min(Integer.MAX_VALUE, (long) text.length() * 3);
+			if (buffer.capacity() < capacity) {
+				buffer = ByteBuffer.allocate(Math.max(capacity, buffer.capacity() * 2));
+			}
+			buffer.clear();
+			encoder.reset();
+			CharBuffer in = CharBuffer.wrap(text);
+			CoderResult result = encoder.encode(in, buffer, true);
+			if (result.isUnderflow()) {
+				encoder.flush(buffer);
+			}
+			buffer.flip();
+			return buffer;
+		}
+
+		void close() {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// ignore
+			}
+			file.delete();
+		}
+	}
 
+	private final static Deque<TempFile> availableTempFiles = new ArrayDeque<TempFile>();
+	private final static Map<Integer, TempFile> seqToTempFile = new HashMap<Integer, TempFile>();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(FileTempHelper::dispose, "typescript.java-tempfiles"));
+	}
+
+	/**
+	 * Write the given text in a temporary file reserved for the request with
+	 * the given sequence and returns the path of this file.
+	 *
+	 * @param newText
+	 *            the text to write.
+	 * @param seq
+	 *            the sequence of the reload request.
+	 * @return the path of the temporary file.
+	 * @throws TypeScriptException
+	 */
 	public static String updateTempFile(String newText, int seq) throws TypeScriptException {
-		Writer writer = null;
+		TempFile tempFile = null;
 		try {
-			File tempFile = getTempFile(seq);
-			writer = new FileWriter(tempFile);
-			writer.write(newText);
-			writer.flush();
-			return tempFile.getCanonicalPath();
-		} catch (Exception e) {
-			throw new TypeScriptException(e);
-		} finally {
-			try {
-				if (writer != null) {
-					writer.close();
+			tempFile = getTempFile(seq);
+			tempFile.write(newText);
+			return tempFile.path;
+		} catch (IOException e) {
+			if (tempFile != null) {
+				synchronized (availableTempFiles) {
+					seqToTempFile.remove(seq);
 				}
-			} catch (IOException e) {
-				throw new TypeScriptException(e);
+				tempFile.close();
 			}
+			throw new TypeScriptException(e);
 		}
 	}
 
 	/**
-	 * Get the first unused temp file name to avoid conflicts.
-	 * 
-	 * @return
+	 * Get the first unused temp file to avoid conflicts.
+	 *
+	 * @return the temp file reserved for the given sequence.
 	 * @throws IOException
 	 */
-	private static File getTempFile(int seq) throws IOException {
-		File tempFile = null;
-		synchronized (availableTempFileList) {
-			if (!availableTempFileList.isEmpty()) {
-				tempFile = availableTempFileList.pop();
-			} else {
-				tempFile = File.createTempFile("tmptsjava." + SequenceHelper.getTempSeq(), null);
-				tempFile.deleteOnExit();
-			}
-			seq_to_tempfile_name.put(seq, tempFile);
+	private static TempFile getTempFile(int seq) throws IOException {
+		TempFile tempFile = null;
+		synchronized (availableTempFiles) {
+			tempFile = availableTempFiles.pollFirst();
+		}
+		if (tempFile == null) {
+			File file = File.createTempFile("tmptsjava." + SequenceHelper.getTempSeq(), null);
+			file.deleteOnExit();
+			tempFile = new TempFile(file);
+		}
+		synchronized (availableTempFiles) {
+			seqToTempFile.put(seq, tempFile);
 		}
 		return tempFile;
 	}
 
 	/**
 	 * Post process after receiving a reload response
-	 * 
+	 *
 	 * @param seq
 	 */
 	public static void freeTempFile(int seq) {
-		synchronized (availableTempFileList) {
-			File tempFile = seq_to_tempfile_name.remove(seq);
+		TempFile deleted = null;
+		synchronized (availableTempFiles) {
+			TempFile tempFile = seqToTempFile.remove(seq);
 			if (tempFile != null) {
-				availableTempFileList.push(tempFile);
+				if (availableTempFiles.size() < MAX_AVAILABLE_TEMP_FILES) {
+					availableTempFiles.push(tempFile);
+				} else {
+					deleted = tempFile;
+				}
 			}
 		}
+		if (deleted != null) {
+			deleted.close();
+		}
+	}
+
+	/**
+	 * Close and delete all temporary files.
+	 */
+	public static void dispose() {
+		List<TempFile> tempFiles = new ArrayList<TempFile>();
+		synchronized (availableTempFiles) {
+			tempFiles.addAll(availableTempFiles);
+			tempFiles.addAll(seqToTempFile.values());
+			availableTempFiles.clear();
+			seqToTempFile.clear();
+		}
+		for (TempFile tempFile : tempFiles) {
+			tempFile.close();
+		}
 	}
 
 }
@@ -0,0 +1,259 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.internal;
+
+import java.util.Arrays;
+
+import ts.client.Location;
+
+/**
+ * Index of the start position of each line of a content, to convert a position
+ * to a line/offset (1-based) and vice versa with a binary search. The index is
+ * updated incrementally with {@link #update(int, int, String)} when the content
+ * changes.
+ *
+ * <p>
+ * Line terminators are "\n", "\r\n" and "\r". The kind of terminator which
+ * ends each line is kept in the index, to know if an edit joins or splits a
+ * "\r\n" without reading the content.
+ * </p>
+ *
+ */
+public class LineIndex {
+
+	private static final byte LF = 1;
+	private static final byte CR = 2;
+	private static final byte CRLF = 3;
+
+	/**
+	 * Start positions of the lines, starts[0] is always 0.
+	 */
+	private int[] starts;
+
+	/**
+	 * kinds[i] is the kind of the terminator which precedes the line i (kinds[0]
+	 * is not used).
+	 */
+	private byte[] kinds;
+
+	private int lineCount;
+	private int length;
+
+	public LineIndex(String contents) {
+		this.starts = new int[16];
+		this.kinds = new byte[16];
+		this.lineCount = 1;
+		this.length = contents != null ? contents.length() : 0;
+		if (contents != null) {
+			LineScanner scanner = new LineScanner(contents, 0);
+			while (scanner.next()) {
+				add(scanner.start, scanner.kind);
+			}
+		}
+	}
+
+	/**
+	 * Returns the line/offset (1-based) of the given position.
+	 *
+	 * @param position
+	 *            the position (0-based).
+	 * @return the line/offset (1-based) of the given position.
+	 */
+	public synchronized Location getLocation(int position) {
+		int line = getLineOfPosition(position);
+		return new Location(line + 1, position - starts[line] + 1);
+	}
+
+	/**
+	 * Returns the position (0-based) of the given line/offset (1-based).
+	 *
+	 * @param line
+	 *            the line (1-based).
+	 * @param offset
+	 *            the offset (1-based).
+	 * @return the position (0-based) of the given line/offset.
+	 * @throws IndexOutOfBoundsException
+	 *             if the line doesn't exist.
+	 */
+	public synchronized int getPosition(int line, int offset) {
+		if (line < 1 || line > lineCount) {
+			throw new IndexOutOfBoundsException("Invalid line " + line + ", line count is " + lineCount);
+		}
+		return starts[line - 1] + offset - 1;
+	}
+
+	/**
+	 * Returns the number of lines.
+	 *
+	 * @return the number of lines.
+	 */
+	public synchronized int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * Returns the length of the indexed content.
+	 *
+	 * @return the length of the indexed content.
+	 */
+	public synchronized int getLength() {
+		return length;
+	}
+
+	/**
+	 * Update the index with the replacement of the given range of the content by
+	 * the given text.
+	 *
+	 * @param position
+	 *            start position of the replaced range.
+	 * @param replacedLength
+	 *            length of the replaced range.
+	 * @param text
+	 *            the new text (null or empty for a deletion).
+	 */
+	public synchronized void update(int position, int replacedLength, String text) {
+		if (text == null) {
+			text = "";
+		}
+		int end = position + replacedLength;
+		// extend the range to rescan to a "\r" before and a "\n" after, which can
+		// be joined with the new text or split by the edit.
+		String prefix = isCRBefore(position) ? "\r" : "";
+		String suffix = isLFAt(end) ? "\n" : "";
+		int rescanStart = position - prefix.length();
+		int rescanEnd = end + suffix.length();
+		int delta = text.length() - replacedLength;
+
+		// lines whose terminator ends in the rescanned range are removed, lines
+		// after are shifted.
+		int first = findFirstStartAfter(rescanStart);
+		int last = findFirstStartAfter(rescanEnd);
+		String rescanned = prefix + text + suffix;
+		int added = 0;
+		LineScanner scanner = new LineScanner(rescanned, rescanStart);
+		while (scanner.next()) {
+			added++;
+		}
+		int newLineCount = lineCount - (last - first) + added;
+		ensureCapacity(newLineCount);
+		System.arraycopy(starts, last, starts, first + added, lineCount - last);
+		System.arraycopy(kinds, last, kinds, first + added, lineCount - last);
+		if (delta != 0) {
+			for (int i = first + added; i < newLineCount; i++) {
+				starts[i] += delta;
+			}
+		}
+		scanner = new LineScanner(rescanned, rescanStart);
+		for (int i = first; scanner.next(); i++) {
+			starts[i] = scanner.start;
+			kinds[i] = scanner.kind;
+		}
+		lineCount = newLineCount;
+		length += delta;
+	}
+
+	/**
+	 * Returns the index of the line which contains the given position.
+	 */
+	private int getLineOfPosition(int position) {
+		int index = Arrays.binarySearch(starts, 0, lineCount, position);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	/**
+	 * Returns the index of the first line which starts after the given
+	 * position.
+	 */
+	private int findFirstStartAfter(int position) {
+		int index = Arrays.binarySearch(starts, 0, lineCount, position);
+		return index >= 0 ? index + 1 : -index - 1;
+	}
+
+	private int findLine(int start) {
+		int index = Arrays.binarySearch(starts, 0, lineCount, start);
+		return index > 0 ? index : -1;
+	}
+
+	private boolean isCRBefore(int position) {
+		// "\r" before position: a line "\r" starts at position or a line
+		// "\r\n" starts at position + 1
+		int line = findLine(position);
+		if (line != -1 && kinds[line] == CR) {
+			return true;
+		}
+		line = findLine(position + 1);
+		return line != -1 && kinds[line] == CRLF;
+	}
+
+	private boolean isLFAt(int position) {
+		// "\n" at position: a line "\n" or "\r\n" starts at position + 1
+		int line = findLine(position + 1);
+		return line != -1 && (kinds[line] == LF || kinds[line] == CRLF);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > starts.length) {
+			capacity = Math.max(capacity, starts.length * 2);
+			starts = Arrays.copyOf(starts, capacity);
+			kinds = Arrays.copyOf(kinds, capacity);
+		}
+	}
+
+	private void add(int start, byte kind) {
+		ensureCapacity(lineCount + 1);
+		starts[lineCount] = start;
+		kinds[lineCount] = kind;
+		lineCount++;
+	}
+
+	/**
+	 * Scanner of the line terminators of a text.
+	 */
+	private static class LineScanner {
+
+		private final String text;
+		private final int offset;
+		private int index;
+
+		int start;
+		byte kind;
+
+		LineScanner(String text, int offset) {
+			this.text = text;
+			this.offset = offset;
+		}
+
+		/**
+		 * Find the next line terminator and returns true if there is one.
+		 */
+		boolean next() {
+			int length = text.length();
+			while (index < length) {
+				char c = text.charAt(index++);
+				if (c == '\n') {
+					kind = LF;
+				} else if (c == '\r') {
+					if (index < length && text.charAt(index) == '\n') {
+						index++;
+						kind = CRLF;
+					} else {
+						kind = CR;
+					}
+				} else {
+					continue;
+				}
+				start = offset + index;
+				return true;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package ts.internal;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared scheduler used to execute background tasks of the TypeScript client
+ * (restart of tsserver, health probe, etc).
+ *
+ */
+public class SchedulerHelper {
+
+	private final static AtomicInteger threadSeq = new AtomicInteger();
+
+	private final static ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
+			new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "typescript.java-scheduler-" + threadSeq.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	public static ScheduledExecutorService getScheduler() {
+		return scheduler;
+	}
+}
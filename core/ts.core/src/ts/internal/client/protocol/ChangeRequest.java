@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 
@@ -34,7 +34,7 @@ public class ChangeRequest extends AbstractFormatRequest<ChangeRequestArgs> {
 	}
 
 	@Override
-	public Response<?> parseResponse(JsonObject json) {
+	public Response<?> parseResponse(JsonReader reader) {
 		// This request doesn't return response.
 		return null;
 	}
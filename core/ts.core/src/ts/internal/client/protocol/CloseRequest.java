@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 
@@ -29,7 +29,7 @@ public class CloseRequest extends FileRequest<FileRequestArgs> {
 	}
 
 	@Override
-	public Response<?> parseResponse(JsonObject json) {
+	public Response<?> parseResponse(JsonReader reader) {
 		// This request doesn't return response.
 		return null;
 	}
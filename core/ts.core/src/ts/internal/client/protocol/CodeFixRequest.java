@@ -12,7 +12,7 @@ package ts.internal.client.protocol;
 
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.codefixes.CodeAction;
@@ -32,8 +32,8 @@ public class CodeFixRequest extends Request<CodeFixRequestArgs> {
 	}
 
 	@Override
-	public Response<List<CodeAction>> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, GetCodeFixesResponse.class);
+	public Response<List<CodeAction>> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, GetCodeFixesResponse.class);
 	}
 
 }
@@ -12,7 +12,7 @@ package ts.internal.client.protocol;
 
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.compileonsave.CompileOnSaveAffectedFileListSingleProject;
@@ -31,8 +31,8 @@ public class CompileOnSaveAffectedFileListRequest extends FileRequest<FileReques
 	}
 
 	@Override
-	public Response<List<CompileOnSaveAffectedFileListSingleProject>> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, CompileOnSaveAffectedFileListResponse.class);
+	public Response<List<CompileOnSaveAffectedFileListSingleProject>> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, CompileOnSaveAffectedFileListResponse.class);
 	}
 
 }
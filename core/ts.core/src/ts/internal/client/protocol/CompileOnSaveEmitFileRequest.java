@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 
@@ -27,8 +27,8 @@ public class CompileOnSaveEmitFileRequest extends Request<CompileOnSaveEmitFileR
 	}
 
 	@Override
-	public Response<Boolean> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, CompileOnSaveEmitFileResponse.class);
+	public Response<Boolean> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, CompileOnSaveEmitFileResponse.class);
 	}
 
 }
@@ -12,7 +12,7 @@ package ts.internal.client.protocol;
 
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.completions.CompletionEntryDetails;
@@ -34,8 +34,8 @@ public class CompletionDetailsRequest extends FileLocationRequest<CompletionDeta
 	}
 
 	@Override
-	public Response<List<CompletionEntryDetails>> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, CompletionDetailsResponse.class);
+	public Response<List<CompletionEntryDetails>> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, CompletionDetailsResponse.class);
 	}
 
 }
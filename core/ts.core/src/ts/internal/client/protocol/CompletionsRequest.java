@@ -10,17 +10,14 @@
  */
 package ts.internal.client.protocol;
 
-import java.lang.reflect.Type;
 import java.util.List;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.InstanceCreator;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.ITypeScriptServiceClient;
 import ts.client.completions.CompletionEntry;
+import ts.client.completions.CompletionEntryDetailsLoader;
 import ts.client.completions.ICompletionEntryFactory;
 import ts.client.completions.ICompletionEntryMatcherProvider;
 
@@ -34,6 +31,7 @@ public class CompletionsRequest extends FileLocationRequest<CompletionsRequestAr
 	private final transient ICompletionEntryMatcherProvider matcherProvider;
 	private final transient ITypeScriptServiceClient client;
 	private final transient ICompletionEntryFactory factory;
+	private transient CompletionEntryDetailsLoader entryDetailsLoader;
 
 	public CompletionsRequest(String fileName, int line, int offset, ICompletionEntryMatcherProvider matcherProvider,
 			ITypeScriptServiceClient client, ICompletionEntryFactory factory) {
@@ -44,18 +42,26 @@ public class CompletionsRequest extends FileLocationRequest<CompletionsRequestAr
 	}
 
 	@Override
-	public Response<List<CompletionEntry>> parseResponse(JsonObject json) {
-		String fileName = super.getArguments().getFile();
-		int line = super.getArguments().getLine();
-		int offset = super.getArguments().getOffset();
-		Gson gson = new GsonBuilder()
-				.registerTypeAdapter(CompletionEntry.class, new InstanceCreator<CompletionEntry>() {
-					@Override
-					public CompletionEntry createInstance(Type type) {
-						return factory.create(matcherProvider.getMatcher(), fileName, line, offset, client);
-					}
-				}).create();
-		return gson.fromJson(json, CompletionsResponse.class);
+	public Response<List<CompletionEntry>> parseResponse(JsonReader reader) {
+		return GsonHelper.fromJson(reader, CompletionsResponse.class, this);
+	}
+
+	@Override
+	protected <I> I createInstance(Class<I> type) {
+		if (type == CompletionEntry.class) {
+			String fileName = super.getArguments().getFile();
+			int line = super.getArguments().getLine();
+			int offset = super.getArguments().getOffset();
+			if (entryDetailsLoader == null) {
+				// the entries of the response share the same loader to load their
+				// details with batched requests.
+				entryDetailsLoader = new CompletionEntryDetailsLoader(client, fileName, line, offset);
+			}
+			CompletionEntry entry = factory.create(matcherProvider.getMatcher(), fileName, line, offset, client);
+			entry.setEntryDetailsLoader(entryDetailsLoader);
+			return type.cast(entry);
+		}
+		return null;
 	}
 
 }
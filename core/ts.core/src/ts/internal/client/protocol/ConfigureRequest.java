@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.configure.ConfigureRequestArguments;
@@ -28,8 +28,8 @@ public class ConfigureRequest extends Request<ConfigureRequestArguments> {
 	}
 
 	@Override
-	public Response<?> parseResponse(JsonObject json) {
-		return null;
+	public Response<?> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, Response.class);
 	}
 
 }
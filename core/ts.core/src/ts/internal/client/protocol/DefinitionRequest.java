@@ -12,7 +12,7 @@ package ts.internal.client.protocol;
 
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.FileSpan;
@@ -31,8 +31,8 @@ public class DefinitionRequest extends FileLocationRequest<FileLocationRequestAr
 	}
 
 	@Override
-	public Response<List<FileSpan>> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, DefinitionResponse.class);
+	public Response<List<FileSpan>> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, DefinitionResponse.class);
 	}
 
 }
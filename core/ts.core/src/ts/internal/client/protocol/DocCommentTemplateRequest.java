@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.jsdoc.TextInsertion;
@@ -27,8 +27,8 @@ public class DocCommentTemplateRequest extends FileLocationRequest<FileLocationR
 	}
 
 	@Override
-	public Response<TextInsertion> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, DocCommandTemplateResponse.class);
+	public Response<TextInsertion> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, DocCommandTemplateResponse.class);
 	}
 
 }
@@ -12,7 +12,7 @@ package ts.internal.client.protocol;
 
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CodeEdit;
 import ts.client.CommandNames;
@@ -33,8 +33,8 @@ public class FormatRequest extends AbstractFormatRequest<FormatRequestArgs> {
 	}
 
 	@Override
-	public Response<List<CodeEdit>> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, FormatResponse.class);
+	public Response<List<CodeEdit>> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, FormatResponse.class);
 	}
 	
 
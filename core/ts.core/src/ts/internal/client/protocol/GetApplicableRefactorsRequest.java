@@ -12,7 +12,7 @@ package ts.internal.client.protocol;
 
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.refactors.ApplicableRefactorInfo;
@@ -32,8 +32,8 @@ public class GetApplicableRefactorsRequest extends Request {
 	}
 
 	@Override
-	public Response<List<ApplicableRefactorInfo>> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, GetApplicableRefactorsResponse.class);
+	public Response<List<ApplicableRefactorInfo>> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, GetApplicableRefactorsResponse.class);
 	}
 
 }
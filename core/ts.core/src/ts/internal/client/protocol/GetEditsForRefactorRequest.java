@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.refactors.RefactorEditInfo;
@@ -32,8 +32,8 @@ public class GetEditsForRefactorRequest extends Request {
 	}
 
 	@Override
-	public Response<RefactorEditInfo> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, GetEditsForRefactorResponse.class);
+	public Response<RefactorEditInfo> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, GetEditsForRefactorResponse.class);
 	}
 
 }
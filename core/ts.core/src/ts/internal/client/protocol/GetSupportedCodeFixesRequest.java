@@ -12,7 +12,7 @@ package ts.internal.client.protocol;
 
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 
@@ -28,8 +28,8 @@ public class GetSupportedCodeFixesRequest extends Request<Void> {
 	}
 
 	@Override
-	public Response<List<String>> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, GetSupportedCodeFixesResponse.class);
+	public Response<List<String>> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, GetSupportedCodeFixesResponse.class);
 	}
 
 }
@@ -13,7 +13,7 @@ package ts.internal.client.protocol;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.diagnostics.DiagnosticEvent;
@@ -39,7 +39,7 @@ public class GeterrForProjectRequest extends Request<GeterrForProjectRequestArgs
 	}
 
 	@Override
-	public Response<?> parseResponse(JsonObject json) {
+	public Response<?> parseResponse(JsonReader reader) {
 		return null;
 	}
 
@@ -11,9 +11,14 @@
 package ts.internal.client.protocol;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.diagnostics.DiagnosticEvent;
@@ -27,24 +32,63 @@ import ts.client.diagnostics.DiagnosticEvent;
  * practice for an editor is to send a file list containing each file that is
  * currently visible, in most-recently-used order.
  * 
+ * <p>
+ * The request is completed when the syntactic and semantic diagnostics of all
+ * files are received. When a listener is given, the listener is notified with
+ * each diagnostics event as soon as it is received, and the request is
+ * registered with a key of its own and completed by the "requestCompleted"
+ * event of tsserver, so it doesn't conflict with another geterr for the same
+ * files.
+ * </p>
+ * 
  * @see https://github.com/Microsoft/TypeScript/blob/master/src/server/protocol.ts
  */
 public class GeterrRequest extends Request<GeterrRequestArgs> implements IRequestEventable<DiagnosticEvent> {
 
+	/**
+	 * Prefix of the key of a geterr request completed by the
+	 * "requestCompleted" event.
+	 */
+	public static final String REQUEST_COMPLETED_KEY_PREFIX = "requestCompleted_";
+
 	private final transient List<DiagnosticEvent> events;
+	private final transient Consumer<DiagnosticEvent> listener;
+	private final transient Set<String> files;
 
 	public GeterrRequest(String[] files, int delay) {
+		this(files, delay, null);
+	}
+
+	public GeterrRequest(String[] files, int delay, Consumer<DiagnosticEvent> listener) {
 		super(CommandNames.Geterr.getName(), new GeterrRequestArgs(files, delay));
 		this.events = new ArrayList<>();
+		this.listener = listener;
+		this.files = listener != null ? new HashSet<>(Arrays.asList(files)) : null;
+	}
+
+	/**
+	 * Returns the key of the geterr request with the given sequence which is
+	 * completed by the "requestCompleted" event.
+	 * 
+	 * @param seq
+	 *            the request sequence.
+	 * @return the key of the geterr request with the given sequence which is
+	 *         completed by the "requestCompleted" event.
+	 */
+	public static String getRequestCompletedKey(int seq) {
+		return REQUEST_COMPLETED_KEY_PREFIX + seq;
 	}
 
 	@Override
-	public Response<?> parseResponse(JsonObject json) {
+	public Response<?> parseResponse(JsonReader reader) {
 		return null;
 	}
 
 	@Override
 	public List<String> getKeys() {
+		if (listener != null) {
+			return Collections.singletonList(getRequestCompletedKey(getSeq()));
+		}
 		String[] files = super.getArguments().getFiles();
 		List<String> keys = new ArrayList<>(files.length * 2);
 		for (String file : files) {
@@ -56,8 +100,17 @@ public class GeterrRequest extends Request<GeterrRequestArgs> implements IReques
 
 	@Override
 	public boolean accept(DiagnosticEvent event) {
+		if (listener != null) {
+			if (files.contains(event.getBody().getFile())) {
+				events.add(event);
+				listener.accept(event);
+			}
+			// completed by the "requestCompleted" event.
+			return false;
+		}
 		events.add(event);
-		return events.size() > 1;
+		// a syntactic and a semantic event per file.
+		return events.size() >= super.getArguments().getFiles().length * 2;
 	}
 
 	@Override
@@ -10,10 +10,13 @@
  */
 package ts.internal.client.protocol;
 
+import java.io.StringReader;
 import java.lang.reflect.Type;
+import java.util.function.Supplier;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.InstanceCreator;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
@@ -21,7 +24,11 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
 
+import ts.client.Location;
+import ts.client.completions.CompletionEntry;
+import ts.client.completions.ICompletionEntryFactory;
 import ts.client.diagnostics.Diagnostic;
 import ts.client.diagnostics.DiagnosticWithLinePosition;
 import ts.client.diagnostics.IDiagnostic;
@@ -30,13 +37,77 @@ public class GsonHelper {
 
 	private static final JsonParser JSON_PARSER = new JsonParser();
 
+	/**
+	 * The request which is parsing its response in the current thread.
+	 */
+	private static final ThreadLocal<Request<?>> PARSING_REQUEST = new ThreadLocal<Request<?>>();
+
 	public static final Gson DEFAULT_GSON = new GsonBuilder()
-			.registerTypeAdapter(IDiagnostic.class, new DiagnosticAdapter()).create();
+			.registerTypeAdapter(IDiagnostic.class, new DiagnosticAdapter())
+			.registerTypeAdapter(CompletionEntry.class, new RequestInstanceCreator<CompletionEntry>(
+					CompletionEntry.class, () -> ICompletionEntryFactory.DEFAULT.create(null, null, 0, 0, null)))
+			.registerTypeAdapter(Location.class, new RequestInstanceCreator<Location>(Location.class, Location::new))
+			.create();
 
 	public static JsonElement parse(String json) throws JsonSyntaxException {
 		return JSON_PARSER.parse(json);
 	}
 
+	public static JsonReader createReader(String json) {
+		return new JsonReader(new StringReader(json));
+	}
+
+	/**
+	 * Bind the given JSON with {@link #DEFAULT_GSON} by using the given request
+	 * as context to create instances of {@link CompletionEntry},
+	 * {@link Location}, etc (see {@link Request#createInstance(Class)}).
+	 * 
+	 * @param reader
+	 *            the JSON reader.
+	 * @param classOfT
+	 *            the class to bind.
+	 * @param request
+	 *            the request which is parsing its response.
+	 * @return the bound instance.
+	 */
+	public static <T> T fromJson(JsonReader reader, Class<T> classOfT, Request<?> request) {
+		Request<?> oldRequest = PARSING_REQUEST.get();
+		PARSING_REQUEST.set(request);
+		try {
+			return DEFAULT_GSON.fromJson(reader, classOfT);
+		} finally {
+			if (oldRequest != null) {
+				PARSING_REQUEST.set(oldRequest);
+			} else {
+				PARSING_REQUEST.remove();
+			}
+		}
+	}
+
+	/**
+	 * Instance creator which delegates to the request which is parsing its
+	 * response in the current thread and to a default creator otherwise.
+	 *
+	 * @param <T>
+	 */
+	private static class RequestInstanceCreator<T> implements InstanceCreator<T> {
+
+		private final Class<T> type;
+		private final Supplier<T> defaultCreator;
+
+		public RequestInstanceCreator(Class<T> type, Supplier<T> defaultCreator) {
+			this.type = type;
+			this.defaultCreator = defaultCreator;
+		}
+
+		@Override
+		public T createInstance(Type t) {
+			Request<?> request = PARSING_REQUEST.get();
+			T instance = request != null ? request.createInstance(type) : null;
+			return instance != null ? instance : defaultCreator.get();
+		}
+	}
+
 	private static class DiagnosticAdapter implements JsonDeserializer<IDiagnostic> {
 
 		@Override
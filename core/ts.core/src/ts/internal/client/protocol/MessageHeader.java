@@ -0,0 +1,127 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.internal.client.protocol;
+
+import java.io.IOException;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Header ("type", "request_seq", "event") of a tsserver message.
+ *
+ * tsserver writes those fields before the "body", so the header is read with a
+ * streaming reader which stops as soon as the header is known, without
+ * building the JSON tree of the body. The body can then be bound directly to
+ * the POJO of the request which matches the "request_seq".
+ *
+ */
+public class MessageHeader {
+
+	private MessageType type;
+	private String typeName;
+	private Integer requestSeq;
+	private String event;
+
+	private MessageHeader() {
+	}
+
+	/**
+	 * Read the header of the given tsserver message.
+	 *
+	 * @param message
+	 *            the JSON message.
+	 * @return the header of the given tsserver message.
+	 * @throws JsonSyntaxException
+	 */
+	public static MessageHeader read(String message) throws JsonSyntaxException {
+		MessageHeader header = new MessageHeader();
+		JsonReader reader = GsonHelper.createReader(message);
+		try {
+			reader.beginObject();
+			while (!header.isComplete() && reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "type":
+					header.typeName = reader.nextString();
+					header.type = MessageType.getType(header.typeName);
+					break;
+				case "request_seq":
+					header.requestSeq = reader.nextInt();
+					break;
+				case "event":
+					header.event = reader.nextString();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+		} catch (IOException | IllegalStateException | NumberFormatException e) {
+			throw new JsonSyntaxException(e);
+		}
+		return header;
+	}
+
+	private boolean isComplete() {
+		if (typeName == null) {
+			return false;
+		}
+		if (type == null) {
+			// unknown type
+			return true;
+		}
+		switch (type) {
+		case response:
+			return requestSeq != null;
+		case event:
+			return event != null;
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * Returns the type of the message and null if the type is unknown.
+	 *
+	 * @return the type of the message and null if the type is unknown.
+	 */
+	public MessageType getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the raw "type" of the message and null if the message has no type.
+	 *
+	 * @return the raw "type" of the message and null if the message has no type.
+	 */
+	public String getTypeName() {
+		return typeName;
+	}
+
+	/**
+	 * Returns the sequence number of the request for a response message and null
+	 * otherwise.
+	 *
+	 * @return the sequence number of the request for a response message and null
+	 *         otherwise.
+	 */
+	public Integer getRequestSeq() {
+		return requestSeq;
+	}
+
+	/**
+	 * Returns the event name for an event message and null otherwise.
+	 *
+	 * @return the event name for an event message and null otherwise.
+	 */
+	public String getEvent() {
+		return event;
+	}
+}
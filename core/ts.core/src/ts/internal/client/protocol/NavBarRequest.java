@@ -10,13 +10,9 @@
  */
 package ts.internal.client.protocol;
 
-import java.lang.reflect.Type;
 import java.util.List;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.InstanceCreator;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.IPositionProvider;
@@ -40,17 +36,16 @@ public class NavBarRequest extends FileRequest<FileRequestArgs> {
 	}
 
 	@Override
-	public Response<List<NavigationBarItem>> parseResponse(JsonObject json) {
-		Gson gson = GsonHelper.DEFAULT_GSON;
-		if (positionProvider != null) {
-			gson = new GsonBuilder().registerTypeAdapter(Location.class, new InstanceCreator<Location>() {
-				@Override
-				public Location createInstance(Type type) {
-					return new Location(positionProvider);
-				}
-			}).create();
+	public Response<List<NavigationBarItem>> parseResponse(JsonReader reader) {
+		return GsonHelper.fromJson(reader, NavBarResponse.class, this);
+	}
+
+	@Override
+	protected <I> I createInstance(Class<I> type) {
+		if (type == Location.class && positionProvider != null) {
+			return type.cast(new Location(positionProvider));
 		}
-		return gson.fromJson(json, NavBarResponse.class);
+		return null;
 	}
 
 }
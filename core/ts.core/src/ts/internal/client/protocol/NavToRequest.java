@@ -13,7 +13,7 @@ package ts.internal.client.protocol;
 import java.util.List;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.navto.NavtoItem;
@@ -34,9 +34,9 @@ public class NavToRequest extends FileRequest<NavtoRequestArgs> {
 	}
 
 	@Override
-	public Response<List<NavtoItem>> parseResponse(JsonObject json) {
+	public Response<List<NavtoItem>> parseResponse(JsonReader reader) {
 		Gson gson = GsonHelper.DEFAULT_GSON;
-		return gson.fromJson(json, NavtoResponse.class);
+		return gson.fromJson(reader, NavtoResponse.class);
 	}
 
 }
@@ -10,12 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import java.lang.reflect.Type;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.InstanceCreator;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.IPositionProvider;
@@ -39,17 +34,16 @@ public class NavTreeRequest extends FileRequest<FileRequestArgs> {
 	}
 
 	@Override
-	public Response<NavigationBarItem> parseResponse(JsonObject json) {
-		Gson gson = GsonHelper.DEFAULT_GSON;
-		if (positionProvider != null) {
-			gson = new GsonBuilder().registerTypeAdapter(Location.class, new InstanceCreator<Location>() {
-				@Override
-				public Location createInstance(Type type) {
-					return new Location(positionProvider);
-				}
-			}).create();
+	public Response<NavigationBarItem> parseResponse(JsonReader reader) {
+		return GsonHelper.fromJson(reader, NavTreeResponse.class, this);
+	}
+
+	@Override
+	protected <I> I createInstance(Class<I> type) {
+		if (type == Location.class && positionProvider != null) {
+			return type.cast(new Location(positionProvider));
 		}
-		return gson.fromJson(json, NavTreeResponse.class);
+		return null;
 	}
 
 }
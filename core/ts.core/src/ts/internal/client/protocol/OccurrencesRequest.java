@@ -12,7 +12,7 @@ package ts.internal.client.protocol;
 
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.occurrences.OccurrencesResponseItem;
@@ -31,8 +31,8 @@ public class OccurrencesRequest extends FileLocationRequest<FileLocationRequestA
 	}
 
 	@Override
-	public Response<List<OccurrencesResponseItem>> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, OccurrencesResponse.class);
+	public Response<List<OccurrencesResponseItem>> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, OccurrencesResponse.class);
 	}
 
 }
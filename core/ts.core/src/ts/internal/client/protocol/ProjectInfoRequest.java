@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.projectinfo.ProjectInfo;
@@ -27,8 +27,8 @@ public class ProjectInfoRequest extends Request<ProjectInfoRequestArgs> {
 	}
 
 	@Override
-	public Response<ProjectInfo> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, ProjectInfoResponse.class);
+	public Response<ProjectInfo> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, ProjectInfoResponse.class);
 	}
 
 }
@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.quickinfo.QuickInfo;
@@ -29,8 +29,8 @@ public class QuickInfoRequest extends FileLocationRequest<FileLocationRequestArg
 	}
 
 	@Override
-	public Response<QuickInfo> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, QuickInfoResponse.class);
+	public Response<QuickInfo> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, QuickInfoResponse.class);
 	}
 
 }
@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.references.ReferencesResponseBody;
@@ -29,8 +29,8 @@ public class ReferencesRequest extends FileLocationRequest<FileLocationRequestAr
 	}
 
 	@Override
-	public Response<ReferencesResponseBody> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, ReferencesResponse.class);
+	public Response<ReferencesResponseBody> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, ReferencesResponse.class);
 	}
 
 }
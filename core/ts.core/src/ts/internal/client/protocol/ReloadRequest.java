@@ -10,10 +10,9 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
-import ts.internal.FileTempHelper;
 
 /**
  * Reload request message; value of command field is "reload". Reload contents
@@ -29,10 +28,8 @@ public class ReloadRequest extends FileRequest<ReloadRequestArgs> {
 	}
 
 	@Override
-	public Response<?> parseResponse(JsonObject json) {
-		int requestSeq = json.get("request_seq").getAsInt();
-		FileTempHelper.freeTempFile(requestSeq);
-		return GsonHelper.DEFAULT_GSON.fromJson(json, Response.class);
+	public Response<?> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, Response.class);
 	}
 
 }
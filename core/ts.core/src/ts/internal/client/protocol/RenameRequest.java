@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.rename.RenameResponseBody;
@@ -31,8 +31,8 @@ public class RenameRequest extends FileLocationRequest<RenameRequestArgs> {
 	}
 
 	@Override
-	public Response<RenameResponseBody> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, RenameResponse.class);
+	public Response<RenameResponseBody> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, RenameResponse.class);
 	}
 
 }
@@ -11,7 +11,7 @@
 package ts.internal.client.protocol;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.internal.SequenceHelper;
 
@@ -51,7 +51,28 @@ public abstract class Request<T> extends Message {
 		return arguments;
 	}
 
-	public abstract <R> Response<R> parseResponse(JsonObject json);
+	/**
+	 * Bind the tsserver response of this request from the given reader.
+	 * 
+	 * @param reader
+	 *            the reader positioned at the beginning of the response
+	 *            message.
+	 * @return the response.
+	 */
+	public abstract <R> Response<R> parseResponse(JsonReader reader);
+
+	/**
+	 * Create an instance of the given type when the response of this request
+	 * is bound with {@link GsonHelper#fromJson(JsonReader, Class, Request)}.
+	 * 
+	 * @param type
+	 *            the type to create.
+	 * @return an instance of the given type and null to use the default
+	 *         instance.
+	 */
+	protected <I> I createInstance(Class<I> type) {
+		return null;
+	}
 
 	protected Gson getGson() {
 		return GsonHelper.DEFAULT_GSON;
@@ -12,7 +12,7 @@ package ts.internal.client.protocol;
 
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.diagnostics.IDiagnostic;
@@ -30,8 +30,8 @@ public class SemanticDiagnosticsSyncRequest extends FileRequest<SemanticDiagnost
 	}
 
 	@Override
-	public Response<List<IDiagnostic>> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, SemanticDiagnosticsSyncResponse.class);
+	public Response<List<IDiagnostic>> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, SemanticDiagnosticsSyncResponse.class);
 	}
 
 }
@@ -10,7 +10,7 @@
  */
 package ts.internal.client.protocol;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.signaturehelp.SignatureHelpItems;
@@ -28,8 +28,8 @@ public class SignatureHelpRequest extends FileLocationRequest<SignatureHelpReque
 	}
 
 	@Override
-	public Response<SignatureHelpItems> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, SignatureHelpResponse.class);
+	public Response<SignatureHelpItems> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, SignatureHelpResponse.class);
 	}
 
 }
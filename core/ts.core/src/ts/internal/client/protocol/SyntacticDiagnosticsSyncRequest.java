@@ -12,7 +12,7 @@ package ts.internal.client.protocol;
 
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import ts.client.CommandNames;
 import ts.client.diagnostics.IDiagnostic;
@@ -30,8 +30,8 @@ public class SyntacticDiagnosticsSyncRequest extends FileRequest<SyntacticDiagno
 	}
 
 	@Override
-	public Response<List<IDiagnostic>> parseResponse(JsonObject json) {
-		return GsonHelper.DEFAULT_GSON.fromJson(json, SyntacticDiagnosticsSyncResponse.class);
+	public Response<List<IDiagnostic>> parseResponse(JsonReader reader) {
+		return GsonHelper.DEFAULT_GSON.fromJson(reader, SyntacticDiagnosticsSyncResponse.class);
 	}
 
 }
@@ -0,0 +1,234 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.internal.matcher;
+
+/**
+ * A completion prepared for the subsequence matching of {@link LCSS}: the
+ * characters (rewritten in camel case for a constant name), the kind of each
+ * character, the position where the matching continues after a word which
+ * doesn't match and the set of the characters, to reject a token quickly.
+ *
+ * <p>
+ * A candidate can be kept with the completion (ex: a completion entry) to
+ * match it with the successive prefixes typed by the user.
+ * </p>
+ *
+ */
+public final class Candidate {
+
+	static final byte NON_LETTER = 0;
+	static final byte LOWER = 1;
+	static final byte UPPER = 2;
+
+	private static final long OTHER_CHARS = 1L << 63;
+
+	char[] chars;
+	byte[] kinds;
+	/**
+	 * jumps[i] is the position where the matching continues when the word
+	 * which contains the position i doesn't match.
+	 */
+	int[] jumps;
+	int length;
+	long charSet;
+
+	Candidate() {
+		this.chars = new char[0];
+		this.kinds = new byte[0];
+		this.jumps = new int[0];
+	}
+
+	/**
+	 * Prepare the given completion for the matching.
+	 *
+	 * @param completion
+	 *            the completion.
+	 */
+	public Candidate(String completion) {
+		this();
+		reset(completion);
+	}
+
+	/**
+	 * Prepare this candidate for the given completion, by reusing its arrays.
+	 *
+	 * @param completion
+	 *            the completion.
+	 */
+	void reset(String completion) {
+		int length = completion.length();
+		if (chars.length < length) {
+			int capacity = Math.max(length, chars.length * 2);
+			chars = new char[capacity];
+			kinds = new byte[capacity];
+			jumps = new int[capacity];
+		}
+		this.length = length;
+		completion.getChars(0, length, chars, 0);
+		boolean constantName = true;
+		for (int i = 0; i < length; i++) {
+			char c = chars[i];
+			if (Character.isLetter(c) && Character.isLowerCase(c)) {
+				constantName = false;
+				break;
+			}
+		}
+		if (constantName) {
+			// MAX_VALUE -> max_Value
+			boolean toUpperCase = false;
+			for (int i = 0; i < length; i++) {
+				char c = chars[i];
+				if (Character.isLetterOrDigit(c)) {
+					chars[i] = toUpperCase ? Character.toUpperCase(c) : Character.toLowerCase(c);
+					toUpperCase = false;
+				} else {
+					toUpperCase = true;
+				}
+			}
+		}
+		long charSet = 0;
+		for (int i = 0; i < length; i++) {
+			char c = chars[i];
+			if (!Character.isLetter(c)) {
+				kinds[i] = NON_LETTER;
+			} else if (Character.isUpperCase(c)) {
+				kinds[i] = UPPER;
+			} else {
+				kinds[i] = LOWER;
+			}
+			charSet |= bit(c);
+		}
+		this.charSet = charSet;
+		// a word ends before an upper case letter or at a non letter, which is
+		// skipped.
+		for (int i = length - 1; i >= 0; i--) {
+			int next = i + 1;
+			if (next >= length) {
+				jumps[i] = length;
+			} else if (kinds[next] == NON_LETTER) {
+				jumps[i] = next + 1;
+			} else if (kinds[next] == UPPER) {
+				jumps[i] = next;
+			} else {
+				jumps[i] = jumps[next];
+			}
+		}
+	}
+
+	/**
+	 * Returns the length of the completion.
+	 *
+	 * @return the length of the completion.
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Returns false if the given token contains a character which is not in
+	 * the completion (ignoring the case of letters), in this case the token
+	 * cannot match the completion.
+	 *
+	 * @param token
+	 *            the token.
+	 * @return false if the token cannot match the completion.
+	 */
+	boolean mayMatch(String token) {
+		long tokenSet = 0;
+		for (int i = 0; i < token.length(); i++) {
+			tokenSet |= bit(token.charAt(i));
+		}
+		return (tokenSet & ~charSet & ~OTHER_CHARS) == 0;
+	}
+
+	/**
+	 * Store in the given array the positions from the given start position
+	 * where the given token character can be matched, and returns the number
+	 * of positions.
+	 *
+	 * <p>
+	 * In the first word, the token character matches any same letter (ignoring
+	 * the case). After the first word (an upper case letter or a non letter),
+	 * the matching jumps to the next word when a letter doesn't match. A non
+	 * letter matches only the same character.
+	 * </p>
+	 *
+	 * @param start
+	 *            the start position.
+	 * @param t
+	 *            the token character.
+	 * @param positions
+	 *            the array which is filled with the positions, its length must
+	 *            be at least the length of the completion.
+	 * @param offset
+	 *            the offset in the array.
+	 * @return the number of positions.
+	 */
+	int scan(int start, char t, int[] positions, int offset) {
+		int count = 0;
+		boolean mustMatch = false;
+		for (int i = start; i < length; i++) {
+			char c = chars[i];
+			byte kind = kinds[i];
+			if (kind == NON_LETTER) {
+				if (c == t) {
+					positions[offset + count++] = i;
+				} else {
+					mustMatch = true;
+				}
+				continue;
+			}
+			if (kind == UPPER) {
+				mustMatch = true;
+			}
+			boolean same = isSameIgnoreCase(c, t);
+			if (same) {
+				positions[offset + count++] = i;
+			} else if (mustMatch) {
+				// i-- compensates the i++ of the loop.
+				i = jumps[i] - 1;
+			}
+		}
+		return count;
+	}
+
+	private static boolean isSameIgnoreCase(char c1, char c2) {
+		if (c1 == c2) {
+			return true;
+		}
+		c2 = Character.isLowerCase(c2) ? Character.toUpperCase(c2) : Character.toLowerCase(c2);
+		return c1 == c2;
+	}
+
+	/**
+	 * Returns the bit of the given character in a character set, letters are
+	 * case insensitive and the characters other than ASCII letters, digits, '_'
+	 * and '$' share the same bit.
+	 */
+	private static long bit(char c) {
+		if (c >= 'a' && c <= 'z') {
+			return 1L << (c - 'a');
+		}
+		if (c >= 'A' && c <= 'Z') {
+			return 1L << (c - 'A');
+		}
+		if (c >= '0' && c <= '9') {
+			return 1L << (26 + c - '0');
+		}
+		if (c == '_') {
+			return 1L << 36;
+		}
+		if (c == '$') {
+			return 1L << 37;
+		}
+		return OTHER_CHARS;
+	}
+}
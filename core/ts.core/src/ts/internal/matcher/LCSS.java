@@ -7,14 +7,24 @@
  *
  * Contributors:
  *    Marcel Bruch - initial API and implementation.
+ *    Angelo ZERR - best subsequence with dynamic programming on reusable arrays
  */
 package ts.internal.matcher;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Copied from
  * https://github.com/eclipse/recommenders/blob/master/plugins/org.eclipse.recommenders.subwords.rcp/src/org/eclipse/recommenders/internal/subwords/rcp/LCSS.java
+ *
+ * <p>
+ * The best subsequence is computed with dynamic programming on the positions
+ * where each token character can be matched (see
+ * {@link Candidate#scan(int, char, int[], int)}), instead of enumerating all
+ * the subsequences. The arrays are reused per thread, so matching a token
+ * with a prepared {@link Candidate} allocates only the returned subsequence.
+ * </p>
  */
 public final class LCSS {
 
@@ -24,21 +34,178 @@ public final class LCSS {
 
 	private static final int[] EMPTY_SEQUENCE = new int[0];
 
+	private static final int NO_MATCH = -1;
+
+	/**
+	 * Arrays reused by the matching of a thread.
+	 */
+	private static class Scratch {
+
+		final Candidate candidate = new Candidate();
+		/**
+		 * scores[i * length + p] is the best score of the end of the token from
+		 * the token character i matched at position p, or NO_MATCH.
+		 */
+		int[] scores = new int[0];
+		/**
+		 * nexts[i * length + p] is the position of the token character i + 1 of
+		 * the best subsequence.
+		 */
+		int[] nexts = new int[0];
+		/**
+		 * reached[i * length + p] is equal to generation when the token
+		 * character i can be matched at position p.
+		 */
+		int[] reached = new int[0];
+		int generation;
+		int[] positions = new int[0];
+
+		void ensureCapacity(int tokenLength, int length) {
+			int size = tokenLength * length;
+			if (scores.length < size) {
+				size = Math.max(size, scores.length * 2);
+				scores = new int[size];
+				nexts = new int[size];
+				reached = new int[size];
+				generation = 0;
+			}
+			if (positions.length < length) {
+				positions = new int[Math.max(length, positions.length * 2)];
+			}
+			if (++generation == 0) {
+				// overflow: reset the generations.
+				Arrays.fill(reached, 0);
+				generation = 1;
+			}
+		}
+	}
+
+	private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+		@Override
+		protected Scratch initialValue() {
+			return new Scratch();
+		}
+	};
+
 	/**
 	 * Returns the best, i.e, the longest continuous sequence - or the empty
 	 * sequence if no subsequence could be found.
 	 */
 	public static int[] bestSubsequence(String completion, String token) {
-		int bestScore = -1;
-		int[] bestSequence = EMPTY_SEQUENCE;
-		for (int[] s1 : findSequences(completion, token)) {
-			int score = scoreSubsequence(s1);
+		Scratch scratch = SCRATCH.get();
+		scratch.candidate.reset(completion);
+		return bestSubsequence(scratch.candidate, token, scratch);
+	}
+
+	/**
+	 * Returns the best, i.e, the longest continuous sequence - or the empty
+	 * sequence if no subsequence could be found.
+	 */
+	public static int[] bestSubsequence(Candidate candidate, String token) {
+		return bestSubsequence(candidate, token, SCRATCH.get());
+	}
+
+	private static int[] bestSubsequence(Candidate candidate, String token, Scratch scratch) {
+		int tokenLength = token.length();
+		if (tokenLength == 0) {
+			return EMPTY_SEQUENCE;
+		}
+		int length = candidate.length;
+		if (tokenLength > length || !candidate.mayMatch(token)) {
+			return EMPTY_SEQUENCE;
+		}
+		scratch.ensureCapacity(tokenLength, length);
+		int[] scores = scratch.scores;
+		int[] nexts = scratch.nexts;
+		int[] reached = scratch.reached;
+		int[] positions = scratch.positions;
+		int generation = scratch.generation;
+
+		// forward: positions where each token character can be matched.
+		int count = candidate.scan(0, token.charAt(0), positions, 0);
+		if (count == 0) {
+			return EMPTY_SEQUENCE;
+		}
+		for (int j = 0; j < count; j++) {
+			reached[positions[j]] = generation;
+		}
+		for (int i = 1; i < tokenLength; i++) {
+			char t = token.charAt(i);
+			int previous = (i - 1) * length;
+			int row = i * length;
+			boolean found = false;
+			for (int p = 0; p < length; p++) {
+				if (reached[previous + p] != generation) {
+					continue;
+				}
+				int n = candidate.scan(p + 1, t, positions, 0);
+				for (int j = 0; j < n; j++) {
+					reached[row + positions[j]] = generation;
+				}
+				found |= n > 0;
+			}
+			if (!found) {
+				return EMPTY_SEQUENCE;
+			}
+		}
+
+		// backward: best score of the end of the token for each matched
+		// position. For the same score, the first position is kept, like the
+		// first subsequence found when they are enumerated in order.
+		int last = (tokenLength - 1) * length;
+		for (int p = 0; p < length; p++) {
+			scores[last + p] = 0;
+		}
+		for (int i = tokenLength - 2; i >= 0; i--) {
+			char t = token.charAt(i + 1);
+			int row = i * length;
+			int nextRow = row + length;
+			for (int p = 0; p < length; p++) {
+				if (reached[row + p] != generation) {
+					continue;
+				}
+				int bestScore = NO_MATCH;
+				int bestNext = NO_MATCH;
+				int n = candidate.scan(p + 1, t, positions, 0);
+				for (int j = 0; j < n; j++) {
+					int q = positions[j];
+					int score = scores[nextRow + q];
+					if (score == NO_MATCH || reached[nextRow + q] != generation) {
+						continue;
+					}
+					if (q == p + 1) {
+						score++;
+					}
+					if (score > bestScore) {
+						bestScore = score;
+						bestNext = q;
+					}
+				}
+				scores[row + p] = bestScore;
+				nexts[row + p] = bestNext;
+			}
+		}
+
+		int bestScore = NO_MATCH;
+		int bestStart = NO_MATCH;
+		count = candidate.scan(0, token.charAt(0), positions, 0);
+		for (int j = 0; j < count; j++) {
+			int score = scores[positions[j]];
 			if (score > bestScore) {
 				bestScore = score;
-				bestSequence = s1;
+				bestStart = positions[j];
 			}
 		}
-		return bestSequence;
+		if (bestStart == NO_MATCH) {
+			return EMPTY_SEQUENCE;
+		}
+		int[] sequence = new int[tokenLength];
+		int p = bestStart;
+		for (int i = 0; i < tokenLength; i++) {
+			sequence[i] = p;
+			p = nexts[i * length + p];
+		}
+		return sequence;
 	}
 
 	public static int scoreSubsequence(int[] s1) {
@@ -56,6 +223,6 @@ public final class LCSS {
 	}
 
 	public static boolean containsSubsequence(String completion, String token) {
-		return !findSequences(completion, token).isEmpty();
+		return token.isEmpty() || bestSubsequence(completion, token).length > 0;
 	}
-}
\ No newline at end of file
+}
@@ -8,147 +8,57 @@
  * Contributors:
  *    Marcel Bruch - initial API and implementation.
  *    Angelo ZERR - remove com.google.common.collect.Lists dependencies 
+ *    Angelo ZERR - matching of the token characters done by Candidate
  */
 package ts.internal.matcher;
 
-import static java.lang.Character.isLetter;
-import static java.lang.Character.isLowerCase;
-import static java.lang.Character.isUpperCase;
-import static java.lang.Character.toLowerCase;
-import static java.lang.Character.toUpperCase;
-
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
  * Copied from
  * https://github.com/eclipse/recommenders/blob/master/plugins/org.eclipse.recommenders.subwords.rcp/src/org/eclipse/recommenders/internal/subwords/rcp/SequenceFinder.java
  *
+ * <p>
+ * Enumerates all the subsequences, {@link LCSS#bestSubsequence(String, String)}
+ * should be used to get only the best one.
+ * </p>
  */
 public class SequenceFinder {
 
 	private static final int[] EMPTY_SEQUENCE = new int[0];
 
-	private List<int[]> curSequences = new LinkedList<int[]>(); // Lists.newLinkedList();
-	private List<int[]> nextSequences = new LinkedList<int[]>(); // Lists.newLinkedList();
-
-	private int pCompletion, pToken;
-	private String completion, token;
+	private final Candidate candidate;
+	private final String token;
 
 	public SequenceFinder(String completion, String token) {
-		this.completion = completion;
+		this.candidate = new Candidate(completion);
 		this.token = token;
 	}
 
 	public List<int[]> findSeqeuences() {
-
-		if (isConstantName(completion)) {
-			rewriteCompletion();
+		List<int[]> curSequences = new ArrayList<int[]>();
+		curSequences.add(EMPTY_SEQUENCE);
+		if (!candidate.mayMatch(token)) {
+			return token.isEmpty() ? curSequences : new ArrayList<int[]>();
 		}
-
-		int[] start = EMPTY_SEQUENCE;
-		curSequences.add(start);
-
-		for (pToken = 0; pToken < token.length(); pToken++) {
+		int[] positions = new int[candidate.length()];
+		for (int pToken = 0; pToken < token.length(); pToken++) {
 			char t = token.charAt(pToken);
-
+			List<int[]> nextSequences = new ArrayList<int[]>();
 			for (int[] activeSequence : curSequences) {
-				boolean mustmatch = false;
 				int startIndex = activeSequence.length == 0 ? 0 : activeSequence[activeSequence.length - 1] + 1;
-
-				for (pCompletion = startIndex; pCompletion < completion.length(); pCompletion++) {
-					char c = completion.charAt(pCompletion);
-					if (!Character.isLetter(c)) {
-						if (c == t) {
-							addNewSubsequenceForNext(activeSequence);
-							continue;
-						}
-						mustmatch = true;
-						continue;
-					} else if (Character.isUpperCase(c)) {
-						mustmatch = true;
-					}
-
-					if (mustmatch && !isSameIgnoreCase(c, t)) {
-						jumpToEndOfWord();
-					} else if (isSameIgnoreCase(c, t)) {
-						addNewSubsequenceForNext(activeSequence);
-					}
+				int count = candidate.scan(startIndex, t, positions, 0);
+				for (int i = 0; i < count; i++) {
+					int[] copy = Arrays.copyOf(activeSequence, activeSequence.length + 1);
+					copy[pToken] = positions[i];
+					nextSequences.add(copy);
 				}
 			}
 			curSequences = nextSequences;
-			nextSequences = new LinkedList<int[]>(); // Lists.newLinkedList();
 		}
-
-		// filter
-		for (Iterator<int[]> it = curSequences.iterator(); it.hasNext();) {
-			int[] candidate = it.next();
-			if (candidate.length < token.length()) {
-				it.remove();
-				continue;
-			}
-		}
-
 		return curSequences;
 	}
 
-	private void addNewSubsequenceForNext(int[] activeSequence) {
-		int[] copy = Arrays.copyOf(activeSequence, activeSequence.length + 1);
-		copy[pToken] = pCompletion;
-		nextSequences.add(copy);
-	}
-
-	private void rewriteCompletion() {
-		StringBuilder sb = new StringBuilder();
-
-		boolean toUpperCase = false;
-		for (char c : completion.toCharArray()) {
-			if (Character.isLetterOrDigit(c)) {
-				sb.append(toUpperCase ? Character.toUpperCase(c) : Character.toLowerCase(c));
-				toUpperCase = false;
-			} else {
-				sb.append(c);
-				toUpperCase = true;
-			}
-		}
-		completion = sb.toString();
-	}
-
-	private void jumpToEndOfWord() {
-		for (pCompletion++; pCompletion < completion.length(); pCompletion++) {
-			char next = completion.charAt(pCompletion);
-
-			if (!isLetter(next)) {
-				// . or _ word boundary found:
-				// XXX numbers are also considered as word boundaries then. this
-				// may cause some trouble...
-				break;
-			}
-
-			if (isUpperCase(next)) {
-				pCompletion--;
-				break;
-			}
-		}
-	}
-
-	private boolean isConstantName(String completion) {
-		for (char c : completion.toCharArray()) {
-			if (Character.isLetter(c) && Character.isLowerCase(c)) {
-				return false;
-			}
-		}
-		return true;
-	}
-
-	private boolean isSameIgnoreCase(char c1, char c2) {
-		if (c1 == c2) {
-			return true;
-		}
-		c2 = isLowerCase(c2) ? toUpperCase(c2) : toLowerCase(c2);
-		return c1 == c2;
-	}
-
 }
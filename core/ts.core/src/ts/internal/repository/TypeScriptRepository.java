@@ -22,6 +22,7 @@ public class TypeScriptRepository implements ITypeScriptRepository {
 	private String typesScriptVersion;
 	private String tslintVersion;
 	private File tsserverPluginsFile;
+	private File tslintWorkerFile;
 	private String tslintLanguageServiceName;
 
 	public TypeScriptRepository(File baseDir) throws TypeScriptRepositoryException {
@@ -57,6 +58,8 @@ public class TypeScriptRepository implements ITypeScriptRepository {
 		}
 		// tsserver-plugins
 		this.tsserverPluginsFile = new File(baseDir, "tsserver-plugins/bin/tsserver-plugins");
+		// tslint-worker
+		this.tslintWorkerFile = new File(baseDir, "tslint-worker/bin/tslint-worker");
 	}
 
 	private String generateName(String prefix, String version) {
@@ -127,6 +130,11 @@ public class TypeScriptRepository implements ITypeScriptRepository {
 	public File getTsserverPluginsFile() {
 		return tsserverPluginsFile;
 	}
+
+	@Override
+	public File getTslintWorkerFile() {
+		return tslintWorkerFile;
+	}
 	
 	@Override
 	public String getTslintLanguageServiceName() {
@@ -11,14 +11,20 @@
 package ts.nodejs;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PrintStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import ts.TypeScriptException;
 import ts.utils.FileUtils;
@@ -29,12 +35,24 @@ import ts.utils.FileUtils;
  */
 public class NodejsProcess extends AbstractNodejsProcess {
 
+	/**
+	 * Max number of requests which can wait to be written to the node.js
+	 * process before {@link #sendRequest(String)} blocks the caller.
+	 */
+	private static final int MAX_PENDING_REQUESTS = 1024;
+
+	/**
+	 * Max time in milliseconds that {@link #sendRequest(String)} waits for a
+	 * free slot in the pending requests before it fails.
+	 */
+	private static final long SEND_REQUEST_TIMEOUT = 5000;
+
 	private final File tsFile;
 
 	/**
 	 * node.js process.
 	 */
-	private Process process;
+	private volatile Process process;
 
 	/**
 	 * StdOut thread.
@@ -46,15 +64,24 @@ public class NodejsProcess extends AbstractNodejsProcess {
 	 */
 	private Thread errThread;
 
-	private PrintStream out;
+	/**
+	 * StdIn thread.
+	 */
+	private Thread inThread;
+
+	private volatile Writer out;
 
-	private final Object outputLock;
+	/**
+	 * Requests waiting to be written to the stdin of the node.js process by the
+	 * StdIn thread.
+	 */
+	private final BlockingQueue<String> requestQueue;
 
 	public NodejsProcess(File projectDir, File tsFile, File nodejsFile, INodejsLaunchConfiguration configuration,
 			String fileType) throws TypeScriptException {
 		super(nodejsFile, projectDir, configuration);
 		this.tsFile = checkFile(tsFile, fileType);
-		this.outputLock = new Object();
+		this.requestQueue = new ArrayBlockingQueue<String>(MAX_PENDING_REQUESTS);
 	}
 
 	/**
@@ -83,6 +110,12 @@ public class NodejsProcess extends AbstractNodejsProcess {
 	 */
 	private class StdOut implements Runnable {
 
+		private final Process process;
+
+		StdOut(Process process) {
+			this.process = process;
+		}
+
 		@Override
 		public void run() {
 			try {
@@ -91,15 +124,13 @@ public class NodejsProcess extends AbstractNodejsProcess {
 					BufferedReader r = new BufferedReader(
 							new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
 					String line = null;
-					while ((line = r.readLine()) != null && process != null) {
+					while ((line = r.readLine()) != null && isStarted()) {
 						notifyMessage(line);
 					}
 				} catch (IOException e) {
 					e.printStackTrace();
 				}
-				if (process != null) {
-					process.waitFor();
-				}
+				process.waitFor();
 				kill();
 			} catch (InterruptedException e) {
 				Thread.currentThread().interrupt();
@@ -111,6 +142,13 @@ public class NodejsProcess extends AbstractNodejsProcess {
 	 * StdErr of the node.js process.
 	 */
 	private class StdErr implements Runnable {
+
+		private final Process process;
+
+		StdErr(Process process) {
+			this.process = process;
+		}
+
 		@Override
 		public void run() {
 			String line = null;
@@ -127,6 +165,44 @@ public class NodejsProcess extends AbstractNodejsProcess {
 		}
 	}
 
+	/**
+	 * StdIn of the node.js process: drains the pending requests and flushes
+	 * them once per drained batch.
+	 */
+	private class StdIn implements Runnable {
+
+		@Override
+		public void run() {
+			List<String> batch = new ArrayList<String>();
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					batch.add(requestQueue.take());
+					requestQueue.drainTo(batch);
+					Writer out = NodejsProcess.this.out;
+					if (out == null) {
+						break;
+					}
+					for (String request : batch) {
+						out.write(request);
+						// add \n for "readline" used by tsserver
+						out.write('\n');
+					}
+					out.flush();
+					batch.clear();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (IOException e) {
+				if (NodejsProcess.this.out != null) {
+					// the requests cannot be written anymore: stop the process
+					// to fail the pending requests.
+					e.printStackTrace();
+					kill();
+				}
+			}
+		}
+	}
+
 	public void notifyErrorProcess(String line) {
 		System.err.println(line);
 	}
@@ -138,17 +214,22 @@ public class NodejsProcess extends AbstractNodejsProcess {
 			ProcessBuilder builder = new ProcessBuilder(commands);
 			builder.directory(getProjectDir());
 
-			this.process = builder.start();
-			this.out = new PrintStream(process.getOutputStream(), false, StandardCharsets.UTF_8.name());
+			Process process = builder.start();
+			this.process = process;
+			this.out = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
 
-			errThread = new Thread(new StdErr());
+			errThread = new Thread(new StdErr(process));
 			errThread.setDaemon(true);
 			errThread.start();
 
-			outThread = new Thread(new StdOut());
+			outThread = new Thread(new StdOut(process));
 			outThread.setDaemon(true);
 			outThread.start();
 
+			inThread = new Thread(new StdIn());
+			inThread.setDaemon(true);
+			inThread.start();
+
 			// add a shutdown hook to destroy the node process in case its not
 			// properly disposed
 			Runtime.getRuntime().addShutdownHook(new ShutdownHookThread());
@@ -219,9 +300,19 @@ public class NodejsProcess extends AbstractNodejsProcess {
 	 * Kill the process.
 	 */
 	public void kill() {
+		if (inThread != null) {
+			inThread.interrupt();
+			inThread = null;
+		}
+		requestQueue.clear();
+		Writer out = this.out;
 		if (out != null) {
-			out.close();
-			out = null;
+			this.out = null;
+			try {
+				out.close();
+			} catch (IOException e) {
+				// ignore error while closing stdin of the node.js process.
+			}
 		}
 		if (process != null) {
 			process.destroy();
@@ -251,9 +342,16 @@ public class NodejsProcess extends AbstractNodejsProcess {
 
 	@Override
 	public void sendRequest(String request) throws TypeScriptException {
-		synchronized (outputLock) {
-			out.println(request); // add \n for "readline" used by tsserver
-			out.flush();
+		if (out == null) {
+			throw new TypeScriptException("node.js process is not started.");
+		}
+		try {
+			if (!requestQueue.offer(request, SEND_REQUEST_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				throw new TypeScriptException("node.js process doesn't read the requests.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TypeScriptException(e);
 		}
 	}
 
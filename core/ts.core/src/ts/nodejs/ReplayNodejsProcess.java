@@ -0,0 +1,357 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.nodejs;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+
+import ts.TypeScriptException;
+import ts.client.SessionRecorder;
+import ts.internal.client.protocol.GsonHelper;
+import ts.internal.client.protocol.MessageHeader;
+
+/**
+ * {@link INodejsProcess} which serves back a recording of a tsserver session
+ * done with {@link SessionRecorder} without node.js.
+ *
+ * <p>
+ * Each request sent by the client is matched with the first recorded request
+ * not yet replayed which has the same command and arguments (or the same
+ * command if there is none) and the messages recorded after this request are
+ * sent back, with the <code>request_seq</code> of the responses updated with
+ * the sequence of the requests sent by the client. A request which doesn't
+ * match a recorded request receives an error response.
+ * </p>
+ *
+ * <p>
+ * By default messages are sent back as soon as possible. In real time mode,
+ * the delays of the recording between a request and its messages are
+ * respected.
+ * </p>
+ *
+ */
+public class ReplayNodejsProcess extends AbstractNodejsProcess {
+
+	private static final String NO_RECORDED_RESPONSE = "No recorded response.";
+
+	/**
+	 * A recorded request with the messages sent by tsserver after it.
+	 */
+	private static class RecordedRequest {
+
+		final long time;
+		final int seq;
+		final String command;
+		final String key;
+		final List<RecordedMessage> messages;
+		boolean replayed;
+
+		RecordedRequest(long time, int seq, String command, String key) {
+			this.time = time;
+			this.seq = seq;
+			this.command = command;
+			this.key = key;
+			this.messages = new ArrayList<RecordedMessage>();
+		}
+	}
+
+	/**
+	 * A recorded response or event.
+	 */
+	private static class RecordedMessage {
+
+		final long time;
+		final Integer requestSeq;
+		final String json;
+
+		RecordedMessage(long time, Integer requestSeq, String json) {
+			this.time = time;
+			this.requestSeq = requestSeq;
+			this.json = json;
+		}
+	}
+
+	private final List<RecordedMessage> initialMessages;
+	private final List<RecordedRequest> requests;
+	private final boolean realTime;
+
+	/**
+	 * Map of recorded request sequence to the sequence of the request sent by
+	 * the client.
+	 */
+	private final Map<Integer, Integer> seqMap;
+
+	/**
+	 * Responses of recorded requests which have not been sent by the client
+	 * yet.
+	 */
+	private final Map<Integer, List<RecordedMessage>> heldMessages;
+
+	private volatile ScheduledExecutorService executor;
+	private CountDownLatch stopped;
+
+	public ReplayNodejsProcess(File recordingFile) throws TypeScriptException {
+		this(recordingFile.getAbsoluteFile().getParentFile(), recordingFile, false);
+	}
+
+	/**
+	 * Replay process constructor.
+	 *
+	 * @param projectDir
+	 *            the project base dir where tsconfig.json is hosted.
+	 * @param recordingFile
+	 *            the recording file created by {@link SessionRecorder}.
+	 * @param realTime
+	 *            true if the recorded delays must be respected and false
+	 *            otherwise.
+	 * @throws TypeScriptException
+	 */
+	public ReplayNodejsProcess(File projectDir, File recordingFile, boolean realTime) throws TypeScriptException {
+		super(null, projectDir);
+		this.initialMessages = new ArrayList<RecordedMessage>();
+		this.requests = new ArrayList<RecordedRequest>();
+		this.realTime = realTime;
+		this.seqMap = new HashMap<Integer, Integer>();
+		this.heldMessages = new HashMap<Integer, List<RecordedMessage>>();
+		load(recordingFile);
+	}
+
+	private void load(File recordingFile) throws TypeScriptException {
+		try (BufferedReader reader = Files.newBufferedReader(recordingFile.toPath(), StandardCharsets.UTF_8)) {
+			RecordedRequest current = null;
+			String line = null;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isEmpty()) {
+					continue;
+				}
+				int timeEnd = line.indexOf(' ');
+				if (timeEnd == -1 || line.length() < timeEnd + 3) {
+					throw new TypeScriptException(
+							"Invalid recording line " + lineNumber + " in " + recordingFile.getPath());
+				}
+				long time = Long.parseLong(line.substring(0, timeEnd));
+				char direction = line.charAt(timeEnd + 1);
+				String json = line.substring(timeEnd + 3);
+				switch (direction) {
+				case SessionRecorder.REQUEST:
+					JsonObject request = GsonHelper.parse(json).getAsJsonObject();
+					current = new RecordedRequest(time, request.get("seq").getAsInt(),
+							request.get("command").getAsString(), getKey(request));
+					requests.add(current);
+					break;
+				case SessionRecorder.MESSAGE:
+					RecordedMessage message = new RecordedMessage(time, MessageHeader.read(json).getRequestSeq(),
+							json);
+					if (current == null) {
+						initialMessages.add(message);
+					} else {
+						current.messages.add(message);
+					}
+					break;
+				default:
+					throw new TypeScriptException(
+							"Invalid direction '" + direction + "' at line " + lineNumber + " in "
+									+ recordingFile.getPath());
+				}
+			}
+		} catch (IOException | JsonSyntaxException | NumberFormatException | IllegalStateException e) {
+			throw new TypeScriptException(e);
+		}
+	}
+
+	/**
+	 * Returns the command and arguments of the given request, without its
+	 * sequence.
+	 *
+	 * @param request
+	 * @return the command and arguments of the given request, without its
+	 *         sequence.
+	 */
+	private static String getKey(JsonObject request) {
+		JsonElement arguments = request.get("arguments");
+		return request.get("command").getAsString() + (arguments != null ? arguments.toString() : "");
+	}
+
+	@Override
+	public synchronized void start() {
+		if (executor != null) {
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "typescript.java-replay");
+			thread.setDaemon(true);
+			return thread;
+		});
+		stopped = new CountDownLatch(1);
+		notifyStartProcess(0);
+		send(initialMessages, 0);
+	}
+
+	@Override
+	public boolean isStarted() {
+		return executor != null;
+	}
+
+	@Override
+	public void sendRequest(String json) throws TypeScriptException {
+		JsonObject request;
+		try {
+			request = GsonHelper.parse(json).getAsJsonObject();
+		} catch (JsonSyntaxException | IllegalStateException e) {
+			throw new TypeScriptException(e);
+		}
+		int seq = request.get("seq").getAsInt();
+		String command = request.get("command").getAsString();
+		RecordedRequest recorded = match(command, getKey(request));
+		if (recorded == null) {
+			JsonObject error = new JsonObject();
+			error.addProperty("seq", 0);
+			error.addProperty("type", "response");
+			error.addProperty("command", command);
+			error.addProperty("request_seq", seq);
+			error.addProperty("success", false);
+			error.addProperty("message", NO_RECORDED_RESPONSE);
+			send(Collections.singletonList(new RecordedMessage(0, null, error.toString())), 0);
+			return;
+		}
+		synchronized (this) {
+			seqMap.put(recorded.seq, seq);
+			List<RecordedMessage> held = heldMessages.remove(recorded.seq);
+			if (held != null) {
+				send(held, recorded.time);
+			}
+			send(recorded.messages, recorded.time);
+		}
+	}
+
+	/**
+	 * Returns the first recorded request not yet replayed with the given key,
+	 * or with the given command if there is none.
+	 *
+	 * @param command
+	 * @param key
+	 * @return the recorded request to replay and null otherwise.
+	 */
+	private synchronized RecordedRequest match(String command, String key) {
+		RecordedRequest sameCommand = null;
+		for (RecordedRequest request : requests) {
+			if (!request.replayed) {
+				if (request.key.equals(key)) {
+					request.replayed = true;
+					return request;
+				}
+				if (sameCommand == null && request.command.equals(command)) {
+					sameCommand = request;
+				}
+			}
+		}
+		if (sameCommand != null) {
+			sameCommand.replayed = true;
+		}
+		return sameCommand;
+	}
+
+	private synchronized void send(List<RecordedMessage> messages, long requestTime) {
+		if (executor == null) {
+			return;
+		}
+		for (RecordedMessage message : messages) {
+			if (message.requestSeq != null && !seqMap.containsKey(message.requestSeq)) {
+				// response of a request which has not been sent by the client:
+				// hold it until the client sends the request.
+				heldMessages.computeIfAbsent(message.requestSeq, seq -> new ArrayList<RecordedMessage>())
+						.add(message);
+				continue;
+			}
+			String json = getJson(message);
+			long delay = realTime ? Math.max(0, message.time - requestTime) : 0;
+			executor.schedule(() -> notifyMessage(json), delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Returns the JSON of the given message with the request sequence of the
+	 * client.
+	 *
+	 * @param message
+	 * @return the JSON of the given message with the request sequence of the
+	 *         client.
+	 */
+	private String getJson(RecordedMessage message) {
+		if (message.requestSeq == null) {
+			return message.json;
+		}
+		Integer seq = seqMap.get(message.requestSeq);
+		if (seq.equals(message.requestSeq)) {
+			return message.json;
+		}
+		return message.json.replaceFirst("\"request_seq\":" + message.requestSeq + "(?!\\d)",
+				"\"request_seq\":" + seq);
+	}
+
+	@Override
+	public void kill() {
+		ScheduledExecutorService executor;
+		CountDownLatch stopped;
+		synchronized (this) {
+			executor = this.executor;
+			stopped = this.stopped;
+			this.executor = null;
+			this.stopped = null;
+		}
+		if (executor != null) {
+			executor.shutdownNow();
+			notifyStopProcess();
+			stopped.countDown();
+		}
+	}
+
+	@Override
+	public void join() throws InterruptedException {
+		CountDownLatch stopped = this.stopped;
+		if (stopped != null) {
+			stopped.await();
+		}
+	}
+
+	/**
+	 * Returns the number of recorded requests which have not been replayed.
+	 *
+	 * @return the number of recorded requests which have not been replayed.
+	 */
+	public synchronized int getRemainingRequestCount() {
+		int count = 0;
+		for (RecordedRequest request : requests) {
+			if (!request.replayed) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
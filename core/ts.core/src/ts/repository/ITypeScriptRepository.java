@@ -79,6 +79,14 @@ public interface ITypeScriptRepository {
 
 	File getTsserverPluginsFile();
 
+	/**
+	 * Returns the tslint-worker file which lints with a long-lived node.js
+	 * process.
+	 * 
+	 * @return the tslint-worker file.
+	 */
+	File getTslintWorkerFile();
+
 	String getTslintLanguageServiceName();
 
 }
@@ -13,6 +13,9 @@ package ts.resources;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import ts.TypeScriptException;
 import ts.client.CodeEdit;
@@ -36,7 +39,8 @@ import ts.client.refactors.ApplicableRefactorInfo;
 import ts.client.refactors.RefactorEditInfo;
 import ts.client.references.ReferencesResponseBody;
 import ts.client.rename.RenameResponseBody;
-import ts.internal.LocationReader;
+import ts.internal.LineIndex;
+import ts.internal.SchedulerHelper;
 import ts.utils.CompletableFutureUtils;
 
 /**
@@ -45,6 +49,12 @@ import ts.utils.CompletableFutureUtils;
  */
 public abstract class AbstractTypeScriptFile implements ITypeScriptFile {
 
+	/**
+	 * Delay in milliseconds without edit after which the accumulated edits are
+	 * sent to tsserver.
+	 */
+	private static final long FLUSH_DELAY = 200;
+
 	private final ITypeScriptProject tsProject;
 	private final ScriptKindName scriptKind;
 
@@ -60,10 +70,17 @@ public abstract class AbstractTypeScriptFile implements ITypeScriptFile {
 
 	private CompletableFuture navbarPromise;
 
+	private volatile LineIndex lineIndex;
+
+	private final AtomicLong version;
+	private EditAccumulator editAccumulator;
+	private ScheduledFuture<?> flushTask;
+
 	public AbstractTypeScriptFile(ITypeScriptProject tsProject, ScriptKindName scriptKind) {
 		this.tsProject = tsProject;
 		this.scriptKind = scriptKind;
 		this.listeners = new ArrayList<INavbarListener>();
+		this.version = new AtomicLong();
 		this.setDirty(false);
 		this.configureAlreadyDone = false;
 	}
@@ -87,15 +104,131 @@ public abstract class AbstractTypeScriptFile implements ITypeScriptFile {
 		return dirty;
 	}
 
+	@Override
+	public long getVersion() {
+		return version.get();
+	}
+
 	@Override
 	public Location getLocation(int position) throws TypeScriptException {
-		return new LocationReader(getContents(), position).getLineOffset();
+		return getLineIndex().getLocation(position);
 	}
 
 	@Override
 	public int getPosition(int line, int offset) throws TypeScriptException {
-		// TODO: implement that
-		throw new UnsupportedOperationException();
+		try {
+			return getLineIndex().getPosition(line, offset);
+		} catch (IndexOutOfBoundsException e) {
+			throw new TypeScriptException(e);
+		}
+	}
+
+	/**
+	 * Returns the line index of the content of this file, created from
+	 * {@link #getContents()} the first time.
+	 * 
+	 * @return the line index of the content of this file.
+	 */
+	protected LineIndex getLineIndex() {
+		LineIndex lineIndex = this.lineIndex;
+		if (lineIndex == null) {
+			synchronized (synchLock) {
+				lineIndex = this.lineIndex;
+				if (lineIndex == null) {
+					lineIndex = new LineIndex(getContents());
+					this.lineIndex = lineIndex;
+				}
+			}
+		}
+		return lineIndex;
+	}
+
+	/**
+	 * Update the line index with a change of the content of this file. Must be
+	 * called by implementations which know the edit when the content changes.
+	 * 
+	 * @param position
+	 *            start position of the replaced range.
+	 * @param length
+	 *            length of the replaced range.
+	 * @param text
+	 *            the new text.
+	 */
+	protected void updateLineIndex(int position, int length, String text) {
+		synchronized (synchLock) {
+			LineIndex lineIndex = this.lineIndex;
+			if (lineIndex != null) {
+				lineIndex.update(position, length, text);
+			}
+		}
+	}
+
+	/**
+	 * Notify a change of the content of this file, must be called before the
+	 * content is changed by implementations which know the edit. With the
+	 * {@link SynchStrategy#CHANGE} strategy, the edit is accumulated (and merged
+	 * with the previous edit if they are adjacent) and the accumulated edits
+	 * are sent to tsserver before the next request or after a short delay
+	 * without edit.
+	 * 
+	 * @param position
+	 *            start position of the replaced range.
+	 * @param length
+	 *            length of the replaced range.
+	 * @param text
+	 *            the new text.
+	 */
+	protected void changeContent(int position, int length, String text) {
+		synchronized (synchLock) {
+			version.incrementAndGet();
+			updateLineIndex(position, length, text);
+			if (tsProject.getProjectSettings().getSynchStrategy() == SynchStrategy.CHANGE) {
+				if (editAccumulator == null && !isDirty()) {
+					// the content before this edit is the content known by
+					// tsserver.
+					editAccumulator = new EditAccumulator(getContents());
+				}
+				if (editAccumulator != null) {
+					editAccumulator.add(position, length, text);
+					scheduleFlush();
+				}
+			}
+			setDirty(true);
+		}
+	}
+
+	private void scheduleFlush() {
+		if (flushTask != null) {
+			flushTask.cancel(false);
+		}
+		flushTask = SchedulerHelper.getScheduler().schedule(() -> {
+			try {
+				synch();
+			} catch (TypeScriptException e) {
+				// the content known by tsserver is unknown, the next synch
+				// sends the whole content.
+				synchronized (synchLock) {
+					editAccumulator = null;
+					setDirty(true);
+				}
+				e.printStackTrace();
+			}
+		}, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Notify a change of the content of this file, must be called after the
+	 * content is changed by implementations which don't know the edit: the
+	 * version is incremented, the line index is discarded (it will be created
+	 * again from the content of the file) and the whole content will be sent
+	 * to tsserver with the next synchronization.
+	 */
+	protected void contentChanged() {
+		synchronized (synchLock) {
+			version.incrementAndGet();
+			this.lineIndex = null;
+			setDirty(true);
+		}
 	}
 
 	@Override
@@ -105,7 +238,12 @@ public abstract class AbstractTypeScriptFile implements ITypeScriptFile {
 
 	@Override
 	public void open() throws TypeScriptException {
-		((TypeScriptProject) tsProject).openFile(this);
+		synchronized (synchLock) {
+			String contents = getContents();
+			((TypeScriptProject) tsProject).openFile(this, contents);
+			this.editAccumulator = new EditAccumulator(contents);
+			setDirty(false);
+		}
 		this.opened = true;
 	}
 
@@ -124,6 +262,26 @@ public abstract class AbstractTypeScriptFile implements ITypeScriptFile {
 		this.opened = opened;
 	}
 
+	/**
+	 * Replay the "open" and "configure" state of this opened file in the given
+	 * new tsserver client (ex: after a crash of the previous tsserver).
+	 * 
+	 * @param client
+	 *            the new tsserver client.
+	 * @throws TypeScriptException
+	 */
+	void reopen(ITypeScriptServiceClient client) throws TypeScriptException {
+		synchronized (synchLock) {
+			String contents = getContents();
+			client.openFile(getName(), contents, getScriptKind());
+			this.editAccumulator = new EditAccumulator(contents);
+			setDirty(false);
+		}
+		if (configureAlreadyDone) {
+			client.configure(new ConfigureRequestArguments().setFile(getName()).setFormatOptions(formatOptions));
+		}
+	}
+
 	@Override
 	public CompletableFuture<List<CompletionEntry>> completions(int position, ICompletionEntryFactory factory)
 			throws TypeScriptException {
@@ -186,16 +344,16 @@ public abstract class AbstractTypeScriptFile implements ITypeScriptFile {
 	public CompletableFuture<DiagnosticEventBody> semanticDiagnosticsSync(Boolean includeLinePosition)
 			throws TypeScriptException {
 		this.synch();
-		ITypeScriptServiceClient client = tsProject.getClient();
-		return client.semanticDiagnosticsSync(getName(), includeLinePosition);
+		return tsProject.getDiagnosticsStore().semanticDiagnostics(getName(),
+				includeLinePosition != null && includeLinePosition);
 	}
 
 	@Override
 	public CompletableFuture<DiagnosticEventBody> syntacticDiagnosticsSync(Boolean includeLinePosition)
 			throws TypeScriptException {
 		this.synch();
-		ITypeScriptServiceClient client = tsProject.getClient();
-		return client.syntacticDiagnosticsSync(getName(), includeLinePosition);
+		return tsProject.getDiagnosticsStore().syntacticDiagnostics(getName(),
+				includeLinePosition != null && includeLinePosition);
 	}
 
 	// @Override
@@ -397,27 +555,40 @@ public abstract class AbstractTypeScriptFile implements ITypeScriptFile {
 			// no need to synchronize the file content with tsserver.
 			return;
 		}
-		switch (tsProject.getProjectSettings().getSynchStrategy()) {
-		case RELOAD:
-			// reload strategy : store the content of the ts file in a temporary
-			// file and call reload command.
-			tsProject.getClient().updateFile(this.getName(), this.getContents());
-			setDirty(false);
-			break;
-		case CHANGE:
-			// change strategy: wait until "change" command is not finished.
-			while (isDirty()) {
+		SynchStrategy synchStrategy = tsProject.getProjectSettings().getSynchStrategy();
+		ITypeScriptServiceClient client = tsProject.getClient();
+		synchronized (synchLock) {
+			if (!isDirty()) {
+				return;
+			}
+			// reload strategy or unknown edits: send the whole content.
+			String contents = synchStrategy == SynchStrategy.RELOAD || editAccumulator == null
+					|| editAccumulator.isEmpty() ? getContents() : null;
+			if (editAccumulator == null) {
+				// the content known by tsserver is unknown: store the content
+				// of the ts file in a temporary file and call reload command.
+				client.updateFile(this.getName(), contents);
+				editAccumulator = new EditAccumulator(contents);
+			} else {
+				// send the accumulated edits, or the whole content inline with a
+				// full-range edit, with "change" commands.
+				if (contents != null) {
+					editAccumulator.replaceContents(contents);
+				}
 				try {
-					synchronized (synchLock) {
-						synchLock.wait(5);
-					}
-				} catch (InterruptedException e) {
-					throw new TypeScriptException(e);
+					editAccumulator.flush(client, getName());
+				} catch (TypeScriptException e) {
+					// tsserver content is unknown, reload it with the next
+					// synch.
+					editAccumulator = null;
+					throw e;
 				}
 			}
-			break;
+			setDirty(false);
 		}
-
+		// the diagnostics of the file and of the files which depend on it
+		// must be computed again.
+		tsProject.getDiagnosticsStore().fileChanged(getName());
 	}
 
 	public void setDisableChanged(boolean disableChanged) {
@@ -37,6 +37,12 @@ public class BasicTypeScriptProjectSettings implements ITypeScriptProjectSetting
 
 	private boolean disableAutomaticTypingAcquisition;
 
+	private boolean autoRestartServer;
+	private boolean warmSpareServer;
+	private long serverHealthProbeInterval;
+	private long serverHealthProbeTimeout;
+	private boolean enableMetrics;
+
 	public BasicTypeScriptProjectSettings(File nodejsInstallPath, File typeScriptDir)
 			throws TypeScriptRepositoryException {
 		this(nodejsInstallPath, typeScriptDir, SynchStrategy.RELOAD);
@@ -47,6 +53,7 @@ public class BasicTypeScriptProjectSettings implements ITypeScriptProjectSetting
 		this.nodejsInstallPath = nodejsInstallPath;
 		this.repository = new TypeScriptRepository(typeScriptDir);
 		this.synchStrategy = synchStrategy;
+		this.autoRestartServer = true;
 	}
 
 	@Override
@@ -85,6 +92,11 @@ public class BasicTypeScriptProjectSettings implements ITypeScriptProjectSetting
 		return repository.getTslintFile();
 	}
 
+	@Override
+	public File getTslintWorkerFile() throws TypeScriptException {
+		return repository.getTslintWorkerFile();
+	}
+
 	@Override
 	public ICompletionEntryMatcher getCompletionEntryMatcher() {
 		return completionEntryMatcher;
@@ -146,4 +158,46 @@ public class BasicTypeScriptProjectSettings implements ITypeScriptProjectSetting
 	public void setDisableAutomaticTypingAcquisition(boolean disableAutomaticTypingAcquisition) {
 		this.disableAutomaticTypingAcquisition = disableAutomaticTypingAcquisition;
 	}
+
+	@Override
+	public boolean isAutoRestartServer() {
+		return autoRestartServer;
+	}
+
+	public void setAutoRestartServer(boolean autoRestartServer) {
+		this.autoRestartServer = autoRestartServer;
+	}
+
+	@Override
+	public boolean isWarmSpareServer() {
+		return warmSpareServer;
+	}
+
+	public void setWarmSpareServer(boolean warmSpareServer) {
+		this.warmSpareServer = warmSpareServer;
+	}
+
+	@Override
+	public long getServerHealthProbeInterval() {
+		return serverHealthProbeInterval;
+	}
+
+	@Override
+	public long getServerHealthProbeTimeout() {
+		return serverHealthProbeTimeout;
+	}
+
+	public void setServerHealthProbe(long interval, long timeout) {
+		this.serverHealthProbeInterval = interval;
+		this.serverHealthProbeTimeout = timeout;
+	}
+
+	@Override
+	public boolean isEnableMetrics() {
+		return enableMetrics;
+	}
+
+	public void setEnableMetrics(boolean enableMetrics) {
+		this.enableMetrics = enableMetrics;
+	}
 }
@@ -0,0 +1,433 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.resources;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import ts.TypeScriptException;
+import ts.client.CommandNames;
+import ts.client.ITypeScriptServiceClient;
+import ts.client.compileonsave.CompileOnSaveAffectedFileListSingleProject;
+import ts.client.diagnostics.DiagnosticEventBody;
+
+/**
+ * Store of the syntactic and semantic diagnostics of the files of a project,
+ * to avoid asking tsserver again the diagnostics of a file whose content and
+ * dependencies have not changed.
+ *
+ * <p>
+ * The diagnostics of a file are kept with the version of the file (see
+ * {@link ITypeScriptFile#getVersion()}). For a file which is not opened,
+ * tsserver reads the file on the disk: the version is computed from the
+ * modification stamp of the file, so that the diagnostics of a closed file
+ * which is changed outside the editor (ex: by a VCS update) are computed again
+ * with the semantic diagnostics of the files which depend on it.
+ * When the content of a file changes (see {@link #fileChanged(String)}), its
+ * diagnostics are removed and the semantic diagnostics of the files which
+ * depend on it are removed before the next semantic diagnostics request. The
+ * files which depend on a changed file are given by the
+ * "compileOnSaveAffectedFileList" command; when it is not available (or
+ * returns nothing, ex: "compileOnSave" is disabled), all semantic diagnostics
+ * are removed.
+ * </p>
+ *
+ * <p>
+ * Opening or closing a file doesn't change its content, its diagnostics are
+ * kept with the new version of the file (see {@link #fileOpened(String, long)}
+ * and {@link #fileClosed(String, long)}).
+ * </p>
+ *
+ * <p>
+ * The store is cleared when tsserver is disposed, which is the case when a
+ * tsconfig.json of the project changes.
+ * </p>
+ *
+ */
+public class DiagnosticsStore {
+
+	/**
+	 * Max time to wait for the files affected by a changed file.
+	 */
+	private static final long AFFECTED_FILES_TIMEOUT = 5000;
+
+	/**
+	 * The diagnostics of a file for a version and a format.
+	 */
+	private static class Entry {
+
+		private final long version;
+		private CompletableFuture<DiagnosticEventBody> syntactic;
+		private CompletableFuture<DiagnosticEventBody> semantic;
+
+		Entry(long version) {
+			this.version = version;
+		}
+	}
+
+	private final TypeScriptProject tsProject;
+	private final Map<String, Entry> entries;
+	private final Set<String> changedFiles;
+	private final Object invalidationLock;
+
+	// statistics
+	private long hitCount;
+	private long missCount;
+
+	public DiagnosticsStore(TypeScriptProject tsProject) {
+		this.tsProject = tsProject;
+		this.entries = new HashMap<String, Entry>();
+		this.changedFiles = new LinkedHashSet<String>();
+		this.invalidationLock = new Object();
+	}
+
+	/**
+	 * Returns the syntactic diagnostics of the given file, from the store if
+	 * the file has not changed since they were computed, or else computed by
+	 * tsserver.
+	 *
+	 * @param fileName
+	 *            the file name.
+	 * @param includeLinePosition
+	 *            true if the diagnostics must include the line positions.
+	 * @return the syntactic diagnostics of the given file.
+	 * @throws TypeScriptException
+	 */
+	public CompletableFuture<DiagnosticEventBody> syntacticDiagnostics(String fileName, boolean includeLinePosition)
+			throws TypeScriptException {
+		// get the client and the version before locking the store, which is
+		// cleared when a client is created.
+		ITypeScriptServiceClient client = tsProject.getClient();
+		long version = getVersion(fileName);
+		synchronized (this) {
+			Entry entry = getEntry(fileName, version, includeLinePosition);
+			if (isValid(entry.syntactic)) {
+				hitCount++;
+				return entry.syntactic;
+			}
+			missCount++;
+			entry.syntactic = client.syntacticDiagnosticsSync(fileName, includeLinePosition);
+			return entry.syntactic;
+		}
+	}
+
+	/**
+	 * Returns the semantic diagnostics of the given file, from the store if the
+	 * file and the files which it depends on have not changed since they were
+	 * computed, or else computed by tsserver.
+	 *
+	 * @param fileName
+	 *            the file name.
+	 * @param includeLinePosition
+	 *            true if the diagnostics must include the line positions.
+	 * @return the semantic diagnostics of the given file.
+	 * @throws TypeScriptException
+	 */
+	public CompletableFuture<DiagnosticEventBody> semanticDiagnostics(String fileName, boolean includeLinePosition)
+			throws TypeScriptException {
+		ITypeScriptServiceClient client = tsProject.getClient();
+		long version = getVersion(fileName);
+		synchronized (invalidationLock) {
+			invalidateAffectedFiles();
+			synchronized (this) {
+				Entry entry = getEntry(fileName, version, includeLinePosition);
+				if (isValid(entry.semantic)) {
+					hitCount++;
+					return entry.semantic;
+				}
+				missCount++;
+				entry.semantic = client.semanticDiagnosticsSync(fileName, includeLinePosition);
+				return entry.semantic;
+			}
+		}
+	}
+
+	/**
+	 * Returns the syntactic and semantic diagnostics of the given file if they
+	 * are in the store and computed, or null otherwise.
+	 *
+	 * @param fileName
+	 *            the file name.
+	 * @param includeLinePosition
+	 *            true if the diagnostics must include the line positions.
+	 * @return the syntactic and semantic diagnostics of the given file if they
+	 *         are in the store and computed, or null otherwise.
+	 */
+	public List<DiagnosticEventBody> getComputedDiagnostics(String fileName, boolean includeLinePosition) {
+		long version = getVersion(fileName);
+		synchronized (invalidationLock) {
+			invalidateAffectedFiles();
+			synchronized (this) {
+				Entry entry = entries.get(getKey(fileName, includeLinePosition));
+				if (entry == null || entry.version != version || !isComputed(entry.syntactic)
+						|| !isComputed(entry.semantic)) {
+					return null;
+				}
+				hitCount++;
+				List<DiagnosticEventBody> diagnostics = new ArrayList<DiagnosticEventBody>(2);
+				diagnostics.add(entry.syntactic.getNow(null));
+				diagnostics.add(entry.semantic.getNow(null));
+				return diagnostics;
+			}
+		}
+	}
+
+	/**
+	 * Store the given diagnostics of the given version of the file, computed
+	 * by another request (ex: "geterr").
+	 *
+	 * @param fileName
+	 *            the file name.
+	 * @param version
+	 *            the version of the file when the diagnostics were requested.
+	 * @param includeLinePosition
+	 *            true if the diagnostics include the line positions.
+	 * @param semantic
+	 *            true for semantic diagnostics and false for syntactic
+	 *            diagnostics.
+	 * @param diagnostics
+	 *            the diagnostics.
+	 */
+	public void putDiagnostics(String fileName, long version, boolean includeLinePosition, boolean semantic,
+			DiagnosticEventBody diagnostics) {
+		if (version != getVersion(fileName)) {
+			// the file has changed since the diagnostics were requested.
+			return;
+		}
+		synchronized (this) {
+			if (changedFiles.contains(fileName)) {
+				return;
+			}
+			Entry entry = getEntry(fileName, version, includeLinePosition);
+			if (semantic) {
+				entry.semantic = CompletableFuture.completedFuture(diagnostics);
+			} else {
+				entry.syntactic = CompletableFuture.completedFuture(diagnostics);
+			}
+		}
+	}
+
+	/**
+	 * Remove the diagnostics of the given file, and the semantic diagnostics of
+	 * the files which depend on it before the next semantic diagnostics
+	 * request.
+	 *
+	 * @param fileName
+	 *            the file name.
+	 */
+	public synchronized void fileChanged(String fileName) {
+		removeEntries(fileName);
+		changedFiles.add(fileName);
+	}
+
+	/**
+	 * Keep the diagnostics of the given file which has been opened with the
+	 * given version.
+	 *
+	 * @param fileName
+	 *            the file name.
+	 * @param version
+	 *            the version of the opened file.
+	 */
+	public synchronized void fileOpened(String fileName, long version) {
+		versionChanged(fileName, getClosedFileVersion(fileName), version);
+	}
+
+	/**
+	 * Keep the diagnostics of the given file which has been closed.
+	 *
+	 * @param fileName
+	 *            the file name.
+	 * @param version
+	 *            the version of the file before it was closed.
+	 */
+	public synchronized void fileClosed(String fileName, long version) {
+		versionChanged(fileName, version, getClosedFileVersion(fileName));
+	}
+
+	private void versionChanged(String fileName, long oldVersion, long newVersion) {
+		for (boolean includeLinePosition : new boolean[] { true, false }) {
+			String key = getKey(fileName, includeLinePosition);
+			Entry entry = entries.get(key);
+			if (entry != null && entry.version == oldVersion) {
+				Entry newEntry = new Entry(newVersion);
+				newEntry.syntactic = entry.syntactic;
+				newEntry.semantic = entry.semantic;
+				entries.put(key, newEntry);
+			}
+		}
+	}
+
+	/**
+	 * Remove the diagnostics of the given file and the semantic diagnostics of
+	 * the given files which depend on it.
+	 *
+	 * @param fileName
+	 *            the file name.
+	 * @param affectedFileNames
+	 *            the files which depend on the changed file (given by
+	 *            "compileOnSaveAffectedFileList").
+	 */
+	public synchronized void fileChanged(String fileName, Collection<String> affectedFileNames) {
+		removeEntries(fileName);
+		for (String affectedFileName : affectedFileNames) {
+			removeSemantic(affectedFileName);
+		}
+	}
+
+	/**
+	 * Remove all diagnostics (ex: when tsserver is restarted).
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		changedFiles.clear();
+	}
+
+	/**
+	 * Remove the semantic diagnostics of the files which depend on the changed
+	 * files.
+	 */
+	private void invalidateAffectedFiles() {
+		List<String> fileNames;
+		synchronized (this) {
+			if (changedFiles.isEmpty()) {
+				return;
+			}
+			fileNames = new ArrayList<String>(changedFiles);
+			changedFiles.clear();
+		}
+		// tsserver returns nothing when "compileOnSave" is disabled.
+		boolean all = !tsProject.canSupport(CommandNames.CompileOnSaveAffectedFileList)
+				|| !tsProject.isCompileOnSaveEnabled();
+		if (!all) {
+			try {
+				ITypeScriptServiceClient client = tsProject.getClient();
+				// send all requests before waiting for all responses at once.
+				List<CompletableFuture<List<CompileOnSaveAffectedFileListSingleProject>>> affectedFileLists = new ArrayList<CompletableFuture<List<CompileOnSaveAffectedFileListSingleProject>>>(
+						fileNames.size());
+				for (String fileName : fileNames) {
+					affectedFileLists.add(client.compileOnSaveAffectedFileList(fileName));
+				}
+				CompletableFuture.allOf(affectedFileLists.toArray(new CompletableFuture<?>[affectedFileLists.size()]))
+						.get(AFFECTED_FILES_TIMEOUT, TimeUnit.MILLISECONDS);
+				synchronized (this) {
+					for (CompletableFuture<List<CompileOnSaveAffectedFileListSingleProject>> affectedFileList : affectedFileLists) {
+						List<CompileOnSaveAffectedFileListSingleProject> affectedProjects = affectedFileList
+								.getNow(null);
+						if (affectedProjects == null || affectedProjects.isEmpty()) {
+							all = true;
+							break;
+						}
+						for (CompileOnSaveAffectedFileListSingleProject affectedProject : affectedProjects) {
+							for (String affectedFileName : affectedProject.getFileNames()) {
+								removeSemantic(affectedFileName);
+							}
+						}
+					}
+				}
+			} catch (Exception e) {
+				all = true;
+			}
+		}
+		if (all) {
+			synchronized (this) {
+				for (Entry entry : entries.values()) {
+					entry.semantic = null;
+				}
+			}
+		}
+	}
+
+	private Entry getEntry(String fileName, long version, boolean includeLinePosition) {
+		String key = getKey(fileName, includeLinePosition);
+		Entry entry = entries.get(key);
+		if (entry == null || entry.version != version) {
+			if (entry != null) {
+				// the file has been edited.
+				changedFiles.add(fileName);
+			}
+			entry = new Entry(version);
+			entries.put(key, entry);
+		}
+		return entry;
+	}
+
+	private void removeEntries(String fileName) {
+		entries.remove(getKey(fileName, true));
+		entries.remove(getKey(fileName, false));
+	}
+
+	private void removeSemantic(String fileName) {
+		for (boolean includeLinePosition : new boolean[] { true, false }) {
+			Entry entry = entries.get(getKey(fileName, includeLinePosition));
+			if (entry != null) {
+				entry.semantic = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns the version of the given file. It must not be called when the
+	 * store is locked, because the project is locked to retrieve the opened
+	 * file.
+	 */
+	private long getVersion(String fileName) {
+		ITypeScriptFile tsFile = tsProject.getOpenedFile(fileName);
+		return tsFile != null ? tsFile.getVersion() : getClosedFileVersion(fileName);
+	}
+
+	/**
+	 * Returns the version of the given file which is not opened, computed from
+	 * its modification stamp. It is always negative to never be the version of
+	 * an opened file (-1 when the file doesn't exist).
+	 */
+	private static long getClosedFileVersion(String fileName) {
+		return -1 - new File(fileName).lastModified();
+	}
+
+	private static String getKey(String fileName, boolean includeLinePosition) {
+		return includeLinePosition ? fileName + "#line" : fileName;
+	}
+
+	private static boolean isValid(CompletableFuture<DiagnosticEventBody> diagnostics) {
+		return diagnostics != null && !diagnostics.isCompletedExceptionally() && !diagnostics.isCancelled();
+	}
+
+	private static boolean isComputed(CompletableFuture<DiagnosticEventBody> diagnostics) {
+		return isValid(diagnostics) && diagnostics.isDone();
+	}
+
+	/**
+	 * Returns the number of diagnostics returned from the store.
+	 *
+	 * @return the number of diagnostics returned from the store.
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of diagnostics computed by tsserver.
+	 *
+	 * @return the number of diagnostics computed by tsserver.
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+}
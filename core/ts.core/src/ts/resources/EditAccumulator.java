@@ -0,0 +1,180 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.resources;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ts.TypeScriptException;
+import ts.client.ITypeScriptServiceClient;
+import ts.client.Location;
+import ts.internal.LineIndex;
+
+/**
+ * Accumulator of the edits of a file which are not yet sent to tsserver with
+ * the "change" command. An edit which touches the last edit (typing,
+ * backspace, etc) is merged with it, so a sequence of keystrokes is sent as a
+ * single "change".
+ *
+ * <p>
+ * Positions of the edits are the positions of the content when the edit is
+ * done, like a sequence of "change" commands. They are converted to
+ * line/offset when the edits are flushed with a line index of the content
+ * known by tsserver.
+ * </p>
+ *
+ * <p>
+ * Knowing the content of tsserver also gives the range of a full-range
+ * "change", used to send a whole content inline when the edits are unknown.
+ * </p>
+ *
+ */
+public class EditAccumulator {
+
+	/**
+	 * A replacement of a range of the content by a text.
+	 */
+	private static class Edit {
+
+		int position;
+		int length;
+		String text;
+
+		Edit(int position, int length, String text) {
+			this.position = position;
+			this.length = length;
+			this.text = text;
+		}
+	}
+
+	/**
+	 * Line index of the content known by tsserver.
+	 */
+	private final LineIndex serverIndex;
+	private final List<Edit> edits;
+	private long mergedEditCount;
+
+	/**
+	 * Create an accumulator for a file whose content known by tsserver is the
+	 * given content.
+	 *
+	 * @param contents
+	 *            the content known by tsserver.
+	 */
+	public EditAccumulator(String contents) {
+		this.serverIndex = new LineIndex(contents);
+		this.edits = new ArrayList<Edit>();
+	}
+
+	/**
+	 * Add the replacement of the given range by the given text.
+	 *
+	 * @param position
+	 *            start position of the replaced range.
+	 * @param length
+	 *            length of the replaced range.
+	 * @param text
+	 *            the new text.
+	 */
+	public synchronized void add(int position, int length, String text) {
+		if (text == null) {
+			text = "";
+		}
+		if (length == 0 && text.isEmpty()) {
+			return;
+		}
+		if (!edits.isEmpty()) {
+			Edit last = edits.get(edits.size() - 1);
+			int lastEnd = last.position + last.text.length();
+			int end = position + length;
+			if (position <= lastEnd && end >= last.position) {
+				// the edit touches the text of the last edit: merge them.
+				int removedBefore = Math.max(0, last.position - position);
+				int removedAfter = Math.max(0, end - lastEnd);
+				String keptBefore = last.text.substring(0, Math.max(0, position - last.position));
+				String keptAfter = last.text.substring(Math.min(last.text.length(), end - last.position));
+				last.position = Math.min(last.position, position);
+				last.length = removedBefore + last.length + removedAfter;
+				last.text = keptBefore + text + keptAfter;
+				mergedEditCount++;
+				if (last.length == 0 && last.text.isEmpty()) {
+					// ex: typing then deleting a character.
+					edits.remove(edits.size() - 1);
+				}
+				return;
+			}
+		}
+		edits.add(new Edit(position, length, text));
+	}
+
+	/**
+	 * Replace the accumulated edits with the replacement of the whole content
+	 * known by tsserver by the given content, which is sent inline with a
+	 * single "change" (without temporary file) by the next flush.
+	 *
+	 * @param contents
+	 *            the new content.
+	 */
+	public synchronized void replaceContents(String contents) {
+		edits.clear();
+		edits.add(new Edit(0, serverIndex.getLength(), contents != null ? contents : ""));
+	}
+
+	/**
+	 * Returns true if there is no edit to send and false otherwise.
+	 *
+	 * @return true if there is no edit to send and false otherwise.
+	 */
+	public synchronized boolean isEmpty() {
+		return edits.isEmpty();
+	}
+
+	/**
+	 * Returns the number of edits to send.
+	 *
+	 * @return the number of edits to send.
+	 */
+	public synchronized int size() {
+		return edits.size();
+	}
+
+	/**
+	 * Returns the number of edits which have been merged with a previous edit.
+	 *
+	 * @return the number of edits which have been merged with a previous edit.
+	 */
+	public synchronized long getMergedEditCount() {
+		return mergedEditCount;
+	}
+
+	/**
+	 * Send the edits to tsserver with "change" commands.
+	 *
+	 * @param client
+	 *            the tsserver client.
+	 * @param fileName
+	 *            the file name.
+	 * @throws TypeScriptException
+	 */
+	public synchronized void flush(ITypeScriptServiceClient client, String fileName) throws TypeScriptException {
+		try {
+			for (Edit edit : edits) {
+				Location start = serverIndex.getLocation(edit.position);
+				Location end = serverIndex.getLocation(edit.position + edit.length);
+				client.changeFile(fileName, start.getLine(), start.getOffset(), end.getLine(), end.getOffset(),
+						edit.text);
+				serverIndex.update(edit.position, edit.length, edit.text);
+			}
+		} finally {
+			edits.clear();
+		}
+	}
+}
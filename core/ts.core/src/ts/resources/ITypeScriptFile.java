@@ -72,6 +72,14 @@ public interface ITypeScriptFile extends IPositionProvider {
 	 */
 	boolean isDirty();
 
+	/**
+	 * Returns the version of the content of the file, incremented for each
+	 * change of the content.
+	 * 
+	 * @return the version of the content of the file.
+	 */
+	long getVersion();
+
 	String getPrefix(int position);
 
 	/**
@@ -106,4 +106,11 @@ public interface ITypeScriptProject {
 	CompletableFuture<List<NavtoItem>> navto(String fileName, String searchValue, Integer maxResultCount,
 			Boolean currentFileOnly, String projectFileName) throws TypeScriptException;
 
+	/**
+	 * Returns the store of the diagnostics of the files of the project.
+	 * 
+	 * @return the store of the diagnostics of the files of the project.
+	 */
+	DiagnosticsStore getDiagnosticsStore();
+
 }
@@ -75,6 +75,15 @@ public interface ITypeScriptProjectSettings {
 	 */
 	File getTslintFile() throws TypeScriptException;
 
+	/**
+	 * Returns the tslint-worker/bin/tslint-worker file to execute and null if
+	 * 'tslint' must be executed for each lint.
+	 * 
+	 * @return the tslint-worker/bin/tslint-worker file to execute and null if
+	 *         'tslint' must be executed for each lint.
+	 */
+	File getTslintWorkerFile() throws TypeScriptException;
+
 	/**
 	 * Returns the completion entry matcher to use to filter TypeScript
 	 * completion entries.
@@ -105,4 +114,48 @@ public interface ITypeScriptProjectSettings {
 
 	boolean isDisableAutomaticTypingAcquisition();
 
+	// ------------- tsserver supervision
+
+	/**
+	 * Returns true if a crashed tsserver must be restarted (with an exponential
+	 * backoff) and the opened files replayed, and false otherwise.
+	 * 
+	 * @return true if a crashed tsserver must be restarted and false
+	 *         otherwise.
+	 */
+	boolean isAutoRestartServer();
+
+	/**
+	 * Returns true if a pre-started tsserver must be kept to restart quickly a
+	 * crashed tsserver and false otherwise.
+	 * 
+	 * @return true if a pre-started tsserver must be kept and false otherwise.
+	 */
+	boolean isWarmSpareServer();
+
+	/**
+	 * Returns the interval in milliseconds between two health probes of the
+	 * tsserver. A value lower or equal to 0 disables the probe.
+	 * 
+	 * @return the interval in milliseconds between two health probes of the
+	 *         tsserver.
+	 */
+	long getServerHealthProbeInterval();
+
+	/**
+	 * Returns the timeout in milliseconds of a health probe of the tsserver.
+	 * 
+	 * @return the timeout in milliseconds of a health probe of the tsserver.
+	 */
+	long getServerHealthProbeTimeout();
+
+	/**
+	 * Returns true if the metrics (latency, throughput, errors) of the tsserver
+	 * commands must be collected and exported with JMX and false otherwise.
+	 * 
+	 * @return true if the metrics of the tsserver commands must be collected
+	 *         and false otherwise.
+	 */
+	boolean isEnableMetrics();
+
 }
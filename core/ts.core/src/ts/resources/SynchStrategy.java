@@ -20,9 +20,11 @@ package ts.resources;
  * the content of the editor.</li>
  * <li>{{@value #RELOAD} : this strategy must be used if the IDE editor cannot
  * support change events when user modify the content of the editor: the
- * synchronization is done just before completion, hover, etc is executed: a
- * temporary file is created with the content of the editor and "reload" command
- * is sent to the tsserver by setting the path of the temporary file.</li>
+ * synchronization is done just before completion, hover, etc is executed: the
+ * content of the editor is sent inline with a "change" of the whole content of
+ * the file. When the content known by tsserver is unknown, a temporary file is
+ * created with the content of the editor and "reload" command is sent to the
+ * tsserver by setting the path of the temporary file.</li>
  * <ul>
  *
  */
@@ -25,10 +25,12 @@ import ts.client.ISupportable;
 import ts.client.ITypeScriptClientListener;
 import ts.client.ITypeScriptServiceClient;
 import ts.client.ScriptKindName;
+import ts.client.TypeScriptServerAdapter;
 import ts.client.TypeScriptServiceClient;
 import ts.client.completions.ICompletionEntryMatcher;
 import ts.client.completions.ICompletionEntryMatcherProvider;
 import ts.client.diagnostics.DiagnosticEvent;
+import ts.client.metrics.MetricsInterceptor;
 import ts.client.navto.NavtoItem;
 import ts.client.projectinfo.ProjectInfo;
 import ts.cmd.tsc.CompilerOptionCapability;
@@ -36,6 +38,7 @@ import ts.cmd.tsc.ITypeScriptCompiler;
 import ts.cmd.tsc.TypeScriptCompiler;
 import ts.cmd.tslint.ITypeScriptLint;
 import ts.cmd.tslint.TypeScriptLint;
+import ts.internal.SchedulerHelper;
 import ts.utils.FileUtils;
 import ts.utils.VersionHelper;
 
@@ -52,6 +55,20 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 			return VersionHelper.canSupport(version, "2.2.2");
 		}
 	};
+
+	/**
+	 * Delay (in ms) before restarting a tsserver which crashes again, doubled
+	 * for each new crash.
+	 */
+	private static final long SERVER_RESTART_DELAY = 500;
+	private static final long SERVER_MAX_RESTART_DELAY = 30000;
+
+	/**
+	 * A tsserver which has run more than this time (in ms) before crashing is
+	 * considered as stable and is restarted immediately.
+	 */
+	private static final long SERVER_STABLE_UPTIME = 60000;
+
 	private final File projectDir;
 	private ITypeScriptProjectSettings projectSettings;
 
@@ -74,6 +91,25 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 
 	private ProjectInfo projectInfo;
 
+	// tsserver supervision
+	private ITypeScriptServiceClient spareClient;
+	private int serverCrashCount;
+	private long serverStartTime;
+	private long serverRestartTime;
+
+	// metrics of the tsserver commands
+	private MetricsInterceptor metrics;
+
+	private final DiagnosticsStore diagnosticsStore;
+
+	private final ITypeScriptClientListener serverSupervisor = new TypeScriptServerAdapter() {
+
+		@Override
+		public void onStop(ITypeScriptServiceClient client) {
+			onServerStop(client);
+		}
+	};
+
 	public TypeScriptProject(File projectDir, ITypeScriptProjectSettings projectSettings) {
 		this.projectDir = projectDir;
 		this.projectSettings = projectSettings;
@@ -83,6 +119,7 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 		this.serverCapabilities = new HashMap<>();
 		this.compilerCapabilities = new HashMap<>();
 		this.projectInfo = null;
+		this.diagnosticsStore = new DiagnosticsStore(this);
 	}
 
 	protected void setProjectSettings(ITypeScriptProjectSettings projectSettings) {
@@ -98,12 +135,13 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 		return projectDir;
 	}
 
-	void openFile(ITypeScriptFile tsFile) throws TypeScriptException {
+	void openFile(ITypeScriptFile tsFile, String contents) throws TypeScriptException {
 		String name = tsFile.getName();
-		String contents = tsFile.getContents();
 		ScriptKindName scriptKind = tsFile.getScriptKind();
 		getClient().openFile(name, contents, scriptKind);
 		this.openedFiles.put(name, tsFile);
+		// opening a file doesn't change its content.
+		diagnosticsStore.fileOpened(name, tsFile.getVersion());
 	}
 
 	void closeFile(ITypeScriptFile tsFile) throws TypeScriptException {
@@ -111,6 +149,8 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 		getClient().closeFile(name);
 		((AbstractTypeScriptFile) tsFile).setOpened(false);
 		this.openedFiles.remove(name);
+		// closing a file doesn't change its content.
+		diagnosticsStore.fileClosed(name, tsFile.getVersion());
 	}
 
 	@Override
@@ -144,10 +184,29 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 	public final ITypeScriptServiceClient getClient() throws TypeScriptException {
 		synchronized (serverLock) {
 			if (isServerDisposed()) {
+				long restartDelay = serverRestartTime - System.currentTimeMillis();
+				if (restartDelay > 0) {
+					throw new TypeScriptException(
+							"TypeScript server has crashed, it will be restarted in " + restartDelay + "ms.");
+				}
 				try {
-					this.client = createServiceClient(getProjectDir());
+					setMetricsEnabled(getProjectSettings().isEnableMetrics());
+					this.client = takeSpareClient();
+					if (client == null) {
+						this.client = createServiceClient(getProjectDir());
+					}
+					client.addClientListener(serverSupervisor);
+					if (metrics != null) {
+						client.addInterceptor(metrics);
+					}
 					copyListeners();
+					// the diagnostics of the previous tsserver are not valid.
+					diagnosticsStore.clear();
 					onCreateClient(client);
+					this.serverStartTime = System.currentTimeMillis();
+					// after a crash, replay the opened files in the new tsserver
+					reopenFiles(client);
+					prepareSpareClient();
 				} catch (Exception e) {
 					if (e instanceof TypeScriptException) {
 						throw (TypeScriptException) e;
@@ -164,6 +223,164 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 
 	}
 
+	/**
+	 * Called when tsserver cannot be started in background: restart of a
+	 * crashed tsserver or start of the spare tsserver.
+	 * 
+	 * @param e
+	 *            the error.
+	 */
+	protected void onServerError(Throwable e) {
+		e.printStackTrace();
+	}
+
+	private void reopenFiles(ITypeScriptServiceClient client) throws TypeScriptException {
+		List<ITypeScriptFile> files = new ArrayList<ITypeScriptFile>(openedFiles.values());
+		for (ITypeScriptFile openedFile : files) {
+			((AbstractTypeScriptFile) openedFile).reopen(client);
+		}
+	}
+
+	/**
+	 * Called when a tsserver client stops. If the tsserver has crashed, it is
+	 * restarted with an exponential backoff when some files are opened.
+	 * 
+	 * @param stoppedClient
+	 */
+	private void onServerStop(ITypeScriptServiceClient stoppedClient) {
+		if (!stoppedClient.isCrashed()) {
+			return;
+		}
+		synchronized (serverLock) {
+			if (stoppedClient != client) {
+				return;
+			}
+			long now = System.currentTimeMillis();
+			if (now - serverStartTime > SERVER_STABLE_UPTIME) {
+				serverCrashCount = 0;
+			}
+			long delay = serverCrashCount == 0 ? 0
+					: Math.min(SERVER_MAX_RESTART_DELAY, SERVER_RESTART_DELAY << Math.min(serverCrashCount - 1, 16));
+			serverCrashCount++;
+			serverRestartTime = now + delay;
+			if (getProjectSettings().isAutoRestartServer() && !openedFiles.isEmpty()) {
+				SchedulerHelper.getScheduler().schedule(this::restartServer, delay, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	private void restartServer() {
+		synchronized (serverLock) {
+			if (!isServerDisposed() || openedFiles.isEmpty()) {
+				// tsserver is already restarted, or the project has been
+				// disposed.
+				return;
+			}
+			try {
+				getClient();
+			} catch (TypeScriptException e) {
+				onServerError(e);
+			}
+		}
+	}
+
+	private ITypeScriptServiceClient takeSpareClient() {
+		ITypeScriptServiceClient spare = spareClient;
+		spareClient = null;
+		return spare != null && !spare.isDisposed() ? spare : null;
+	}
+
+	/**
+	 * Start in background a spare tsserver which will be used if the current
+	 * tsserver crashes.
+	 */
+	private void prepareSpareClient() {
+		if (!getProjectSettings().isWarmSpareServer() || spareClient != null) {
+			return;
+		}
+		SchedulerHelper.getScheduler().execute(() -> {
+			try {
+				ITypeScriptServiceClient spare = createServiceClient(getProjectDir());
+				spare.start();
+				synchronized (serverLock) {
+					if (getProjectSettings().isWarmSpareServer() && spareClient == null && hasClient()) {
+						spareClient = spare;
+						return;
+					}
+				}
+				spare.dispose();
+			} catch (TypeScriptException e) {
+				onServerError(e);
+			}
+		});
+	}
+
+	private void disposeSpareClient() {
+		if (spareClient != null) {
+			spareClient.dispose();
+			spareClient = null;
+		}
+	}
+
+	/**
+	 * Enable or disable the metrics (latency, throughput, errors) of the
+	 * tsserver commands of the project. Enabled metrics are exported with JMX.
+	 * The metrics are initialized with
+	 * {@link ITypeScriptProjectSettings#isEnableMetrics()} when tsserver is
+	 * started.
+	 * 
+	 * @param enabled
+	 */
+	public void setMetricsEnabled(boolean enabled) {
+		synchronized (serverLock) {
+			if (enabled == (metrics != null)) {
+				return;
+			}
+			if (enabled) {
+				metrics = new MetricsInterceptor(FileUtils.getPath(getProjectDir()));
+				metrics.register();
+				if (hasClient()) {
+					client.addInterceptor(metrics);
+				}
+			} else {
+				metrics.unregister();
+				if (hasClient()) {
+					client.removeInterceptor(metrics);
+				}
+				metrics = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns the metrics of the tsserver commands of the project and null if
+	 * metrics are disabled.
+	 * 
+	 * @return the metrics of the tsserver commands of the project and null if
+	 *         metrics are disabled.
+	 */
+	public MetricsInterceptor getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public DiagnosticsStore getDiagnosticsStore() {
+		return diagnosticsStore;
+	}
+
+	/**
+	 * Returns true if "compileOnSave" can be enabled for the files of the
+	 * project, and false if it is disabled for all files. tsserver gives the
+	 * files which depend on a file ("compileOnSaveAffectedFileList") only when
+	 * "compileOnSave" is enabled.
+	 * 
+	 * @return true if "compileOnSave" can be enabled for the files of the
+	 *         project, and false if it is disabled for all files.
+	 */
+	protected boolean isCompileOnSaveEnabled() {
+		return true;
+	}
+
 	@Override
 	public synchronized ITypeScriptFile getOpenedFile(String fileName) {
 		return openedFiles.get(fileName);
@@ -172,6 +389,11 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 	@Override
 	public void dispose() throws TypeScriptException {
 		disposeServer();
+		// stop the 'tsc --watch' processes.
+		disposeCompiler();
+		// stop the tslint worker.
+		disposeTslint();
+		setMetricsEnabled(false);
 		getProjectSettings().dispose();
 	}
 
@@ -189,6 +411,8 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 				getProjectSettings().isEnableTelemetry(), getProjectSettings().isDisableAutomaticTypingAcquisition(),
 				getCancellationPipeName(), getProjectSettings().getTsserverPluginsFile());
 		client.setCompletionEntryMatcherProvider(this);
+		client.setHealthProbe(getProjectSettings().getServerHealthProbeInterval(),
+				getProjectSettings().getServerHealthProbeTimeout());
 		return client;
 	}
 
@@ -272,10 +496,21 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 					client.dispose();
 					client = null;
 				}
+			} else {
+				// tsserver has crashed, the opened files cannot be closed in
+				// tsserver side.
+				for (ITypeScriptFile openedFile : openedFiles.values()) {
+					((AbstractTypeScriptFile) openedFile).setOpened(false);
+				}
+				openedFiles.clear();
 			}
+			disposeSpareClient();
+			serverCrashCount = 0;
+			serverRestartTime = 0;
 		}
 		serverCapabilities.clear();
 		supportedCodeFixes = null;
+		diagnosticsStore.clear();
 	}
 
 	@Override
@@ -326,7 +561,7 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 	@Override
 	public void disposeTslint() {
 		if (tslint != null) {
-			// tslint.dispose();
+			tslint.dispose();
 			tslint = null;
 		}
 	}
@@ -335,11 +570,13 @@ public class TypeScriptProject implements ITypeScriptProject, ICompletionEntryMa
 		File nodeFile = getProjectSettings().getNodejsInstallPath();
 		File tslintFile = getProjectSettings().getTslintFile();
 		File tslintJsonFile = getProjectSettings().getCustomTslintJsonFile();
-		return createTslint(tslintFile, tslintJsonFile, nodeFile);
+		File tslintWorkerFile = getProjectSettings().getTslintWorkerFile();
+		return createTslint(tslintFile, tslintJsonFile, nodeFile, tslintWorkerFile);
 	}
 
-	protected ITypeScriptLint createTslint(File tslintFile, File tslintJsonFile, File nodejsFile) {
-		return new TypeScriptLint(tslintFile, tslintJsonFile, nodejsFile);
+	protected ITypeScriptLint createTslint(File tslintFile, File tslintJsonFile, File nodejsFile,
+			File tslintWorkerFile) {
+		return new TypeScriptLint(tslintFile, tslintJsonFile, nodejsFile, tslintWorkerFile);
 	}
 
 	@Override
@@ -0,0 +1,471 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.resources.jsonconfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matcher of the "files", "include" and "exclude" sections of a
+ * tsconfig.json, compiled once in a trie of path segments:
+ *
+ * <ul>
+ * <li>a literal segment ("src") is a child of the map of literals.</li>
+ * <li>a segment with wildcards ("*.ts", "test?") is a glob child.</li>
+ * <li>"**" is a child which matches zero or more segments.</li>
+ * </ul>
+ *
+ * The patterns which share the same start share the same nodes, so a path is
+ * matched by walking its segments once, whatever the number of patterns.
+ *
+ * <p>
+ * The paths and the patterns are relative to the folder of the tsconfig.json
+ * and use '/' or '\' as separator. The semantics is the semantics of tsc:
+ * </p>
+ * <ul>
+ * <li>"files" are exact paths which are never excluded.</li>
+ * <li>an "include" pattern whose last segment has no extension and no
+ * wildcard is a folder which includes all its files ("src" is "src/**&#47;*").
+ * The wildcards of "include" don't match the files and folders which start
+ * with '.', and "**" doesn't match the package folders (node_modules,
+ * bower_components, jspm_packages).</li>
+ * <li>an "exclude" pattern excludes the matched path and all its
+ * children.</li>
+ * </ul>
+ *
+ */
+public class TsconfigFileMatcher {
+
+	private static final int FILES = 1;
+	private static final int INCLUDE = 2;
+	private static final int EXCLUDE = 4;
+	// walk result bits: accepted bits at the end of the path, bits of the
+	// patterns which end below the path, and excluded flag.
+	private static final int BELOW_SHIFT = 3;
+	private static final int EXCLUDED = 1 << 6;
+
+	private static final String DOUBLE_STAR = "**";
+	private static final List<String> PACKAGE_FOLDERS = Arrays.asList("node_modules", "bower_components",
+			"jspm_packages");
+
+	/**
+	 * Node of the trie.
+	 */
+	private static class Node {
+
+		// segment pattern of a glob node, null otherwise
+		private final char[] glob;
+		// true if this node is a "**" node
+		private final boolean doubleStar;
+		// true if the wildcards of this node follow the "include" rules
+		private final boolean include;
+
+		private Map<String, Node> literals;
+		private List<Node> globs;
+		private Node includeDoubleStar;
+		private Node excludeDoubleStar;
+
+		// bits of the patterns which end at this node
+		private int accept;
+		// bits of the patterns which end strictly below this node
+		private int below;
+		// this node and the "**" nodes which match zero segment from it
+		private Node[] closure;
+
+		Node(char[] glob, boolean doubleStar, boolean include) {
+			this.glob = glob;
+			this.doubleStar = doubleStar;
+			this.include = include;
+		}
+
+		Node literal(String segment) {
+			if (literals == null) {
+				literals = new HashMap<String, Node>();
+			}
+			Node child = literals.get(segment);
+			if (child == null) {
+				child = new Node(null, false, false);
+				literals.put(segment, child);
+			}
+			return child;
+		}
+
+		Node glob(String segment, boolean include) {
+			if (globs == null) {
+				globs = new ArrayList<Node>();
+			}
+			char[] pattern = segment.toCharArray();
+			for (Node child : globs) {
+				if (child.include == include && Arrays.equals(child.glob, pattern)) {
+					return child;
+				}
+			}
+			Node child = new Node(pattern, false, include);
+			globs.add(child);
+			return child;
+		}
+
+		Node doubleStar(boolean include) {
+			if (include) {
+				if (includeDoubleStar == null) {
+					includeDoubleStar = new Node(null, true, true);
+				}
+				return includeDoubleStar;
+			}
+			if (excludeDoubleStar == null) {
+				excludeDoubleStar = new Node(null, true, false);
+			}
+			return excludeDoubleStar;
+		}
+
+		/**
+		 * Compute the "below" bits and the closure of this node and its
+		 * children.
+		 */
+		void compile() {
+			List<Node> nodes = new ArrayList<Node>();
+			collectClosure(this, nodes);
+			closure = nodes.toArray(new Node[nodes.size()]);
+			below = doubleStar ? accept : 0;
+			if (literals != null) {
+				for (Node child : literals.values()) {
+					compileChild(child);
+				}
+			}
+			if (globs != null) {
+				for (Node child : globs) {
+					compileChild(child);
+				}
+			}
+			compileChild(includeDoubleStar);
+			compileChild(excludeDoubleStar);
+		}
+
+		private void compileChild(Node child) {
+			if (child != null) {
+				child.compile();
+				below |= child.accept | child.below;
+			}
+		}
+
+		private static void collectClosure(Node node, List<Node> nodes) {
+			nodes.add(node);
+			if (node.includeDoubleStar != null) {
+				collectClosure(node.includeDoubleStar, nodes);
+			}
+			if (node.excludeDoubleStar != null) {
+				collectClosure(node.excludeDoubleStar, nodes);
+			}
+		}
+
+		/**
+		 * Add to the given states the nodes reached from this node with the
+		 * given segment.
+		 */
+		void step(String segment, List<Node> states) {
+			if (doubleStar && matchesDoubleStar(segment)) {
+				addClosure(this, states);
+			}
+			if (literals != null) {
+				Node child = literals.get(segment);
+				if (child != null) {
+					addClosure(child, states);
+				}
+			}
+			if (globs != null) {
+				for (Node child : globs) {
+					if (child.matchesGlob(segment)) {
+						addClosure(child, states);
+					}
+				}
+			}
+		}
+
+		private boolean matchesDoubleStar(String segment) {
+			return !include || (!isHidden(segment) && !PACKAGE_FOLDERS.contains(segment));
+		}
+
+		private boolean matchesGlob(String segment) {
+			if (include && isHidden(segment)) {
+				return false;
+			}
+			return TsconfigFileMatcher.matchesGlob(glob, segment);
+		}
+
+		private static void addClosure(Node node, List<Node> states) {
+			for (Node n : node.closure) {
+				if (!states.contains(n)) {
+					states.add(n);
+				}
+			}
+		}
+	}
+
+	private final Node root;
+
+	private TsconfigFileMatcher(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Compile the given sections of a tsconfig.json.
+	 *
+	 * @param files
+	 *            the "files" paths or null.
+	 * @param include
+	 *            the "include" patterns or null.
+	 * @param exclude
+	 *            the "exclude" patterns or null.
+	 * @return the matcher of the given sections.
+	 */
+	public static TsconfigFileMatcher create(List<String> files, List<String> include, List<String> exclude) {
+		Node root = new Node(null, false, false);
+		if (files != null) {
+			for (String file : files) {
+				add(root, normalize(file), FILES);
+			}
+		}
+		if (include != null) {
+			for (String pattern : include) {
+				List<String> segments = normalize(pattern);
+				if (!segments.isEmpty() && isImplicitFolder(segments.get(segments.size() - 1))) {
+					segments.add(DOUBLE_STAR);
+					segments.add("*");
+				}
+				add(root, segments, INCLUDE);
+			}
+		}
+		if (exclude != null) {
+			for (String pattern : exclude) {
+				add(root, normalize(pattern), EXCLUDE);
+			}
+		}
+		root.compile();
+		return new TsconfigFileMatcher(root);
+	}
+
+	private static void add(Node root, List<String> segments, int kind) {
+		if (segments.isEmpty()) {
+			// the folder of the tsconfig.json
+			if (kind == EXCLUDE) {
+				root.accept |= EXCLUDE;
+			} else if (kind == INCLUDE) {
+				root.doubleStar(true).glob("*", true).accept |= INCLUDE;
+			}
+			return;
+		}
+		boolean include = kind == INCLUDE;
+		Node node = root;
+		for (String segment : segments) {
+			if (kind == FILES) {
+				node = node.literal(segment);
+			} else if (DOUBLE_STAR.equals(segment)) {
+				node = node.doubleStar(include);
+			} else if (isGlob(segment)) {
+				node = node.glob(segment, include);
+			} else {
+				node = node.literal(segment);
+			}
+		}
+		node.accept |= kind;
+	}
+
+	/**
+	 * Returns true if the given path is declared in "files" (or if the given
+	 * folder contains a file declared in "files") and false otherwise.
+	 *
+	 * @param path
+	 *            the path relative to the folder of the tsconfig.json.
+	 * @param folder
+	 *            true if the path is a folder.
+	 * @return true if the given path is declared in "files" and false
+	 *         otherwise.
+	 */
+	public boolean isInFiles(String path, boolean folder) {
+		return (accepted(walk(path), folder) & FILES) != 0;
+	}
+
+	/**
+	 * Returns true if the given path or one of its parent folders matches an
+	 * "exclude" pattern and false otherwise.
+	 *
+	 * @param path
+	 *            the path relative to the folder of the tsconfig.json.
+	 * @return true if the given path is excluded and false otherwise.
+	 */
+	public boolean isExcluded(String path) {
+		return (walk(path) & EXCLUDED) != 0;
+	}
+
+	/**
+	 * Returns true if the given file belongs to the tsconfig.json (or if the
+	 * given folder can contain files which belong to the tsconfig.json) and
+	 * false otherwise.
+	 *
+	 * @param path
+	 *            the path relative to the folder of the tsconfig.json.
+	 * @param folder
+	 *            true if the path is a folder.
+	 * @return true if the given path belongs to the tsconfig.json and false
+	 *         otherwise.
+	 */
+	public boolean isInScope(String path, boolean folder) {
+		int result = walk(path);
+		int accepted = accepted(result, folder);
+		if ((accepted & FILES) != 0) {
+			return true;
+		}
+		return (accepted & INCLUDE) != 0 && (result & EXCLUDED) == 0;
+	}
+
+	private static int accepted(int result, boolean folder) {
+		return folder ? (result >> BELOW_SHIFT) & (FILES | INCLUDE | EXCLUDE) : result & (FILES | INCLUDE | EXCLUDE);
+	}
+
+	/**
+	 * Walk the segments of the given path in the trie.
+	 *
+	 * @param path
+	 * @return the accepted bits at the end of the path, the bits of the
+	 *         patterns which end below the path and the excluded flag.
+	 */
+	private int walk(String path) {
+		List<Node> states = new ArrayList<Node>();
+		List<Node> next = new ArrayList<Node>();
+		Node.addClosure(root, states);
+		boolean excluded = (acceptOf(states) & EXCLUDE) != 0;
+		int length = path.length();
+		int start = 0;
+		while (start <= length && !states.isEmpty()) {
+			int end = start;
+			while (end < length && !isSeparator(path.charAt(end))) {
+				end++;
+			}
+			if (end > start) {
+				String segment = path.substring(start, end);
+				if (!".".equals(segment)) {
+					next.clear();
+					for (Node state : states) {
+						state.step(segment, next);
+					}
+					List<Node> tmp = states;
+					states = next;
+					next = tmp;
+					if ((acceptOf(states) & EXCLUDE) != 0) {
+						excluded = true;
+					}
+				}
+			}
+			start = end + 1;
+		}
+		int accept = acceptOf(states);
+		int below = 0;
+		for (Node state : states) {
+			below |= state.below;
+		}
+		return accept | (below << BELOW_SHIFT) | (excluded ? EXCLUDED : 0);
+	}
+
+	private static int acceptOf(List<Node> states) {
+		int accept = 0;
+		for (Node state : states) {
+			accept |= state.accept;
+		}
+		return accept;
+	}
+
+	/**
+	 * Returns the segments of the given path or pattern without the "." and
+	 * with the "folder/.." removed.
+	 *
+	 * @param path
+	 * @return the normalized segments of the given path or pattern.
+	 */
+	static List<String> normalize(String path) {
+		List<String> segments = new ArrayList<String>();
+		int length = path.length();
+		int start = 0;
+		while (start <= length) {
+			int end = start;
+			while (end < length && !isSeparator(path.charAt(end))) {
+				end++;
+			}
+			if (end > start) {
+				String segment = path.substring(start, end);
+				if ("..".equals(segment)) {
+					int last = segments.size() - 1;
+					if (last >= 0 && !"..".equals(segments.get(last)) && !isGlob(segments.get(last))) {
+						segments.remove(last);
+					} else {
+						segments.add(segment);
+					}
+				} else if (!".".equals(segment)) {
+					segments.add(segment);
+				}
+			}
+			start = end + 1;
+		}
+		return segments;
+	}
+
+	private static boolean isSeparator(char c) {
+		return c == '/' || c == '\\';
+	}
+
+	private static boolean isGlob(String segment) {
+		return segment.indexOf('*') != -1 || segment.indexOf('?') != -1;
+	}
+
+	private static boolean isHidden(String segment) {
+		return segment.length() > 0 && segment.charAt(0) == '.';
+	}
+
+	/**
+	 * Returns true if the given last segment of an "include" pattern is a
+	 * folder (no extension and no wildcard) and false otherwise.
+	 */
+	private static boolean isImplicitFolder(String segment) {
+		return segment.indexOf('.') == -1 && !isGlob(segment);
+	}
+
+	/**
+	 * Returns true if the given segment matches the given pattern where '*'
+	 * matches any characters and '?' matches one character.
+	 */
+	private static boolean matchesGlob(char[] pattern, String segment) {
+		int p = 0;
+		int s = 0;
+		int star = -1;
+		int starS = 0;
+		int length = segment.length();
+		while (s < length) {
+			if (p < pattern.length && (pattern[p] == '?' || pattern[p] == segment.charAt(s))) {
+				p++;
+				s++;
+			} else if (p < pattern.length && pattern[p] == '*') {
+				star = p++;
+				starS = s;
+			} else if (star != -1) {
+				p = star + 1;
+				s = ++starS;
+			} else {
+				return false;
+			}
+		}
+		while (p < pattern.length && pattern[p] == '*') {
+			p++;
+		}
+		return p == pattern.length;
+	}
+}
@@ -10,17 +10,28 @@
  */
 package ts.resources.jsonconfig;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.annotations.SerializedName;
 
 import ts.cmd.tsc.CompilerOptions;
 import ts.utils.BooleanUtils;
@@ -46,18 +57,33 @@ public class TsconfigJson {
 	private static final String DEFAULT_MODULE_RESOLUTION = "classic";
 	private static final String[] AVAILABLE_MODULE_RESOLUTIONS = new String[] { "node", "classic" };
 
+	private static final String EXTENDS = "extends";
+	private static final String COMPILER_OPTIONS = "compilerOptions";
+	// sections and compilerOptions which are paths relative to the
+	// tsconfig.json which declares them.
+	private static final List<String> PATH_SECTIONS = Arrays.asList("files", "include", "exclude");
+	private static final List<String> PATH_OPTIONS = Arrays.asList("outDir", "outFile", "out", "rootDir",
+			"baseUrl", "declarationDir", "rootDirs", "typeRoots");
+
 	private CompilerOptions compilerOptions;
 
 	private Boolean compileOnSave;
 
 	private Boolean buildOnSave;
 
+	@SerializedName(EXTENDS)
+	private String extendsPath;
+
 	private List<String> files;
 
+	private List<String> include;
+
 	private List<String> exclude;
 
 	private List<String> defaultExclude;
 
+	private transient TsconfigFileMatcher fileMatcher;
+
 	public TsconfigJson() {
 	}
 
@@ -118,6 +144,7 @@ public class TsconfigJson {
 
 	public void setFiles(List<String> files) {
 		this.files = files;
+		this.fileMatcher = null;
 	}
 
 	public boolean hasFiles() {
@@ -130,12 +157,95 @@ public class TsconfigJson {
 
 	public void setExclude(List<String> exclude) {
 		this.exclude = exclude;
+		this.fileMatcher = null;
 	}
 
 	public boolean hasExclude() {
 		return exclude != null;
 	}
 
+	public List<String> getInclude() {
+		return include;
+	}
+
+	public void setInclude(List<String> include) {
+		this.include = include;
+		this.fileMatcher = null;
+	}
+
+	public boolean hasInclude() {
+		return include != null;
+	}
+
+	/**
+	 * Returns the "extends" path of the tsconfig.json and null otherwise. When
+	 * the tsconfig.json is loaded from a file, the sections of the extended
+	 * tsconfig.json are already merged.
+	 * 
+	 * @return the "extends" path of the tsconfig.json and null otherwise.
+	 */
+	public String getExtends() {
+		return extendsPath;
+	}
+
+	/**
+	 * Returns true if the given file is declared in the "files" section (or
+	 * if the given folder contains a file declared in "files") and false
+	 * otherwise.
+	 * 
+	 * @param path
+	 *            the path relative to the folder of the tsconfig.json.
+	 * @param folder
+	 *            true if the path is a folder.
+	 * @return true if the given path is declared in the "files" section and
+	 *         false otherwise.
+	 */
+	public boolean isInFiles(String path, boolean folder) {
+		return getFileMatcher().isInFiles(path, folder);
+	}
+
+	/**
+	 * Returns true if the given path or one of its parent folders is excluded
+	 * and false otherwise.
+	 * 
+	 * @param path
+	 *            the path relative to the folder of the tsconfig.json.
+	 * @return true if the given path is excluded and false otherwise.
+	 */
+	public boolean isExcluded(String path) {
+		return getFileMatcher().isExcluded(path);
+	}
+
+	/**
+	 * Returns true if the given file belongs to the tsconfig.json (or if the
+	 * given folder can contain files which belong to the tsconfig.json) and
+	 * false otherwise.
+	 * 
+	 * @param path
+	 *            the path relative to the folder of the tsconfig.json.
+	 * @param folder
+	 *            true if the path is a folder.
+	 * @return true if the given path belongs to the tsconfig.json and false
+	 *         otherwise.
+	 */
+	public boolean isInScope(String path, boolean folder) {
+		return getFileMatcher().isInScope(path, folder);
+	}
+
+	/**
+	 * Returns the matcher of the "files", "include" and "exclude" sections.
+	 * 
+	 * @return the matcher of the "files", "include" and "exclude" sections.
+	 */
+	protected TsconfigFileMatcher getFileMatcher() {
+		TsconfigFileMatcher matcher = fileMatcher;
+		if (matcher == null) {
+			matcher = TsconfigFileMatcher.create(files, getDefaultOrDefinedInclude(), getDefaultOrDefinedExclude());
+			fileMatcher = matcher;
+		}
+		return matcher;
+	}
+
 	/**
 	 * Returns true if the "compilerOptions" defines "out" or "outFile" and
 	 * false otherwise.
@@ -205,6 +315,23 @@ public class TsconfigJson {
 		return defaultExclude;
 	}
 
+	/**
+	 * Returns the defined "include" list from the tsconfig.json other include
+	 * by default all the files when "files" is not defined.
+	 * 
+	 * @return the defined "include" list from the tsconfig.json other include
+	 *         by default all the files when "files" is not defined.
+	 */
+	protected List<String> getDefaultOrDefinedInclude() {
+		if (include != null) {
+			return include;
+		}
+		if (files != null) {
+			return null;
+		}
+		return Arrays.asList("**/*");
+	}
+
 	/**
 	 * Load tsconfig.json instance from the given reader.
 	 * 
@@ -227,7 +354,7 @@ public class TsconfigJson {
 	public static <T extends TsconfigJson> T load(InputStream in, Class<T> classOfT) {
 		Reader isr = null;
 		try {
-			isr = new InputStreamReader(in);
+			isr = new InputStreamReader(in, StandardCharsets.UTF_8);
 			return load(isr, classOfT);
 		} finally {
 			if (isr != null) {
@@ -249,6 +376,205 @@ public class TsconfigJson {
 		return load(in, TsconfigJson.class);
 	}
 
+	/**
+	 * Load tsconfig.json instance from the given file and merge the sections
+	 * of the tsconfig.json declared with "extends".
+	 * 
+	 * @param tsconfigFile
+	 * @return tsconfig.json instance from the given file.
+	 * @throws IOException
+	 */
+	public static TsconfigJson load(File tsconfigFile) throws IOException {
+		return load(tsconfigFile, TsconfigJson.class);
+	}
+
+	public static <T extends TsconfigJson> T load(File tsconfigFile, Class<T> classOfT) throws IOException {
+		return load(FileUtils.openInputStream(tsconfigFile), tsconfigFile, classOfT);
+	}
+
+	/**
+	 * Load tsconfig.json instance from the given input stream of the given
+	 * file and merge the sections of the tsconfig.json declared with
+	 * "extends" like tsc:
+	 * 
+	 * <ul>
+	 * <li>"compilerOptions" are merged, the options of the tsconfig.json
+	 * override the extended options.</li>
+	 * <li>the other sections ("files", "include", "exclude", etc) override the
+	 * extended sections.</li>
+	 * <li>the paths of the extended tsconfig.json are relative to the
+	 * extended tsconfig.json, they are rebased to be relative to the given
+	 * file.</li>
+	 * </ul>
+	 * 
+	 * An extended tsconfig.json which doesn't exist is ignored.
+	 * 
+	 * @param in
+	 *            the content of the tsconfig.json.
+	 * @param tsconfigFile
+	 *            the tsconfig.json file used to resolve "extends".
+	 * @param classOfT
+	 * @return tsconfig.json instance from the given input stream.
+	 */
+	public static <T extends TsconfigJson> T load(InputStream in, File tsconfigFile, Class<T> classOfT) {
+		Set<Path> loaded = new HashSet<Path>();
+		loaded.add(normalize(tsconfigFile));
+		JsonObject json = resolveExtends(parse(in), tsconfigFile.getAbsoluteFile().getParentFile(), loaded);
+		Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+		T o = gson.fromJson(json, classOfT);
+		if (o == null) {
+			throw new JsonSyntaxException("JSON Syntax error");
+		}
+		return o;
+	}
+
+	private static JsonObject parse(InputStream in) {
+		Reader isr = null;
+		try {
+			isr = new InputStreamReader(in, StandardCharsets.UTF_8);
+			JsonElement json = new Gson().fromJson(isr, JsonElement.class);
+			if (json == null || !json.isJsonObject()) {
+				throw new JsonSyntaxException("JSON Syntax error");
+			}
+			return json.getAsJsonObject();
+		} finally {
+			if (isr != null) {
+				try {
+					isr.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the given JSON tsconfig.json merged with the tsconfig.json that
+	 * it extends.
+	 * 
+	 * @param json
+	 *            the JSON tsconfig.json.
+	 * @param dir
+	 *            the folder of the tsconfig.json.
+	 * @param loaded
+	 *            the tsconfig.json of the "extends" chain.
+	 * @return the given JSON tsconfig.json merged with the tsconfig.json that
+	 *         it extends.
+	 */
+	private static JsonObject resolveExtends(JsonObject json, File dir, Set<Path> loaded) {
+		JsonElement extendsPath = json.get(EXTENDS);
+		if (extendsPath == null || !extendsPath.isJsonPrimitive()) {
+			return json;
+		}
+		File baseFile = getExtendedFile(dir, extendsPath.getAsString());
+		if (baseFile == null) {
+			return json;
+		}
+		if (!loaded.add(normalize(baseFile))) {
+			throw new JsonSyntaxException("Circular definition in 'extends' of " + FileUtils.getPath(baseFile));
+		}
+		JsonObject base;
+		try {
+			base = parse(FileUtils.openInputStream(baseFile));
+		} catch (IOException e) {
+			return json;
+		}
+		base = resolveExtends(base, baseFile.getParentFile(), loaded);
+		String prefix = getRelativePath(dir, baseFile.getParentFile());
+
+		JsonObject merged = new JsonObject();
+		for (Map.Entry<String, JsonElement> entry : base.entrySet()) {
+			String name = entry.getKey();
+			JsonElement value = entry.getValue();
+			if (EXTENDS.equals(name)) {
+				continue;
+			}
+			if (PATH_SECTIONS.contains(name)) {
+				value = rebase(prefix, value);
+			} else if (COMPILER_OPTIONS.equals(name) && value.isJsonObject()) {
+				JsonObject options = new JsonObject();
+				for (Map.Entry<String, JsonElement> option : value.getAsJsonObject().entrySet()) {
+					options.add(option.getKey(), PATH_OPTIONS.contains(option.getKey())
+							? rebase(prefix, option.getValue()) : option.getValue());
+				}
+				value = options;
+			}
+			merged.add(name, value);
+		}
+		for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+			String name = entry.getKey();
+			JsonElement value = entry.getValue();
+			JsonElement baseValue = merged.get(name);
+			if (COMPILER_OPTIONS.equals(name) && value.isJsonObject() && baseValue != null
+					&& baseValue.isJsonObject()) {
+				for (Map.Entry<String, JsonElement> option : value.getAsJsonObject().entrySet()) {
+					baseValue.getAsJsonObject().add(option.getKey(), option.getValue());
+				}
+			} else {
+				merged.add(name, value);
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * Returns the tsconfig.json file declared with the given "extends" path
+	 * and null if it doesn't exist.
+	 */
+	private static File getExtendedFile(File dir, String extendsPath) {
+		if (StringUtils.isEmpty(extendsPath)) {
+			return null;
+		}
+		if (!extendsPath.endsWith(FileUtils.TSCONFIG_END)) {
+			extendsPath = extendsPath + FileUtils.TSCONFIG_END;
+		}
+		File file = new File(extendsPath);
+		if (!file.isAbsolute()) {
+			file = new File(dir, extendsPath);
+		}
+		return file.isFile() ? file : null;
+	}
+
+	/**
+	 * Returns the path of the given base folder relative to the given folder
+	 * with '/' as separator ("" if they are the same folder).
+	 */
+	private static String getRelativePath(File dir, File baseDir) {
+		Path from = normalize(dir);
+		Path to = normalize(baseDir);
+		try {
+			return FileUtils.normalizeSlashes(from.relativize(to).toString());
+		} catch (IllegalArgumentException e) {
+			// ex: folders of two Windows drives
+			return FileUtils.normalizeSlashes(to.toString());
+		}
+	}
+
+	private static JsonElement rebase(String prefix, JsonElement value) {
+		if (prefix.length() == 0) {
+			return value;
+		}
+		if (value.isJsonArray()) {
+			JsonArray paths = new JsonArray();
+			for (JsonElement path : value.getAsJsonArray()) {
+				paths.add(rebase(prefix, path));
+			}
+			return paths;
+		}
+		if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isString()) {
+			String path = value.getAsString();
+			if (new File(path).isAbsolute() || path.startsWith("/")) {
+				return value;
+			}
+			List<String> segments = TsconfigFileMatcher.normalize(prefix + "/" + path);
+			return new JsonPrimitive(segments.isEmpty() ? "." : String.join("/", segments));
+		}
+		return value;
+	}
+
+	private static Path normalize(File file) {
+		return file.getAbsoluteFile().toPath().normalize();
+	}
+
 	/**
 	 * Returns the available targets.
 	 * 
@@ -12,7 +12,9 @@
  */
 package ts.eclipse.ide.jsdt.internal.ui.editor.contentassist;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -28,6 +30,9 @@ import org.eclipse.wst.jsdt.ui.text.java.JavaContentAssistInvocationContext;
 
 import ts.ScriptElementKind;
 import ts.TypeScriptNoContentAvailableException;
+import ts.client.completions.CompletionEntry;
+import ts.client.completions.CompletionEntryDetailsLoader;
+import ts.client.completions.CompletionSession;
 import ts.eclipse.ide.core.resources.IIDETypeScriptProject;
 import ts.eclipse.ide.core.utils.TypeScriptResourceUtil;
 import ts.eclipse.ide.jsdt.internal.ui.Trace;
@@ -44,6 +49,12 @@ import ts.resources.ITypeScriptFile;
 public class TypeScriptCompletionProposalComputer
 		implements IJavaCompletionProposalComputer/* , ICompletionProposalComputer */ {
 
+	/**
+	 * Completion entries of the last completion, re-filtered locally while the
+	 * user types the same identifier.
+	 */
+	private final CompletionSession completionSession = new CompletionSession();
+
 	public List computeCompletionProposals(ContentAssistInvocationContext context, IProgressMonitor monitor) {
 		IResource resource = null;
 		if (context instanceof TypeScriptContentAssistInvocationContext) {
@@ -67,13 +78,15 @@ public class TypeScriptCompletionProposalComputer
 						CharSequence prefix = context.computeIdentifierPrefix();
 
 						String p = prefix != null ? prefix.toString() : "";
-						return tsFile
-								.completions(position,
-										new JSDTCompletionProposalFactory(position, p, context.getViewer()))
+						List<CompletionEntry> entries = completionSession
+								.completions(tsFile.getName(), tsFile.getVersion(), position, p,
+										new JSDTCompletionProposalFactory(position, p, context.getViewer()),
+										factory -> tsFile.completions(position, factory))
 								.get(5000, TimeUnit.MILLISECONDS).stream()
-								.filter(entry -> entry.updatePrefix(p)
-										&& ScriptElementKind.getKind(entry.getKind()) != ScriptElementKind.WARNING)
+								.filter(entry -> ScriptElementKind.getKind(entry.getKind()) != ScriptElementKind.WARNING)
 								.collect(Collectors.toList());
+						prefetchEntryDetails(entries);
+						return entries;
 					}
 				}
 			} catch (ExecutionException e) {
@@ -89,6 +102,27 @@ public class TypeScriptCompletionProposalComputer
 		return Collections.EMPTY_LIST;
 	}
 
+	/**
+	 * Load in background the details of the first proposals of the popup
+	 * (sorted by relevance like JSDT does) with a single request.
+	 * 
+	 * @param entries
+	 *            the completion entries.
+	 */
+	private static void prefetchEntryDetails(List<CompletionEntry> entries) {
+		if (entries.isEmpty() || entries.get(0).getEntryDetailsLoader() == null) {
+			return;
+		}
+		List<CompletionEntry> sorted = new ArrayList<CompletionEntry>(entries);
+		sorted.sort(Comparator.comparingInt(CompletionEntry::getRelevance).reversed()
+				.thenComparing(CompletionEntry::getName, String.CASE_INSENSITIVE_ORDER));
+		try {
+			entries.get(0).getEntryDetailsLoader().prefetch(sorted, CompletionEntryDetailsLoader.BATCH_SIZE);
+		} catch (Exception e) {
+			Trace.trace(Trace.SEVERE, "Error while TypeScript completion entry details prefetch", e);
+		}
+	}
+
 	public List computeContextInformation(ContentAssistInvocationContext context, IProgressMonitor monitor) {
 		return Collections.EMPTY_LIST;
 	}
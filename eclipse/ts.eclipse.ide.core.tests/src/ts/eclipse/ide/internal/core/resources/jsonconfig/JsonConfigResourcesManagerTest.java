@@ -0,0 +1,84 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.eclipse.ide.internal.core.resources.jsonconfig;
+
+import java.io.ByteArrayInputStream;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link JsonConfigResourcesManager}.
+ *
+ */
+public class JsonConfigResourcesManagerTest {
+
+	private IProject project;
+
+	@Before
+	public void createProject() throws CoreException {
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("JsonConfigResourcesManagerTest");
+		if (project.exists()) {
+			project.delete(true, true, null);
+		}
+		project.create(null);
+		project.open(null);
+	}
+
+	@After
+	public void deleteProject() throws CoreException {
+		if (project.exists()) {
+			project.delete(true, true, null);
+		}
+	}
+
+	@Test
+	public void findTsconfigFile() throws CoreException {
+		IFile tsconfigFile = createFile(project.getFile("tsconfig.json"), "{}");
+		IFolder src = createFolder(project.getFolder("src"));
+		IFolder app = createFolder(src.getFolder("app"));
+		IFile tsFile = createFile(app.getFile("a.ts"), "var a = 1;");
+
+		JsonConfigResourcesManager manager = JsonConfigResourcesManager.getInstance();
+		Assert.assertEquals(tsconfigFile, manager.findTsconfigFile(tsFile));
+		Assert.assertEquals(tsconfigFile, manager.findTsconfigFile(app));
+		Assert.assertNull(manager.findJsconfigFile(tsFile));
+		Assert.assertTrue(manager.hasConfigFileLocations(project));
+
+		// a nearest tsconfig.json invalidates the memoized locations
+		IFile srcTsconfigFile = createFile(src.getFile("tsconfig.json"), "{}");
+		Assert.assertEquals(srcTsconfigFile, manager.findTsconfigFile(tsFile));
+		Assert.assertEquals(tsconfigFile, manager.findTsconfigFile(project.getFile("b.ts")));
+
+		srcTsconfigFile.delete(true, null);
+		Assert.assertEquals(tsconfigFile, manager.findTsconfigFile(tsFile));
+
+		project.delete(true, true, null);
+		Assert.assertFalse(manager.hasConfigFileLocations(project));
+	}
+
+	private static IFolder createFolder(IFolder folder) throws CoreException {
+		folder.create(true, true, null);
+		return folder;
+	}
+
+	private static IFile createFile(IFile file, String content) throws CoreException {
+		file.create(new ByteArrayInputStream(content.getBytes()), true, null);
+		return file;
+	}
+}
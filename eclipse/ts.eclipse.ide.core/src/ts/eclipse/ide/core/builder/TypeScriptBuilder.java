@@ -27,6 +27,8 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ProgressMonitorWrapper;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.osgi.util.NLS;
 
 import ts.TypeScriptException;
 import ts.client.CommandNames;
@@ -37,6 +39,7 @@ import ts.eclipse.ide.core.resources.buildpath.ITypeScriptBuildPath;
 import ts.eclipse.ide.core.resources.jsconfig.IDETsconfigJson;
 import ts.eclipse.ide.core.utils.TypeScriptResourceUtil;
 import ts.eclipse.ide.internal.core.Trace;
+import ts.eclipse.ide.internal.core.TypeScriptCoreMessages;
 
 /**
  * Builder to transpile TypeScript files into JavaScript files and source map if
@@ -69,22 +72,35 @@ public class TypeScriptBuilder extends IncrementalProjectBuilder {
 		return null;
 	}
 
+	/**
+	 * Compile the whole files of each tsconfig.json of the build path which
+	 * enables "compileOnSave" or "buildOnSave" with a single "tsc" run per
+	 * tsconfig.json. The markers of each tsconfig.json folder are replaced in a
+	 * single workspace operation.
+	 * 
+	 * @param tsProject
+	 * @param monitor
+	 * @throws CoreException
+	 */
 	private void fullBuild(IIDETypeScriptProject tsProject, IProgressMonitor monitor) throws CoreException {
 		ITypeScriptBuildPath buildPath = tsProject.getTypeScriptBuildPath();
 		ITsconfigBuildPath[] tsContainers = buildPath.getTsconfigBuildPaths();
+		SubMonitor subMonitor = SubMonitor.convert(getSubMonitor(monitor),
+				TypeScriptCoreMessages.TypeScriptBuilder_fullBuild_task, tsContainers.length);
 		for (int i = 0; i < tsContainers.length; i++) {
 			ITsconfigBuildPath tsContainer = tsContainers[i];
-			
-			
-			
-			
-			/*
-			 * try { IDETsconfigJson tsconfig = tsContainer.getTsconfig(); if (tsconfig ==
-			 * null || tsconfig.isCompileOnSave()) {
-			 * tsProject.getCompiler().compile(tsconfig, null); } } catch
-			 * (TypeScriptException e) { Trace.trace(Trace.SEVERE,
-			 * "Error while tsc compilation", e); }
-			 */
+			// split checks the cancellation.
+			SubMonitor tsconfigMonitor = subMonitor.split(1);
+			try {
+				IDETsconfigJson tsconfig = tsContainer.getTsconfig();
+				if (tsconfig != null && (tsconfig.isBuildOnSave() || tsconfig.isCompileOnSave())) {
+					tsconfigMonitor.subTask(NLS.bind(TypeScriptCoreMessages.TypeScriptBuilder_fullBuild_compiling,
+							TypeScriptResourceUtil.getBuildPathLabel(tsconfig.getTsconfigFile())));
+					tsProject.getCompiler().build(tsconfig, tsconfigMonitor);
+				}
+			} catch (TypeScriptException e) {
+				Trace.trace(Trace.SEVERE, "Error while tsc compilation", e);
+			}
 		}
 	}
 
@@ -10,8 +10,9 @@
  */
 package ts.eclipse.ide.core.compiler;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
@@ -25,6 +26,7 @@ import ts.cmd.Severity;
 import ts.cmd.tsc.ITypeScriptCompilerMessageHandler;
 import ts.eclipse.ide.core.TypeScriptCorePlugin;
 import ts.eclipse.ide.core.resources.jsconfig.IDETsconfigJson;
+import ts.eclipse.ide.core.utils.TscMarkerBatch;
 import ts.eclipse.ide.core.utils.TypeScriptResourceUtil;
 import ts.eclipse.ide.core.utils.WorkbenchResourceUtil;
 import ts.eclipse.ide.internal.core.Trace;
@@ -39,24 +41,37 @@ import ts.utils.FileUtils;
  * <li>add error marker to the *.ts files which have error.</li>
  * <li>refresh emitted files *.js and *.js.map files</li>
  * </ul>
+ * 
+ * The error markers are collected in a {@link TscMarkerBatch} which is applied
+ * with {@link #applyMarkers()}. With "tsc --watch", the markers and the emitted
+ * files are updated at the end of each compilation.
  */
 public class IDETypeScriptCompilerMessageHandler implements ITypeScriptCompilerMessageHandler {
 
 	private final IContainer container;
 	private final boolean listEmittedFiles;
+	private final boolean deleteMarkers;
 	private final IDETsconfigJson tsconfig;
-	private final List<IFile> filesToRefresh;
-	private final List<IFile> emittedFiles;
+	private final Set<IFile> filesToRefresh;
+	private final Set<IFile> emittedFiles;
+	private final TscMarkerBatch markers;
 
 	public IDETypeScriptCompilerMessageHandler(IContainer container, boolean listEmittedFiles, boolean deleteMarkers)
 			throws CoreException {
+		this(container, listEmittedFiles, deleteMarkers, new TscMarkerBatch());
+	}
+
+	public IDETypeScriptCompilerMessageHandler(IContainer container, boolean listEmittedFiles, boolean deleteMarkers,
+			TscMarkerBatch markers) throws CoreException {
 		this.container = container;
 		this.listEmittedFiles = listEmittedFiles;
+		this.deleteMarkers = deleteMarkers;
 		this.tsconfig = TypeScriptResourceUtil.findTsconfig(container);
-		this.filesToRefresh = new ArrayList<IFile>();
-		this.emittedFiles = new ArrayList<IFile>();
+		this.filesToRefresh = new LinkedHashSet<IFile>();
+		this.emittedFiles = new LinkedHashSet<IFile>();
+		this.markers = markers;
 		if (deleteMarkers) {
-			TypeScriptResourceUtil.deleteTscMarker(container);
+			markers.reset(container);
 		}
 	}
 
@@ -66,10 +81,8 @@ public class IDETypeScriptCompilerMessageHandler implements ITypeScriptCompilerM
 		if (file == null) {
 			return;
 		}
-		List<IFile> files = emitted ? emittedFiles : filesToRefresh;
-		if (!files.contains(file)) {
-			files.add(file);
-		}
+		// --listFiles can list thousands of files.
+		(emitted ? emittedFiles : filesToRefresh).add(file);
 	}
 
 	private IFile getFile(String filePath) {
@@ -80,19 +93,48 @@ public class IDETypeScriptCompilerMessageHandler implements ITypeScriptCompilerM
 		return WorkbenchResourceUtil.findFileFromWorkspace(filePath);
 	}
 
-	public List<IFile> getFilesToRefresh() {
+	public Collection<IFile> getFilesToRefresh() {
 		return filesToRefresh;
 	}
 
 	@Override
 	public void onCompilationCompleteWatchingForFileChanges() {
 		try {
+			if (deleteMarkers) {
+				// tsc reports the errors of all files for each compilation,
+				// replace the markers of the previous compilation.
+				markers.reset(container);
+			}
+			applyMarkers();
 			refreshEmittedFiles();
 		} catch (CoreException e) {
 			TypeScriptCorePlugin.logError(e);
+		} finally {
+			// the next compilation lists its own files.
+			filesToRefresh.clear();
+			emittedFiles.clear();
 		}
 	}
 
+	/**
+	 * Returns the batch where the error markers are collected.
+	 * 
+	 * @return the batch where the error markers are collected.
+	 */
+	public TscMarkerBatch getMarkers() {
+		return markers;
+	}
+
+	/**
+	 * Update the error markers collected since the last call in a single
+	 * workspace operation.
+	 * 
+	 * @throws CoreException
+	 */
+	public void applyMarkers() throws CoreException {
+		markers.apply(null);
+	}
+
 	/**
 	 * Refresh emitted files *.js , *.js.map
 	 * 
@@ -134,12 +176,8 @@ public class IDETypeScriptCompilerMessageHandler implements ITypeScriptCompilerM
 			String message) {
 		IFile file = getFile(filename);
 		if (file != null) {
-			try {
-				String error = TypeScriptResourceUtil.formatTscError(code, message);
-				TypeScriptResourceUtil.addTscMarker(file, error, getSeverity(severity), startLoc.getLine());
-			} catch (CoreException e) {
-
-			}
+			String error = TypeScriptResourceUtil.formatTscError(code, message);
+			markers.addMarker(file, error, getSeverity(severity), startLoc.getLine());
 		}
 	}
 
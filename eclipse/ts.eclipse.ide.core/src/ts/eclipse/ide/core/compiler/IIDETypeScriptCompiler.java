@@ -14,6 +14,7 @@ import java.util.List;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 
 import ts.TypeScriptException;
 import ts.cmd.tsc.ITypeScriptCompiler;
@@ -36,4 +37,18 @@ public interface IIDETypeScriptCompiler extends ITypeScriptCompiler {
 	 * @throws CoreException
 	 */
 	public void compile(IDETsconfigJson tsconfig, List<IFile> tsFiles) throws TypeScriptException, CoreException;
+
+	/**
+	 * Compile the whole files of the given tsconfig.json with a single "tsc"
+	 * run and replace the markers of the tsconfig.json folder.
+	 * 
+	 * @param tsconfig
+	 *            tsconfig.json file.
+	 * @param monitor
+	 *            the progress monitor, the "tsc" process is killed when it is
+	 *            canceled.
+	 * @throws TypeScriptException
+	 * @throws CoreException
+	 */
+	public void build(IDETsconfigJson tsconfig, IProgressMonitor monitor) throws TypeScriptException, CoreException;
 }
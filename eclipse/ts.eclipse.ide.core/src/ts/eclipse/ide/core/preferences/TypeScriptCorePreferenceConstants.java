@@ -32,6 +32,16 @@ public class TypeScriptCorePreferenceConstants {
 
 	public static final String TSSERVER_EMULATE_PLUGINS = "tsserverEmulatePlugins"; //$NON-NLS-1$
 
+	public static final String TSSERVER_AUTO_RESTART = "tsserverAutoRestart"; //$NON-NLS-1$
+
+	public static final String TSSERVER_WARM_SPARE = "tsserverWarmSpare"; //$NON-NLS-1$
+
+	public static final String TSSERVER_HEALTH_PROBE_INTERVAL = "tsserverHealthProbeInterval"; //$NON-NLS-1$
+
+	public static final String TSSERVER_HEALTH_PROBE_TIMEOUT = "tsserverHealthProbeTimeout"; //$NON-NLS-1$
+
+	public static final String TSSERVER_ENABLE_METRICS = "tsserverEnableMetrics"; //$NON-NLS-1$
+
 	// Install @types
 
 	public static final String INSTALL_TYPES_ENABLE_TELEMETRY = "installTypes.enableTelemetry"; //$NON-NLS-1$
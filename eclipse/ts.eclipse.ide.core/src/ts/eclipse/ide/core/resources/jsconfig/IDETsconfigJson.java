@@ -35,14 +35,17 @@ public class IDETsconfigJson extends TsconfigJson {
 	private IContainer mapRoot;
 
 	/**
-	 * Load tsconfig.json.
+	 * Load tsconfig.json and the tsconfig.json that it extends.
 	 * 
 	 * @param tsconfigFile
 	 * @return
 	 * @throws CoreException
 	 */
 	public static IDETsconfigJson load(IFile tsconfigFile) throws CoreException {
-		IDETsconfigJson tsconfig = load(tsconfigFile.getContents(), IDETsconfigJson.class);
+		IPath location = tsconfigFile.getLocation();
+		IDETsconfigJson tsconfig = location != null
+				? load(tsconfigFile.getContents(), location.toFile(), IDETsconfigJson.class)
+				: load(tsconfigFile.getContents(), IDETsconfigJson.class);
 		tsconfig.tsconfigFile = tsconfigFile;
 		tsconfig.outDir = computeOutDir(tsconfig);
 		tsconfig.outFile = computeOutFile(tsconfig);
@@ -71,17 +74,7 @@ public class IDETsconfigJson extends TsconfigJson {
 		if (!hasFiles()) {
 			return false;
 		}
-		String filename = getRelativePath(resource).toString();
-		if (resource.getType() == IResource.FILE) {
-			return getFiles().contains(filename);
-		}
-		// folder or project
-		for (String name : getFiles()) {
-			if (name.startsWith(filename)) {
-				return true;
-			}
-		}
-		return false;
+		return super.isInFiles(getRelativePath(resource).toString(), resource.getType() != IResource.FILE);
 	}
 
 	/**
@@ -93,13 +86,7 @@ public class IDETsconfigJson extends TsconfigJson {
 	 *         section) and false otherwise.
 	 */
 	public boolean isExcluded(IResource resource) {
-		String filename = getRelativePath(resource).toString();
-		for (String exclude : getDefaultOrDefinedExclude()) {
-			if (filename.startsWith(exclude)) {
-				return true;
-			}
-		}
-		return false;
+		return super.isExcluded(getRelativePath(resource).toString());
 	}
 
 	/**
@@ -201,11 +188,16 @@ public class IDETsconfigJson extends TsconfigJson {
 		return null;
 	}
 
+	/**
+	 * Returns true if the given file belongs to the tsconfig.json ("files",
+	 * "include" and "exclude" sections) or if the given folder can contain
+	 * files which belong to the tsconfig.json and false otherwise.
+	 * 
+	 * @param resource
+	 * @return true if the given resource belongs to the tsconfig.json and false
+	 *         otherwise.
+	 */
 	public boolean isInScope(IResource resource) {
-		// check if the given file is declared in the "files"
-		if (hasFiles()) {
-			return isInFiles(resource);
-		}
-		return !isExcluded(resource);
+		return super.isInScope(getRelativePath(resource).toString(), resource.getType() != IResource.FILE);
 	}
 }
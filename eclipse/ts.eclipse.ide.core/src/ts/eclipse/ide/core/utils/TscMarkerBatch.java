@@ -0,0 +1,307 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.eclipse.ide.core.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
+
+/**
+ * Batch of TypeScript problem markers (tsc, tslint, tsserver diagnostics)
+ * applied in a single workspace operation, so that the creations and deletions
+ * of markers generate a single resource delta.
+ *
+ * <p>
+ * The markers of a resource which is reset with {@link #reset(IResource)} are
+ * replaced by the markers added to the batch: the existing markers are compared
+ * with the new ones, only the markers which have disappeared are deleted and
+ * only the new markers are created. The markers added to a resource which is
+ * not reset are created like with
+ * {@link TypeScriptResourceUtil#addTscMarker(IResource, String, int, int)}.
+ * </p>
+ *
+ * <p>
+ * The batch is cleared when it is applied and can be filled again.
+ * </p>
+ *
+ */
+public class TscMarkerBatch {
+
+	private static final String[] ATTRIBUTE_NAMES = { IMarker.MESSAGE, IMarker.SEVERITY, IMarker.LINE_NUMBER };
+	private static final String[] ATTRIBUTE_NAMES_WITH_RANGE = { IMarker.MESSAGE, IMarker.SEVERITY,
+			IMarker.LINE_NUMBER, IMarker.CHAR_START, IMarker.CHAR_END };
+
+	private static final int UNSET = -1;
+
+	/**
+	 * Attributes of a marker.
+	 */
+	private static class MarkerInfo {
+
+		final String message;
+		final int severity;
+		final int lineNumber;
+		final int charStart;
+		final int charEnd;
+
+		MarkerInfo(String message, int severity, int lineNumber, int charStart, int charEnd) {
+			this.message = message;
+			this.severity = severity;
+			this.lineNumber = lineNumber;
+			this.charStart = charStart;
+			this.charEnd = charEnd;
+		}
+
+		MarkerInfo(IMarker marker) {
+			this(marker.getAttribute(IMarker.MESSAGE, null), marker.getAttribute(IMarker.SEVERITY, UNSET),
+					marker.getAttribute(IMarker.LINE_NUMBER, UNSET),
+					marker.getAttribute(IMarker.CHAR_START, UNSET),
+					marker.getAttribute(IMarker.CHAR_END, UNSET));
+		}
+
+		void create(IResource resource) throws CoreException {
+			IMarker marker = resource.createMarker(TypeScriptResourceUtil.TSC_MARKER_TYPE);
+			if (charStart == UNSET) {
+				marker.setAttributes(ATTRIBUTE_NAMES, new Object[] { message, severity, lineNumber });
+			} else {
+				marker.setAttributes(ATTRIBUTE_NAMES_WITH_RANGE,
+						new Object[] { message, severity, lineNumber, charStart, charEnd });
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(message, severity, lineNumber, charStart, charEnd);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof MarkerInfo)) {
+				return false;
+			}
+			MarkerInfo other = (MarkerInfo) obj;
+			return severity == other.severity && lineNumber == other.lineNumber && charStart == other.charStart
+					&& charEnd == other.charEnd && Objects.equals(message, other.message);
+		}
+	}
+
+	private final Set<IResource> resetResources;
+	private final Map<IResource, List<MarkerInfo>> markers;
+
+	public TscMarkerBatch() {
+		this.resetResources = new LinkedHashSet<IResource>();
+		this.markers = new LinkedHashMap<IResource, List<MarkerInfo>>();
+	}
+
+	/**
+	 * Replace the markers of the given resource (and its members) with the
+	 * markers added to this batch when it is applied.
+	 *
+	 * @param resource
+	 *            the resource.
+	 */
+	public synchronized void reset(IResource resource) {
+		resetResources.add(resource);
+	}
+
+	/**
+	 * Add a marker to the given resource.
+	 *
+	 * @param resource
+	 *            the resource.
+	 * @param message
+	 *            the marker message.
+	 * @param severity
+	 *            the marker severity.
+	 * @param lineNumber
+	 *            the marker line number.
+	 */
+	public void addMarker(IResource resource, String message, int severity, int lineNumber) {
+		addMarker(resource, new MarkerInfo(message, severity, lineNumber, UNSET, UNSET));
+	}
+
+	/**
+	 * Add a marker to the given resource.
+	 *
+	 * @param resource
+	 *            the resource.
+	 * @param message
+	 *            the marker message.
+	 * @param severity
+	 *            the marker severity.
+	 * @param lineNumber
+	 *            the marker line number.
+	 * @param charStart
+	 *            the marker start offset.
+	 * @param charEnd
+	 *            the marker end offset.
+	 */
+	public void addMarker(IResource resource, String message, int severity, int lineNumber, int charStart,
+			int charEnd) {
+		addMarker(resource, new MarkerInfo(message, severity, lineNumber, charStart, charEnd));
+	}
+
+	private synchronized void addMarker(IResource resource, MarkerInfo marker) {
+		List<MarkerInfo> resourceMarkers = markers.get(resource);
+		if (resourceMarkers == null) {
+			resourceMarkers = new ArrayList<MarkerInfo>();
+			markers.put(resource, resourceMarkers);
+		}
+		resourceMarkers.add(marker);
+	}
+
+	/**
+	 * Returns true if the batch contains nothing to apply.
+	 *
+	 * @return true if the batch contains nothing to apply.
+	 */
+	public synchronized boolean isEmpty() {
+		return resetResources.isEmpty() && markers.isEmpty();
+	}
+
+	/**
+	 * Apply the markers of this batch in a single workspace operation and clear
+	 * the batch.
+	 *
+	 * @param monitor
+	 *            the progress monitor.
+	 * @throws CoreException
+	 */
+	public void apply(IProgressMonitor monitor) throws CoreException {
+		final Set<IResource> resetResources;
+		final Map<IResource, List<MarkerInfo>> markers;
+		synchronized (this) {
+			if (isEmpty()) {
+				return;
+			}
+			resetResources = new LinkedHashSet<IResource>(this.resetResources);
+			markers = new LinkedHashMap<IResource, List<MarkerInfo>>(this.markers);
+			this.resetResources.clear();
+			this.markers.clear();
+		}
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IWorkspaceRunnable runnable = new IWorkspaceRunnable() {
+
+			@Override
+			public void run(IProgressMonitor monitor) throws CoreException {
+				update(workspace, resetResources, markers);
+			}
+		};
+		workspace.run(runnable, getRule(workspace, resetResources, markers.keySet()), IWorkspace.AVOID_UPDATE,
+				monitor);
+	}
+
+	private static void update(IWorkspace workspace, Set<IResource> resetResources,
+			Map<IResource, List<MarkerInfo>> markers) throws CoreException {
+		// existing markers of the reset resources grouped by resource, a marker
+		// is found twice when a resource and its parent are reset.
+		Set<IMarker> found = new LinkedHashSet<IMarker>();
+		for (IResource resource : resetResources) {
+			if (resource.exists()) {
+				for (IMarker marker : resource.findMarkers(TypeScriptResourceUtil.TSC_MARKER_TYPE, true,
+						IResource.DEPTH_INFINITE)) {
+					found.add(marker);
+				}
+			}
+		}
+		Map<IResource, List<IMarker>> existingMarkers = new HashMap<IResource, List<IMarker>>();
+		for (IMarker marker : found) {
+			List<IMarker> resourceMarkers = existingMarkers.get(marker.getResource());
+			if (resourceMarkers == null) {
+				resourceMarkers = new ArrayList<IMarker>();
+				existingMarkers.put(marker.getResource(), resourceMarkers);
+			}
+			resourceMarkers.add(marker);
+		}
+		List<IMarker> markersToDelete = new ArrayList<IMarker>();
+		for (Map.Entry<IResource, List<IMarker>> entry : existingMarkers.entrySet()) {
+			// count of each new marker of the resource which doesn't exist
+			// yet.
+			Map<MarkerInfo, Integer> newMarkers = new HashMap<MarkerInfo, Integer>();
+			List<MarkerInfo> resourceMarkers = markers.get(entry.getKey());
+			if (resourceMarkers != null) {
+				for (MarkerInfo marker : resourceMarkers) {
+					Integer count = newMarkers.get(marker);
+					newMarkers.put(marker, count == null ? 1 : count + 1);
+				}
+			}
+			for (IMarker marker : entry.getValue()) {
+				MarkerInfo info = new MarkerInfo(marker);
+				Integer count = newMarkers.get(info);
+				if (count == null) {
+					// the marker has disappeared.
+					markersToDelete.add(marker);
+				} else if (count == 1) {
+					newMarkers.remove(info);
+				} else {
+					newMarkers.put(info, count - 1);
+				}
+			}
+			// create only the new markers
+			if (resourceMarkers != null) {
+				for (MarkerInfo marker : resourceMarkers) {
+					Integer count = newMarkers.get(marker);
+					if (count != null) {
+						marker.create(entry.getKey());
+						if (count == 1) {
+							newMarkers.remove(marker);
+						} else {
+							newMarkers.put(marker, count - 1);
+						}
+					}
+				}
+				markers.remove(entry.getKey());
+			}
+		}
+		if (!markersToDelete.isEmpty()) {
+			workspace.deleteMarkers(markersToDelete.toArray(new IMarker[markersToDelete.size()]));
+		}
+		// resources without existing markers.
+		for (Map.Entry<IResource, List<MarkerInfo>> entry : markers.entrySet()) {
+			IResource resource = entry.getKey();
+			if (resource.exists()) {
+				for (MarkerInfo marker : entry.getValue()) {
+					marker.create(resource);
+				}
+			}
+		}
+	}
+
+	private static ISchedulingRule getRule(IWorkspace workspace, Set<IResource> resetResources,
+			Set<IResource> resources) {
+		ISchedulingRule rule = null;
+		for (IResource resource : resetResources) {
+			rule = MultiRule.combine(rule, workspace.getRuleFactory().markerRule(resource));
+		}
+		for (IResource resource : resources) {
+			rule = MultiRule.combine(rule, workspace.getRuleFactory().markerRule(resource));
+		}
+		return rule;
+	}
+}
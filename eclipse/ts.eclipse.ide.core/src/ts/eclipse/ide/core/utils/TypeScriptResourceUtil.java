@@ -57,7 +57,7 @@ public class TypeScriptResourceUtil {
 
 	private static final String TSC_TYPE = "tsc";
 	private static final String TSLINT_TYPE = "tslint";
-	private static final String TSC_MARKER_TYPE = "ts.eclipse.ide.core.typeScriptProblem";
+	static final String TSC_MARKER_TYPE = "ts.eclipse.ide.core.typeScriptProblem";
 
 	public static boolean isTsOrTsxFile(Object element) {
 		return IDEResourcesManager.getInstance().isTsOrTsxFile(element);
@@ -44,6 +44,8 @@ public class TypeScriptCoreMessages extends NLS {
 	public static String IDETypeScriptProject_compile_collecting_file;
 	public static String IDETypeScriptProject_compile_compiling_step;
 	public static String IDETypeScriptProject_compile_compiling_file;
+	public static String TypeScriptBuilder_fullBuild_task;
+	public static String TypeScriptBuilder_fullBuild_compiling;
 	
 	public static ResourceBundle getResourceBundle() {
 		try {
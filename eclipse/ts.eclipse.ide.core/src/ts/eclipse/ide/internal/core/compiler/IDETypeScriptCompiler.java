@@ -12,19 +12,27 @@ package ts.eclipse.ide.internal.core.compiler;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.osgi.util.NLS;
 
 import ts.TypeScriptException;
 import ts.cmd.tsc.CompilerOptions;
 import ts.cmd.tsc.TypeScriptCompiler;
+import ts.cmd.tsc.TypeScriptCompilerWatcher;
+import ts.eclipse.ide.core.compiler.IDETypeScriptCompilerMessageHandler;
 import ts.eclipse.ide.core.compiler.IIDETypeScriptCompiler;
 import ts.eclipse.ide.core.resources.jsconfig.IDETsconfigJson;
+import ts.eclipse.ide.core.utils.TscMarkerBatch;
 import ts.eclipse.ide.core.utils.TypeScriptResourceUtil;
 import ts.eclipse.ide.internal.core.TypeScriptCoreMessages;
 import ts.resources.ITypeScriptProject;
@@ -36,6 +44,42 @@ public class IDETypeScriptCompiler extends TypeScriptCompiler implements IIDETyp
 
 	private final boolean listEmittedFiles;
 
+	/**
+	 * Handler of a 'tsc --watch' process. The markers of the tsconfig.json
+	 * folder are replaced after each compilation, the handler keeps the
+	 * warnings of the saved files which are not in the compilation context of
+	 * the tsconfig.json (tsc doesn't compile them).
+	 */
+	private static class WatchMessageHandler extends IDETypeScriptCompilerMessageHandler {
+
+		private final IFile tsConfigFile;
+		private final Set<IFile> outOfContextFiles;
+
+		WatchMessageHandler(IFile tsConfigFile, boolean listEmittedFiles) throws CoreException {
+			super(tsConfigFile.getParent(), listEmittedFiles, true);
+			this.tsConfigFile = tsConfigFile;
+			this.outOfContextFiles = new HashSet<IFile>();
+		}
+
+		synchronized void setInCompilationContext(IFile tsFile, boolean inContext) {
+			if (inContext) {
+				outOfContextFiles.remove(tsFile);
+			} else {
+				outOfContextFiles.add(tsFile);
+			}
+		}
+
+		@Override
+		public void onCompilationCompleteWatchingForFileChanges() {
+			synchronized (this) {
+				for (IFile tsFile : outOfContextFiles) {
+					addCompilationContextMarkerError(tsFile, tsConfigFile, getMarkers());
+				}
+			}
+			super.onCompilationCompleteWatchingForFileChanges();
+		}
+	}
+
 	public IDETypeScriptCompiler(File tscFile, File nodejsFile, ITypeScriptProject tsProject) {
 		super(tscFile, nodejsFile);
 		// TODO: support listEmittedFiles
@@ -45,10 +89,32 @@ public class IDETypeScriptCompiler extends TypeScriptCompiler implements IIDETyp
 	@Override
 	public void compile(IDETsconfigJson tsconfig, List<IFile> tsFiles) throws TypeScriptException, CoreException {
 		IFile tsconfigFile = tsconfig.getTsconfigFile();
+		// markers are updated at the end in a single workspace operation.
+		TscMarkerBatch markers = new TscMarkerBatch();
+		try {
+			compile(tsconfig, tsconfigFile, tsFiles, markers);
+		} finally {
+			markers.apply(null);
+		}
+	}
+
+	private void compile(IDETsconfigJson tsconfig, IFile tsconfigFile, List<IFile> tsFiles, TscMarkerBatch markers)
+			throws TypeScriptException, CoreException {
 		if (tsconfig.isBuildOnSave()) {
-			// Compile the whole files for the given tsconfig.json
-			compile(tsconfigFile, tsconfig.getCompilerOptions(), tsFiles, true);
+			// Compile the whole files for the given tsconfig.json with a 'tsc
+			// --watch' process kept alive between the builds.
+			WatchMessageHandler handler = watch(tsconfigFile, tsconfig.getCompilerOptions());
+			// check that ts files are in the scope of the tsconfig.json
+			for (IFile tsFile : tsFiles) {
+				boolean inScope = tsconfig.isInScope(tsFile);
+				if (!inScope) {
+					addCompilationContextMarkerError(tsFile, tsconfigFile, markers);
+				}
+				handler.setInCompilationContext(tsFile, inScope);
+			}
 		} else {
+			// 'tsc --watch' is used only with buildOnSave.
+			stopWatch(tsconfigFile.getParent().getLocation().toFile());
 			if (tsconfig.isCompileOnSave()) {
 				// compileOnSave is activated
 				String tsconfigErrorMessage = checkForInvalidCompileOnSave(tsconfig);
@@ -58,10 +124,10 @@ public class IDETypeScriptCompiler extends TypeScriptCompiler implements IIDETyp
 					// the ts files cannot be compiled;
 					// add a warning by suggesting to use "buildOnSave"
 					for (IFile tsFile : tsFiles) {
-						// delete existing marker
-						TypeScriptResourceUtil.deleteTscMarker(tsFile);
+						// replace existing marker
+						markers.reset(tsFile);
 						// add warning marker
-						TypeScriptResourceUtil.addTscMarker(tsFile,
+						markers.addMarker(tsFile,
 								NLS.bind(tsconfigErrorMessage,
 										tsconfig.getTsconfigFile().getProjectRelativePath().toString()),
 								IMarker.SEVERITY_WARNING, 1);
@@ -74,12 +140,12 @@ public class IDETypeScriptCompiler extends TypeScriptCompiler implements IIDETyp
 					for (IFile tsFile : tsFiles) {
 						if (!tsconfig.isInScope(tsFile)) {
 							tsFilesToCompile.remove(tsFile);
-							addCompilationContextMarkerError(tsFile, tsconfig.getTsconfigFile());
+							addCompilationContextMarkerError(tsFile, tsconfig.getTsconfigFile(), markers);
 						}
 					}
 					// compile the list of ts files.
 					if (!tsFilesToCompile.isEmpty()) {
-						compile(tsconfigFile, tsconfig.getCompilerOptions(), tsFilesToCompile, false);
+						compile(tsconfigFile, tsconfig.getCompilerOptions(), tsFilesToCompile, false, markers, null);
 					}
 				}
 			} else {
@@ -89,10 +155,10 @@ public class IDETypeScriptCompiler extends TypeScriptCompiler implements IIDETyp
 				// whish
 				// to compile
 				for (IFile tsFile : tsFiles) {
-					// delete existing marker
-					TypeScriptResourceUtil.deleteTscMarker(tsFile);
+					// replace existing marker
+					markers.reset(tsFile);
 					// add warning marker
-					TypeScriptResourceUtil.addTscMarker(tsFile,
+					markers.addMarker(tsFile,
 							NLS.bind(TypeScriptCoreMessages.tsconfig_compileOnSave_disable_error,
 									tsconfig.getTsconfigFile().getProjectRelativePath().toString()),
 							IMarker.SEVERITY_WARNING, 1);
@@ -103,6 +169,48 @@ public class IDETypeScriptCompiler extends TypeScriptCompiler implements IIDETyp
 		}
 	}
 
+	@Override
+	public void build(IDETsconfigJson tsconfig, IProgressMonitor monitor) throws TypeScriptException, CoreException {
+		IFile tsconfigFile = tsconfig.getTsconfigFile();
+		// the 'tsc --watch' of the tsconfig.json would compile the same files
+		// at the same time, it is started again with the next save.
+		stopWatch(tsconfigFile.getParent().getLocation().toFile());
+		// markers are updated at the end in a single workspace operation.
+		TscMarkerBatch markers = new TscMarkerBatch();
+		try {
+			compile(tsconfigFile, tsconfig.getCompilerOptions(), Collections.<IFile>emptyList(), true, markers,
+					monitor);
+		} finally {
+			// a canceled build keeps the markers of the previous build.
+			if (monitor == null || !monitor.isCanceled()) {
+				markers.apply(null);
+			}
+		}
+	}
+
+	/**
+	 * Start the 'tsc --watch' process of the given tsconfig.json if it is not
+	 * running. tsc compiles the saved files itself, the markers and the
+	 * emitted files are updated at the end of each compilation.
+	 * 
+	 * @param tsConfigFile
+	 * @param tsconfigOptions
+	 * @return the handler of the 'tsc --watch' process.
+	 * @throws TypeScriptException
+	 * @throws CoreException
+	 */
+	private WatchMessageHandler watch(IFile tsConfigFile, CompilerOptions tsconfigOptions)
+			throws TypeScriptException, CoreException {
+		File baseDir = tsConfigFile.getParent().getLocation().toFile();
+		CompilerOptions options = createOptions(tsconfigOptions, true, listEmittedFiles);
+		TypeScriptCompilerWatcher watcher = getWatcher(baseDir, options);
+		if (watcher == null) {
+			// the handler is created only for a new 'tsc --watch' process.
+			watcher = super.watch(baseDir, options, new WatchMessageHandler(tsConfigFile, listEmittedFiles));
+		}
+		return (WatchMessageHandler) watcher.getHandler();
+	}
+
 	private String checkForInvalidCompileOnSave(IDETsconfigJson tsconfig) {
 		if (tsconfig.hasOutFile()) {
 			return TypeScriptCoreMessages.tsconfig_cannot_use_compileOnSave_with_outFile_error;
@@ -113,33 +221,38 @@ public class IDETypeScriptCompiler extends TypeScriptCompiler implements IIDETyp
 		return null;
 	}
 
-	private void compile(IFile tsConfigFile, CompilerOptions tsconfigOptions, List<IFile> tsFiles, boolean buildOnSave)
-			throws TypeScriptException, CoreException {
+	private void compile(IFile tsConfigFile, CompilerOptions tsconfigOptions, List<IFile> tsFiles, boolean buildOnSave,
+			TscMarkerBatch markers, IProgressMonitor monitor) throws TypeScriptException, CoreException {
 		IContainer container = tsConfigFile.getParent();
 		IDETypeScriptCompilerReporter reporter = new IDETypeScriptCompilerReporter(container, listEmittedFiles,
-				!buildOnSave ? tsFiles : null);
+				!buildOnSave ? tsFiles : null, markers, monitor);
 		CompilerOptions options = createOptions(tsconfigOptions, buildOnSave, listEmittedFiles);
-		// compile ts files to *.js, *.js.map files
-		super.execute(container.getLocation().toFile(), options, reporter.getFileNames(), reporter);
+		// compile ts files to *.js, *.js.map files, tsc is killed as soon as
+		// the monitor is canceled.
+		super.execute(container.getLocation().toFile(), options, reporter.getFileNames(), reporter,
+				monitor != null ? monitor::isCanceled : null);
+		if (monitor != null && monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
 		// refresh *.js, *.js.map which have been generated with tsc.
 		reporter.refreshEmittedFiles();
 		// check the given list of ts files are the same than tsc
 		// --listFiles
 		for (IFile tsFile : tsFiles) {
 			if (!reporter.getFilesToRefresh().contains(tsFile)) {
-				addCompilationContextMarkerError(tsFile, tsConfigFile);
+				addCompilationContextMarkerError(tsFile, tsConfigFile, markers);
 			}
 		}
 
 	}
 
-	private void addCompilationContextMarkerError(IFile tsFile, IFile tsConfigFile) throws CoreException {
+	private static void addCompilationContextMarkerError(IFile tsFile, IFile tsConfigFile, TscMarkerBatch markers) {
 		// The ts file to compile is not in the compilation context of
 		// the tsconfig.json
-		// delete existing marker
-		TypeScriptResourceUtil.deleteTscMarker(tsFile);
+		// replace existing marker
+		markers.reset(tsFile);
 		// add warning marker
-		TypeScriptResourceUtil.addTscMarker(tsFile, NLS.bind(TypeScriptCoreMessages.tsconfig_compilation_context_error,
+		markers.addMarker(tsFile, NLS.bind(TypeScriptCoreMessages.tsconfig_compilation_context_error,
 				tsConfigFile.getProjectRelativePath().toString()), IMarker.SEVERITY_WARNING, 1);
 	}
 
@@ -17,10 +17,11 @@ import java.util.List;
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 
 import ts.cmd.tsc.TypeScriptCompilerHelper;
 import ts.eclipse.ide.core.compiler.IDETypeScriptCompilerMessageHandler;
-import ts.eclipse.ide.core.utils.TypeScriptResourceUtil;
+import ts.eclipse.ide.core.utils.TscMarkerBatch;
 import ts.eclipse.ide.core.utils.WorkbenchResourceUtil;
 import ts.nodejs.INodejsProcess;
 import ts.nodejs.INodejsProcessListener;
@@ -33,15 +34,17 @@ public class IDETypeScriptCompilerReporter extends IDETypeScriptCompilerMessageH
 
 	private INodejsProcess process;
 	private final List<String> tsFileNames;
+	private final IProgressMonitor monitor;
 
-	public IDETypeScriptCompilerReporter(IContainer container, boolean listEmittedFiles, List<IFile> tsFiles)
-			throws CoreException {
-		super(container, listEmittedFiles, tsFiles == null);
+	public IDETypeScriptCompilerReporter(IContainer container, boolean listEmittedFiles, List<IFile> tsFiles,
+			TscMarkerBatch markers, IProgressMonitor monitor) throws CoreException {
+		super(container, listEmittedFiles, tsFiles == null, markers);
+		this.monitor = monitor;
 		if (tsFiles != null) {
 			tsFileNames = new ArrayList<String>();
 			for (IFile tsFile : tsFiles) {
-				// delete marker for the given ts files.
-				TypeScriptResourceUtil.deleteTscMarker(tsFile);
+				// replace marker for the given ts files.
+				markers.reset(tsFile);
 				// add to the list file names
 				tsFileNames.add(WorkbenchResourceUtil.getRelativePath(tsFile, container).toString());
 			}
@@ -62,6 +65,11 @@ public class IDETypeScriptCompilerReporter extends IDETypeScriptCompilerMessageH
 
 	@Override
 	public void onMessage(INodejsProcess process, String response) {
+		if (monitor != null && monitor.isCanceled()) {
+			// the build is canceled, stop tsc.
+			process.kill();
+			return;
+		}
 		TypeScriptCompilerHelper.processMessage(response, this);
 	}
 
@@ -12,10 +12,14 @@ package ts.eclipse.ide.internal.core.launch;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
 import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.IStreamMonitor;
 
-import ts.cmd.tsc.TypeScriptCompilerHelper;
+import ts.cmd.tsc.TypeScriptCompilerOutputParser;
 import ts.eclipse.ide.core.compiler.IDETypeScriptCompilerMessageHandler;
 
 /**
@@ -23,15 +27,52 @@ import ts.eclipse.ide.core.compiler.IDETypeScriptCompilerMessageHandler;
  * messages.
  *
  */
-public class TscStreamListener extends IDETypeScriptCompilerMessageHandler implements IStreamListener {
+public class TscStreamListener extends IDETypeScriptCompilerMessageHandler
+		implements IStreamListener, IDebugEventSetListener {
+
+	// the appended text can end in the middle of a line.
+	private final TypeScriptCompilerOutputParser parser;
+	private IProcess process;
 
 	public TscStreamListener(IContainer container, boolean listEmittedFiles) throws CoreException {
 		super(container, listEmittedFiles, true);
+		this.parser = new TypeScriptCompilerOutputParser(this);
+	}
+
+	/**
+	 * Track the output of the given "tsc" process until it is terminated.
+	 * 
+	 * @param process
+	 *            the "tsc" process.
+	 */
+	public void listen(IProcess process) {
+		this.process = process;
+		DebugPlugin.getDefault().addDebugEventListener(this);
+		process.getStreamsProxy().getOutputStreamMonitor().addListener(this);
+	}
+
+	@Override
+	public synchronized void streamAppended(String text, IStreamMonitor monitor) {
+		parser.append(text);
+	}
+
+	/**
+	 * Process the last line of the output, which doesn't end with a new line.
+	 * Must be called when the output stream is closed.
+	 */
+	public synchronized void streamClosed() {
+		parser.end();
 	}
 
 	@Override
-	public void streamAppended(String text, IStreamMonitor monitor) {
-		TypeScriptCompilerHelper.processMessage(text, this);
+	public void handleDebugEvents(DebugEvent[] events) {
+		for (DebugEvent event : events) {
+			if (event.getKind() == DebugEvent.TERMINATE && event.getSource() == process) {
+				DebugPlugin.getDefault().removeDebugEventListener(this);
+				streamClosed();
+				return;
+			}
+		}
 	}
 
 }
@@ -92,7 +92,7 @@ public class TypeScriptCompilerLaunchConfigurationDelegate extends LaunchConfigu
 			}
 
 			TscStreamListener reporter = new TscStreamListener(container, listEmittedFiles);
-			process.getStreamsProxy().getOutputStreamMonitor().addListener(reporter);
+			reporter.listen(process);
 
 			if (!reporter.isWatch()) {
 				while (!process.isTerminated()) {
@@ -105,6 +105,7 @@ public class TypeScriptCompilerLaunchConfigurationDelegate extends LaunchConfigu
 					} catch (InterruptedException localInterruptedException) {
 					}
 				}
+				reporter.streamClosed();
 				reporter.onCompilationCompleteWatchingForFileChanges();
 			}
 		} catch (TypeScriptException e) {
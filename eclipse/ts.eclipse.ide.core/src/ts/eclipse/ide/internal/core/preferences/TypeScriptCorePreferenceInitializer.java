@@ -118,6 +118,11 @@ public class TypeScriptCorePreferenceInitializer extends AbstractPreferenceIniti
 	private void initializeTsserverPreferences(IEclipsePreferences node, ITypeScriptRepository defaultRepository) {
 		node.putBoolean(TypeScriptCorePreferenceConstants.TSSERVER_TRACE_ON_CONSOLE, false);
 		node.putBoolean(TypeScriptCorePreferenceConstants.TSSERVER_EMULATE_PLUGINS, false);
+		node.putBoolean(TypeScriptCorePreferenceConstants.TSSERVER_AUTO_RESTART, true);
+		node.putBoolean(TypeScriptCorePreferenceConstants.TSSERVER_WARM_SPARE, false);
+		node.putInt(TypeScriptCorePreferenceConstants.TSSERVER_HEALTH_PROBE_INTERVAL, 0);
+		node.putInt(TypeScriptCorePreferenceConstants.TSSERVER_HEALTH_PROBE_TIMEOUT, 0);
+		node.putBoolean(TypeScriptCorePreferenceConstants.TSSERVER_ENABLE_METRICS, false);
 	}
 
 	private void initializeInstallTypesPreferences(IEclipsePreferences node) {
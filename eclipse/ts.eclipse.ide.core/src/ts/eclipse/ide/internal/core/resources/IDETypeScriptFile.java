@@ -24,7 +24,6 @@ import ts.eclipse.ide.core.utils.TypeScriptResourceUtil;
 import ts.eclipse.ide.core.utils.WorkbenchResourceUtil;
 import ts.eclipse.jface.text.DocumentUtils;
 import ts.resources.AbstractTypeScriptFile;
-import ts.resources.SynchStrategy;
 
 /**
  * {@link IIDETypeScriptFile} implementation.
@@ -51,30 +50,8 @@ public class IDETypeScriptFile extends AbstractTypeScriptFile implements IIDETyp
 		if (isDisableChanged()) {
 			return;
 		}
-		setDirty(true);
-		if (getProject().getProjectSettings().getSynchStrategy() == SynchStrategy.CHANGE) {
-			synchronized (synchLock) {
-				try {
-					String newText = event.getText();
-					int position = event.getOffset();
-
-					Location loc = getLocation(position);
-					int line = loc.getLine();
-					int offset = loc.getOffset();
-
-					Location endLoc = getLocation(position + event.getLength());
-					int endLine = endLoc.getLine();
-					int endOffset = endLoc.getOffset();
-
-					getProject().getClient().changeFile(getName(), line, offset, endLine, endOffset, newText);
-				} catch (Throwable e) {
-					e.printStackTrace();
-				} finally {
-					setDirty(false);
-					synchLock.notifyAll();
-				}
-			}
-		}
+		// the edit is sent to tsserver before the next request.
+		changeContent(event.getOffset(), event.getLength(), event.getText());
 	}
 
 	@Override
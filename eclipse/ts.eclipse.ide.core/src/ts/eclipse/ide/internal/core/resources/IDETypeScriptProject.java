@@ -13,10 +13,18 @@ package ts.eclipse.ide.internal.core.resources;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -52,6 +60,7 @@ import ts.eclipse.ide.core.resources.jsconfig.IDETsconfigJson;
 import ts.eclipse.ide.core.resources.watcher.IFileWatcherListener;
 import ts.eclipse.ide.core.resources.watcher.ProjectWatcherListenerAdapter;
 import ts.eclipse.ide.core.tslint.IIDETypeScriptLint;
+import ts.eclipse.ide.core.utils.TscMarkerBatch;
 import ts.eclipse.ide.core.utils.TypeScriptResourceUtil;
 import ts.eclipse.ide.core.utils.WorkbenchResourceUtil;
 import ts.eclipse.ide.internal.core.Trace;
@@ -60,6 +69,7 @@ import ts.eclipse.ide.internal.core.compiler.IDETypeScriptCompiler;
 import ts.eclipse.ide.internal.core.console.TypeScriptConsoleConnectorManager;
 import ts.eclipse.ide.internal.core.resources.jsonconfig.JsonConfigResourcesManager;
 import ts.eclipse.ide.internal.core.tslint.IDETypeScriptLint;
+import ts.resources.DiagnosticsStore;
 import ts.resources.TypeScriptProject;
 import ts.utils.FileUtils;
 
@@ -112,6 +122,12 @@ public class IDETypeScriptProject extends TypeScriptProject implements IIDETypeS
 		}
 	};
 
+	/**
+	 * Max number of files whose compile requests are sent to tsserver without
+	 * waiting for the responses.
+	 */
+	private static final int MAX_COMPILE_IN_FLIGHT = 16;
+
 	private final IProject project;
 
 	private ITypeScriptBuildPath buildPath;
@@ -217,6 +233,11 @@ public class IDETypeScriptProject extends TypeScriptProject implements IIDETypeS
 		configureConsole();
 	}
 
+	@Override
+	protected void onServerError(Throwable e) {
+		TypeScriptCorePlugin.logError(e, "Error while starting tsserver for the project " + getProject().getName());
+	}
+
 	@Override
 	public void configureConsole() {
 		synchronized (serverLock) {
@@ -372,8 +393,25 @@ public class IDETypeScriptProject extends TypeScriptProject implements IIDETypeS
 	}
 
 	@Override
-	protected ITypeScriptLint createTslint(File tslintFile, File tslintJsonFile, File nodejsFile) {
-		return new IDETypeScriptLint(tslintFile, tslintJsonFile, nodejsFile);
+	protected ITypeScriptLint createTslint(File tslintFile, File tslintJsonFile, File nodejsFile,
+			File tslintWorkerFile) {
+		return new IDETypeScriptLint(tslintFile, tslintJsonFile, nodejsFile, tslintWorkerFile);
+	}
+
+	@Override
+	protected boolean isCompileOnSaveEnabled() {
+		for (ITsconfigBuildPath tsconfigBuildPath : getTypeScriptBuildPath().getTsconfigBuildPaths()) {
+			try {
+				IDETsconfigJson tsconfig = tsconfigBuildPath.getTsconfig();
+				if (tsconfig != null && tsconfig.isCompileOnSave()) {
+					return true;
+				}
+			} catch (CoreException e) {
+				// the tsconfig.json cannot be loaded, ask tsserver.
+				return true;
+			}
+		}
+		return false;
 	}
 
 	// --------------------------------------- Compile with tsserver
@@ -385,7 +423,7 @@ public class IDETypeScriptProject extends TypeScriptProject implements IIDETypeS
 				100);
 		List<IFile> tsFilesToClose = new ArrayList<>();
 		try {
-			List<String> tsFilesToCompile = new ArrayList<>();
+			Set<String> tsFilesToCompile = new LinkedHashSet<>();
 			// Collect ts files to compile by using tsserver to retrieve
 			// dependencies files.
 			// It works only if tsconfig.json declares "compileOnSave: true".
@@ -397,6 +435,9 @@ public class IDETypeScriptProject extends TypeScriptProject implements IIDETypeS
 			if (removedTsFiles.size() > 0) {
 				// ts files was removed, how to get referenced files which must
 				// be recompiled (with errors)?
+				for (IFile tsFile : removedTsFiles) {
+					getDiagnosticsStore().fileChanged(WorkbenchResourceUtil.getFileName(tsFile));
+				}
 			}
 		} catch (TypeScriptException e) {
 			throw e;
@@ -411,147 +452,223 @@ public class IDETypeScriptProject extends TypeScriptProject implements IIDETypeS
 	}
 
 	/**
-	 * Collect ts files to compile from the given ts files list.
+	 * Collect ts files to compile from the given ts files list. The
+	 * "compileOnSaveAffectedFileList" requests of all the ts files are sent at
+	 * once and their responses are collected in order.
 	 * 
 	 * @param updatedTsFiles
 	 *            list of TypeScript files which have changed.
 	 * @param tsFilesToCompile
-	 *            list of collected ts files to compile.
+	 *            set of collected ts files to compile.
 	 * @param tsFilesToClose
 	 *            list of ts files to close.
 	 * @param client
 	 * @param subMonitor
 	 * @throws Exception
 	 */
-	private void collectTsFilesToCompile(List<IFile> updatedTsFiles, List<String> tsFilesToCompile,
+	private void collectTsFilesToCompile(List<IFile> updatedTsFiles, Set<String> tsFilesToCompile,
 			List<IFile> tsFilesToClose, ITypeScriptServiceClient client, SubMonitor subMonitor) throws Exception {
 		SubMonitor loopMonitor = subMonitor.split(50).setWorkRemaining(updatedTsFiles.size());
 		loopMonitor.subTask(TypeScriptCoreMessages.IDETypeScriptProject_compile_collecting_step);
+		Map<String, CompletableFuture<List<CompileOnSaveAffectedFileListSingleProject>>> affectedFileLists = new LinkedHashMap<>();
 		for (IFile tsFile : updatedTsFiles) {
-			if (loopMonitor.isCanceled()) {
-				throw new OperationCanceledException();
-			}
 			String filename = WorkbenchResourceUtil.getFileName(tsFile);
+			if (!affectedFileLists.containsKey(filename)) {
+				affectedFileLists.put(filename, client.compileOnSaveAffectedFileList(filename));
+			}
+		}
+		for (Map.Entry<String, CompletableFuture<List<CompileOnSaveAffectedFileListSingleProject>>> affectedFileList : affectedFileLists
+				.entrySet()) {
+			String filename = affectedFileList.getKey();
 			loopMonitor
 					.subTask(NLS.bind(TypeScriptCoreMessages.IDETypeScriptProject_compile_collecting_file, filename));
-			if (!tsFilesToCompile.contains(filename)) {
-				collectTsFilesToCompile(filename, client, tsFilesToCompile, tsFilesToClose, loopMonitor);
+			List<CompileOnSaveAffectedFileListSingleProject> affectedProjects = waitForTsserver(
+					affectedFileList.getValue(), loopMonitor);
+			if (affectedProjects.size() == 0 && getOpenedFile(filename) == null) {
+				// Case when none TypeScript files are opened.
+				// In this case, compileOnSaveAffectedFileList returns null, the tsserver needs
+				// having just one opened TypeScript file
+				// in order to compileOnSaveAffectedFileList returns the well list.
+				IFile tsFile = WorkbenchResourceUtil.findFileFromWorkspace(filename);
+				openFile(tsFile, null);
+				tsFilesToClose.add(tsFile);
+				affectedProjects = waitForTsserver(client.compileOnSaveAffectedFileList(filename), loopMonitor);
+			}
+			if (affectedProjects.size() == 0) {
+				// the files which depend on the ts file are unknown.
+				getDiagnosticsStore().fileChanged(filename);
+			}
+			for (CompileOnSaveAffectedFileListSingleProject affectedProject : affectedProjects) {
+				getDiagnosticsStore().fileChanged(filename, affectedProject.getFileNames());
+				for (String affectedFilename : affectedProject.getFileNames()) {
+					// In some case, tsserver returns *.d.ts files (see
+					// https://github.com/angelozerr/typescript.java/issues/190#issuecomment-317876026)
+					// those *.d.ts files must be ignored for compilation.
+					if (!TypeScriptResourceUtil.isDefinitionTsFile(affectedFilename)) {
+						tsFilesToCompile.add(affectedFilename);
+					}
+				}
 			}
 			loopMonitor.worked(1);
-			// loopMonitor.split(1);
 		}
-		// subMonitor.setWorkRemaining(50);
 	}
 
 	/**
-	 * Collect ts files to compile from the given TypeScript file.
+	 * Wait for the given response of tsserver. When tsserver is not started, it
+	 * takes time, we wait for the response until the user stops the builder.
 	 * 
-	 * @param filename
-	 * @param client
-	 * @param tsFilesToCompile
-	 * @param tsFilesToClose
+	 * @param response
 	 * @param monitor
+	 * @return the response.
 	 * @throws Exception
 	 */
-	private void collectTsFilesToCompile(String filename, ITypeScriptServiceClient client,
-			List<String> tsFilesToCompile, List<IFile> tsFilesToClose, IProgressMonitor monitor) throws Exception {
-		while (!monitor.isCanceled()) {
+	private static <T> T waitForTsserver(CompletableFuture<T> response, IProgressMonitor monitor) throws Exception {
+		while (true) {
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
 			try {
-				// When tsserver is not started, it takes time, we try to collect TypeScript
-				// files every time and stop the search if user stops the builder.
-				List<CompileOnSaveAffectedFileListSingleProject> affectedProjects = client
-						.compileOnSaveAffectedFileList(filename).get(5000, TimeUnit.MILLISECONDS);
-				if (affectedProjects.size() == 0 && getOpenedFile(filename) == null) {
-					// Case when none TypeScript files are opened.
-					// In this case, compileOnSaveAffectedFileList returns null, the tsserver needs
-					// having just one opened TypeScript file
-					// in order to compileOnSaveAffectedFileList returns the well list.
-					IFile tsFile = WorkbenchResourceUtil.findFileFromWorkspace(filename);
-					openFile(tsFile, null);
-					tsFilesToClose.add(tsFile);
-					affectedProjects = client.compileOnSaveAffectedFileList(filename).get(5000, TimeUnit.MILLISECONDS);
-				}
-				for (CompileOnSaveAffectedFileListSingleProject affectedProject : affectedProjects) {
-					List<String> affectedTsFilenames = affectedProject.getFileNames();
-					for (String affectedFilename : affectedTsFilenames) {
-						if (!tsFilesToCompile.contains(affectedFilename)) {
-							// In some case, tsserver returns *.d.ts files (see
-							// https://github.com/angelozerr/typescript.java/issues/190#issuecomment-317876026)
-							// those *.d.ts files must be ignored for compilation.
-							if (!TypeScriptResourceUtil.isDefinitionTsFile(affectedFilename)) {
-								tsFilesToCompile.add(affectedFilename);
-							}
-						}
-					}
-				}
-				return;
+				return response.get(5000, TimeUnit.MILLISECONDS);
 			} catch (TimeoutException e) {
-				// tsserver is not initialized, retry again...
+				// tsserver is not initialized, wait again...
 			}
 		}
 	}
 
 	/**
-	 * Compile ts files list with tsserver.
+	 * Compile ts files list with tsserver. The requests of at most
+	 * {@link #MAX_COMPILE_IN_FLIGHT} files are sent without waiting for their
+	 * responses, and the markers of all files are updated at the end in a
+	 * single workspace operation.
 	 * 
 	 * @param tsFilesToCompile
 	 * @param client
 	 * @param subMonitor
 	 * @throws Exception
 	 */
-	private void compileTsFiles(List<String> tsFilesToCompile, ITypeScriptServiceClient client, SubMonitor subMonitor)
-			throws Exception {
+	private void compileTsFiles(Collection<String> tsFilesToCompile, ITypeScriptServiceClient client,
+			SubMonitor subMonitor) throws Exception {
 		SubMonitor loopMonitor = subMonitor.newChild(50).setWorkRemaining(tsFilesToCompile.size());// subMonitor.split(50).setWorkRemaining(tsFilesToCompile.size());
 		loopMonitor.subTask(TypeScriptCoreMessages.IDETypeScriptProject_compile_compiling_step);
-		for (String filename : tsFilesToCompile) {
-			try {
+		BlockingQueue<CompiledTsFile> compiledTsFiles = new LinkedBlockingQueue<>();
+		TscMarkerBatch markers = new TscMarkerBatch();
+		Iterator<String> filenames = tsFilesToCompile.iterator();
+		int inFlight = 0;
+		long lastResponseTime = System.currentTimeMillis();
+		try {
+			while (inFlight > 0 || filenames.hasNext()) {
 				if (loopMonitor.isCanceled()) {
 					throw new OperationCanceledException();
 				}
-				loopMonitor.subTask(
-						NLS.bind(TypeScriptCoreMessages.IDETypeScriptProject_compile_compiling_file, filename));
-				compileTsFile(filename, client);
-				loopMonitor.worked(1);
-				// loopMonitor.split(1);
-			} catch (ExecutionException e) {
-				if (e.getCause() instanceof TypeScriptNoContentAvailableException) {
-					// Ignore "No content available" error.
-				} else {
-					throw e;
+				while (inFlight < MAX_COMPILE_IN_FLIGHT && filenames.hasNext()) {
+					compileTsFile(filenames.next(), client, compiledTsFiles);
+					inFlight++;
+				}
+				CompiledTsFile compiledTsFile = compiledTsFiles.poll(100, TimeUnit.MILLISECONDS);
+				if (compiledTsFile == null) {
+					if (System.currentTimeMillis() - lastResponseTime > 5000) {
+						throw new TimeoutException("tsserver didn't answer in 5000ms.");
+					}
+					continue;
 				}
+				lastResponseTime = System.currentTimeMillis();
+				inFlight--;
+				loopMonitor.subTask(NLS.bind(TypeScriptCoreMessages.IDETypeScriptProject_compile_compiling_file,
+						compiledTsFile.filename));
+				try {
+					compiledTsFile.collectMarkers(markers);
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof TypeScriptNoContentAvailableException) {
+						// Ignore "No content available" error.
+					} else {
+						throw e;
+					}
+				}
+				loopMonitor.worked(1);
 			}
+		} finally {
+			// update the markers of the compiled files, even if the
+			// compilation is canceled.
+			markers.apply(null);
 		}
-		// subMonitor.setWorkRemaining(100);
 	}
 
 	/**
-	 * Compile ts file with tsserver.
+	 * Send the requests to compile the given ts file with tsserver and to
+	 * retrieve its diagnostics. The compiled file is added to the given queue
+	 * when all responses are received.
 	 * 
 	 * @param filename
 	 * @param client
-	 * @throws Exception
+	 * @param compiledTsFiles
+	 * @throws TypeScriptException
 	 */
-	private void compileTsFile(String filename, ITypeScriptServiceClient client) throws Exception {
-		// Compile the given ts filename with tsserver
-		Boolean result = client.compileOnSaveEmitFile(filename, true).get(5000, TimeUnit.MILLISECONDS);
-
+	private void compileTsFile(String filename, ITypeScriptServiceClient client,
+			BlockingQueue<CompiledTsFile> compiledTsFiles) throws TypeScriptException {
+		// Compile the given ts filename with tsserver. The diagnostics requests
+		// don't wait for the emit: compileOnSaveEmitFile and the diagnostics
+		// requests are sent in the order of the call (they are never held back
+		// by the request scheduler) and tsserver processes them in order.
+		CompletableFuture<Boolean> emit = client.compileOnSaveEmitFile(filename, true);
 		IFile tsFile = WorkbenchResourceUtil.findFileFromWorkspace(filename);
+		CompiledTsFile compiledTsFile;
 		if (tsFile != null) {
-			// Delete TypeScript error marker
-			TypeScriptResourceUtil.deleteTscMarker(tsFile);
-			// Add TypeScript error marker if there are errors.
-			DiagnosticEventBody event = client.syntacticDiagnosticsSync(filename, true).get(5000,
-					TimeUnit.MILLISECONDS);
-			addMarker(tsFile, event);
-			event = client.semanticDiagnosticsSync(filename, true).get(5000, TimeUnit.MILLISECONDS);
-			addMarker(tsFile, event);
+			// the diagnostics of the files which have not changed since the
+			// last build are not computed again.
+			DiagnosticsStore diagnosticsStore = getDiagnosticsStore();
+			compiledTsFile = new CompiledTsFile(filename, tsFile, emit,
+					diagnosticsStore.syntacticDiagnostics(filename, true),
+					diagnosticsStore.semanticDiagnostics(filename, true));
+		} else {
+			compiledTsFile = new CompiledTsFile(filename, null, emit, null, null);
+		}
+		compiledTsFile.whenComplete().whenComplete((result, e) -> compiledTsFiles.add(compiledTsFile));
+	}
+
+	/**
+	 * A ts file compiled with tsserver with its pending diagnostics.
+	 */
+	private class CompiledTsFile {
+
+		private final String filename;
+		private final IFile tsFile;
+		private final CompletableFuture<Boolean> emit;
+		private final CompletableFuture<DiagnosticEventBody> syntacticDiagnostics;
+		private final CompletableFuture<DiagnosticEventBody> semanticDiagnostics;
+
+		CompiledTsFile(String filename, IFile tsFile, CompletableFuture<Boolean> emit,
+				CompletableFuture<DiagnosticEventBody> syntacticDiagnostics,
+				CompletableFuture<DiagnosticEventBody> semanticDiagnostics) {
+			this.filename = filename;
+			this.tsFile = tsFile;
+			this.emit = emit;
+			this.syntacticDiagnostics = syntacticDiagnostics;
+			this.semanticDiagnostics = semanticDiagnostics;
+		}
+
+		CompletableFuture<Void> whenComplete() {
+			if (tsFile == null) {
+				return CompletableFuture.allOf(emit);
+			}
+			return CompletableFuture.allOf(emit, syntacticDiagnostics, semanticDiagnostics);
+		}
+
+		void collectMarkers(TscMarkerBatch markers) throws Exception {
+			emit.get();
+			if (tsFile != null) {
+				// Replace TypeScript error marker
+				markers.reset(tsFile);
+				// Add TypeScript error marker if there are errors.
+				addMarker(markers, tsFile, syntacticDiagnostics.get());
+				addMarker(markers, tsFile, semanticDiagnostics.get());
+			}
 		}
 	}
 
-	public void addMarker(IFile tsFile, DiagnosticEventBody event) throws CoreException {
+	public void addMarker(TscMarkerBatch markers, IFile tsFile, DiagnosticEventBody event) {
 		List<IDiagnostic> diagnostics = event.getDiagnostics();
 		for (IDiagnostic diagnostic : diagnostics) {
-			TypeScriptResourceUtil.addTscMarker(tsFile, diagnostic.getFullText(), getSeverity(diagnostic.getCategory()),
+			markers.addMarker(tsFile, diagnostic.getFullText(), getSeverity(diagnostic.getCategory()),
 					diagnostic.getStartLocation().getLine());
 		}
 	}
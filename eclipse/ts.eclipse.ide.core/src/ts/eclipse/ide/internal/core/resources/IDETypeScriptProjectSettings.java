@@ -81,6 +81,31 @@ public class IDETypeScriptProjectSettings extends AbstractTypeScriptSettings imp
 		return super.getBooleanPreferencesValue(TypeScriptCorePreferenceConstants.INSTALL_TYPES_DISABLE_ATA, false);
 	}
 
+	@Override
+	public boolean isAutoRestartServer() {
+		return super.getBooleanPreferencesValue(TypeScriptCorePreferenceConstants.TSSERVER_AUTO_RESTART, true);
+	}
+
+	@Override
+	public boolean isWarmSpareServer() {
+		return super.getBooleanPreferencesValue(TypeScriptCorePreferenceConstants.TSSERVER_WARM_SPARE, false);
+	}
+
+	@Override
+	public long getServerHealthProbeInterval() {
+		return super.getIntegerPreferencesValue(TypeScriptCorePreferenceConstants.TSSERVER_HEALTH_PROBE_INTERVAL, 0);
+	}
+
+	@Override
+	public long getServerHealthProbeTimeout() {
+		return super.getIntegerPreferencesValue(TypeScriptCorePreferenceConstants.TSSERVER_HEALTH_PROBE_TIMEOUT, 0);
+	}
+
+	@Override
+	public boolean isEnableMetrics() {
+		return super.getBooleanPreferencesValue(TypeScriptCorePreferenceConstants.TSSERVER_ENABLE_METRICS, false);
+	}
+
 	@Override
 	public IEmbeddedNodejs getEmbeddedNodejs() {
 		String id = super.getStringPreferencesValue(TypeScriptCorePreferenceConstants.NODEJS_EMBEDDED_ID, null);
@@ -228,6 +253,11 @@ public class IDETypeScriptProjectSettings extends AbstractTypeScriptSettings imp
 				tsProject.disposeCompiler();
 				tsProject.disposeServer();
 			}
+		} else if (isTsserverSupervisionPreferencesChanged(event)) {
+			IIDETypeScriptProject tsProject = getTypeScriptProject();
+			if (tsProject != null) {
+				tsProject.disposeServer();
+			}
 		}
 	}
 
@@ -269,6 +299,15 @@ public class IDETypeScriptProjectSettings extends AbstractTypeScriptSettings imp
 				|| TypeScriptCorePreferenceConstants.TSSERVER_EMULATE_PLUGINS.equals(event.getKey());
 	}
 
+	private boolean isTsserverSupervisionPreferencesChanged(PreferenceChangeEvent event) {
+		// TSSERVER_AUTO_RESTART is read when tsserver stops, the server doesn't
+		// need to be restarted.
+		return TypeScriptCorePreferenceConstants.TSSERVER_WARM_SPARE.equals(event.getKey())
+				|| TypeScriptCorePreferenceConstants.TSSERVER_HEALTH_PROBE_INTERVAL.equals(event.getKey())
+				|| TypeScriptCorePreferenceConstants.TSSERVER_HEALTH_PROBE_TIMEOUT.equals(event.getKey())
+				|| TypeScriptCorePreferenceConstants.TSSERVER_ENABLE_METRICS.equals(event.getKey());
+	}
+
 	private boolean isTslintPreferencesChanged(PreferenceChangeEvent event) {
 		return TypeScriptCorePreferenceConstants.TSLINT_STRATEGY.equals(event.getKey())
 				|| TypeScriptCorePreferenceConstants.TSLINT_USE_CUSTOM_TSLINTJSON_FILE.equals(event.getKey())
@@ -344,6 +383,15 @@ public class IDETypeScriptProjectSettings extends AbstractTypeScriptSettings imp
 		return resolvedPath != null ? IDETypeScriptRepositoryManager.getTslintFile(resolvedPath) : null;
 	}
 
+	@Override
+	public File getTslintWorkerFile() throws TypeScriptException {
+		// The tslint worker of the TypeScript Repository can lint with the
+		// embedded or installed tslint.
+		ITypeScriptRepository repository = TypeScriptCorePlugin.getTypeScriptRepositoryManager()
+				.getDefaultRepository();
+		return (repository != null) ? repository.getTslintWorkerFile() : null;
+	}
+
 	@Override
 	public TslintSettingsStrategy getTslintStrategy() {
 		if (tslintStrategy == null) {
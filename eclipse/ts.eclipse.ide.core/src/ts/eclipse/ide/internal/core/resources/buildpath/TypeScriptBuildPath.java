@@ -17,12 +17,15 @@ import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 
@@ -34,7 +37,9 @@ import ts.eclipse.ide.core.resources.buildpath.ITsconfigBuildPath;
 import ts.eclipse.ide.core.resources.buildpath.ITypeScriptBuildPath;
 import ts.eclipse.ide.core.resources.buildpath.ITypeScriptBuildPathEntry;
 import ts.eclipse.ide.core.utils.TypeScriptResourceUtil;
+import ts.eclipse.ide.internal.core.Trace;
 import ts.eclipse.ide.internal.core.resources.IDETypeScriptProjectSettings;
+import ts.eclipse.ide.internal.core.resources.jsonconfig.JsonConfigResourcesManager;
 import ts.utils.FileUtils;
 import ts.utils.StringUtils;
 
@@ -46,6 +51,9 @@ public class TypeScriptBuildPath implements ITypeScriptBuildPath {
 
 	private final IProject project;
 	private List<ITsconfigBuildPath> tsconfigBuildPathList;
+	private Map<IFile, ITsconfigBuildPath> tsconfigBuildPathMap;
+	// true if all the build path entries are "tsconfig.json" files
+	private boolean onlyTsconfigJson;
 	private final List<ITypeScriptBuildPathEntry> entries;
 
 	private static final ITsconfigBuildPath[] EMPTY_TSCONFIG_BUILD_PATH = new ITsconfigBuildPath[0];
@@ -79,11 +87,26 @@ public class TypeScriptBuildPath implements ITypeScriptBuildPath {
 
 	private List<ITsconfigBuildPath> getTsconfigBuildPathList() {
 		if (tsconfigBuildPathList == null) {
-			tsconfigBuildPathList = buildTsconfigBuildPathList(entries, project);
+			List<ITsconfigBuildPath> list = buildTsconfigBuildPathList(entries, project);
+			Map<IFile, ITsconfigBuildPath> map = new HashMap<IFile, ITsconfigBuildPath>(list.size());
+			boolean onlyTsconfig = true;
+			for (ITsconfigBuildPath tsconfigBuildPath : list) {
+				IFile tsconfigFile = tsconfigBuildPath.getTsconfigFile();
+				map.put(tsconfigFile, tsconfigBuildPath);
+				onlyTsconfig = onlyTsconfig && FileUtils.TSCONFIG_JSON.equals(tsconfigFile.getName());
+			}
+			tsconfigBuildPathMap = map;
+			onlyTsconfigJson = onlyTsconfig;
+			tsconfigBuildPathList = list;
 		}
 		return tsconfigBuildPathList;
 	}
 
+	private Map<IFile, ITsconfigBuildPath> getTsconfigBuildPathMap() {
+		getTsconfigBuildPathList();
+		return tsconfigBuildPathMap;
+	}
+
 	private List<ITsconfigBuildPath> buildTsconfigBuildPathList(List<ITypeScriptBuildPathEntry> entries,
 			IProject project) {
 		List<ITsconfigBuildPath> containers = new ArrayList<ITsconfigBuildPath>(entries.size());
@@ -172,6 +195,31 @@ public class TypeScriptBuildPath implements ITypeScriptBuildPath {
 
 	@Override
 	public ITsconfigBuildPath findTsconfigBuildPath(IResource resource) {
+		Map<IFile, ITsconfigBuildPath> tsconfigBuildPaths = getTsconfigBuildPathMap();
+		if (tsconfigBuildPaths.isEmpty()) {
+			return null;
+		}
+		if (onlyTsconfigJson) {
+			// walk the nearest tsconfig.json of the resource, then of its
+			// parent folders, with the locations memoized per folder.
+			try {
+				JsonConfigResourcesManager manager = JsonConfigResourcesManager.getInstance();
+				IFile tsconfigFile = manager.findTsconfigFile(resource);
+				while (tsconfigFile != null) {
+					ITsconfigBuildPath tsconfigBuildPath = tsconfigBuildPaths.get(tsconfigFile);
+					if (tsconfigBuildPath != null) {
+						return tsconfigBuildPath;
+					}
+					IContainer parent = tsconfigFile.getParent().getParent();
+					tsconfigFile = parent != null ? manager.findTsconfigFile(parent) : null;
+				}
+				return null;
+			} catch (CoreException e) {
+				Trace.trace(Trace.SEVERE, "Error while searching tsconfig.json", e);
+			}
+		}
+		// a build path entry is not a "tsconfig.json", or some other problem:
+		// check each build path entry.
 		for (ITsconfigBuildPath tsconfigBuildPath : getTsconfigBuildPathList()) {
 			IContainer container = tsconfigBuildPath.getTsconfigFile().getParent();
 			if (container.getFullPath().isPrefixOf(resource.getFullPath())) {
@@ -183,12 +231,7 @@ public class TypeScriptBuildPath implements ITypeScriptBuildPath {
 
 	@Override
 	public ITsconfigBuildPath getTsconfigBuildPath(IFile tsconfigFile) {
-		for (ITsconfigBuildPath tsconfigBuildPath : getTsconfigBuildPathList()) {
-			if (tsconfigBuildPath.getTsconfigFile().equals(tsconfigFile)) {
-				return tsconfigBuildPath;
-			}
-		}
-		return null;
+		return getTsconfigBuildPathMap().get(tsconfigFile);
 	}
 
 	public void save(Writer writer) throws IOException {
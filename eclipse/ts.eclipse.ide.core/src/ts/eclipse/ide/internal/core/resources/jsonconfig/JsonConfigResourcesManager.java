@@ -10,17 +10,22 @@
  */
 package ts.eclipse.ide.internal.core.resources.jsonconfig;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
+import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 
 import ts.eclipse.ide.core.resources.jsconfig.IDETsconfigJson;
-import ts.eclipse.ide.core.utils.WorkbenchResourceUtil;
+import ts.eclipse.ide.internal.core.resources.watcher.ResourcesWatcher;
 import ts.utils.FileUtils;
 
 /**
@@ -29,19 +34,122 @@ import ts.utils.FileUtils;
  */
 public class JsonConfigResourcesManager {
 
-	private static final JsonConfigResourcesManager INSTANCE = new JsonConfigResourcesManager();
-
+	// the paths must be initialized before the instance which uses them.
 	private static final IPath TSCONFIG_JSON_PATH = new Path(FileUtils.TSCONFIG_JSON);
 	private static final IPath JSCONFIG_JSON_PATH = new Path(FileUtils.JSCONFIG_JSON);
 
+	private static final JsonConfigResourcesManager INSTANCE = new JsonConfigResourcesManager();
+
 	public static JsonConfigResourcesManager getInstance() {
 		return INSTANCE;
 	}
 
 	private final Map<IFile, IDETsconfigJson> jsconConfig;
+	private final ConfigFileLocations tsconfigLocations;
+	private final ConfigFileLocations jsconfigLocations;
+
+	/**
+	 * Nearest config file (tsconfig.json or jsconfig.json) of the folders,
+	 * memoized per folder to avoid walking the parent folders and checking if
+	 * the config file exists for each resource. The locations are invalidated
+	 * by the {@link ResourcesWatcher} when a config file is added or removed.
+	 */
+	private static class ConfigFileLocations {
+
+		private final IPath name;
+		// nearest config file by folder of each project, null value if
+		// there is none.
+		private final Map<IProject, Map<IContainer, IFile>> files;
+		// incremented when locations are invalidated, to avoid caching a
+		// location computed before the invalidation.
+		private int generation;
+
+		ConfigFileLocations(IPath name) {
+			this.name = name;
+			this.files = new HashMap<IProject, Map<IContainer, IFile>>();
+		}
+
+		IFile find(IResource resource) {
+			IContainer container = resource instanceof IContainer ? (IContainer) resource : resource.getParent();
+			List<IContainer> visited = new ArrayList<IContainer>();
+			int startGeneration;
+			synchronized (this) {
+				startGeneration = generation;
+			}
+			IFile file = null;
+			while (container != null && container.getType() != IResource.ROOT) {
+				synchronized (this) {
+					Map<IContainer, IFile> projectFiles = files.get(container.getProject());
+					if (projectFiles != null && projectFiles.containsKey(container)) {
+						file = projectFiles.get(container);
+						break;
+					}
+				}
+				visited.add(container);
+				IFile candidate = container.getFile(name);
+				if (candidate.exists()) {
+					file = candidate;
+					break;
+				}
+				container = container.getParent();
+			}
+			synchronized (this) {
+				if (generation == startGeneration) {
+					for (IContainer folder : visited) {
+						IProject project = folder.getProject();
+						Map<IContainer, IFile> projectFiles = files.get(project);
+						if (projectFiles == null) {
+							projectFiles = new HashMap<IContainer, IFile>();
+							files.put(project, projectFiles);
+						}
+						projectFiles.put(folder, file);
+					}
+				}
+			}
+			return file;
+		}
+
+		/**
+		 * Remove the locations of the given folder and its sub folders.
+		 * 
+		 * @param container
+		 */
+		synchronized void invalidate(IContainer container) {
+			generation++;
+			IProject project = container.getProject();
+			if (project == null) {
+				// workspace root
+				files.clear();
+				return;
+			}
+			if (container.getType() == IResource.PROJECT) {
+				files.remove(project);
+				return;
+			}
+			Map<IContainer, IFile> projectFiles = files.get(project);
+			if (projectFiles == null) {
+				return;
+			}
+			IPath path = container.getFullPath();
+			Iterator<IContainer> folders = projectFiles.keySet().iterator();
+			while (folders.hasNext()) {
+				if (path.isPrefixOf(folders.next().getFullPath())) {
+					folders.remove();
+				}
+			}
+		}
+
+		synchronized boolean hasLocations(IProject project) {
+			return files.containsKey(project);
+		}
+	}
 
 	public JsonConfigResourcesManager() {
 		this.jsconConfig = new HashMap<IFile, IDETsconfigJson>();
+		this.tsconfigLocations = new ConfigFileLocations(TSCONFIG_JSON_PATH);
+		this.jsconfigLocations = new ConfigFileLocations(JSCONFIG_JSON_PATH);
+		// the memoized locations are invalidated by the resources watcher.
+		ResourcesWatcher.getInstance();
 	}
 
 	/**
@@ -71,9 +179,16 @@ public class JsonConfigResourcesManager {
 		return null;
 	}
 
+	/**
+	 * Find tsconfig.json from the folder (or parent folder) of the given
+	 * resource.
+	 * 
+	 * @param resource
+	 * @return the nearest tsconfig.json and null otherwise.
+	 * @throws CoreException
+	 */
 	public IFile findTsconfigFile(IResource resource) throws CoreException {
-		IFile tsconfigFile = WorkbenchResourceUtil.findFileInContainerOrParent(resource, TSCONFIG_JSON_PATH);
-		return tsconfigFile;
+		return tsconfigLocations.find(resource);
 	}
 
 	/**
@@ -119,7 +234,68 @@ public class JsonConfigResourcesManager {
 	 * @throws CoreException
 	 */
 	public IFile findJsconfigFile(IResource resource) throws CoreException {
-		return WorkbenchResourceUtil.findFileInContainerOrParent(resource, JSCONFIG_JSON_PATH);
+		return jsconfigLocations.find(resource);
+	}
+
+	/**
+	 * Update the locations of the config files when the given tsconfig.json
+	 * or jsconfig.json is added (or moved to its location).
+	 * 
+	 * @param file
+	 */
+	public void onConfigFileAdded(IFile file) {
+		getLocations(file).invalidate(file.getParent());
+	}
+
+	/**
+	 * Update the locations of the config files when the given tsconfig.json
+	 * or jsconfig.json is removed (or moved from its location).
+	 * 
+	 * @param file
+	 */
+	public void onConfigFileRemoved(IFile file) {
+		getLocations(file).invalidate(file.getParent());
+		remove(file);
+	}
+
+	/**
+	 * Remove the locations of the config files of the given folder (or
+	 * project) and its sub folders when it is removed or closed.
+	 * 
+	 * @param container
+	 */
+	public void onContainerRemoved(IContainer container) {
+		tsconfigLocations.invalidate(container);
+		jsconfigLocations.invalidate(container);
+	}
+
+	/**
+	 * Returns true if locations of config files are memoized for the given
+	 * project and false otherwise.
+	 * 
+	 * @param project
+	 * @return true if locations of config files are memoized for the given
+	 *         project and false otherwise.
+	 */
+	public boolean hasConfigFileLocations(IProject project) {
+		return tsconfigLocations.hasLocations(project) || jsconfigLocations.hasLocations(project);
+	}
+
+	/**
+	 * Returns true if the given file is a tsconfig.json or a jsconfig.json and
+	 * false otherwise.
+	 * 
+	 * @param file
+	 * @return true if the given file is a tsconfig.json or a jsconfig.json and
+	 *         false otherwise.
+	 */
+	public static boolean isConfigFile(IFile file) {
+		String name = file.getName();
+		return FileUtils.TSCONFIG_JSON.equals(name) || FileUtils.JSCONFIG_JSON.equals(name);
+	}
+
+	private ConfigFileLocations getLocations(IFile file) {
+		return FileUtils.JSCONFIG_JSON.equals(file.getName()) ? jsconfigLocations : tsconfigLocations;
 	}
 
 }
@@ -15,6 +15,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -29,6 +30,7 @@ import ts.eclipse.ide.core.resources.watcher.IFileWatcherListener;
 import ts.eclipse.ide.core.resources.watcher.IProjectWatcherListener;
 import ts.eclipse.ide.core.resources.watcher.IResourcesWatcher;
 import ts.eclipse.ide.internal.core.Trace;
+import ts.eclipse.ide.internal.core.resources.jsonconfig.JsonConfigResourcesManager;
 
 /**
  * {@link IResourcesWatcher} implementation.
@@ -181,6 +183,8 @@ public class ResourcesWatcher implements IResourcesWatcher, IResourceChangeListe
 			// Remove all file listeners of the project
 			fileListeners.remove(current);
 		}
+		// Remove the locations of tsconfig.json/jsconfig.json of the project
+		JsonConfigResourcesManager.getInstance().onContainerRemoved(current);
 	}
 
 	@Override
@@ -198,15 +202,33 @@ public class ResourcesWatcher implements IResourcesWatcher, IResourceChangeListe
                     && ((delta.getFlags() & IResourceDelta.OPEN) != 0)) {
 				// System.err.println("Open");
 			}
-			// Continue if project has defined file listeners.
-			return fileListeners.containsKey(resource);
+			// Continue if project has defined file listeners or memoized
+			// locations of tsconfig.json/jsconfig.json.
+			return fileListeners.containsKey(resource)
+					|| JsonConfigResourcesManager.getInstance().hasConfigFileLocations(project);
 		case IResource.FOLDER:
+			if (delta.getKind() == IResourceDelta.REMOVED) {
+				JsonConfigResourcesManager.getInstance().onContainerRemoved((IContainer) resource);
+			}
 			return true;
 		case IResource.FILE:
 			IFile file = (IFile) resource;
+			if (JsonConfigResourcesManager.isConfigFile(file)) {
+				// a moved config file is removed from its old location and
+				// added to its new location.
+				switch (delta.getKind()) {
+				case IResourceDelta.ADDED:
+					JsonConfigResourcesManager.getInstance().onConfigFileAdded(file);
+					break;
+				case IResourceDelta.REMOVED:
+					JsonConfigResourcesManager.getInstance().onConfigFileRemoved(file);
+					break;
+				}
+			}
 			synchronized (fileListeners) {
 				Map<String, List<IFileWatcherListener>> listenersForFilename = fileListeners.get(file.getProject());
-				List<IFileWatcherListener> listeners = listenersForFilename.get(file.getName());
+				List<IFileWatcherListener> listeners = listenersForFilename != null
+						? listenersForFilename.get(file.getName()) : null;
 				if (listeners != null) {
 					for (IFileWatcherListener listener : listeners) {
 						switch (delta.getKind()) {
@@ -3,14 +3,12 @@ package ts.eclipse.ide.internal.core.tslint;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
 
 import ts.TypeScriptException;
-import ts.cmd.tslint.TSLintOptions;
-import ts.cmd.tslint.TslintFormat;
 import ts.cmd.tslint.TslintSettingsStrategy;
 import ts.cmd.tslint.TypeScriptLint;
 import ts.eclipse.ide.core.resources.IIDETypeScriptProjectSettings;
@@ -19,8 +17,8 @@ import ts.eclipse.ide.core.tslint.IIDETypeScriptLint;
 
 public class IDETypeScriptLint extends TypeScriptLint implements IIDETypeScriptLint {
 
-	public IDETypeScriptLint(File tslintFile, File tslintJsonFile, File nodejsFile) {
-		super(tslintFile, tslintJsonFile, nodejsFile);
+	public IDETypeScriptLint(File tslintFile, File tslintJsonFile, File nodejsFile, File tslintWorkerFile) {
+		super(tslintFile, tslintJsonFile, nodejsFile, tslintWorkerFile);
 	}
 
 	@Override
@@ -31,28 +29,19 @@ public class IDETypeScriptLint extends TypeScriptLint implements IIDETypeScriptL
 		case DisableTslint:
 			return;
 		case UseDefaultTslintJson:
-			lint(tsconfig, tsFiles, null, false);
 		case SearchForTslintJson:
-			lint(tsconfig, tsFiles, null, true);
+			// the tslint.json of each file is searched by tslint.
+			lint(tsconfig, tsFiles, null);
 			return;
 		case UseCustomTslintJson:
 			File tslintJsonFile = super.getTslintJsonFile();
-			lint(tsconfig, tsFiles, tslintJsonFile, false);
+			lint(tsconfig, tsFiles, tslintJsonFile);
 		}
 	}
 
-	private void lint(IDETsconfigJson tsconfig, List<IFile> tsFiles, File tslintJsonFile, boolean searchTslintJson)
+	private void lint(IDETsconfigJson tsconfig, List<IFile> tsFiles, File tslintJsonFile)
 			throws TypeScriptException {
 		TSLintReporter reporter = new TSLintReporter();
-		TSLintOptions options = new TSLintOptions();
-		options.setFormat(TslintFormat.json);
-		options.setConfig(tslintJsonFile);
-
-		if (searchTslintJson) {
-			// TODO
-			Map<File, List<String>> i;
-		}
-		
 		List<String> tsFileNames = new ArrayList<String>();
 		for (IFile tsFile : tsFiles) {
 			// add to the list file names
@@ -60,7 +49,12 @@ public class IDETypeScriptLint extends TypeScriptLint implements IIDETypeScriptL
 		}
 
 		IProject project = tsconfig.getTsconfigFile().getProject();
-		super.execute(project.getLocation().toFile(), options, tsFileNames, reporter);
+		super.lint(project.getLocation().toFile(), tslintJsonFile, tsFileNames, reporter);
+		try {
+			reporter.applyMarkers();
+		} catch (CoreException e) {
+			throw new TypeScriptException(e);
+		}
 	}
 
 }
@@ -7,32 +7,31 @@ import org.eclipse.core.runtime.CoreException;
 import ts.client.Location;
 import ts.cmd.ITypeScriptLinterHandler;
 import ts.cmd.Severity;
-import ts.cmd.tslint.TslintHelper;
+import ts.eclipse.ide.core.utils.TscMarkerBatch;
 import ts.eclipse.ide.core.utils.TypeScriptResourceUtil;
 import ts.eclipse.ide.core.utils.WorkbenchResourceUtil;
-import ts.nodejs.INodejsProcess;
-import ts.nodejs.NodejsProcessAdapter;
 
-public class TSLintReporter extends NodejsProcessAdapter {
+public class TSLintReporter implements ITypeScriptLinterHandler {
 
-	@Override
-	public void onMessage(INodejsProcess process, String response) {
-		TslintHelper.processJsonMessage(response, new ITypeScriptLinterHandler() {
+	private final TscMarkerBatch markers = new TscMarkerBatch();
 
-			@Override
-			public void addError(String file, Location startLoc, Location endLoc, Severity severity, String code,
-					String message) {
-				IFile tsFile = WorkbenchResourceUtil.findFileFromWorkspace(file);
-				if (tsFile != null && tsFile.exists()) {
-					try {
-						String error = TypeScriptResourceUtil.formatTslintError(code, message);
-						TypeScriptResourceUtil.addTscMarker(tsFile, error, IMarker.SEVERITY_ERROR, startLoc.getLine(),
-								startLoc.getPosition(), endLoc.getPosition());
-					} catch (CoreException e) {
+	@Override
+	public void addError(String file, Location startLoc, Location endLoc, Severity severity, String code,
+			String message) {
+		IFile tsFile = WorkbenchResourceUtil.findFileFromWorkspace(file);
+		if (tsFile != null && tsFile.exists()) {
+			String error = TypeScriptResourceUtil.formatTslintError(code, message);
+			markers.addMarker(tsFile, error, IMarker.SEVERITY_ERROR, startLoc.getLine(), startLoc.getPosition(),
+					endLoc.getPosition());
+		}
+	}
 
-					}
-				}
-			}
-		});
+	/**
+	 * Create the tslint markers in a single workspace operation.
+	 * 
+	 * @throws CoreException
+	 */
+	public void applyMarkers() throws CoreException {
+		markers.apply(null);
 	}
 }
@@ -0,0 +1,264 @@
+/**
+ *  Copyright (c) 2015-2017 Angelo ZERR.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *  Angelo Zerr <angelo.zerr@gmail.com> - initial API and implementation
+ */
+package ts.eclipse.ide.validator.internal.core.validation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.wst.validation.internal.provisional.core.IReporter;
+import org.eclipse.wst.validation.internal.provisional.core.IValidator;
+
+import ts.TypeScriptException;
+import ts.client.diagnostics.DiagnosticEvent;
+import ts.client.diagnostics.DiagnosticEventBody;
+import ts.eclipse.ide.core.resources.IIDETypeScriptFile;
+import ts.eclipse.ide.core.resources.IIDETypeScriptProject;
+import ts.eclipse.ide.core.resources.buildpath.ITypeScriptBuildPath;
+import ts.eclipse.ide.core.utils.TypeScriptResourceUtil;
+import ts.eclipse.ide.validator.core.validation.TypeScriptValidationHelper;
+import ts.eclipse.ide.validator.internal.core.Trace;
+import ts.resources.DiagnosticsStore;
+
+/**
+ * Diagnostics of the TypeScript files of a project retrieved with a single
+ * "geterr" request for a full build or a manual validation. The diagnostics
+ * events are collected as soon as they are received, and the validation of a
+ * file waits only for the events of this file.
+ *
+ * <p>
+ * geterr works only if the files are opened, so the files which are not
+ * opened in an editor are opened and closed with {@link #dispose()}.
+ * </p>
+ *
+ * <p>
+ * The files whose diagnostics are in the {@link DiagnosticsStore} of the
+ * project are not validated again by tsserver, and the received diagnostics
+ * are put in the store.
+ * </p>
+ *
+ */
+public class TypeScriptProjectDiagnostics {
+
+	/**
+	 * Max time to wait for the next diagnostics event.
+	 */
+	private static final long EVENT_TIMEOUT = 5000;
+
+	/**
+	 * The diagnostics of a file.
+	 */
+	private static class FileDiagnostics {
+
+		private final IIDETypeScriptFile tsFile;
+		private final long version;
+		private final List<DiagnosticEventBody> events;
+		private final CompletableFuture<List<DiagnosticEventBody>> completed;
+
+		FileDiagnostics(IIDETypeScriptFile tsFile) {
+			this.tsFile = tsFile;
+			this.version = tsFile.getVersion();
+			this.events = new ArrayList<DiagnosticEventBody>(2);
+			this.completed = new CompletableFuture<List<DiagnosticEventBody>>();
+		}
+
+		synchronized void add(DiagnosticEventBody event) {
+			events.add(event);
+			// a syntactic and a semantic event per file.
+			if (events.size() == 2) {
+				completed.complete(events);
+			}
+		}
+	}
+
+	private final IIDETypeScriptProject tsProject;
+	private final Map<IResource, FileDiagnostics> filesByResource;
+	private final Map<String, FileDiagnostics> filesByName;
+	private final List<IIDETypeScriptFile> filesToClose;
+	private CompletableFuture<List<DiagnosticEvent>> geterr;
+	private volatile long lastEventTime;
+	private boolean started;
+
+	public TypeScriptProjectDiagnostics(IIDETypeScriptProject tsProject) {
+		this.tsProject = tsProject;
+		this.filesByResource = new HashMap<IResource, FileDiagnostics>();
+		this.filesByName = new ConcurrentHashMap<String, FileDiagnostics>();
+		this.filesToClose = new ArrayList<IIDETypeScriptFile>();
+	}
+
+	/**
+	 * Open the files of the project which can be validated and send the
+	 * "geterr" request for all those files. Do nothing if the project
+	 * diagnostics is already started.
+	 *
+	 * @throws CoreException
+	 * @throws TypeScriptException
+	 */
+	public synchronized void start() throws CoreException, TypeScriptException {
+		if (started) {
+			return;
+		}
+		started = true;
+		final ITypeScriptBuildPath buildPath = tsProject.getTypeScriptBuildPath();
+		final List<IResource> resources = new ArrayList<IResource>();
+		tsProject.getProject().accept(new IResourceProxyVisitor() {
+
+			@Override
+			public boolean visit(IResourceProxy proxy) throws CoreException {
+				switch (proxy.getType()) {
+				case IResource.PROJECT:
+					return true;
+				case IResource.FOLDER:
+					return buildPath.isInScope(proxy.requestResource());
+				case IResource.FILE:
+					IResource resource = proxy.requestResource();
+					if (TypeScriptResourceUtil.canConsumeTsserver(resource) && tsProject.isInScope(resource)) {
+						resources.add(resource);
+					}
+					return false;
+				default:
+					return false;
+				}
+			}
+		}, IResource.NONE);
+		if (resources.isEmpty()) {
+			return;
+		}
+		DiagnosticsStore diagnosticsStore = tsProject.getDiagnosticsStore();
+		List<String> fileNames = new ArrayList<String>(resources.size());
+		for (IResource resource : resources) {
+			IIDETypeScriptFile tsFile = tsProject.getOpenedFile(resource);
+			if (tsFile == null) {
+				tsFile = tsProject.openFile(resource, null);
+				filesToClose.add(tsFile);
+			} else {
+				tsFile.synch();
+			}
+			FileDiagnostics file = new FileDiagnostics(tsFile);
+			filesByResource.put(resource, file);
+			List<DiagnosticEventBody> diagnostics = diagnosticsStore.getComputedDiagnostics(tsFile.getName(), false);
+			if (diagnostics != null) {
+				// the file and its dependencies have not changed since the last
+				// validation.
+				file.completed.complete(diagnostics);
+			} else {
+				filesByName.put(tsFile.getName(), file);
+				fileNames.add(tsFile.getName());
+			}
+		}
+		if (fileNames.isEmpty()) {
+			return;
+		}
+		lastEventTime = System.currentTimeMillis();
+		geterr = tsProject.getClient().geterr(fileNames.toArray(new String[fileNames.size()]), 0, this::onEvent);
+		geterr.whenComplete((result, e) -> {
+			// the files which are waiting for their diagnostics will not
+			// receive them, they are validated one by one.
+			Throwable error = e != null ? e : new TypeScriptException("tsserver didn't send all diagnostics.");
+			for (FileDiagnostics file : filesByName.values()) {
+				file.completed.completeExceptionally(error);
+			}
+		});
+	}
+
+	private void onEvent(DiagnosticEvent event) {
+		lastEventTime = System.currentTimeMillis();
+		FileDiagnostics file = filesByName.get(event.getBody().getFile());
+		if (file != null) {
+			tsProject.getDiagnosticsStore().putDiagnostics(file.tsFile.getName(), file.version, false,
+					"semanticDiag".equals(event.getEvent()), event.getBody());
+			file.add(event.getBody());
+		}
+	}
+
+	/**
+	 * Report the diagnostics of the given resource and returns true if the
+	 * resource is validated by this project diagnostics, or false otherwise
+	 * (ex: the diagnostics of the resource have not been received) to validate
+	 * the resource with its own geterr.
+	 *
+	 * @param resource
+	 *            the resource to validate.
+	 * @param reporter
+	 *            the reporter.
+	 * @param validator
+	 *            the validator.
+	 * @param monitor
+	 *            the progress monitor.
+	 * @return true if the resource is validated by this project diagnostics
+	 *         and false otherwise.
+	 */
+	public boolean validate(IResource resource, IReporter reporter, IValidator validator, IProgressMonitor monitor) {
+		FileDiagnostics file = filesByResource.get(resource);
+		if (file == null) {
+			return false;
+		}
+		List<DiagnosticEventBody> events = null;
+		while (events == null) {
+			if (monitor != null && monitor.isCanceled()) {
+				cancel();
+				throw new OperationCanceledException();
+			}
+			try {
+				events = file.completed.get(100, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				if (System.currentTimeMillis() - lastEventTime > EVENT_TIMEOUT) {
+					Trace.trace(Trace.SEVERE, "tsserver didn't send diagnostics in " + EVENT_TIMEOUT + "ms.");
+					return false;
+				}
+			} catch (Exception e) {
+				Trace.trace(Trace.SEVERE, "Error while TypeScript validation.", e);
+				return false;
+			}
+		}
+		TypeScriptReporterCollector collector = new TypeScriptReporterCollector(file.tsFile, reporter, validator);
+		for (DiagnosticEventBody event : events) {
+			TypeScriptValidationHelper.addDiagnostics(event, collector);
+		}
+		return true;
+	}
+
+	private void cancel() {
+		if (geterr != null && !geterr.isDone()) {
+			// cancel the geterr request on client and tsserver side.
+			geterr.cancel(true);
+		}
+	}
+
+	/**
+	 * Cancel the "geterr" request if it is not completed and close the files
+	 * which have been opened for the validation.
+	 */
+	public void dispose() {
+		cancel();
+		for (IIDETypeScriptFile tsFile : filesToClose) {
+			try {
+				tsFile.close();
+			} catch (TypeScriptException e) {
+				Trace.trace(Trace.SEVERE, "Error while closing file for validation", e);
+			}
+		}
+		filesToClose.clear();
+		filesByResource.clear();
+		filesByName.clear();
+	}
+}
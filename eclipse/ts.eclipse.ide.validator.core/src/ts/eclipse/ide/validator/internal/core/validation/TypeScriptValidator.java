@@ -2,9 +2,11 @@ package ts.eclipse.ide.validator.internal.core.validation;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.wst.validation.AbstractValidator;
@@ -36,11 +38,17 @@ import ts.eclipse.ide.validator.internal.core.Trace;
  * project (node_modules folder), etc. WTP Validator doesn't provide
  * IResourceVisitor which is better to exclude files.</li>
  * </ul>
+ * 
+ * For a full build or a manual validation, the diagnostics of the files of the
+ * project are retrieved with a single "geterr" request (see
+ * {@link TypeScriptProjectDiagnostics}). For an incremental build, only the
+ * files of the delta are validated.
  */
 @Deprecated
 public class TypeScriptValidator extends AbstractValidator implements IValidatorJob {
 
 	private static final String TYPESCRIPT_VALIDATOR_CONTEXT = "ts.eclipse.ide.validator.internal.core.validation.validatorContext"; //$NON-NLS-1$
+	private static final String TYPESCRIPT_DIAGNOSTICS_CONTEXT = "ts.eclipse.ide.validator.internal.core.validation.diagnosticsContext"; //$NON-NLS-1$
 
 	private long startTime;
 
@@ -51,6 +59,11 @@ public class TypeScriptValidator extends AbstractValidator implements IValidator
 			try {
 				IIDETypeScriptProject tsProject = TypeScriptResourceUtil.getTypeScriptProject(project, false);
 				state.put(TYPESCRIPT_VALIDATOR_CONTEXT, tsProject);
+				if (tsProject != null) {
+					// started with the first validated resource if the whole
+					// project is validated.
+					state.put(TYPESCRIPT_DIAGNOSTICS_CONTEXT, new TypeScriptProjectDiagnostics(tsProject));
+				}
 				super.validationStarting(project, state, monitor);
 			} catch (CoreException e) {
 				Trace.trace(Trace.SEVERE, "Error while TypeScript start validation.", e);
@@ -62,8 +75,14 @@ public class TypeScriptValidator extends AbstractValidator implements IValidator
 	public void validationFinishing(IProject project, ValidationState state, IProgressMonitor monitor) {
 		if (project != null && TypeScriptResourceUtil.isTypeScriptProject(project)) {
 			super.validationFinishing(project, state, monitor);
+			TypeScriptProjectDiagnostics diagnostics = (TypeScriptProjectDiagnostics) state
+					.get(TYPESCRIPT_DIAGNOSTICS_CONTEXT);
+			if (diagnostics != null) {
+				diagnostics.dispose();
+			}
+			state.put(TYPESCRIPT_DIAGNOSTICS_CONTEXT, null);
 			state.put(TYPESCRIPT_VALIDATOR_CONTEXT, null);
-			System.err.println("Validated in " + (System.currentTimeMillis() - startTime) + "ms");
+			Trace.trace(Trace.PERFORMANCE, "Validated in " + (System.currentTimeMillis() - startTime) + "ms");
 		}
 	}
 
@@ -77,6 +96,23 @@ public class TypeScriptValidator extends AbstractValidator implements IValidator
 		if (tsProject != null && TypeScriptResourceUtil.canConsumeTsserver(resource) && tsProject.isInScope(resource)) {
 			IReporter reporter = result.getReporter(monitor);
 
+			TypeScriptProjectDiagnostics diagnostics = (TypeScriptProjectDiagnostics) state
+					.get(TYPESCRIPT_DIAGNOSTICS_CONTEXT);
+			try {
+				// the kind is IResourceDelta.NO_CHANGE for a full build or a
+				// manual validation, otherwise only the resources of the delta
+				// are validated.
+				if (diagnostics != null && kind == IResourceDelta.NO_CHANGE
+						&& startProjectDiagnostics(diagnostics)
+						&& diagnostics.validate(resource, reporter, this, monitor)) {
+					// the diagnostics of the file have been retrieved by the
+					// geterr of the project.
+					return result;
+				}
+			} catch (OperationCanceledException e) {
+				return result;
+			}
+
 			// Here we call geterr from tsserver for the given file IResource.
 			// geterr works only if file is opened. So we need to open the file
 			// (even if it is not opened in an editor) and close it after.
@@ -112,6 +148,26 @@ public class TypeScriptValidator extends AbstractValidator implements IValidator
 		return result;
 	}
 
+	/**
+	 * Retrieve the diagnostics of all files of the project with a single
+	 * geterr and returns true if it was successful.
+	 * 
+	 * @param diagnostics
+	 *            the project diagnostics.
+	 * @return true if the project diagnostics is started and false otherwise.
+	 */
+	private static boolean startProjectDiagnostics(TypeScriptProjectDiagnostics diagnostics) {
+		try {
+			diagnostics.start();
+			return true;
+		} catch (CoreException e) {
+			Trace.trace(Trace.SEVERE, "Error while TypeScript start validation.", e);
+		} catch (TypeScriptException e) {
+			Trace.trace(Trace.SEVERE, "Error while TypeScript start validation.", e);
+		}
+		return false;
+	}
+
 	@Override
 	public void cleanup(IReporter reporter) {
 		// do nothing
@@ -20,7 +20,8 @@ public class SWTTextTypeScriptFile extends AbstractTypeScriptFile {
 
 			@Override
 			public void modifyText(ModifyEvent e) {
-				setDirty(true);
+				// the modify event doesn't give the edit
+				contentChanged();
 			}
 		});
 	}